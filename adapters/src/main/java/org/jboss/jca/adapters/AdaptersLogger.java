@@ -337,4 +337,22 @@ public interface AdaptersLogger extends BasicLogger
    @LogMessage(level = WARN)
    @Message(id = 30062, value = "Error during prepared statement cache flushing")
    public void errorDuringPreparedStatementCacheFlushing(@Cause Throwable t);
+
+   /**
+    * Error loading the prepared statement warm-up file
+    * @param file The file
+    * @param t The throwable
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 30063, value = "Unable to load prepared statement warm-up file: %s")
+   public void errorLoadingPreparedStatementWarmUp(String file, @Cause Throwable t);
+
+   /**
+    * Error saving the prepared statement warm-up file
+    * @param file The file
+    * @param t The throwable
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 30064, value = "Unable to save prepared statement warm-up file: %s")
+   public void errorSavingPreparedStatementWarmUp(String file, @Cause Throwable t);
 }
@@ -98,6 +98,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
 
    private PreparedStatementCache psCache = null;
 
+   private PreparedStatementWarmUp psWarmUp = null;
+
    /** The state lock */
    protected final Object stateLock = new Object();
 
@@ -200,7 +202,7 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
 
       if (psCacheSize > 0)
       {
-         psCache = new PreparedStatementCache(psCacheSize, mcf.getStatistics());
+         psCache = new PreparedStatementCache(psCacheSize, mcf.getPreparedStatementFrequency(), mcf.getStatistics());
          mcf.getStatistics().registerPreparedStatementCache(psCache);
       }
 
@@ -233,6 +235,20 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       jdbcTransactionIsolation = this.transactionIsolation;
 
       metadata = new ManagedConnectionMetaDataImpl(con, props.getProperty("user"));
+
+      if (psCache != null)
+         psWarmUp = mcf.getPreparedStatementWarmUp();
+   }
+
+   /**
+    * Prepare the hottest statements of the datasource into the cache. This is
+    * done by the factory once the connection is fully constructed, and before
+    * it is returned, so the physical connection isn't shared with anybody yet
+    */
+   void warmUp()
+   {
+      if (psWarmUp != null)
+         psWarmUp.warmUp(this);
    }
 
    /**
@@ -506,6 +522,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
          destroyed = true;
       }
 
+      if (psWarmUp != null)
+         psWarmUp.saveAsync();
+
       clearThreads();
 
       try
@@ -768,6 +787,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
             cachedps = WRAPPED_CONNECTION_FACTORY.createCachedPreparedStatement(ps);
             psCache.put(key, cachedps);
 
+            if (psWarmUp != null)
+               psWarmUp.record(key);
+
             mcf.getStatistics().deltaPreparedStatementCacheAddCount();
          }
 
@@ -832,6 +854,10 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
             CallableStatement cs = doPrepareCall(sql, resultSetType, resultSetConcurrency);
             cachedps = WRAPPED_CONNECTION_FACTORY.createCachedCallableStatement(cs);
             psCache.put(key, cachedps);
+
+            if (psWarmUp != null)
+               psWarmUp.record(key);
+
             mcf.getStatistics().deltaPreparedStatementCacheAddCount();
          }
          return cachedps;
@@ -855,6 +881,47 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       return con.prepareCall(sql, resultSetType, resultSetConcurrency);
    }
    
+   /**
+    * Prepare statements into the cache ahead of their first use
+    * @param keys The statements
+    */
+   void warmUpPreparedStatementCache(List<PreparedStatementCache.Key> keys)
+   {
+      for (PreparedStatementCache.Key key : keys)
+      {
+         if (psCache.contains(key))
+            continue;
+
+         try
+         {
+            CachedPreparedStatement cachedps;
+
+            if (key.getType() == PreparedStatementCache.Key.CALLABLE_STATEMENT)
+            {
+               CallableStatement cs = doPrepareCall(key.getSql(), key.getResultSetType(),
+                                                    key.getResultSetConcurrency());
+               cachedps = WRAPPED_CONNECTION_FACTORY.createCachedCallableStatement(cs);
+            }
+            else
+            {
+               PreparedStatement ps = doPrepareStatement(key.getSql(), key.getResultSetType(),
+                                                         key.getResultSetConcurrency());
+               cachedps = WRAPPED_CONNECTION_FACTORY.createCachedPreparedStatement(ps);
+            }
+
+            psCache.put(key, cachedps);
+            mcf.getStatistics().deltaPreparedStatementCacheAddCount();
+
+            // Not in use until a handle asks for it
+            cachedps.close();
+         }
+         catch (SQLException se)
+         {
+            getLog().debugf(se, "Unable to warm up: %s", key);
+         }
+      }
+   }
+
    /**
     * Can the cached prepared statement be used
     * @param cachedps The statement
@@ -35,6 +35,7 @@ import org.jboss.jca.adapters.jdbc.spi.ValidConnectionChecker;
 import org.jboss.jca.adapters.jdbc.spi.listener.ConnectionListener;
 import org.jboss.jca.adapters.jdbc.spi.reauth.ReauthPlugin;
 import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
+import org.jboss.jca.adapters.jdbc.util.FrequencySketch;
 import org.jboss.jca.adapters.jdbc.util.Injection;
 import org.jboss.jca.core.spi.statistics.Statistics;
 
@@ -57,6 +58,7 @@ import java.util.StringTokenizer;
 import jakarta.resource.ResourceException;
 import jakarta.resource.spi.ConnectionManager;
 import jakarta.resource.spi.ConnectionRequestInfo;
+import jakarta.resource.spi.ManagedConnection;
 import jakarta.resource.spi.ManagedConnectionFactory;
 import jakarta.resource.spi.ResourceAdapter;
 import jakarta.resource.spi.ResourceAdapterAssociation;
@@ -97,6 +99,9 @@ public abstract class BaseWrapperManagedConnectionFactory
    /** Track statements - no warning */
    public static final int TRACK_STATEMENTS_NOWARN_INT = 2;
 
+   /** Track statements - call site */
+   public static final int TRACK_STATEMENTS_CALLSITE_INT = 3;
+
    /** Track statements - false */
    public static final String TRACK_STATEMENTS_FALSE = "false";
 
@@ -106,6 +111,9 @@ public abstract class BaseWrapperManagedConnectionFactory
    /** Track statements - no warning */
    public static final String TRACK_STATEMENTS_NOWARN = "nowarn";
 
+   /** Track statements - call site */
+   public static final String TRACK_STATEMENTS_CALLSITE = "callsite";
+
    /** The logger */
    protected final AdaptersLogger log = Logger.getMessageLogger(AdaptersLogger.class, getClass().getName());
 
@@ -146,6 +154,18 @@ public abstract class BaseWrapperManagedConnectionFactory
    /** The prepared statement cache size */
    protected Integer preparedStatementCacheSize = Integer.valueOf(0);
 
+   /** The prepared statement frequencies across all connections */
+   private transient volatile FrequencySketch<PreparedStatementCache.Key> psFrequency;
+
+   /** The number of prepared statements to warm up new connections with */
+   protected Integer preparedStatementWarmUpSize = Integer.valueOf(0);
+
+   /** The file the prepared statement warm-up is persisted to */
+   protected String preparedStatementWarmUpFile;
+
+   /** The prepared statement warm-up */
+   private transient volatile PreparedStatementWarmUp psWarmUp;
+
    /** Query timeout enabled */
    protected boolean doQueryTimeout = false;
 
@@ -386,6 +406,99 @@ public abstract class BaseWrapperManagedConnectionFactory
          preparedStatementCacheSize = size;
    }
 
+   /**
+    * Get the prepared statement frequencies, which are shared by
+    * the prepared statement caches of all connections
+    * @return The value
+    */
+   FrequencySketch<PreparedStatementCache.Key> getPreparedStatementFrequency()
+   {
+      if (psFrequency == null)
+      {
+         synchronized (this)
+         {
+            if (psFrequency == null)
+               psFrequency = new FrequencySketch<PreparedStatementCache.Key>(preparedStatementCacheSize.intValue());
+         }
+      }
+
+      return psFrequency;
+   }
+
+   /**
+    * Get the number of prepared statements to warm up new connections with
+    * @return The value
+    */
+   public Integer getPreparedStatementWarmUpSize()
+   {
+      return preparedStatementWarmUpSize;
+   }
+
+   /**
+    * Set the number of prepared statements to warm up new connections with
+    * @param size The value
+    */
+   public void setPreparedStatementWarmUpSize(Integer size)
+   {
+      if (size != null)
+         preparedStatementWarmUpSize = size;
+   }
+
+   /**
+    * Get the file the prepared statement warm-up is persisted to
+    * @return The value
+    */
+   public String getPreparedStatementWarmUpFile()
+   {
+      return preparedStatementWarmUpFile;
+   }
+
+   /**
+    * Set the file the prepared statement warm-up is persisted to
+    * @param file The value
+    */
+   public void setPreparedStatementWarmUpFile(String file)
+   {
+      this.preparedStatementWarmUpFile = file;
+   }
+
+   /**
+    * Get the prepared statement warm-up
+    * @return The value; <code>null</code> if not enabled
+    */
+   PreparedStatementWarmUp getPreparedStatementWarmUp()
+   {
+      if (preparedStatementWarmUpSize.intValue() <= 0 || preparedStatementCacheSize.intValue() <= 0)
+         return null;
+
+      if (psWarmUp == null)
+      {
+         synchronized (this)
+         {
+            if (psWarmUp == null)
+               psWarmUp = new PreparedStatementWarmUp(Math.min(preparedStatementWarmUpSize.intValue(),
+                                                               preparedStatementCacheSize.intValue()),
+                                                      preparedStatementWarmUpFile,
+                                                      getPreparedStatementFrequency());
+         }
+      }
+
+      return psWarmUp;
+   }
+
+   /**
+    * Warm up the prepared statement cache of a new managed connection
+    * @param mc The managed connection
+    * @return The managed connection
+    */
+   protected ManagedConnection warmUp(ManagedConnection mc)
+   {
+      if (mc instanceof BaseWrapperManagedConnection)
+         ((BaseWrapperManagedConnection)mc).warmUp();
+
+      return mc;
+   }
+
    /**
     * Get the prepared statement share status
     * @return The value
@@ -555,6 +668,10 @@ public abstract class BaseWrapperManagedConnectionFactory
       {
          return TRACK_STATEMENTS_TRUE;
       }
+      else if (trackStatements == TRACK_STATEMENTS_CALLSITE_INT)
+      {
+         return TRACK_STATEMENTS_CALLSITE;
+      }
 
       return TRACK_STATEMENTS_NOWARN;
    }
@@ -578,6 +695,10 @@ public abstract class BaseWrapperManagedConnectionFactory
       {
          trackStatements = TRACK_STATEMENTS_TRUE_INT;
       }
+      else if (trimmed.equalsIgnoreCase(TRACK_STATEMENTS_CALLSITE))
+      {
+         trackStatements = TRACK_STATEMENTS_CALLSITE_INT;
+      }
       else
       {
          trackStatements = TRACK_STATEMENTS_NOWARN_INT;
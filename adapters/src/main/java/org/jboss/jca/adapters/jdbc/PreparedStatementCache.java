@@ -25,7 +25,8 @@ package org.jboss.jca.adapters.jdbc;
 import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
 import org.jboss.jca.adapters.jdbc.util.Cache;
 import org.jboss.jca.adapters.jdbc.util.CacheListener;
-import org.jboss.jca.adapters.jdbc.util.LRUCache;
+import org.jboss.jca.adapters.jdbc.util.FrequencySketch;
+import org.jboss.jca.adapters.jdbc.util.TinyLFUCache;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -37,6 +38,10 @@ import org.jboss.logging.Logger;
 /**
  * Cache for PreparedStatements. When ps ages out, close it.
  *
+ * The statements are evicted based on how often they are prepared, which
+ * can be tracked across all the connections of a datasource by sharing
+ * the frequency sketch.
+ *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 @SuppressWarnings("unchecked")
@@ -87,6 +92,33 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
          return sql;
       }
 
+      /**
+       * Get the type
+       * @return The value
+       */
+      public int getType()
+      {
+         return type;
+      }
+
+      /**
+       * Get the result set type
+       * @return The value
+       */
+      public int getResultSetType()
+      {
+         return resultSetType;
+      }
+
+      /**
+       * Get the result set concurrency
+       * @return The value
+       */
+      public int getResultSetConcurrency()
+      {
+         return resultSetConcurrency;
+      }
+
       /**
        * {@inheritDoc}
        */
@@ -179,7 +211,18 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
     */
    public PreparedStatementCache(int max, JdbcStatisticsPlugin stats)
    {
-      this.cache = new LRUCache<Key, CachedPreparedStatement>(max);
+      this(max, new FrequencySketch<Key>(max), stats);
+   }
+
+   /**
+    * Constructor
+    * @param max The max value
+    * @param frequency The frequency sketch
+    * @param stats The statistics plugin
+    */
+   public PreparedStatementCache(int max, FrequencySketch<Key> frequency, JdbcStatisticsPlugin stats)
+   {
+      this.cache = new TinyLFUCache<Key, CachedPreparedStatement>(max, frequency);
       this.cache.setListener(this);
       this.statistics = stats;
    }
@@ -194,6 +237,16 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
       return cache.get(key);
    }
 
+   /**
+    * Is a statement cached; doesn't count as an access
+    * @param key The key
+    * @return True if cached
+    */
+   public boolean contains(Key key)
+   {
+      return cache.peek(key) != null;
+   }
+
    /**
     * Put
     * @param key The key
@@ -0,0 +1,460 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc;
+
+import org.jboss.jca.adapters.AdaptersLogger;
+import org.jboss.jca.adapters.jdbc.util.FrequencySketch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Records the most frequently prepared statements of a datasource, and
+ * prepares them on new connections before they are handed out, so that
+ * the first requests after a pool flush or a failover don't pay the parse
+ * and plan costs. <p>
+ * The statements are ranked by the frequency sketch of the prepared statement
+ * caches of the datasource, so a statement is only recorded when it is added
+ * to a cache, and nothing is counted when a cached statement is reused. <p>
+ * The statements are prepared by the thread creating the connection, before
+ * the connection is returned by the factory; the saves are done by a shared
+ * background executor.
+ * The list can be persisted to a file so that it survives restarts.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PreparedStatementWarmUp
+{
+   /** The logger */
+   private static AdaptersLogger log = Logger.getMessageLogger(AdaptersLogger.class,
+                                                               PreparedStatementWarmUp.class.getName());
+
+   /** The file header */
+   private static final String HEADER = "# IronJacamar prepared statement warm-up";
+
+   /** Minimum time between two saves in milliseconds */
+   private static final long SAVE_INTERVAL = 60000L;
+
+   /** The executor shared by all datasources */
+   private static volatile ExecutorService executor;
+
+   /** The number of statements to prepare */
+   private final int size;
+
+   /** The number of statements to track */
+   private final int limit;
+
+   /** The file; <code>null</code> if not persisted */
+   private final File file;
+
+   /** The frequencies of the statements */
+   private final FrequencySketch<PreparedStatementCache.Key> frequency;
+
+   /** The statements, with the frequency they were last saved or loaded with */
+   private final ConcurrentMap<PreparedStatementCache.Key, Integer> statements;
+
+   /** Pruning */
+   private final AtomicBoolean pruning;
+
+   /** Saving */
+   private final AtomicBoolean saving;
+
+   /** Changed since the last save */
+   private volatile boolean dirty;
+
+   /** The time of the last save */
+   private volatile long lastSave;
+
+   /**
+    * Constructor
+    * @param size The number of statements to prepare on a new connection
+    * @param file The file to persist the statements to; may be <code>null</code>
+    * @param frequency The frequencies of the statements
+    */
+   public PreparedStatementWarmUp(int size, String file, FrequencySketch<PreparedStatementCache.Key> frequency)
+   {
+      this.size = size;
+      this.limit = Math.max(16, size * 8);
+      this.file = file != null && !file.trim().equals("") ? new File(file.trim()) : null;
+      this.frequency = frequency;
+      this.statements = new ConcurrentHashMap<PreparedStatementCache.Key, Integer>();
+      this.pruning = new AtomicBoolean(false);
+      this.saving = new AtomicBoolean(false);
+      this.dirty = false;
+      this.lastSave = System.currentTimeMillis();
+
+      if (this.file != null)
+         load();
+   }
+
+   /**
+    * Record that a statement was added to a prepared statement cache
+    * @param key The key
+    */
+   public void record(PreparedStatementCache.Key key)
+   {
+      if (statements.putIfAbsent(key, Integer.valueOf(0)) == null)
+      {
+         dirty = true;
+
+         if (statements.size() > limit)
+            prune();
+      }
+   }
+
+   /**
+    * Get the most frequently prepared statements, hottest first
+    * @return The keys
+    */
+   public List<PreparedStatementCache.Key> getHottest()
+   {
+      List<Map.Entry<PreparedStatementCache.Key, Integer>> snapshot = snapshot();
+      List<PreparedStatementCache.Key> result = new ArrayList<PreparedStatementCache.Key>(size);
+
+      for (int i = 0; i < snapshot.size() && i < size; i++)
+      {
+         result.add(snapshot.get(i).getKey());
+      }
+
+      return result;
+   }
+
+   /**
+    * Prepare the hottest statements on a new connection
+    * @param mc The managed connection
+    */
+   void warmUp(BaseWrapperManagedConnection mc)
+   {
+      List<PreparedStatementCache.Key> keys = getHottest();
+
+      if (keys.isEmpty())
+         return;
+
+      mc.warmUpPreparedStatementCache(keys);
+
+      if (System.currentTimeMillis() - lastSave >= SAVE_INTERVAL)
+         saveAsync();
+   }
+
+   /**
+    * Save the statements in the background if they have changed
+    */
+   void saveAsync()
+   {
+      if (file != null && dirty)
+      {
+         getExecutor().submit(new Runnable()
+         {
+            public void run()
+            {
+               save();
+            }
+         });
+      }
+   }
+
+   /**
+    * Save the statements to the file if they have changed
+    */
+   public void save()
+   {
+      if (file == null || !dirty)
+         return;
+
+      if (!saving.compareAndSet(false, true))
+         return;
+
+      try
+      {
+         dirty = false;
+         lastSave = System.currentTimeMillis();
+
+         List<Map.Entry<PreparedStatementCache.Key, Integer>> snapshot = snapshot();
+
+         File parent = file.getAbsoluteFile().getParentFile();
+         if (parent != null && !parent.exists())
+            parent.mkdirs();
+
+         File tmp = new File(file.getPath() + ".tmp");
+         BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8);
+         try
+         {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (int i = 0; i < snapshot.size() && i < limit; i++)
+            {
+               Map.Entry<PreparedStatementCache.Key, Integer> entry = snapshot.get(i);
+               PreparedStatementCache.Key key = entry.getKey();
+
+               statements.replace(key, entry.getValue());
+
+               writer.write(key.getType() + " " + key.getResultSetType() + " " + key.getResultSetConcurrency() +
+                            " " + entry.getValue() + " " + escape(key.getSql()));
+               writer.newLine();
+            }
+         }
+         finally
+         {
+            writer.close();
+         }
+
+         Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (IOException ioe)
+      {
+         log.errorSavingPreparedStatementWarmUp(file.getPath(), ioe);
+      }
+      finally
+      {
+         saving.set(false);
+      }
+   }
+
+   /**
+    * Load the statements
+    */
+   private void load()
+   {
+      if (!file.exists())
+         return;
+
+      try
+      {
+         BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+         try
+         {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+               if (line.startsWith("#") || line.trim().equals(""))
+                  continue;
+
+               String[] parts = line.split(" ", 5);
+               if (parts.length != 5)
+                  continue;
+
+               PreparedStatementCache.Key key =
+                  new PreparedStatementCache.Key(unescape(parts[4]),
+                                                 Integer.parseInt(parts[0]),
+                                                 Integer.parseInt(parts[1]),
+                                                 Integer.parseInt(parts[2]));
+
+               statements.put(key, Integer.valueOf(parts[3]));
+            }
+         }
+         finally
+         {
+            reader.close();
+         }
+      }
+      catch (IOException | NumberFormatException e)
+      {
+         log.errorLoadingPreparedStatementWarmUp(file.getPath(), e);
+      }
+   }
+
+   /**
+    * Drop the colder half of the statements
+    */
+   private void prune()
+   {
+      if (!pruning.compareAndSet(false, true))
+         return;
+
+      try
+      {
+         List<Map.Entry<PreparedStatementCache.Key, Integer>> snapshot = snapshot();
+
+         for (int i = 0; i < snapshot.size(); i++)
+         {
+            if (i >= limit / 2)
+               statements.remove(snapshot.get(i).getKey());
+         }
+      }
+      finally
+      {
+         pruning.set(false);
+      }
+   }
+
+   /**
+    * Get the statements sorted by frequency, highest first. A statement which
+    * hasn't been seen since it was loaded or saved keeps half of its frequency
+    * from then, so that statements which used to be hot fade away across restarts
+    * @return The statements
+    */
+   private List<Map.Entry<PreparedStatementCache.Key, Integer>> snapshot()
+   {
+      frequency.drain();
+
+      List<Map.Entry<PreparedStatementCache.Key, Integer>> result =
+         new ArrayList<Map.Entry<PreparedStatementCache.Key, Integer>>(statements.size());
+
+      for (Map.Entry<PreparedStatementCache.Key, Integer> entry : statements.entrySet())
+      {
+         int value = frequency.frequency(entry.getKey());
+
+         if (value == 0)
+            value = entry.getValue().intValue() / 2;
+
+         result.add(new AbstractMap.SimpleImmutableEntry<PreparedStatementCache.Key, Integer>(
+            entry.getKey(), Integer.valueOf(value)));
+      }
+
+      Collections.sort(result, new Comparator<Map.Entry<PreparedStatementCache.Key, Integer>>()
+      {
+         public int compare(Map.Entry<PreparedStatementCache.Key, Integer> a,
+                            Map.Entry<PreparedStatementCache.Key, Integer> b)
+         {
+            return b.getValue().compareTo(a.getValue());
+         }
+      });
+
+      return result;
+   }
+
+   /**
+    * Escape a SQL string so that it fits on a line
+    * @param s The string
+    * @return The value
+    */
+   private static String escape(String s)
+   {
+      StringBuilder sb = new StringBuilder(s.length());
+
+      for (int i = 0; i < s.length(); i++)
+      {
+         char c = s.charAt(i);
+
+         if (c == '\\')
+         {
+            sb.append("\\\\");
+         }
+         else if (c == '\n')
+         {
+            sb.append("\\n");
+         }
+         else if (c == '\r')
+         {
+            sb.append("\\r");
+         }
+         else
+         {
+            sb.append(c);
+         }
+      }
+
+      return sb.toString();
+   }
+
+   /**
+    * Unescape a SQL string
+    * @param s The string
+    * @return The value
+    */
+   private static String unescape(String s)
+   {
+      StringBuilder sb = new StringBuilder(s.length());
+
+      for (int i = 0; i < s.length(); i++)
+      {
+         char c = s.charAt(i);
+
+         if (c == '\\' && i + 1 < s.length())
+         {
+            char n = s.charAt(++i);
+
+            if (n == 'n')
+            {
+               sb.append('\n');
+            }
+            else if (n == 'r')
+            {
+               sb.append('\r');
+            }
+            else
+            {
+               sb.append(n);
+            }
+         }
+         else
+         {
+            sb.append(c);
+         }
+      }
+
+      return sb.toString();
+   }
+
+   /**
+    * Get the executor
+    * @return The value
+    */
+   private static ExecutorService getExecutor()
+   {
+      if (executor == null)
+      {
+         synchronized (PreparedStatementWarmUp.class)
+         {
+            if (executor == null)
+            {
+               int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+               executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+               {
+                  private final AtomicInteger counter = new AtomicInteger(0);
+
+                  public Thread newThread(Runnable r)
+                  {
+                     Thread t = new Thread(r, "IronJacamar PreparedStatement WarmUp-" + counter.incrementAndGet());
+                     t.setDaemon(true);
+                     return t;
+                  }
+               });
+            }
+         }
+      }
+
+      return executor;
+   }
+}
@@ -95,15 +95,43 @@ class SecurityActions
       }
    }
 
-   static <T> T executeInTccl(ClassLoader classLoader, Producer<T> producer) throws Exception
+   /**
+    * Switch the context classloader of the current thread; doesn't touch the
+    * thread when it already has the classloader
+    * @param cl The classloader
+    * @return The previous context classloader
+    */
+   static ClassLoader switchThreadContextClassLoader(final ClassLoader cl)
    {
-      ClassLoader tccl = SecurityActions.getThreadContextClassLoader();
-      try {
-         SecurityActions.setThreadContextClassLoader(classLoader);
-         return producer.produce();
-      } finally {
-         SecurityActions.setThreadContextClassLoader(tccl);
+      if (System.getSecurityManager() == null)
+      {
+         Thread t = Thread.currentThread();
+         ClassLoader tccl = t.getContextClassLoader();
+
+         if (tccl != cl)
+            t.setContextClassLoader(cl);
+
+         return tccl;
       }
+
+      ClassLoader tccl = getThreadContextClassLoader();
+
+      if (tccl != cl)
+         setThreadContextClassLoader(cl);
+
+      return tccl;
+   }
+
+   /**
+    * Restore the context classloader of the current thread after
+    * {@link #switchThreadContextClassLoader(ClassLoader)}
+    * @param tccl The previous context classloader
+    * @param cl The classloader switched to
+    */
+   static void restoreThreadContextClassLoader(final ClassLoader tccl, final ClassLoader cl)
+   {
+      if (tccl != cl)
+         setThreadContextClassLoader(tccl);
    }
 
    /**
@@ -195,9 +223,4 @@ class SecurityActions
       }
       return mh;
    }
-
-   static interface Producer<T>
-   {
-      T produce() throws Exception;
-   }
 }
@@ -24,6 +24,7 @@ package org.jboss.jca.adapters.jdbc;
 
 import org.jboss.jca.adapters.AdaptersLogger;
 import org.jboss.jca.adapters.jdbc.spi.ClassLoaderPlugin;
+import org.jboss.jca.adapters.jdbc.util.CallSites;
 
 import java.sql.Array;
 import java.sql.Blob;
@@ -69,6 +70,30 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
    /** The spy logger */
    protected static Logger spyLogger = Logger.getLogger(Constants.SPY_LOGGER_CATEGORY);
 
+   /** The call sites of tracked statements and result sets */
+   private static CallSites callSites;
+
+   static
+   {
+      int depth = 16;
+
+      String d = SecurityActions.getSystemProperty("ironjacamar.jdbc.trackstatementsdepth");
+      if (d != null && !d.trim().equals(""))
+      {
+         try
+         {
+            depth = Math.max(1, Integer.parseInt(d.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+
+      callSites = new CallSites(depth, 4096, "org.jboss.jca.adapters.jdbc", "org.jboss.jca.adapters.jdbc.util",
+                                "org.jboss.jca.adapters.jdbc.jdk7", "org.jboss.jca.adapters.jdbc.jdk8");
+   }
+
    private volatile BaseWrapperManagedConnection mc;
    private BaseWrapperManagedConnection lockedMC;
    private int lockCount;
@@ -285,7 +310,7 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                   {
                      Map.Entry<WrappedStatement, Throwable> entry = i.next();
                      WrappedStatement ws = entry.getKey();
-                     if (trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT)
+                     if (isTrackStatementsWarning())
                      {
                         Throwable stackTrace = entry.getValue();
                         log.closingStatement(jndiName, stackTrace);
@@ -352,11 +377,17 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
             if (spy)
                spyLogger.debugf("%s [%s] createStatement()", jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION);
 
-            Statement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<Statement>() {
-               public Statement produce() throws Exception {
-                  return mc.getRealConnection().createStatement();
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            Statement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().createStatement();
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
 
             return wrapStatement(stmt, spy, jndiName, doLocking);
          }
@@ -389,11 +420,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 resultSetType, resultSetConcurrency);
 
-            Statement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<Statement>() {
-               public Statement produce() throws Exception {
-                  return mc.getRealConnection().createStatement(resultSetType, resultSetConcurrency);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            Statement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().createStatement(resultSetType, resultSetConcurrency);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -426,11 +464,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 resultSetType, resultSetConcurrency, resultSetHoldability);
 
-            Statement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<Statement>() {
-               public Statement produce() throws Exception {
-                  return mc.getRealConnection().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            Statement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -473,12 +518,19 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                spyLogger.debugf("%s [%s] prepareStatement(%s)",
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION, sql);
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
-                        ResultSet.CONCUR_READ_ONLY);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -511,11 +563,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, resultSetType, resultSetConcurrency);
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.prepareStatement(sql, resultSetType, resultSetConcurrency);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -548,12 +607,19 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, resultSetType, resultSetConcurrency, resultSetHoldability);
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.getRealConnection().prepareStatement(sql, resultSetType,
-                        resultSetConcurrency, resultSetHoldability);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().prepareStatement(sql, resultSetType,
+                     resultSetConcurrency, resultSetHoldability);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -585,11 +651,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, autoGeneratedKeys);
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.getRealConnection().prepareStatement(sql, autoGeneratedKeys);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().prepareStatement(sql, autoGeneratedKeys);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -621,11 +694,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 , jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, Arrays.toString(columnIndexes));
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.getRealConnection().prepareStatement(sql, columnIndexes);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().prepareStatement(sql, columnIndexes);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -657,11 +737,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, Arrays.toString(columnNames));
 
-            PreparedStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<PreparedStatement>() {
-               public PreparedStatement produce() throws Exception {
-                  return mc.getRealConnection().prepareStatement(sql, columnNames);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            PreparedStatement stmt;
+            try
+            {
+               stmt = mc.getRealConnection().prepareStatement(sql, columnNames);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapPreparedStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -703,11 +790,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
             if (spy)
                spyLogger.debugf("%s [%s] prepareCall(%s)", jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION, sql);
 
-            CallableStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<CallableStatement>() {
-               public CallableStatement produce() throws Exception {
-                  return mc.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            CallableStatement stmt;
+            try
+            {
+               stmt = mc.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapCallableStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -739,11 +833,18 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, resultSetType, resultSetConcurrency);
 
-            CallableStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<CallableStatement>() {
-               public CallableStatement produce() throws Exception {
-                  return mc.prepareCall(sql, resultSetType, resultSetConcurrency);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            CallableStatement stmt;
+            try
+            {
+               stmt = mc.prepareCall(sql, resultSetType, resultSetConcurrency);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapCallableStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -776,12 +877,19 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION,
                                 sql, resultSetType, resultSetConcurrency, resultSetHoldability);
 
-            CallableStatement stmt = SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<CallableStatement>() {
-               public CallableStatement produce() throws Exception {
-                  return mc.getRealConnection()
-                        .prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            CallableStatement stmt;
+            try
+            {
+               stmt = mc.getRealConnection()
+                     .prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
+
             return wrapCallableStatement(stmt, spy, jndiName, doLocking);
          }
          catch (Throwable t)
@@ -812,11 +920,16 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
                spyLogger.debugf("%s [%s] nativeSQL(%s)",
                                 jndiName, Constants.SPY_LOGGER_PREFIX_CONNECTION, sql);
 
-            return SecurityActions.executeInTccl(classLoaderPlugin.getClassLoader(), new SecurityActions.Producer<String>() {
-               public String produce() throws Exception {
-                  return mc.getRealConnection().nativeSQL(sql);
-               }
-            });
+            ClassLoader cl = classLoaderPlugin.getClassLoader();
+            ClassLoader tccl = SecurityActions.switchThreadContextClassLoader(cl);
+            try
+            {
+               return mc.getRealConnection().nativeSQL(sql);
+            }
+            finally
+            {
+               SecurityActions.restoreThreadContextClassLoader(tccl, cl);
+            }
          }
          catch (Throwable t)
          {
@@ -2072,13 +2185,35 @@ public abstract class WrappedConnection extends JBossWrapper implements Connecti
          if (statements == null)
             statements = new HashMap<WrappedStatement, Throwable>(1);
 
-         if (trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT)
-            statements.put(ws, new Throwable("STACKTRACE"));
-         else
-            statements.put(ws, null);
+         statements.put(ws, captureOrigin());
       }
    }
 
+   /**
+    * Does the tracking of statements warn about the ones left open
+    * @return The value
+    */
+   boolean isTrackStatementsWarning()
+   {
+      return trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT ||
+         trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_CALLSITE_INT;
+   }
+
+   /**
+    * Capture the origin of a tracked statement or result set
+    * @return The origin; <code>null</code> if it isn't reported
+    */
+   Throwable captureOrigin()
+   {
+      if (trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT)
+         return new Throwable("STACKTRACE");
+
+      if (trackStatements == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_CALLSITE_INT)
+         return callSites.capture();
+
+      return null;
+   }
+
    /**
     * Unregister a statement
     * @param ws The statement
@@ -1524,10 +1524,7 @@ public abstract class WrappedStatement extends JBossWrapper implements Statement
          if (resultSets == null)
             resultSets = new HashMap<WrappedResultSet, Throwable>(1);
          
-         if (lc.getTrackStatements() == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT)
-            resultSets.put(wrapped, new Throwable("STACKTRACE"));
-         else
-            resultSets.put(wrapped, null);
+         resultSets.put(wrapped, lc.captureOrigin());
       }
       return resultSet;
    }
@@ -1566,7 +1563,7 @@ public abstract class WrappedStatement extends JBossWrapper implements Statement
             Map.Entry<WrappedResultSet, Throwable> entry = i.next();
             WrappedResultSet resultSet = entry.getKey();
 
-            if (lc.getTrackStatements() == BaseWrapperManagedConnectionFactory.TRACK_STATEMENTS_TRUE_INT)
+            if (lc.isTrackStatementsWarning())
             {
                Throwable stackTrace = entry.getValue();
                lc.getLogger().closingResultSet(resultSet.toString(), stackTrace);
@@ -349,7 +349,11 @@ public class LocalManagedConnectionFactory extends BaseWrapperManagedConnectionF
             throw new ResourceException(bundle.unableToCreateConnection());
          }
 
-         return new LocalManagedConnection(this, con, props, transactionIsolation, preparedStatementCacheSize);
+         LocalManagedConnection mc =
+            new LocalManagedConnection(this, con, props, transactionIsolation, preparedStatementCacheSize);
+         warmUp(mc);
+
+         return mc;
       }
       catch (Throwable e)
       {
@@ -0,0 +1,268 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc.util;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Captures the call sites of the statements and result sets tracked for leaks. <p>
+ * Only the first frames outside of the skipped packages are walked, instead of
+ * filling in the whole stack trace, and each distinct call site is kept once and
+ * shared by all the objects created from it. The returned throwable carries the
+ * call site as its stack trace, so it can be logged as the origin of a leak.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class CallSites
+{
+   /** The stack walker */
+   private static final StackWalker WALKER = StackWalker.getInstance();
+
+   /** The packages whose frames are skipped */
+   private final String[] packages;
+
+   /** The maximum number of frames of a call site */
+   private final int depth;
+
+   /** The maximum number of call sites kept */
+   private final int max;
+
+   /** The call sites */
+   private final ConcurrentMap<Key, Throwable> sites;
+
+   /** The stack walk */
+   private final Function<Stream<StackFrame>, Key> walk;
+
+   /**
+    * Constructor
+    * @param depth The maximum number of frames of a call site
+    * @param max The maximum number of call sites kept
+    * @param packages The packages whose frames are skipped
+    */
+   public CallSites(int depth, int max, String... packages)
+   {
+      this.packages = packages.clone();
+      this.depth = Math.max(1, depth);
+      this.max = max;
+      this.sites = new ConcurrentHashMap<Key, Throwable>();
+      this.walk = this::walk;
+   }
+
+   /**
+    * Capture the call site of the caller
+    * @return The call site
+    */
+   public Throwable capture()
+   {
+      Key key = WALKER.walk(walk);
+      Throwable site = sites.get(key);
+
+      if (site == null)
+      {
+         site = new CallSite(key.toStackTrace());
+
+         if (sites.size() < max)
+         {
+            Throwable existing = sites.putIfAbsent(key, site);
+
+            if (existing != null)
+               site = existing;
+         }
+      }
+
+      return site;
+   }
+
+   /**
+    * Get the number of call sites kept
+    * @return The value
+    */
+   public int size()
+   {
+      return sites.size();
+   }
+
+   /**
+    * Clear the call sites kept
+    */
+   public void clear()
+   {
+      sites.clear();
+   }
+
+   /**
+    * Walk the stack
+    * @param frames The frames
+    * @return The call site key
+    */
+   private Key walk(Stream<StackFrame> frames)
+   {
+      StackFrame[] result = new StackFrame[depth];
+      int size = 0;
+
+      Iterator<StackFrame> it = frames.iterator();
+      while (it.hasNext() && size < depth)
+      {
+         StackFrame frame = it.next();
+
+         if (size > 0 || !isSkipped(frame.getClassName()))
+            result[size++] = frame;
+      }
+
+      return new Key(result, size);
+   }
+
+   /**
+    * Is the class in one of the skipped packages
+    * @param className The class name
+    * @return True if skipped, otherwise false
+    */
+   private boolean isSkipped(String className)
+   {
+      int dot = className.lastIndexOf('.');
+
+      for (String p : packages)
+      {
+         if (dot == p.length() && className.startsWith(p))
+            return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * The frames of a call site
+    */
+   private static final class Key
+   {
+      private final String[] classNames;
+      private final String[] methodNames;
+      private final int[] byteCodeIndexes;
+      private final int hash;
+      private StackFrame[] frames;
+
+      /**
+       * Constructor
+       * @param frames The frames
+       * @param size The number of frames
+       */
+      Key(StackFrame[] frames, int size)
+      {
+         this.classNames = new String[size];
+         this.methodNames = new String[size];
+         this.byteCodeIndexes = new int[size];
+         this.frames = frames;
+
+         int h = size;
+         for (int i = 0; i < size; i++)
+         {
+            classNames[i] = frames[i].getClassName();
+            methodNames[i] = frames[i].getMethodName();
+            byteCodeIndexes[i] = frames[i].getByteCodeIndex();
+
+            h = 31 * h + classNames[i].hashCode();
+            h = 31 * h + methodNames[i].hashCode();
+            h = 31 * h + byteCodeIndexes[i];
+         }
+         this.hash = h;
+      }
+
+      /**
+       * Get the stack trace, and let go of the frames such that a kept key
+       * doesn't hold on to the classes of the call site
+       * @return The value
+       */
+      StackTraceElement[] toStackTrace()
+      {
+         StackTraceElement[] result = new StackTraceElement[classNames.length];
+
+         for (int i = 0; i < result.length; i++)
+            result[i] = frames[i].toStackTraceElement();
+
+         frames = null;
+         return result;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+            return true;
+
+         if (!(o instanceof Key))
+            return false;
+
+         Key k = (Key) o;
+
+         return hash == k.hash &&
+            Arrays.equals(byteCodeIndexes, k.byteCodeIndexes) &&
+            Arrays.equals(methodNames, k.methodNames) &&
+            Arrays.equals(classNames, k.classNames);
+      }
+   }
+
+   /**
+    * A call site; the stack trace is the one of the call site, not of its creation
+    */
+   private static final class CallSite extends Throwable
+   {
+      /** Serial version uid */
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * Constructor
+       * @param stackTrace The stack trace
+       */
+      CallSite(StackTraceElement[] stackTrace)
+      {
+         super("STACKTRACE");
+         setStackTrace(stackTrace);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public synchronized Throwable fillInStackTrace()
+      {
+         return this;
+      }
+   }
+}
@@ -0,0 +1,282 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent count-min sketch estimating how often a key has been seen
+ * recently. <p>
+ * Each key maps to one counter per row and the estimate is the minimum of
+ * those counters. Counters saturate at 15, and all of them are halved once
+ * the number of increments reaches ten times the capacity, so keys which
+ * used to be hot fade away. <p>
+ * An increment only stores the hash of the key in a small buffer of the
+ * stripe of the calling thread. The buffers are applied to the counters by
+ * {@link #drain()}, which the caches call under their eviction lock, or by
+ * the thread which finds its buffer full. If the buffer is full and another
+ * thread is draining, the increment is dropped, which only makes the
+ * estimate a sample. <p>
+ * The sketch doesn't hold any reference to the keys and can be shared
+ * by several caches.
+ *
+ * @param <K> The key
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class FrequencySketch<K>
+{
+   /** The number of rows */
+   private static final int DEPTH = 4;
+
+   /** The maximum value of a counter */
+   private static final int MAX_COUNT = 15;
+
+   /** The seeds of the rows */
+   private static final int[] SEEDS = {0x97cb3127, 0xb9d1f5e1, 0x7ed55d16, 0x165667b1};
+
+   /** The number of hashes buffered per stripe */
+   private static final int BUFFER_SIZE = 16;
+
+   /** The spacing of the stripe positions, to keep them on separate cache lines */
+   private static final int PAD = 8;
+
+   /** The counters, only written while draining */
+   private final AtomicIntegerArray table;
+
+   /** The index mask of a row */
+   private final int mask;
+
+   /** The number of increments before the counters are halved */
+   private final int sampleSize;
+
+   /** The buffered hashes; 0 is a free slot */
+   private final AtomicIntegerArray buffer;
+
+   /** The number of hashes written to each stripe */
+   private final AtomicLongArray tails;
+
+   /** The number of hashes drained from each stripe */
+   private final AtomicLongArray heads;
+
+   /** The stripe mask */
+   private final int stripeMask;
+
+   /** The drain lock */
+   private final ReentrantLock drainLock;
+
+   /** The number of increments since the counters were halved; guarded by the drain lock */
+   private int additions;
+
+   /**
+    * Constructor
+    * @param capacity The expected number of distinct hot keys
+    */
+   public FrequencySketch(int capacity)
+   {
+      int c = Math.max(16, capacity);
+      int width = Integer.highestOneBit(c - 1) << 2;
+      int stripes = Math.min(64, Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+      this.table = new AtomicIntegerArray(DEPTH * width);
+      this.mask = width - 1;
+      this.sampleSize = 10 * c;
+      this.buffer = new AtomicIntegerArray(stripes * BUFFER_SIZE);
+      this.tails = new AtomicLongArray(stripes * PAD);
+      this.heads = new AtomicLongArray(stripes * PAD);
+      this.stripeMask = stripes - 1;
+      this.drainLock = new ReentrantLock();
+      this.additions = 0;
+   }
+
+   /**
+    * Record an occurrence of a key
+    * @param key The key
+    */
+   public void increment(K key)
+   {
+      int hash = spread(key.hashCode());
+      if (hash == 0)
+         hash = 1;
+
+      int stripe = spread((int)Thread.currentThread().getId()) & stripeMask;
+      int position = stripe * PAD;
+
+      long tail = tails.get(position);
+      if (tail - heads.get(position) >= BUFFER_SIZE)
+      {
+         if (drainLock.tryLock())
+         {
+            try
+            {
+               drainBuffers();
+               add(hash);
+            }
+            finally
+            {
+               drainLock.unlock();
+            }
+         }
+         return;
+      }
+
+      if (tails.compareAndSet(position, tail, tail + 1))
+         buffer.lazySet(stripe * BUFFER_SIZE + (int)(tail & (BUFFER_SIZE - 1)), hash);
+   }
+
+   /**
+    * Apply the buffered increments to the counters
+    */
+   public void drain()
+   {
+      drainLock.lock();
+      try
+      {
+         drainBuffers();
+      }
+      finally
+      {
+         drainLock.unlock();
+      }
+   }
+
+   /**
+    * Estimate how often a key has been seen recently. Increments which
+    * haven't been drained yet aren't included
+    * @param key The key
+    * @return The value, between 0 and 15
+    */
+   public int frequency(K key)
+   {
+      int hash = spread(key.hashCode());
+      if (hash == 0)
+         hash = 1;
+
+      int result = MAX_COUNT;
+
+      for (int i = 0; i < DEPTH; i++)
+      {
+         result = Math.min(result, table.get(indexOf(hash, i)));
+      }
+
+      return result;
+   }
+
+   /**
+    * Apply the buffered increments to the counters; the drain lock must be held
+    */
+   private void drainBuffers()
+   {
+      for (int stripe = 0; stripe <= stripeMask; stripe++)
+      {
+         int position = stripe * PAD;
+         long head = heads.get(position);
+         long tail = tails.get(position);
+
+         while (head < tail)
+         {
+            int slot = stripe * BUFFER_SIZE + (int)(head & (BUFFER_SIZE - 1));
+            int hash = buffer.get(slot);
+
+            // The writer claimed the slot, but hasn't stored the hash yet
+            if (hash == 0)
+               break;
+
+            buffer.lazySet(slot, 0);
+            head++;
+
+            add(hash);
+         }
+
+         heads.lazySet(position, head);
+      }
+   }
+
+   /**
+    * Add an occurrence of a hash to the counters; the drain lock must be held
+    * @param hash The spread hash of the key
+    */
+   private void add(int hash)
+   {
+      boolean added = false;
+
+      for (int i = 0; i < DEPTH; i++)
+      {
+         int index = indexOf(hash, i);
+         int current = table.get(index);
+
+         if (current < MAX_COUNT)
+         {
+            table.lazySet(index, current + 1);
+            added = true;
+         }
+      }
+
+      if (added && ++additions == sampleSize)
+         reset();
+   }
+
+   /**
+    * Halve all counters; the drain lock must be held
+    */
+   private void reset()
+   {
+      for (int i = 0; i < table.length(); i++)
+      {
+         int current = table.get(i);
+
+         if (current > 0)
+            table.lazySet(i, current >>> 1);
+      }
+
+      additions -= sampleSize >>> 1;
+   }
+
+   /**
+    * Get the index of a counter
+    * @param hash The spread hash of the key
+    * @param row The row
+    * @return The index in the table
+    */
+   private int indexOf(int hash, int row)
+   {
+      int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+      h ^= h >>> 16;
+      return row * (mask + 1) + (h & mask);
+   }
+
+   /**
+    * Spread a hash code
+    * @param h The hash code
+    * @return The value
+    */
+   private static int spread(int h)
+   {
+      h ^= h >>> 17;
+      h *= 0xed5ad4bb;
+      h ^= h >>> 11;
+      h *= 0xac4c1b51;
+      h ^= h >>> 15;
+      return h;
+   }
+}
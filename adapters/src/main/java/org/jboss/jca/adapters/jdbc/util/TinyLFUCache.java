@@ -0,0 +1,409 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a frequency aware cache policy, modelled after W-TinyLFU. <p>
+ * New objects enter a small admission window. When an object leaves the window
+ * and the cache is full, it competes with a victim sampled from the main area,
+ * and the one which has been requested less often according to the
+ * {@link FrequencySketch} is evicted. The victim is the least frequently, and
+ * then least recently, used of a few sampled objects. <p>
+ * Lookups don't take any lock, and only buffer the access in the sketch;
+ * inserts and evictions are serialized, and the buffered accesses are applied
+ * to the sketch before a victim is chosen.
+ * The sketch may be shared by several caches, so that the frequencies are
+ * collected across all of them.
+ *
+ * @param <K> The key
+ * @param <V> The value
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TinyLFUCache<K, V> implements Cache<K, V>
+{
+   /** The number of objects sampled to find a victim */
+   private static final int SAMPLE_SIZE = 8;
+
+   /** The map holding the cached objects */
+   private final ConcurrentMap<K, Entry<V>> map;
+
+   /** The admission window, oldest first */
+   private final ConcurrentLinkedQueue<K> window;
+
+   /** The frequencies */
+   private final FrequencySketch<K> sketch;
+
+   /** The maximum capacity of this cache */
+   private final int maxCapacity;
+
+   /** The capacity of the admission window */
+   private final int windowCapacity;
+
+   /** The access clock */
+   private final AtomicLong clock;
+
+   /** The lock for inserts and evictions */
+   private final ReentrantLock lock;
+
+   /** The number of objects in the admission window */
+   private int windowSize;
+
+   /** The listener */
+   private volatile CacheListener<V> listener;
+
+   /**
+    * Creates a cache with its own frequency sketch
+    * @param max The maximum number of entries
+    */
+   public TinyLFUCache(int max)
+   {
+      this(max, new FrequencySketch<K>(max));
+   }
+
+   /**
+    * Creates a cache
+    * @param max The maximum number of entries
+    * @param sketch The frequency sketch
+    */
+   public TinyLFUCache(int max, FrequencySketch<K> sketch)
+   {
+      if (max <= 0)
+         throw new IllegalArgumentException("Cache size must be positive: " + max);
+
+      if (sketch == null)
+         throw new IllegalArgumentException("Frequency sketch is null");
+
+      this.map = new ConcurrentHashMap<K, Entry<V>>();
+      this.window = new ConcurrentLinkedQueue<K>();
+      this.sketch = sketch;
+      this.maxCapacity = max;
+      this.windowCapacity = Math.max(1, max / 100);
+      this.clock = new AtomicLong(0L);
+      this.lock = new ReentrantLock();
+      this.windowSize = 0;
+      this.listener = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public V get(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Requesting an object using a null key");
+
+      sketch.increment(key);
+
+      Entry<V> entry = map.get(key);
+      if (entry != null)
+      {
+         entry.access = clock.incrementAndGet();
+         return entry.value;
+      }
+
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public V peek(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Requesting an object using a null key");
+
+      Entry<V> entry = map.get(key);
+      return entry != null ? entry.value : null;
+   }
+
+   /**
+    * Inserts the specified object into the cache. <p>
+    * If the key is already cached, the object isn't cached and the listener
+    * is notified for it right away.
+    * @param key the key paired with the object
+    * @param o the object to cache
+    */
+   public void insert(K key, V o)
+   {
+      if (o == null)
+         throw new IllegalArgumentException("Cannot insert a null object in the cache");
+
+      if (key == null)
+         throw new IllegalArgumentException("Cannot insert an object in the cache with null key");
+
+      List<V> evicted = new ArrayList<V>(1);
+
+      lock.lock();
+      try
+      {
+         if (map.putIfAbsent(key, new Entry<V>(o, clock.incrementAndGet())) != null)
+         {
+            evicted.add(o);
+         }
+         else
+         {
+            window.offer(key);
+            windowSize++;
+
+            while (windowSize > windowCapacity)
+            {
+               K candidate = window.poll();
+               windowSize--;
+
+               Entry<V> entry = map.get(candidate);
+               entry.window = false;
+
+               if (map.size() > maxCapacity)
+               {
+                  sketch.drain();
+
+                  K victim = sampleVictim(candidate);
+
+                  if (victim == null || sketch.frequency(candidate) <= sketch.frequency(victim))
+                     victim = candidate;
+
+                  evicted.add(map.remove(victim).value);
+               }
+            }
+         }
+      }
+      finally
+      {
+         lock.unlock();
+      }
+
+      notifyEviction(evicted);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void remove(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Removing an object using a null key");
+
+      lock.lock();
+      try
+      {
+         removeEntry(key);
+      }
+      finally
+      {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void flush()
+   {
+      flush(null);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void flush(Predicate<V> predicate)
+   {
+      List<V> evicted = new ArrayList<V>();
+
+      lock.lock();
+      try
+      {
+         for (Map.Entry<K, Entry<V>> entry : map.entrySet())
+         {
+            V value = entry.getValue().value;
+
+            if (predicate == null || predicate.test(value))
+            {
+               removeEntry(entry.getKey());
+               evicted.add(value);
+            }
+         }
+      }
+      finally
+      {
+         lock.unlock();
+      }
+
+      notifyEviction(evicted);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int size()
+   {
+      return map.size();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setListener(CacheListener<V> listener)
+   {
+      this.listener = listener;
+   }
+
+   /**
+    * Remove an entry; the lock must be held
+    * @param key The key
+    */
+   private void removeEntry(K key)
+   {
+      Entry<V> entry = map.remove(key);
+
+      if (entry != null && entry.window)
+      {
+         window.remove(key);
+         windowSize--;
+      }
+   }
+
+   /**
+    * Find the least frequently, and then least recently, used of a few
+    * objects outside of the admission window; the lock must be held
+    * @param exclude The key to exclude
+    * @return The key; <code>null</code> if there are no other objects
+    */
+   private K sampleVictim(K exclude)
+   {
+      int size = map.size();
+      int skip = size > SAMPLE_SIZE ? ThreadLocalRandom.current().nextInt(size) : 0;
+
+      K result = null;
+      int resultFrequency = Integer.MAX_VALUE;
+      long resultAccess = Long.MAX_VALUE;
+      int sampled = 0;
+
+      // Start at a random position and wrap around once
+      for (int pass = 0; pass < 2 && sampled < SAMPLE_SIZE; pass++)
+      {
+         Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+         int position = 0;
+
+         while (it.hasNext() && sampled < SAMPLE_SIZE)
+         {
+            Map.Entry<K, Entry<V>> e = it.next();
+            int p = position++;
+
+            if (pass == 0 && p < skip)
+               continue;
+
+            if (pass == 1 && p >= skip)
+               break;
+
+            Entry<V> entry = e.getValue();
+            if (entry.window || e.getKey().equals(exclude))
+               continue;
+
+            sampled++;
+
+            int frequency = sketch.frequency(e.getKey());
+            if (frequency < resultFrequency || (frequency == resultFrequency && entry.access < resultAccess))
+            {
+               result = e.getKey();
+               resultFrequency = frequency;
+               resultAccess = entry.access;
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Notify the listener about evicted objects
+    * @param evicted The objects
+    */
+   private void notifyEviction(List<V> evicted)
+   {
+      CacheListener<V> l = listener;
+
+      if (l != null)
+      {
+         for (V value : evicted)
+         {
+            l.onEviction(value);
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("TinyLFUCache@").append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[size=").append(map.size());
+      sb.append(" max=").append(maxCapacity);
+      sb.append(" window=").append(windowCapacity);
+      sb.append("]");
+
+      return sb.toString();
+   }
+
+   /**
+    * A cache entry
+    * @param <V> The value
+    */
+   static class Entry<V>
+   {
+      /** The value */
+      final V value;
+
+      /** The last access */
+      volatile long access;
+
+      /** In the admission window */
+      volatile boolean window;
+
+      /**
+       * Constructor
+       * @param value The value
+       * @param access The access
+       */
+      Entry(V value, long access)
+      {
+         this.value = value;
+         this.access = access;
+         this.window = true;
+      }
+   }
+}
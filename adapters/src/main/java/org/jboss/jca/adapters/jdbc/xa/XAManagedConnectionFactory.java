@@ -517,7 +517,7 @@ public class XAManagedConnectionFactory extends BaseWrapperManagedConnectionFact
             ? getXADataSource().getXAConnection(user, password)
             : getXADataSource().getXAConnection();
 
-         return newXAManagedConnection(props, xaConnection);
+         return warmUp(newXAManagedConnection(props, xaConnection));
       }
       catch (Throwable e)
       {
@@ -0,0 +1,83 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.local;
+
+import org.jboss.jca.adapters.jdbc.WrappedConnection;
+import org.jboss.jca.adapters.jdbc.local.testimpl.MockDriver;
+
+import java.lang.reflect.Field;
+import java.sql.Statement;
+import java.util.Map;
+
+import jakarta.resource.spi.ManagedConnection;
+import jakarta.resource.spi.security.PasswordCredential;
+import javax.security.auth.Subject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * The call site of a tracked statement is the one of the application
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class CallSiteOriginTestCase
+{
+   /**
+    * The first frame of the origin of a statement is the caller of createStatement
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testStatementOrigin() throws Exception
+   {
+      LocalManagedConnectionFactory mcf = new LocalManagedConnectionFactory();
+      mcf.setDriverClass(MockDriver.class.getName());
+      mcf.setTrackStatements("callsite");
+
+      Subject subject = new Subject();
+      PasswordCredential pc = new PasswordCredential("test", "test".toCharArray());
+      pc.setManagedConnectionFactory(mcf);
+      subject.getPrivateCredentials().add(pc);
+
+      ManagedConnection mc = mcf.createManagedConnection(subject, null);
+      WrappedConnection handle = (WrappedConnection)mc.getConnection(subject, null);
+
+      Statement stmt = handle.createStatement();
+      assertNotNull(stmt);
+
+      Field f = WrappedConnection.class.getDeclaredField("statements");
+      f.setAccessible(true);
+      Map<?, ?> statements = (Map<?, ?>)f.get(handle);
+
+      Throwable origin = (Throwable)statements.get(stmt);
+      assertNotNull(origin);
+
+      StackTraceElement[] frames = origin.getStackTrace();
+      assertEquals(CallSiteOriginTestCase.class.getName(), frames[0].getClassName());
+      assertEquals("testStatementOrigin", frames[0].getMethodName());
+
+      mc.destroy();
+   }
+}
@@ -0,0 +1,141 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.local;
+
+import org.jboss.jca.adapters.jdbc.WrappedConnection;
+import org.jboss.jca.adapters.jdbc.local.testimpl.MockConnection;
+import org.jboss.jca.adapters.jdbc.local.testimpl.MockDriver;
+import org.jboss.jca.adapters.jdbc.spi.ClassLoaderPlugin;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.SQLException;
+
+import jakarta.resource.spi.ManagedConnection;
+import jakarta.resource.spi.security.PasswordCredential;
+import javax.security.auth.Subject;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The thread context class loader of the calls to the driver
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class WrappedConnectionClassLoaderTestCase
+{
+   private LocalManagedConnectionFactory mcf;
+   private Subject subject;
+   private ClassLoader tccl;
+   private ClassLoader driverCl;
+   private ManagedConnection mc;
+
+   /**
+    * Setup
+    * @exception Exception Thrown if an error occurs
+    */
+   @Before
+   public void setUp() throws Exception
+   {
+      mcf = new LocalManagedConnectionFactory();
+      mcf.setDriverClass(MockDriver.class.getName());
+
+      subject = new Subject();
+      PasswordCredential pc = new PasswordCredential("test", "test".toCharArray());
+      pc.setManagedConnectionFactory(mcf);
+      subject.getPrivateCredentials().add(pc);
+
+      tccl = Thread.currentThread().getContextClassLoader();
+      driverCl = new URLClassLoader(new URL[0], tccl);
+   }
+
+   /**
+    * Teardown
+    * @exception Exception Thrown if an error occurs
+    */
+   @After
+   public void tearDown() throws Exception
+   {
+      Thread.currentThread().setContextClassLoader(tccl);
+
+      if (mc != null)
+         mc.destroy();
+   }
+
+   /**
+    * The context class loader is left alone when it already is the one of the plugin
+    * @exception Exception Thrown if an error occurs
+    */
+   @Test
+   public void testUnchangedClassLoader() throws Exception
+   {
+      WrappedConnection wc = getConnection();
+
+      Assert.assertEquals("select 1", wc.nativeSQL("select 1"));
+      Assert.assertSame(tccl, MockConnection.getNativeSQLClassLoader());
+      Assert.assertSame(tccl, Thread.currentThread().getContextClassLoader());
+   }
+
+   /**
+    * The class loader of the plugin is used for the call, and the context class loader restored
+    * @exception Exception Thrown if an error occurs
+    */
+   @Test
+   public void testSwitchedClassLoader() throws Exception
+   {
+      mcf.setClassLoaderPlugin(new ClassLoaderPlugin()
+      {
+         public ClassLoader getClassLoader()
+         {
+            return driverCl;
+         }
+      });
+      WrappedConnection wc = getConnection();
+
+      Assert.assertEquals("select 1", wc.nativeSQL("select 1"));
+      Assert.assertSame(driverCl, MockConnection.getNativeSQLClassLoader());
+      Assert.assertSame(tccl, Thread.currentThread().getContextClassLoader());
+
+      try
+      {
+         wc.nativeSQL("fail");
+         Assert.fail("Expected SQLException");
+      }
+      catch (SQLException sqle)
+      {
+         // Expected
+      }
+
+      Assert.assertSame(driverCl, MockConnection.getNativeSQLClassLoader());
+      Assert.assertSame(tccl, Thread.currentThread().getContextClassLoader());
+   }
+
+   private WrappedConnection getConnection() throws Exception
+   {
+      mc = mcf.createManagedConnection(subject, null);
+      return (WrappedConnection) mc.getConnection(subject, null);
+   }
+}
@@ -101,10 +101,18 @@ public class MockConnection implements Connection {
 		return null;
 	}
 
+	private static volatile ClassLoader nativeSQLClassLoader;
+
+	public static ClassLoader getNativeSQLClassLoader() {
+		return nativeSQLClassLoader;
+	}
+
 	@Override
 	public String nativeSQL(String sql) throws SQLException {
-		// TODO Auto-generated method stub
-		return null;
+		nativeSQLClassLoader = Thread.currentThread().getContextClassLoader();
+		if ("fail".equals(sql))
+			throw new SQLException(sql);
+		return sql;
 	}
 
 	@Override
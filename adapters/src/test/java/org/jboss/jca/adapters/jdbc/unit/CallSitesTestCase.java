@@ -0,0 +1,125 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.unit;
+
+import org.jboss.jca.adapters.jdbc.util.CallSites;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for the call sites of tracked statements
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class CallSitesTestCase
+{
+   private static final String UTIL = "org.jboss.jca.adapters.jdbc.util";
+
+   /**
+    * A call site is captured once, and shared
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testSameCallSite() throws Exception
+   {
+      CallSites callSites = new CallSites(8, 16, UTIL);
+
+      Throwable first = null;
+      for (int i = 0; i < 100; i++)
+      {
+         Throwable t = callSites.capture();
+
+         if (first == null)
+            first = t;
+
+         assertSame(first, t);
+      }
+
+      assertEquals(1, callSites.size());
+
+      StackTraceElement[] origin = first.getStackTrace();
+      assertTrue(origin.length > 0 && origin.length <= 8);
+      assertEquals(CallSitesTestCase.class.getName(), origin[0].getClassName());
+      assertEquals("testSameCallSite", origin[0].getMethodName());
+   }
+
+   /**
+    * Distinct call sites are told apart
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testDistinctCallSites() throws Exception
+   {
+      CallSites callSites = new CallSites(8, 16, UTIL);
+
+      Throwable a = callSites.capture();
+      Throwable b = callSites.capture();
+
+      assertNotSame(a, b);
+      assertEquals(2, callSites.size());
+      assertEquals(a.getStackTrace()[0].getMethodName(), b.getStackTrace()[0].getMethodName());
+      assertTrue(a.getStackTrace()[0].getLineNumber() != b.getStackTrace()[0].getLineNumber());
+   }
+
+   /**
+    * The frames of the skipped packages, and beyond the depth, aren't recorded
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testDepth() throws Exception
+   {
+      CallSites callSites = new CallSites(2, 16, UTIL, CallSitesTestCase.class.getPackage().getName());
+
+      StackTraceElement[] origin = callSites.capture().getStackTrace();
+
+      assertEquals(2, origin.length);
+      for (StackTraceElement e : origin)
+         assertTrue(e.getClassName(), !e.getClassName().startsWith("org.jboss.jca.adapters.jdbc."));
+   }
+
+   /**
+    * Call sites beyond the maximum are captured, but not kept
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testMax() throws Exception
+   {
+      CallSites callSites = new CallSites(8, 1, UTIL);
+
+      Throwable a = callSites.capture();
+      Throwable b = callSites.capture();
+
+      assertNotNull(b);
+      assertNotSame(a, b);
+      assertEquals(1, callSites.size());
+
+      callSites.clear();
+      assertEquals(0, callSites.size());
+   }
+}
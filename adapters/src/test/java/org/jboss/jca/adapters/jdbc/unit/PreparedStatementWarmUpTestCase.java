@@ -0,0 +1,150 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.unit;
+
+import org.jboss.jca.adapters.jdbc.PreparedStatementCache.Key;
+import org.jboss.jca.adapters.jdbc.PreparedStatementWarmUp;
+import org.jboss.jca.adapters.jdbc.util.FrequencySketch;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for the prepared statement warm-up
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PreparedStatementWarmUpTestCase
+{
+   private static final Key SELECT = new Key("SELECT * FROM test WHERE id = ?", Key.PREPARED_STATEMENT,
+                                             ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+   private static final Key UPDATE = new Key("UPDATE test\nSET name = ? -- \\ note\nWHERE id = ?",
+                                             Key.PREPARED_STATEMENT,
+                                             ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+   private static final Key CALL = new Key("{call test(?)}", Key.CALLABLE_STATEMENT,
+                                           ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_UPDATABLE);
+
+   /**
+    * The hottest statements come first
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testHottest() throws Exception
+   {
+      FrequencySketch<Key> frequency = new FrequencySketch<Key>(100);
+      PreparedStatementWarmUp warmUp = new PreparedStatementWarmUp(2, null, frequency);
+
+      record(warmUp, frequency, SELECT, 5);
+      record(warmUp, frequency, UPDATE, 1);
+      record(warmUp, frequency, CALL, 3);
+
+      List<Key> hottest = warmUp.getHottest();
+      assertEquals(2, hottest.size());
+      assertEquals(SELECT, hottest.get(0));
+      assertEquals(CALL, hottest.get(1));
+   }
+
+   /**
+    * Many cold statements don't push out the hot ones
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testPrune() throws Exception
+   {
+      FrequencySketch<Key> frequency = new FrequencySketch<Key>(1000);
+      PreparedStatementWarmUp warmUp = new PreparedStatementWarmUp(10, null, frequency);
+
+      record(warmUp, frequency, SELECT, 10);
+      record(warmUp, frequency, CALL, 5);
+
+      for (int i = 0; i < 1000; i++)
+      {
+         record(warmUp, frequency, new Key("SELECT " + i, Key.PREPARED_STATEMENT,
+                                           ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY), 1);
+      }
+
+      List<Key> hottest = warmUp.getHottest();
+      assertEquals(SELECT, hottest.get(0));
+      assertEquals(CALL, hottest.get(1));
+   }
+
+   /**
+    * The statements survive a restart
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testPersist() throws Exception
+   {
+      File file = File.createTempFile("warmup", ".txt");
+      file.delete();
+
+      try
+      {
+         FrequencySketch<Key> frequency = new FrequencySketch<Key>(100);
+         PreparedStatementWarmUp warmUp = new PreparedStatementWarmUp(3, file.getPath(), frequency);
+         record(warmUp, frequency, UPDATE, 4);
+         record(warmUp, frequency, CALL, 2);
+         record(warmUp, frequency, SELECT, 1);
+         warmUp.save();
+
+         assertTrue(file.exists());
+
+         PreparedStatementWarmUp restarted =
+            new PreparedStatementWarmUp(3, file.getPath(), new FrequencySketch<Key>(100));
+         List<Key> hottest = restarted.getHottest();
+
+         assertEquals(3, hottest.size());
+         assertEquals(UPDATE, hottest.get(0));
+         assertEquals(UPDATE.getSql(), hottest.get(0).getSql());
+         assertEquals(CALL, hottest.get(1));
+         assertEquals(SELECT, hottest.get(2));
+      }
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Add a statement to a cache, and request it
+    * @param warmUp The warm-up
+    * @param frequency The frequencies
+    * @param key The key
+    * @param times The number of requests
+    */
+   private static void record(PreparedStatementWarmUp warmUp, FrequencySketch<Key> frequency, Key key, int times)
+   {
+      warmUp.record(key);
+
+      for (int i = 0; i < times; i++)
+         frequency.increment(key);
+   }
+}
@@ -0,0 +1,233 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.unit;
+
+import org.jboss.jca.adapters.jdbc.util.CacheListener;
+import org.jboss.jca.adapters.jdbc.util.FrequencySketch;
+import org.jboss.jca.adapters.jdbc.util.TinyLFUCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for the frequency aware cache
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TinyLFUCacheTestCase
+{
+   /**
+    * Frequently requested objects survive a scan of new objects
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testScanResistance() throws Exception
+   {
+      TinyLFUCache<String, String> cache = new TinyLFUCache<String, String>(10);
+      Recorder recorder = new Recorder();
+      cache.setListener(recorder);
+
+      for (int i = 0; i < 10; i++)
+      {
+         assertNull(cache.get("hot" + i));
+         cache.insert("hot" + i, "hot" + i);
+      }
+
+      for (int round = 0; round < 5; round++)
+      {
+         for (int i = 0; i < 10; i++)
+            assertNotNull(cache.get("hot" + i));
+      }
+
+      for (int i = 0; i < 100; i++)
+      {
+         if (cache.get("cold" + i) == null)
+            cache.insert("cold" + i, "cold" + i);
+      }
+
+      assertEquals(10, cache.size());
+      assertEquals(100, recorder.evicted.size());
+
+      int hot = 0;
+      for (int i = 0; i < 10; i++)
+      {
+         if (cache.peek("hot" + i) != null)
+            hot++;
+      }
+
+      assertTrue("Hot entries: " + hot, hot >= 9);
+   }
+
+   /**
+    * Inserting an existing key keeps the cached object
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testDuplicate() throws Exception
+   {
+      TinyLFUCache<String, String> cache = new TinyLFUCache<String, String>(10);
+      Recorder recorder = new Recorder();
+      cache.setListener(recorder);
+
+      cache.insert("key", "first");
+      cache.insert("key", "second");
+
+      assertEquals("first", cache.get("key"));
+      assertEquals(1, cache.size());
+      assertEquals(1, recorder.evicted.size());
+      assertEquals("second", recorder.evicted.get(0));
+   }
+
+   /**
+    * Flush evicts the matching objects
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testFlush() throws Exception
+   {
+      TinyLFUCache<String, String> cache = new TinyLFUCache<String, String>(10);
+      Recorder recorder = new Recorder();
+      cache.setListener(recorder);
+
+      for (int i = 0; i < 10; i++)
+         cache.insert("key" + i, i % 2 == 0 ? "even" : "odd");
+
+      cache.flush(v -> v.equals("odd"));
+      assertEquals(5, cache.size());
+      assertEquals(5, recorder.evicted.size());
+
+      cache.remove("key0");
+      assertEquals(4, cache.size());
+      assertEquals(5, recorder.evicted.size());
+
+      cache.flush();
+      assertEquals(0, cache.size());
+      assertEquals(9, recorder.evicted.size());
+   }
+
+   /**
+    * The frequencies are shared between caches
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testSharedFrequency() throws Exception
+   {
+      FrequencySketch<String> sketch = new FrequencySketch<String>(10);
+      TinyLFUCache<String, String> first = new TinyLFUCache<String, String>(10, sketch);
+      TinyLFUCache<String, String> second = new TinyLFUCache<String, String>(10, sketch);
+
+      for (int i = 0; i < 5; i++)
+         first.get("key");
+
+      assertNull(second.get("key"));
+
+      sketch.drain();
+      assertEquals(6, sketch.frequency("key"));
+      assertEquals(0, sketch.frequency("other"));
+   }
+
+   /**
+    * Concurrent increments are applied once the sketch is drained
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testConcurrentFrequency() throws Exception
+   {
+      final FrequencySketch<String> sketch = new FrequencySketch<String>(1000);
+      Thread[] threads = new Thread[4];
+
+      for (int i = 0; i < threads.length; i++)
+      {
+         final String key = "key" + i;
+         threads[i] = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               for (int j = 0; j < 3; j++)
+                  sketch.increment(key);
+
+               for (int j = 0; j < 100; j++)
+                  sketch.increment("shared");
+            }
+         });
+         threads[i].start();
+      }
+
+      for (Thread t : threads)
+         t.join();
+
+      sketch.drain();
+
+      // An increment may be dropped when a buffer is full while another thread drains
+      for (int i = 0; i < threads.length; i++)
+         assertTrue(sketch.frequency("key" + i) <= 3);
+
+      assertEquals(15, sketch.frequency("shared"));
+      assertEquals(0, sketch.frequency("other"));
+   }
+
+   /**
+    * The increments of a single thread are never dropped, even when its buffer fills up
+    * @throws Exception in case of errors
+    */
+   @Test
+   public void testBufferedFrequency() throws Exception
+   {
+      FrequencySketch<String> sketch = new FrequencySketch<String>(1000);
+
+      for (int i = 0; i < 3; i++)
+         sketch.increment("warm");
+
+      for (int i = 0; i < 100; i++)
+         sketch.increment("hot" + (i % 5));
+
+      sketch.drain();
+
+      assertEquals(3, sketch.frequency("warm"));
+      for (int i = 0; i < 5; i++)
+         assertEquals(15, sketch.frequency("hot" + i));
+   }
+
+   /**
+    * Records the evicted objects
+    */
+   static class Recorder implements CacheListener<String>
+   {
+      List<String> evicted = new ArrayList<String>();
+
+      /**
+       * {@inheritDoc}
+       */
+      public void onEviction(String value)
+      {
+         evicted.add(value);
+      }
+   }
+}
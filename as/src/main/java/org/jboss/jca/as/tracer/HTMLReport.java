@@ -23,11 +23,12 @@
 package org.jboss.jca.as.tracer;
 
 import org.jboss.jca.Version;
+import org.jboss.jca.core.tracer.BinaryTraceReader;
 import org.jboss.jca.core.tracer.TraceEvent;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
@@ -36,13 +37,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * HTML report generator for a tracer log
  */
 public class HTMLReport
 {
-   private static final String NEW_LINE = System.getProperty("line.separator", "\n");
+   static final String NEW_LINE = System.getProperty("line.separator", "\n");
 
    /**
     * Write string
@@ -2114,6 +2121,273 @@ public class HTMLReport
       writeEOL(fw);
    }
    
+   /**
+    * Analyze the pools in parallel, and write their reports
+    * @param partitions Pool -> Partition
+    * @param root The report directory
+    * @param ignoreDelist Should DELIST be ignored
+    * @param ignoreTracking Should TRACKING be ignored
+    * @param ignoreIncomplete Ignore incomplete traces
+    * @param noSDedit Don't generate the SDedit files
+    * @param bucketSize The size of the buckets a pool is analyzed in
+    * @return The analyzed partitions, with their events released
+    * @exception Exception If an error occurs
+    */
+   private static List<TraceEventPartition> generatePoolHTML(Map<String, File> partitions, final File root,
+                                                             final boolean ignoreDelist,
+                                                             final boolean ignoreTracking,
+                                                             final boolean ignoreIncomplete,
+                                                             final boolean noSDedit,
+                                                             long bucketSize)
+      throws Exception
+   {
+      int threads = Math.max(1, Math.min(partitions.size(), Runtime.getRuntime().availableProcessors()));
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+      try
+      {
+         List<Future<TraceEventPartition>> futures = new ArrayList<Future<TraceEventPartition>>();
+
+         for (Map.Entry<String, File> entry : partitions.entrySet())
+         {
+            final TraceEventPartition partition =
+               new TraceEventPartition(entry.getKey(), entry.getValue(), bucketSize);
+
+            futures.add(executor.submit(new Callable<TraceEventPartition>()
+            {
+               public TraceEventPartition call() throws Exception
+               {
+                  generatePoolHTML(partition, root, ignoreDelist, ignoreTracking, ignoreIncomplete, noSDedit);
+                  partition.release();
+
+                  return partition;
+               }
+            }));
+         }
+
+         List<TraceEventPartition> result = new ArrayList<TraceEventPartition>(futures.size());
+         for (Future<TraceEventPartition> future : futures)
+         {
+            try
+            {
+               result.add(future.get());
+            }
+            catch (ExecutionException ee)
+            {
+               if (ee.getCause() instanceof Exception)
+                  throw (Exception)ee.getCause();
+
+               throw ee;
+            }
+         }
+
+         return result;
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+   }
+
+   /**
+    * Analyze a pool, and write its reports
+    * @param partition The partition
+    * @param root The report directory
+    * @param ignoreDelist Should DELIST be ignored
+    * @param ignoreTracking Should TRACKING be ignored
+    * @param ignoreIncomplete Ignore incomplete traces
+    * @param noSDedit Don't generate the SDedit files
+    * @exception Exception If an error occurs
+    */
+   private static void generatePoolHTML(final TraceEventPartition partition, File root,
+                                        boolean ignoreDelist, boolean ignoreTracking, boolean ignoreIncomplete,
+                                        final boolean noSDedit)
+      throws Exception
+   {
+      final String path = root.getAbsolutePath() + "/" + partition.getPool();
+      final Map<String, TraceEventStatus> clStatus = new TreeMap<String, TraceEventStatus>();
+
+      partition.load(ignoreDelist, ignoreTracking, ignoreIncomplete, new TraceEventPartition.InteractionHandler()
+      {
+         public void interactions(List<Interaction> interactions) throws Exception
+         {
+            if (partition.isPool())
+               generateConnectionListenerHTML(partition, interactions, path, noSDedit, clStatus);
+         }
+      });
+
+      if (partition.getCCMStatus() != null)
+      {
+         FileWriter ccm = null;
+         try
+         {
+            String ccmPath = root.getAbsolutePath() + "/CachedConnectionManager";
+            File f = new File(ccmPath);
+            f.mkdirs();
+
+            ccm = new FileWriter(ccmPath + "/" + "ccm.html");
+            generateCCMHTML(partition.getCCM(), partition.getCCMStatus(), ccmPath, ccm);
+         }
+         finally
+         {
+            if (ccm != null)
+            {
+               try
+               {
+                  ccm.flush();
+                  ccm.close();
+               }
+               catch (Exception e)
+               {
+                  // Ignore
+               }
+            }
+         }
+      }
+
+      if (!partition.isPool())
+         return;
+
+      String poolName = partition.getPool();
+      File f = new File(path);
+      f.mkdirs();
+
+      FileWriter pool = null;
+      try
+      {
+         pool = new FileWriter(f.getAbsolutePath() + "/" + "index.html");
+         generatePoolIndexHTML(poolName, partition.getStatus(), partition.getManagedConnectionPools(), clStatus, pool);
+      }
+      finally
+      {
+         if (pool != null)
+         {
+            try
+            {
+               pool.flush();
+               pool.close();
+            }
+            catch (Exception e)
+            {
+               // Ignore
+            }
+         }
+      }
+
+      FileWriter lifecycle = null;
+      try
+      {
+         lifecycle = new FileWriter(path + "/" + "lifecycle.html");
+         generateLifecycleHTML(poolName, partition.getLifecycle(), partition.getActiveConnectionListeners(),
+                               lifecycle);
+      }
+      finally
+      {
+         if (lifecycle != null)
+         {
+            try
+            {
+               lifecycle.flush();
+               lifecycle.close();
+            }
+            catch (Exception e)
+            {
+               // Ignore
+            }
+         }
+      }
+
+      FileWriter ccm = null;
+      try
+      {
+         TraceEventStatus ccmPStatus = partition.getCCMPoolStatus();
+         if (ccmPStatus == null)
+            ccmPStatus = TraceEventStatus.GREEN;
+
+         ccm = new FileWriter(path + "/" + "ccm.html");
+         generateCCMPoolHTML(poolName, partition.getCCMPool(), ccmPStatus, ccm);
+      }
+      finally
+      {
+         if (ccm != null)
+         {
+            try
+            {
+               ccm.flush();
+               ccm.close();
+            }
+            catch (Exception e)
+            {
+               // Ignore
+            }
+         }
+      }
+   }
+
+   /**
+    * Write the reports of the connection listeners of a bucket
+    * @param partition The partition
+    * @param interactions The interactions
+    * @param path The pool directory
+    * @param noSDedit Don't generate the SDedit files
+    * @param clStatus ConnectionListener -> Status; updated
+    * @exception Exception If an error occurs
+    */
+   private static void generateConnectionListenerHTML(TraceEventPartition partition, List<Interaction> interactions,
+                                                      String path, boolean noSDedit,
+                                                      Map<String, TraceEventStatus> clStatus)
+      throws Exception
+   {
+      Map<String, List<Interaction>> clInteractions = TraceEventHelper.getConnectionListenerData(interactions);
+
+      Iterator<Map.Entry<String, List<Interaction>>> dataIt = clInteractions.entrySet().iterator();
+      while (dataIt.hasNext())
+      {
+         Map.Entry<String, List<Interaction>> dataEntry = dataIt.next();
+         String identifier = dataEntry.getKey();
+
+         // Calculate connection listener status
+         List<TraceEventStatus> clStatuses = new ArrayList<TraceEventStatus>();
+
+         for (Interaction interaction : dataEntry.getValue())
+            clStatuses.add(interaction.getStatus());
+
+         TraceEventStatus currentCLStatus = TraceEventHelper.mergeStatus(clStatuses);
+         clStatus.put(identifier, currentCLStatus);
+
+         FileWriter cl = null;
+         try
+         {
+            String clPath = path + "/" + identifier;
+            File clF = new File(clPath);
+            clF.mkdirs();
+
+            cl = new FileWriter(clF.getAbsolutePath() + "/" + "index.html");
+
+            generateConnectionListenerIndexHTML(identifier, dataEntry.getValue(),
+                                                currentCLStatus,
+                                                partition.getCreateEvent(identifier),
+                                                partition.getDestroyEvent(identifier),
+                                                noSDedit, clPath, cl);
+         }
+         finally
+         {
+            if (cl != null)
+            {
+               try
+               {
+                  cl.flush();
+                  cl.close();
+               }
+               catch (Exception e)
+               {
+                  // Ignore
+               }
+            }
+         }
+      }
+   }
+
    /**
     * Main
     * @param args The arguments
@@ -2154,248 +2428,129 @@ public class HTMLReport
          argCount++;
       }
 
-      File logFile = new File(args[argCount]);
-      FileReader logReader = null;
-
       String rootDirectory = "report";
       if (args.length > argCount + 1)
          rootDirectory = args[argCount + 1];
 
-      File root = new File(rootDirectory);
-
       try
       {
-         logReader = new FileReader(logFile);
-         root.mkdirs();
-
-         List<TraceEvent> events = TraceEventHelper.getEvents(logReader, root);
-         Map<String, List<Interaction>> poolData =
-            TraceEventHelper.getPoolData(TraceEventHelper.filterPoolEvents(events),
-                                         ignoreDelist, ignoreTracking, ignoreIncomplete);
-         Map<String, List<TraceEvent>> filteredLifecycle = TraceEventHelper.filterLifecycleEvents(events);
-         List<TraceEvent> filteredCCM = TraceEventHelper.filterCCMEvents(events);
-         Map<String, List<TraceEvent>> filteredCCMPool = TraceEventHelper.filterCCMPoolEvents(events);
-         Map<String, Set<String>> poolMCPs = TraceEventHelper.poolManagedConnectionPools(events);
-         Map<String, List<TraceEvent>> tocConnections = TraceEventHelper.tocConnections(events);
-         Map<String, TraceEvent> tocManagedConnections = TraceEventHelper.tocManagedConnections(events);
-         Map<String, List<TraceEvent>> tocConnectionListeners = TraceEventHelper.tocConnectionListeners(events);
-         Map<String, List<TraceEvent>> tocMCPs = TraceEventHelper.tocManagedConnectionPools(events);
-
-         // CCM status calculation
-         TraceEventStatus ccmStatus = TraceEventHelper.getCCMStatus(filteredCCM, ignoreIncomplete);
-         Map<String, TraceEventStatus> ccmPoolStatus = new TreeMap<String, TraceEventStatus>();
-         for (Map.Entry<String, List<TraceEvent>> entry : filteredCCMPool.entrySet())
-         {
-            ccmPoolStatus.put(entry.getKey(), TraceEventHelper.getCCMPoolStatus(entry.getValue(), ignoreIncomplete));
-         }
-
-         // Overall pool status
-         Map<String, TraceEventStatus> overallPoolStatus = new TreeMap<String, TraceEventStatus>();
-         
-         for (String poolName : filteredLifecycle.keySet())
-         {
-            List<Interaction> interactions = poolData.get(poolName);
+         generateReport(new File(args[argCount]), new File(rootDirectory),
+                        ignoreDelist, ignoreTracking, ignoreIncomplete, noSDedit,
+                        BinaryTraceReader.DEFAULT_RUN_SIZE, TraceEventPartition.DEFAULT_BUCKET_SIZE);
+      }
+      catch (Exception e)
+      {
+         e.printStackTrace();
+      }
+   }
 
-            overallPoolStatus.put(poolName, TraceEventStatus.GREEN);
+   /**
+    * Generate the report
+    * @param logFile The tracer log, or a binary trace file
+    * @param root The report directory
+    * @param ignoreDelist Should DELIST be ignored
+    * @param ignoreTracking Should TRACKING be ignored
+    * @param ignoreIncomplete Ignore incomplete traces
+    * @param noSDedit Don't generate the SDedit files
+    * @param runSize The number of binary records sorted in memory
+    * @param bucketSize The size of the buckets a pool is analyzed in
+    * @exception Exception If an error occurs
+    */
+   static void generateReport(File logFile, File root,
+                              boolean ignoreDelist, boolean ignoreTracking, boolean ignoreIncomplete,
+                              boolean noSDedit, int runSize, long bucketSize)
+      throws Exception
+   {
+      TraceEventPartitioner partitioner = null;
+      File work = null;
 
-            if (interactions != null)
-            {
-               List<TraceEventStatus> statuses = new ArrayList<TraceEventStatus>();
+      try
+      {
+         root.mkdirs();
+         work = Files.createTempDirectory(root.toPath(), "partitions").toFile();
 
-               for (Interaction interaction : interactions)
-                  statuses.add(interaction.getStatus());
+         partitioner = new TraceEventPartitioner(root, work, runSize);
+         partitioner.partition(logFile);
 
-               overallPoolStatus.put(poolName, TraceEventHelper.mergeStatus(statuses));
-            }
-         }
+         List<TraceEventPartition> partitions =
+            generatePoolHTML(partitioner.getPartitions(), root, ignoreDelist, ignoreTracking, ignoreIncomplete,
+                             noSDedit, bucketSize);
 
-         FileWriter topLevel = null;
-         try
-         {
-            topLevel = new FileWriter(root.getAbsolutePath() + "/" + "index.html");
-            generateTopLevelIndexHTML(filteredLifecycle.keySet(), overallPoolStatus,
-                                      ccmStatus, ccmPoolStatus,
-                                      TraceEventHelper.getVersion(events), topLevel);
-         }
-         finally
+         Set<String> poolNames = new TreeSet<String>();
+         Map<String, TraceEventStatus> overallPoolStatus = new TreeMap<String, TraceEventStatus>();
+         Map<String, TraceEventStatus> ccmPoolStatus = new TreeMap<String, TraceEventStatus>();
+         TraceEventStatus ccmStatus = null;
+         Map<String, List<TraceEvent>> tocConnections = new TreeMap<String, List<TraceEvent>>();
+         Map<String, TraceEvent> tocManagedConnections = new TreeMap<String, TraceEvent>();
+         Map<String, List<TraceEvent>> tocConnectionListeners = new TreeMap<String, List<TraceEvent>>();
+         Map<String, List<TraceEvent>> tocMCPs = new TreeMap<String, List<TraceEvent>>();
+         List<Interaction> allInteractions = new ArrayList<Interaction>();
+
+         for (TraceEventPartition partition : partitions)
          {
-            if (topLevel != null)
+            if (partition.isPool())
             {
-               try
-               {
-                  topLevel.flush();
-                  topLevel.close();
-               }
-               catch (Exception e)
-               {
-                  // Ignore
-               }
+               poolNames.add(partition.getPool());
+               overallPoolStatus.put(partition.getPool(), partition.getStatus());
             }
-         }
 
+            if (partition.getCCMPoolStatus() != null)
+               ccmPoolStatus.put(partition.getPool(), partition.getCCMPoolStatus());
 
-         for (String poolName : filteredLifecycle.keySet())
-         {
-            List<Interaction> data = poolData.get(poolName);
+            if (partition.getCCMStatus() != null)
+               ccmStatus = partition.getCCMStatus();
 
-            FileWriter pool = null;
-            try
+            for (Map.Entry<String, List<TraceEvent>> entry : partition.getToCConnections().entrySet())
             {
-               String path = root.getAbsolutePath() + "/" + poolName;
-               File f = new File(path);
-               f.mkdirs();
+               List<TraceEvent> l = tocConnections.get(entry.getKey());
 
-               Map<String, TraceEventStatus> clStatus = new TreeMap<String, TraceEventStatus>();
-               if (data != null)
+               if (l == null)
                {
-                  Map<String, List<Interaction>> clInteractions = TraceEventHelper.getConnectionListenerData(data);
-                  
-                  Iterator<Map.Entry<String, List<Interaction>>> dataIt = clInteractions.entrySet().iterator();
-                  while (dataIt.hasNext())
-                  {
-                     Map.Entry<String, List<Interaction>> dataEntry = dataIt.next();
-                     String identifier = dataEntry.getKey();
-
-                     // Calculate connection listener status
-                     List<TraceEventStatus> clStatuses = new ArrayList<TraceEventStatus>();
-
-                     for (Interaction interaction : dataEntry.getValue())
-                        clStatuses.add(interaction.getStatus());
-
-                     TraceEventStatus currentCLStatus = TraceEventHelper.mergeStatus(clStatuses);
-                     clStatus.put(identifier, currentCLStatus);
-                     
-                     FileWriter cl = null;
-                     try
-                     {
-                        String clPath = path + "/" + identifier;
-                        File clF = new File(clPath);
-                        clF.mkdirs();
-
-                        cl = new FileWriter(clF.getAbsolutePath() + "/" + "index.html");
-
-                        TraceEvent createCallStack =
-                           TraceEventHelper.getType(events, identifier,
-                                                    TraceEvent.CREATE_CONNECTION_LISTENER_GET,
-                                                    TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL,
-                                                    TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER);
-                        
-                        TraceEvent destroyCallStack =
-                           TraceEventHelper.getType(events, identifier,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL,
-                                                    TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER);
-                        
-                        generateConnectionListenerIndexHTML(identifier, dataEntry.getValue(),
-                                                            currentCLStatus,
-                                                            createCallStack, destroyCallStack,
-                                                            noSDedit, clPath, cl);
-                     }
-                     finally
-                     {
-                        if (cl != null)
-                        {
-                           try
-                           {
-                              cl.flush();
-                              cl.close();
-                           }
-                           catch (Exception e)
-                           {
-                              // Ignore
-                           }
-                        }
-                     }
-                  }
+                  tocConnections.put(entry.getKey(), entry.getValue());
                }
-
-               pool = new FileWriter(f.getAbsolutePath() + "/" + "index.html");
-               generatePoolIndexHTML(poolName, overallPoolStatus.get(poolName), poolMCPs.get(poolName), clStatus, pool);
-            }
-            finally
-            {
-               if (pool != null)
+               else
                {
-                  try
-                  {
-                     pool.flush();
-                     pool.close();
-                  }
-                  catch (Exception e)
-                  {
-                     // Ignore
-                  }
+                  l.addAll(entry.getValue());
                }
             }
-         }
 
-         Set<String> activeCLs = new HashSet<String>();
-         for (List<Interaction> interactions : poolData.values())
-         {
-            for (Interaction interaction : interactions)
-               activeCLs.add(interaction.getConnectionListener());
-         }
-
-         Iterator<Map.Entry<String, List<TraceEvent>>> lifeIt = filteredLifecycle.entrySet().iterator();
-         while (lifeIt.hasNext())
-         {
-            Map.Entry<String, List<TraceEvent>> entry = lifeIt.next();
+            tocManagedConnections.putAll(partition.getToCManagedConnections());
 
-            FileWriter lifecycle = null;
-            try
+            for (Map.Entry<String, List<TraceEvent>> entry : partition.getToCConnectionListeners().entrySet())
             {
-               String path = root.getAbsolutePath() + "/" + entry.getKey();
-               File f = new File(path);
-               f.mkdirs();
-
-               lifecycle = new FileWriter(path + "/" + "lifecycle.html");
-               generateLifecycleHTML(entry.getKey(), entry.getValue(), activeCLs, lifecycle);
+               if (!tocConnectionListeners.containsKey(entry.getKey()))
+                  tocConnectionListeners.put(entry.getKey(), entry.getValue());
             }
-            finally
+
+            for (Map.Entry<String, List<TraceEvent>> entry : partition.getToCManagedConnectionPools().entrySet())
             {
-               if (lifecycle != null)
-               {
-                  try
-                  {
-                     lifecycle.flush();
-                     lifecycle.close();
-                  }
-                  catch (Exception e)
-                  {
-                     // Ignore
-                  }
-               }
+               if (!tocMCPs.containsKey(entry.getKey()))
+                  tocMCPs.put(entry.getKey(), entry.getValue());
             }
+
+            allInteractions.addAll(partition.getTransactions());
          }
 
-         FileWriter ccm = null;
+         boolean ccmReport = ccmStatus != null;
+         if (ccmStatus == null)
+            ccmStatus = TraceEventStatus.GREEN;
+
+         FileWriter topLevel = null;
          try
          {
-            String path = root.getAbsolutePath() + "/CachedConnectionManager";
-            File f = new File(path);
-            f.mkdirs();
-
-            if (filteredCCM == null)
-               filteredCCM = new ArrayList<TraceEvent>();
-            
-            if (ccmStatus == null)
-               ccmStatus = TraceEventStatus.GREEN;
-            
-            ccm = new FileWriter(path + "/" + "ccm.html");
-            generateCCMHTML(filteredCCM, ccmStatus, path, ccm);
+            topLevel = new FileWriter(root.getAbsolutePath() + "/" + "index.html");
+            generateTopLevelIndexHTML(poolNames, overallPoolStatus,
+                                      ccmStatus, ccmPoolStatus,
+                                      partitioner.getVersion(), topLevel);
          }
          finally
          {
-            if (ccm != null)
+            if (topLevel != null)
             {
                try
                {
-                  ccm.flush();
-                  ccm.close();
+                  topLevel.flush();
+                  topLevel.close();
                }
                catch (Exception e)
                {
@@ -2404,28 +2559,17 @@ public class HTMLReport
             }
          }
 
-         Iterator<String> ccmIt = filteredLifecycle.keySet().iterator();
-         while (ccmIt.hasNext())
+         if (!ccmReport)
          {
-            String ccmPoolKey = ccmIt.next();
-            List<TraceEvent> ccmPoolEvents = filteredCCMPool.get(ccmPoolKey);
-            TraceEventStatus ccmPStatus = ccmPoolStatus.get(ccmPoolKey);
-
-            ccm = null;
+            FileWriter ccm = null;
             try
             {
-               String path = root.getAbsolutePath() + "/" + ccmPoolKey;
+               String path = root.getAbsolutePath() + "/CachedConnectionManager";
                File f = new File(path);
                f.mkdirs();
 
-               if (ccmPoolEvents == null)
-                  ccmPoolEvents = new ArrayList<TraceEvent>();
-            
-               if (ccmPStatus == null)
-                  ccmPStatus = TraceEventStatus.GREEN;
-            
                ccm = new FileWriter(path + "/" + "ccm.html");
-               generateCCMPoolHTML(ccmPoolKey, ccmPoolEvents, ccmPStatus, ccm);
+               generateCCMHTML(new ArrayList<TraceEvent>(), ccmStatus, path, ccm);
             }
             finally
             {
@@ -2542,11 +2686,6 @@ public class HTMLReport
          FileWriter transaction = null;
          try
          {
-            List<Interaction> allInteractions = new ArrayList<Interaction>();
-            
-            for (List<Interaction> interactions : poolData.values())
-               allInteractions.addAll(interactions);
-
             Map<String, List<Interaction>> transactionData = TraceEventHelper.getTransactionData(allInteractions);
             String path = root.getAbsolutePath();
 
@@ -2569,23 +2708,13 @@ public class HTMLReport
             }
          }
       }
-      catch (Exception e)
-      {
-         e.printStackTrace();
-      }
       finally
       {
-         if (logReader != null)
-         {
-            try
-            {
-               logReader.close();
-            }
-            catch (Exception e)
-            {
-               // Ignore
-            }
-         }
+         if (partitioner != null)
+            partitioner.delete();
+
+         if (work != null && !work.delete())
+            work.deleteOnExit();
       }
    }
 }
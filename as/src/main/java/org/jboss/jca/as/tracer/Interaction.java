@@ -24,6 +24,7 @@ package org.jboss.jca.as.tracer;
 
 import org.jboss.jca.core.tracer.TraceEvent;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -68,6 +69,21 @@ public class Interaction
       this.transaction = null;
    }
 
+   /**
+    * Get a summary of the interaction, which only keeps the first event
+    * @return The summary
+    */
+   Interaction summary()
+   {
+      List<TraceEvent> first = new ArrayList<TraceEvent>(1);
+      first.add(events.get(0));
+
+      Interaction result = new Interaction(thread, startTime, endTime, first, status);
+      result.transaction = getTransaction() != null ? transaction : "";
+
+      return result;
+   }
+
    /**
     * Get thread id
     * @return The value
@@ -22,6 +22,7 @@
 
 package org.jboss.jca.as.tracer;
 
+import org.jboss.jca.core.tracer.BinaryTraceReader;
 import org.jboss.jca.core.tracer.TraceEvent;
 
 import java.io.File;
@@ -336,6 +337,28 @@ public class TraceEventHelper
       return getEvents(getData(fr, directory));
    }
 
+   /**
+    * Get the events from a binary trace file
+    * @param file The trace file
+    * @param directory The directory
+    * @return The events
+    * @exception Exception If an error occurs
+    */
+   public static List<TraceEvent> getEvents(File file, File directory) throws Exception
+   {
+      List<TraceEvent> result = BinaryTraceReader.getEvents(file);
+
+      List<String> data = new ArrayList<String>(result.size());
+      for (TraceEvent te : result)
+      {
+         data.add(te.toString());
+      }
+
+      writeRaw(data, directory);
+
+      return result;
+   }
+
    /**
     * Get status
     * @param input The input
@@ -1090,13 +1113,27 @@ public class TraceEventHelper
          s = r.readLine();
       }
 
+      writeRaw(result, directory);
+
+      
+      return result;
+   }
+
+   /**
+    * Write the raw data
+    * @param data The data
+    * @param directory The directory
+    * @exception Exception If an error occurs
+    */
+   private static void writeRaw(List<String> data, File directory) throws Exception
+   {
       FileWriter fw = null;
       try
       {
          fw = new FileWriter(directory.getAbsolutePath() + "/" + "raw.txt");
-         for (String data : result)
+         for (String s : data)
          {
-            HTMLReport.writeString(fw, data);
+            HTMLReport.writeString(fw, s);
             HTMLReport.writeEOL(fw);
          }
       }
@@ -1115,9 +1152,6 @@ public class TraceEventHelper
             }
          }
       }
-
-      
-      return result;
    }
 
    /**
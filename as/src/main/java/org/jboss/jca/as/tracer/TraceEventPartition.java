@@ -0,0 +1,622 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.as.tracer;
+
+import org.jboss.jca.core.tracer.TraceEvent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The events of a single pool, and the data derived from them.
+ *
+ * The lifecycle and CCM events of the pool are kept in memory, since their reports
+ * list all of them. The events of the interactions are split by connection listener
+ * into buckets of about <code>bucketSize</code> bytes, and the buckets are analyzed
+ * one at a time, such that only the interactions of one bucket are in memory.
+ */
+public class TraceEventPartition
+{
+   /** The default size of a bucket in bytes */
+   public static final long DEFAULT_BUCKET_SIZE = 32L * 1024L * 1024L;
+
+   /**
+    * Handler for the interactions of a bucket
+    */
+   public interface InteractionHandler
+   {
+      /**
+       * The interactions of a set of connection listeners
+       * @param interactions The interactions
+       * @exception Exception If an error occurs
+       */
+      public void interactions(List<Interaction> interactions) throws Exception;
+   }
+
+   /** The pool */
+   private String pool;
+
+   /** The partition file */
+   private File file;
+
+   /** The size of a bucket */
+   private long bucketSize;
+
+   /** The lifecycle events; <code>null</code> if none */
+   private List<TraceEvent> lifecycle;
+
+   /** The CCM events */
+   private List<TraceEvent> ccm;
+
+   /** The CCM pool events; <code>null</code> if none */
+   private List<TraceEvent> ccmPool;
+
+   /** The managed connection pools; <code>null</code> if none */
+   private Set<String> managedConnectionPools;
+
+   /** The active connection listeners */
+   private Set<String> activeConnectionListeners;
+
+   /** ConnectionListener -> Create event */
+   private Map<String, TraceEvent> createEvents;
+
+   /** ConnectionListener -> Destroy event */
+   private Map<String, TraceEvent> destroyEvents;
+
+   /** ToC: Connections */
+   private Map<String, List<TraceEvent>> tocConnections;
+
+   /** ToC: Managed connections */
+   private Map<String, TraceEvent> tocManagedConnections;
+
+   /** ToC: Connection listeners */
+   private Map<String, List<TraceEvent>> tocConnectionListeners;
+
+   /** ToC: Managed connection pools */
+   private Map<String, List<TraceEvent>> tocManagedConnectionPools;
+
+   /** Interactions with a transaction */
+   private List<Interaction> transactions;
+
+   /** The overall status */
+   private TraceEventStatus status;
+
+   /** The CCM status; <code>null</code> if no CCM events */
+   private TraceEventStatus ccmStatus;
+
+   /** The CCM pool status; <code>null</code> if no CCM pool events */
+   private TraceEventStatus ccmPoolStatus;
+
+   /**
+    * Constructor
+    * @param pool The pool
+    * @param file The partition file
+    */
+   public TraceEventPartition(String pool, File file)
+   {
+      this(pool, file, DEFAULT_BUCKET_SIZE);
+   }
+
+   /**
+    * Constructor
+    * @param pool The pool
+    * @param file The partition file
+    * @param bucketSize The size of a bucket in bytes
+    */
+   public TraceEventPartition(String pool, File file, long bucketSize)
+   {
+      if (bucketSize <= 0L)
+         throw new IllegalArgumentException("BucketSize must be positive: " + bucketSize);
+
+      this.pool = pool;
+      this.file = file;
+      this.bucketSize = bucketSize;
+   }
+
+   /**
+    * Load the events, and derive the data. The interactions are passed to the
+    * handler a bucket at a time, and aren't kept
+    * @param ignoreDelist Should DELIST be ignored
+    * @param ignoreTracking Should TRACKING be ignored
+    * @param ignoreIncomplete Ignore incomplete traces
+    * @param handler The handler
+    * @exception Exception If an error occurs
+    */
+   public void load(boolean ignoreDelist, boolean ignoreTracking, boolean ignoreIncomplete,
+                    InteractionHandler handler) throws Exception
+   {
+      ccm = new ArrayList<TraceEvent>();
+      createEvents = new HashMap<String, TraceEvent>();
+      destroyEvents = new HashMap<String, TraceEvent>();
+      tocConnections = new TreeMap<String, List<TraceEvent>>();
+      tocManagedConnections = new TreeMap<String, TraceEvent>();
+      tocConnectionListeners = new TreeMap<String, List<TraceEvent>>();
+      tocManagedConnectionPools = new TreeMap<String, List<TraceEvent>>();
+
+      int buckets = (int)Math.max(1L, Math.min(1024L, (file.length() + bucketSize - 1L) / bucketSize));
+      List<File> bucketFiles = new ArrayList<File>(buckets);
+      List<Writer> bucketWriters = new ArrayList<Writer>(buckets);
+
+      // With a single bucket the events are kept in memory
+      List<TraceEvent> events = buckets == 1 ? new ArrayList<TraceEvent>() : null;
+      List<Long> positions = buckets == 1 ? new ArrayList<Long>() : null;
+
+      try
+      {
+         for (int i = 0; i < buckets && buckets > 1; i++)
+         {
+            File f = new File(file.getParentFile(), file.getName() + "." + i);
+            bucketFiles.add(f);
+            bucketWriters.add(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f),
+                                                                        StandardCharsets.UTF_8)));
+         }
+
+         try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                                                                          StandardCharsets.UTF_8)))
+         {
+            long position = 0L;
+            String s = r.readLine();
+            while (s != null)
+            {
+               TraceEvent te = TraceEvent.parse(s);
+
+               if (add(te))
+               {
+                  if (events != null)
+                  {
+                     events.add(te);
+                     positions.add(Long.valueOf(position));
+                  }
+                  else
+                  {
+                     Writer w = bucketWriters.get((te.getConnectionListener().hashCode() & 0x7fffffff) % buckets);
+                     w.write(Long.toString(position));
+                     w.write(':');
+                     w.write(s);
+                     w.write('\n');
+                  }
+               }
+
+               position++;
+               s = r.readLine();
+            }
+         }
+
+         for (Writer w : bucketWriters)
+         {
+            w.close();
+         }
+         bucketWriters.clear();
+
+         activeConnectionListeners = new HashSet<String>();
+         List<TraceEventStatus> statuses = new ArrayList<TraceEventStatus>();
+
+         // Interactions with a transaction are kept in the order of a single pass over the pool
+         Map<Long, Interaction> completed = new TreeMap<Long, Interaction>();
+         Map<String, Interaction> incomplete = new TreeMap<String, Interaction>();
+
+         if (events != null)
+         {
+            analyze(events, positions, ignoreDelist, ignoreTracking, ignoreIncomplete, handler,
+                    statuses, completed, incomplete);
+            events = null;
+            positions = null;
+         }
+         else
+         {
+            for (File f : bucketFiles)
+            {
+               List<TraceEvent> bucket = new ArrayList<TraceEvent>();
+               List<Long> bucketPositions = new ArrayList<Long>();
+
+               try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f),
+                                                                                StandardCharsets.UTF_8)))
+               {
+                  String s = r.readLine();
+                  while (s != null)
+                  {
+                     int index = s.indexOf(':');
+                     bucketPositions.add(Long.valueOf(s.substring(0, index)));
+                     bucket.add(TraceEvent.parse(s.substring(index + 1)));
+                     s = r.readLine();
+                  }
+               }
+
+               analyze(bucket, bucketPositions, ignoreDelist, ignoreTracking, ignoreIncomplete, handler,
+                       statuses, completed, incomplete);
+            }
+         }
+
+         transactions = new ArrayList<Interaction>(completed.size() + incomplete.size());
+         transactions.addAll(completed.values());
+         transactions.addAll(incomplete.values());
+
+         status = statuses.isEmpty() ? TraceEventStatus.GREEN : TraceEventHelper.mergeStatus(statuses);
+         ccmStatus = !ccm.isEmpty() ? TraceEventHelper.getCCMStatus(ccm, ignoreIncomplete) : null;
+         ccmPoolStatus = ccmPool != null ? TraceEventHelper.getCCMPoolStatus(ccmPool, ignoreIncomplete) : null;
+      }
+      finally
+      {
+         for (Writer w : bucketWriters)
+         {
+            try
+            {
+               w.close();
+            }
+            catch (IOException ignore)
+            {
+               // Ignore
+            }
+         }
+
+         for (File f : bucketFiles)
+         {
+            if (!f.delete())
+               f.deleteOnExit();
+         }
+      }
+   }
+
+   /**
+    * Add an event to the data kept for the pool
+    * @param te The event
+    * @return True if the event is part of an interaction, otherwise false
+    */
+   private boolean add(TraceEvent te)
+   {
+      switch (te.getType())
+      {
+         case TraceEvent.CREATE_CONNECTION_LISTENER_GET:
+         case TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL:
+         case TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER:
+            if (!createEvents.containsKey(te.getConnectionListener()))
+               createEvents.put(te.getConnectionListener(), te);
+
+            tocManagedConnections.put(te.getPayload1(), te);
+            addLifecycle(te);
+            return false;
+
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL:
+         case TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER:
+            if (!destroyEvents.containsKey(te.getConnectionListener()))
+               destroyEvents.put(te.getConnectionListener(), te);
+
+            addLifecycle(te);
+            return false;
+
+         case TraceEvent.MANAGED_CONNECTION_POOL_CREATE:
+         case TraceEvent.MANAGED_CONNECTION_POOL_DESTROY:
+            addLifecycle(te);
+            return false;
+
+         case TraceEvent.PUSH_CCM_CONTEXT:
+         case TraceEvent.POP_CCM_CONTEXT:
+            ccm.add(te);
+            return false;
+
+         case TraceEvent.REGISTER_CCM_CONNECTION:
+         case TraceEvent.UNREGISTER_CCM_CONNECTION:
+         case TraceEvent.CCM_USER_TRANSACTION:
+         case TraceEvent.UNKNOWN_CCM_CONNECTION:
+         case TraceEvent.CLOSE_CCM_CONNECTION:
+            if (ccmPool == null)
+               ccmPool = new ArrayList<TraceEvent>();
+
+            ccmPool.add(te);
+            return false;
+
+         case TraceEvent.VERSION:
+            return false;
+
+         case TraceEvent.GET_CONNECTION:
+            List<TraceEvent> connections = tocConnections.get(te.getPayload1());
+            if (connections == null)
+            {
+               connections = new ArrayList<TraceEvent>();
+               tocConnections.put(te.getPayload1(), connections);
+            }
+
+            connections.add(te);
+            return true;
+
+         case TraceEvent.GET_CONNECTION_LISTENER:
+         case TraceEvent.GET_CONNECTION_LISTENER_NEW:
+         case TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER:
+         case TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER_NEW:
+            if (managedConnectionPools == null)
+               managedConnectionPools = new TreeSet<String>();
+
+            managedConnectionPools.add(te.getManagedConnectionPool());
+
+            if (!tocConnectionListeners.containsKey(te.getConnectionListener()))
+               tocConnectionListeners.put(te.getConnectionListener(), Collections.singletonList(te));
+
+            if (!tocManagedConnectionPools.containsKey(te.getManagedConnectionPool()))
+               tocManagedConnectionPools.put(te.getManagedConnectionPool(), Collections.singletonList(te));
+
+            return true;
+
+         default:
+            return true;
+      }
+   }
+
+   /**
+    * Add a lifecycle event
+    * @param te The event
+    */
+   private void addLifecycle(TraceEvent te)
+   {
+      if (lifecycle == null)
+         lifecycle = new ArrayList<TraceEvent>();
+
+      lifecycle.add(te);
+   }
+
+   /**
+    * Analyze the interactions of a bucket
+    * @param events The events of the bucket
+    * @param positions The positions of the events in the partition
+    * @param ignoreDelist Should DELIST be ignored
+    * @param ignoreTracking Should TRACKING be ignored
+    * @param ignoreIncomplete Ignore incomplete traces
+    * @param handler The handler
+    * @param statuses The statuses of the interactions
+    * @param completed Position of the end event -> Completed interaction with a transaction
+    * @param incomplete ConnectionListener -> Incomplete interaction with a transaction
+    * @exception Exception If an error occurs
+    */
+   private void analyze(List<TraceEvent> events, List<Long> positions,
+                        boolean ignoreDelist, boolean ignoreTracking, boolean ignoreIncomplete,
+                        InteractionHandler handler, List<TraceEventStatus> statuses,
+                        Map<Long, Interaction> completed, Map<String, Interaction> incomplete)
+      throws Exception
+   {
+      Map<TraceEvent, Long> ends = new IdentityHashMap<TraceEvent, Long>();
+      for (int i = 0; i < events.size(); i++)
+      {
+         if (TraceEventHelper.isEndState(events.get(i)))
+            ends.put(events.get(i), positions.get(i));
+      }
+
+      List<Interaction> interactions =
+         TraceEventHelper.getPoolData(events, ignoreDelist, ignoreTracking, ignoreIncomplete).get(pool);
+
+      if (interactions == null)
+         interactions = new ArrayList<Interaction>();
+
+      for (Interaction interaction : interactions)
+      {
+         activeConnectionListeners.add(interaction.getConnectionListener());
+         statuses.add(interaction.getStatus());
+
+         if (interaction.getTransaction() != null)
+         {
+            List<TraceEvent> l = interaction.getEvents();
+            Long end = ends.get(l.get(l.size() - 1));
+
+            if (end != null)
+            {
+               completed.put(end, interaction.summary());
+            }
+            else
+            {
+               incomplete.put(interaction.getConnectionListener(), interaction.summary());
+            }
+         }
+      }
+
+      handler.interactions(interactions);
+   }
+
+   /**
+    * Release the events, keeping the data needed by the reports across pools
+    */
+   public void release()
+   {
+      lifecycle = lifecycle != null ? Collections.<TraceEvent>emptyList() : null;
+      ccm = null;
+      ccmPool = null;
+      activeConnectionListeners = null;
+      createEvents = null;
+      destroyEvents = null;
+   }
+
+   /**
+    * Get the pool
+    * @return The value
+    */
+   public String getPool()
+   {
+      return pool;
+   }
+
+   /**
+    * Is this a pool with lifecycle events
+    * @return The value
+    */
+   public boolean isPool()
+   {
+      return lifecycle != null;
+   }
+
+   /**
+    * Get the lifecycle events
+    * @return The value
+    */
+   public List<TraceEvent> getLifecycle()
+   {
+      return lifecycle;
+   }
+
+   /**
+    * Get the CCM events
+    * @return The value
+    */
+   public List<TraceEvent> getCCM()
+   {
+      return ccm;
+   }
+
+   /**
+    * Get the CCM pool events
+    * @return The value
+    */
+   public List<TraceEvent> getCCMPool()
+   {
+      return ccmPool != null ? ccmPool : new ArrayList<TraceEvent>();
+   }
+
+   /**
+    * Get the managed connection pools
+    * @return The value
+    */
+   public Set<String> getManagedConnectionPools()
+   {
+      return managedConnectionPools;
+   }
+
+   /**
+    * Get the active connection listeners
+    * @return The value
+    */
+   public Set<String> getActiveConnectionListeners()
+   {
+      return activeConnectionListeners;
+   }
+
+   /**
+    * Get the create event of a connection listener
+    * @param identifier The connection listener
+    * @return The event; <code>null</code> if none
+    */
+   public TraceEvent getCreateEvent(String identifier)
+   {
+      return createEvents.get(identifier);
+   }
+
+   /**
+    * Get the destroy event of a connection listener
+    * @param identifier The connection listener
+    * @return The event; <code>null</code> if none
+    */
+   public TraceEvent getDestroyEvent(String identifier)
+   {
+      return destroyEvents.get(identifier);
+   }
+
+   /**
+    * Get the connection references
+    * @return The value
+    */
+   public Map<String, List<TraceEvent>> getToCConnections()
+   {
+      return tocConnections;
+   }
+
+   /**
+    * Get the managed connection references
+    * @return The value
+    */
+   public Map<String, TraceEvent> getToCManagedConnections()
+   {
+      return tocManagedConnections;
+   }
+
+   /**
+    * Get the connection listener references
+    * @return The value
+    */
+   public Map<String, List<TraceEvent>> getToCConnectionListeners()
+   {
+      return tocConnectionListeners;
+   }
+
+   /**
+    * Get the managed connection pool references
+    * @return The value
+    */
+   public Map<String, List<TraceEvent>> getToCManagedConnectionPools()
+   {
+      return tocManagedConnectionPools;
+   }
+
+   /**
+    * Get the interactions with a transaction
+    * @return The value
+    */
+   public List<Interaction> getTransactions()
+   {
+      return transactions;
+   }
+
+   /**
+    * Get the overall status
+    * @return The value
+    */
+   public TraceEventStatus getStatus()
+   {
+      return status;
+   }
+
+   /**
+    * Get the CCM status
+    * @return The value; <code>null</code> if no CCM events
+    */
+   public TraceEventStatus getCCMStatus()
+   {
+      return ccmStatus;
+   }
+
+   /**
+    * Get the CCM pool status
+    * @return The value; <code>null</code> if no CCM pool events
+    */
+   public TraceEventStatus getCCMPoolStatus()
+   {
+      return ccmPoolStatus;
+   }
+}
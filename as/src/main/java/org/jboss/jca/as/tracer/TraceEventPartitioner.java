@@ -0,0 +1,343 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.as.tracer;
+
+import org.jboss.jca.core.tracer.BinaryTraceReader;
+import org.jboss.jca.core.tracer.TraceEvent;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits a tracer log into a file per pool in a single pass, such that
+ * the pools can be analyzed independently of each other. The log is
+ * read through a memory mapping, and only the trace lines are decoded.
+ * A binary trace file is streamed in timestamp order through sorted runs.
+ */
+public class TraceEventPartitioner
+{
+   /** The size of each mapped region */
+   private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+   /** The trace marker */
+   private static final byte[] MARKER = "IJTRACER".getBytes(StandardCharsets.US_ASCII);
+
+   /** The directory for the partitions */
+   private File directory;
+
+   /** The raw trace lines */
+   private Writer raw;
+
+   /** Pool -> Partition */
+   private Map<String, File> partitions;
+
+   /** Pool -> Partition writer */
+   private Map<String, Writer> writers;
+
+   /** The version event */
+   private TraceEvent version;
+
+   /** The number of binary records sorted in memory */
+   private int runSize;
+
+   /**
+    * Constructor
+    * @param root The report directory
+    * @param directory The directory for the partitions
+    * @exception IOException If the files can't be created
+    */
+   public TraceEventPartitioner(File root, File directory) throws IOException
+   {
+      this(root, directory, BinaryTraceReader.DEFAULT_RUN_SIZE);
+   }
+
+   /**
+    * Constructor
+    * @param root The report directory
+    * @param directory The directory for the partitions
+    * @param runSize The number of binary records sorted in memory
+    * @exception IOException If the files can't be created
+    */
+   public TraceEventPartitioner(File root, File directory, int runSize) throws IOException
+   {
+      this.directory = directory;
+      this.runSize = runSize;
+      this.raw = writer(new File(root, "raw.txt"));
+      this.partitions = new TreeMap<String, File>();
+      this.writers = new TreeMap<String, Writer>();
+      this.version = null;
+   }
+
+   /**
+    * Partition a tracer log, or a binary trace file
+    * @param file The file
+    * @exception Exception If an error occurs
+    */
+   public void partition(File file) throws Exception
+   {
+      try
+      {
+         if (BinaryTraceReader.isBinary(file))
+         {
+            BinaryTraceReader.getEvents(file, directory, runSize, new BinaryTraceReader.EventHandler()
+            {
+               public void event(TraceEvent te) throws Exception
+               {
+                  add(te.toString());
+               }
+            });
+         }
+         else
+         {
+            partitionLog(file);
+         }
+      }
+      finally
+      {
+         close();
+      }
+   }
+
+   /**
+    * Get the partitions
+    * @return Pool -> Partition
+    */
+   public Map<String, File> getPartitions()
+   {
+      return partitions;
+   }
+
+   /**
+    * Get the version
+    * @return The version event; <code>null</code> if none
+    */
+   public TraceEvent getVersion()
+   {
+      return version;
+   }
+
+   /**
+    * Delete the partitions
+    */
+   public void delete()
+   {
+      for (File f : partitions.values())
+      {
+         if (!f.delete())
+            f.deleteOnExit();
+      }
+   }
+
+   /**
+    * Partition a tracer log
+    * @param file The file
+    * @exception Exception If an error occurs
+    */
+   private void partitionLog(File file) throws Exception
+   {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         long size = channel.size();
+         long position = 0L;
+
+         while (position < size)
+         {
+            int length = (int)Math.min(CHUNK_SIZE, size - position);
+            boolean last = position + length == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            int start = 0;
+            for (int i = 0; i < length; i++)
+            {
+               if (buffer.get(i) == '\n')
+               {
+                  line(buffer, start, i);
+                  start = i + 1;
+               }
+            }
+
+            // A line spanning the chunk is read again from the next chunk,
+            // unless it fills the entire chunk
+            if (last || start == 0)
+            {
+               if (start < length)
+                  line(buffer, start, length);
+
+               start = length;
+            }
+
+            position += start;
+         }
+      }
+   }
+
+   /**
+    * Process a line
+    * @param buffer The buffer
+    * @param start The start of the line
+    * @param end The end of the line, exclusive
+    * @exception Exception If an error occurs
+    */
+   private void line(MappedByteBuffer buffer, int start, int end) throws Exception
+   {
+      if (end > start && buffer.get(end - 1) == '\r')
+         end--;
+
+      int marker = indexOf(buffer, start, end);
+      if (marker == -1)
+         return;
+
+      byte[] data = new byte[end - marker];
+      for (int i = 0; i < data.length; i++)
+      {
+         data[i] = buffer.get(marker + i);
+      }
+
+      add(new String(data, StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Find the trace marker
+    * @param buffer The buffer
+    * @param start The start
+    * @param end The end, exclusive
+    * @return The index of the marker; -1 if not found
+    */
+   private static int indexOf(MappedByteBuffer buffer, int start, int end)
+   {
+      for (int i = start; i <= end - MARKER.length; i++)
+      {
+         int j = 0;
+         while (j < MARKER.length && buffer.get(i + j) == MARKER[j])
+         {
+            j++;
+         }
+
+         if (j == MARKER.length)
+            return i;
+      }
+
+      return -1;
+   }
+
+   /**
+    * Add a trace line
+    * @param data The line
+    * @exception Exception If an error occurs
+    */
+   private void add(String data) throws Exception
+   {
+      raw.write(data);
+      raw.write(HTMLReport.NEW_LINE);
+
+      int start = data.indexOf('-');
+      int end = data.indexOf('-', start + 1);
+      if (start == -1 || end == -1)
+         return;
+
+      String pool = data.substring(start + 1, end);
+
+      Writer w = writers.get(pool);
+      if (w == null)
+      {
+         File f = new File(directory, Integer.toString(partitions.size()) + ".txt");
+         w = writer(f);
+
+         partitions.put(pool, f);
+         writers.put(pool, w);
+      }
+
+      w.write(data);
+      w.write('\n');
+
+      if (version == null && data.startsWith(Integer.toString(TraceEvent.VERSION) + "-", indexOf(data, 4) + 1))
+         version = TraceEvent.parse(data);
+   }
+
+   /**
+    * Get the index of a separator
+    * @param data The data
+    * @param n The separator number, starting from 1
+    * @return The index; -1 if not found
+    */
+   private static int indexOf(String data, int n)
+   {
+      int index = -1;
+      for (int i = 0; i < n; i++)
+      {
+         index = data.indexOf('-', index + 1);
+         if (index == -1)
+            return -1;
+      }
+
+      return index;
+   }
+
+   /**
+    * Create a writer
+    * @param f The file
+    * @return The writer
+    * @exception IOException If the file can't be created
+    */
+   private static Writer writer(File f) throws IOException
+   {
+      return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(f), StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Close the writers
+    */
+   private void close()
+   {
+      try
+      {
+         raw.close();
+      }
+      catch (IOException ignore)
+      {
+         // Ignore
+      }
+
+      for (Writer w : writers.values())
+      {
+         try
+         {
+            w.close();
+         }
+         catch (IOException ignore)
+         {
+            // Ignore
+         }
+      }
+   }
+}
@@ -0,0 +1,409 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.as.tracer;
+
+import org.jboss.jca.core.tracer.BinaryTraceReader;
+import org.jboss.jca.core.tracer.TraceEvent;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * HTML report test case
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class HTMLReportTestCase
+{
+   /**
+    * The digest of the report of the generated log, as written by the analyzer
+    * which loaded the entire log into memory
+    */
+   private static final String EXPECTED = "2ae51d98613c50da55b5864e998251a1571c9b5bbb96563a7de8d26fd441f2d7";
+
+   /** The pools */
+   private static final String[] POOLS = {"DS1", "DS2", "DS3"};
+
+   /** The connection listeners per pool */
+   private static final int CONNECTION_LISTENERS = 8;
+
+   /** The steps */
+   private static final int STEPS = 2000;
+
+   /**
+    * The report of a multi-pool log is the same as the report of the in-memory analyzer
+    * @throws Exception for exception
+    */
+   @Test
+   public void testReport() throws Exception
+   {
+      File directory = Files.createTempDirectory("report").toFile();
+      try
+      {
+         File log = new File(directory, "server.log");
+         generate(log);
+
+         File root = new File(directory, "report");
+         HTMLReport.generateReport(log, root, false, false, false, false,
+                                   BinaryTraceReader.DEFAULT_RUN_SIZE, TraceEventPartition.DEFAULT_BUCKET_SIZE);
+
+         assertEquals(EXPECTED, digest(manifest(root)));
+      }
+      finally
+      {
+         delete(directory);
+      }
+   }
+
+   /**
+    * Analyzing the pools in small buckets gives the same report
+    * @throws Exception for exception
+    */
+   @Test
+   public void testBuckets() throws Exception
+   {
+      File directory = Files.createTempDirectory("report").toFile();
+      try
+      {
+         File log = new File(directory, "server.log");
+         generate(log);
+
+         File single = new File(directory, "single");
+         HTMLReport.generateReport(log, single, false, false, false, false,
+                                   BinaryTraceReader.DEFAULT_RUN_SIZE, TraceEventPartition.DEFAULT_BUCKET_SIZE);
+
+         File buckets = new File(directory, "buckets");
+         HTMLReport.generateReport(log, buckets, false, false, false, false,
+                                   BinaryTraceReader.DEFAULT_RUN_SIZE, 4 * 1024L);
+
+         Map<String, String> expected = manifest(single);
+         Map<String, String> actual = manifest(buckets);
+
+         assertFalse(expected.isEmpty());
+         assertEquals(expected.keySet(), actual.keySet());
+
+         for (Map.Entry<String, String> entry : expected.entrySet())
+            assertEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+
+         assertEquals(EXPECTED, digest(actual));
+      }
+      finally
+      {
+         delete(directory);
+      }
+   }
+
+   /**
+    * Generate a tracer log with interleaved interactions on several pools, transactions
+    * spanning the pools, CCM events and incomplete interactions
+    * @param log The log file
+    * @throws Exception for exception
+    */
+   static void generate(File log) throws Exception
+   {
+      Random random = new Random(42L);
+      long time = 1000L;
+      int connections = 0;
+
+      try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(log),
+                                                                   StandardCharsets.UTF_8)))
+      {
+         pw.println("2026-10-18 12:00:00,000 INFO  [org.jboss.jca.core] Started");
+         line(pw, "1.0.0", "NONE", 1L, TraceEvent.VERSION, time++, "NONE", "", "");
+
+         // ConnectionListener -> State; 0 = Idle, 1 = Got, 2 = Connected
+         int[][] state = new int[POOLS.length][CONNECTION_LISTENERS];
+         String[][] connection = new String[POOLS.length][CONNECTION_LISTENERS];
+         String[][] transaction = new String[POOLS.length][CONNECTION_LISTENERS];
+
+         // Thread -> CCM contexts
+         int[] contexts = new int[7];
+
+         for (int p = 0; p < POOLS.length; p++)
+         {
+            line(pw, POOLS[p], mcp(p), 1L, TraceEvent.MANAGED_CONNECTION_POOL_CREATE, time++, "NONE", "", "");
+
+            for (int c = 0; c < CONNECTION_LISTENERS; c++)
+               line(pw, POOLS[p], mcp(p), 1L, TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL, time++, cl(p, c),
+                    "mc" + p + c, "");
+         }
+
+         for (int i = 0; i < STEPS; i++)
+         {
+            int p = random.nextInt(POOLS.length);
+            int c = random.nextInt(CONNECTION_LISTENERS);
+            long thread = 1L + random.nextInt(6);
+            String pool = POOLS[p];
+
+            switch (state[p][c])
+            {
+               case 0:
+                  if (random.nextInt(20) == 0)
+                  {
+                     line(pw, "CachedConnectionManager", "NONE", thread, TraceEvent.PUSH_CCM_CONTEXT, time++, "NONE",
+                          "key" + thread, "");
+                     contexts[(int)thread]++;
+                  }
+
+                  line(pw, pool, mcp(p), thread, TraceEvent.GET_CONNECTION_LISTENER, time++, cl(p, c), "", "");
+                  state[p][c] = 1;
+                  break;
+
+               case 1:
+                  if (random.nextInt(25) == 0)
+                  {
+                     line(pw, pool, mcp(p), thread, TraceEvent.CLEAR_CONNECTION_LISTENER, time++, cl(p, c), "", "");
+                     state[p][c] = 0;
+                     break;
+                  }
+
+                  connection[p][c] = Integer.toHexString(0x1000 + connections++);
+                  line(pw, pool, mcp(p), thread, TraceEvent.GET_CONNECTION, time++, cl(p, c),
+                       connection[p][c], "");
+
+                  if (random.nextBoolean())
+                  {
+                     transaction[p][c] = "tx" + random.nextInt(30);
+                     line(pw, pool, mcp(p), thread, TraceEvent.ENLIST_CONNECTION_LISTENER, time++, cl(p, c),
+                          transaction[p][c], "");
+                  }
+
+                  if (random.nextInt(10) == 0)
+                     line(pw, pool, mcp(p), thread, TraceEvent.REGISTER_CCM_CONNECTION, time++, cl(p, c),
+                          connection[p][c], "key" + thread);
+
+                  state[p][c] = 2;
+                  break;
+
+               default:
+                  line(pw, pool, mcp(p), thread, TraceEvent.RETURN_CONNECTION, time++, cl(p, c),
+                       connection[p][c], "");
+
+                  if (transaction[p][c] != null)
+                  {
+                     line(pw, pool, mcp(p), thread, TraceEvent.DELIST_CONNECTION_LISTENER, time++, cl(p, c),
+                          transaction[p][c], "");
+                     transaction[p][c] = null;
+                  }
+
+                  line(pw, pool, mcp(p), thread, TraceEvent.RETURN_CONNECTION_LISTENER, time++, cl(p, c), "", "");
+
+                  if (contexts[(int)thread] > 0 && random.nextInt(3) == 0)
+                  {
+                     line(pw, "CachedConnectionManager", "NONE", thread, TraceEvent.POP_CCM_CONTEXT, time++, "NONE",
+                          "key" + thread, "");
+                     contexts[(int)thread]--;
+                  }
+
+                  state[p][c] = 0;
+            }
+         }
+
+         // Destroy the idle connection listeners, the others stay incomplete
+         for (int p = 0; p < POOLS.length; p++)
+         {
+            for (int c = 0; c < CONNECTION_LISTENERS; c++)
+            {
+               if (state[p][c] == 0)
+                  line(pw, POOLS[p], mcp(p), 1L, TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE, time++, cl(p, c),
+                       "", "");
+            }
+         }
+      }
+   }
+
+   /**
+    * Write a trace line
+    * @param pw The writer
+    * @param pool The pool
+    * @param mcp The managed connection pool
+    * @param thread The thread id
+    * @param type The type
+    * @param timestamp The timestamp
+    * @param cl The connection listener
+    * @param payload1 The first payload
+    * @param payload2 The second payload
+    */
+   private static void line(PrintWriter pw, String pool, String mcp, long thread, int type, long timestamp,
+                            String cl, String payload1, String payload2)
+   {
+      pw.println("2026-10-18 12:00:00,000 TRACE [org.jboss.jca.core.tracer.Tracer] (Thread-" + thread + ") " +
+                 "IJTRACER-" + pool + "-" + mcp + "-" + thread + "-" + type + "-" + timestamp + "-" + cl + "-" +
+                 payload1 + "-" + payload2);
+   }
+
+   /**
+    * The managed connection pool of a pool
+    * @param p The pool
+    * @return The identifier
+    */
+   private static String mcp(int p)
+   {
+      return "abc" + p;
+   }
+
+   /**
+    * A connection listener
+    * @param p The pool
+    * @param c The connection listener
+    * @return The identifier
+    */
+   private static String cl(int p, int c)
+   {
+      return "cl" + p + c;
+   }
+
+   /**
+    * Get the digests of the files of a report. The generation time is left out, the
+    * report directory is removed from the paths, and lines are compared without their
+    * line separator
+    * @param root The report directory
+    * @return Path -> Digest
+    * @throws Exception for exception
+    */
+   static Map<String, String> manifest(File root) throws Exception
+   {
+      Map<String, String> result = new TreeMap<String, String>();
+      String directory = root.getAbsolutePath();
+      List<File> files = new ArrayList<File>();
+      files(root, files);
+
+      for (File f : files)
+      {
+         MessageDigest md = MessageDigest.getInstance("SHA-256");
+
+         try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f),
+                                                                          StandardCharsets.UTF_8)))
+         {
+            boolean generated = false;
+            String s = r.readLine();
+            while (s != null)
+            {
+               if (!generated)
+               {
+                  md.update(s.replace(directory, "").getBytes(StandardCharsets.UTF_8));
+                  md.update((byte)'\n');
+               }
+
+               generated = s.contains("<b>Generated:</b>");
+               s = r.readLine();
+            }
+         }
+
+         String path = root.toURI().relativize(f.toURI()).getPath();
+         result.put(path, hex(md.digest()));
+      }
+
+      return result;
+   }
+
+   /**
+    * Get the digest of a manifest
+    * @param manifest Path -> Digest
+    * @return The digest
+    * @throws Exception for exception
+    */
+   static String digest(Map<String, String> manifest) throws Exception
+   {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+
+      for (Map.Entry<String, String> entry : manifest.entrySet())
+      {
+         md.update((entry.getKey() + " " + entry.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+      }
+
+      return hex(md.digest());
+   }
+
+   /**
+    * Hex encode
+    * @param data The data
+    * @return The value
+    */
+   private static String hex(byte[] data)
+   {
+      StringBuilder sb = new StringBuilder();
+
+      for (byte b : data)
+         sb.append(String.format("%02x", b & 0xff));
+
+      return sb.toString();
+   }
+
+   /**
+    * List the files of a directory
+    * @param directory The directory
+    * @param files The files
+    */
+   private static void files(File directory, List<File> files)
+   {
+      File[] l = directory.listFiles();
+      if (l == null)
+         return;
+
+      for (File f : l)
+      {
+         if (f.isDirectory())
+         {
+            files(f, files);
+         }
+         else
+         {
+            files.add(f);
+         }
+      }
+   }
+
+   /**
+    * Delete a directory
+    * @param f The file
+    */
+   private static void delete(File f)
+   {
+      File[] l = f.listFiles();
+      if (l != null)
+      {
+         for (File c : l)
+            delete(c);
+      }
+
+      f.delete();
+   }
+}
@@ -44,7 +44,8 @@ public final class Extension implements JCAMetadata, ValidatableMetadata
 
    private final String className;
 
-   private final ClassLoader classLoader;
+   /** The class loader; not serialized */
+   private final transient ClassLoader classLoader;
 
    private final Map<String, String> configPropertiesMap;
 
@@ -92,6 +92,20 @@ public interface Pool extends JCAMetadata, ValidatableMetadata
     */
    public Boolean isFair();
 
+   /**
+    * Get the number of connections created in parallel when the pool is filled
+    *
+    * @return The value; <code>null</code> if not set
+    */
+   public Integer getFillConcurrency();
+
+   /**
+    * Get the lifo setting of the pool
+    *
+    * @return The value; <code>null</code> if not set
+    */
+   public Boolean isLifo();
+
    /**
     *
     * A Tag.
@@ -131,6 +145,16 @@ public interface Pool extends JCAMetadata, ValidatableMetadata
        */
       FAIR("fair"),
 
+      /**
+       * fill-concurrency tag
+       */
+      FILL_CONCURRENCY("fill-concurrency"),
+
+      /**
+       * lifo tag
+       */
+      LIFO("lifo"),
+
       /**
        * use-strict-min tag
        */
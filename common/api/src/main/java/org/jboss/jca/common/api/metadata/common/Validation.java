@@ -63,6 +63,20 @@ public interface Validation extends JCAMetadata
     */
    public Boolean isUseFastFail();
 
+   /**
+    * Get the number of connections validated in parallel during a background validation pass
+    *
+    * @return The value; <code>null</code> if not set
+    */
+   public Integer getValidationConcurrency();
+
+   /**
+    * Get the time budget of a background validation pass
+    *
+    * @return The value in milliseconds; <code>null</code> if not set
+    */
+   public Long getValidationBudgetMillis();
+
    /**
    *
    * A Tag.
@@ -95,7 +109,17 @@ public interface Validation extends JCAMetadata
       /**
        * use-fast-fail tag
        */
-      USE_FAST_FAIL("use-fast-fail");
+      USE_FAST_FAIL("use-fast-fail"),
+
+      /**
+       * validation-concurrency tag
+       */
+      VALIDATION_CONCURRENCY("validation-concurrency"),
+
+      /**
+       * validation-budget-millis tag
+       */
+      VALIDATION_BUDGET_MILLIS("validation-budget-millis");
 
       private String name;
 
@@ -108,6 +108,16 @@ public interface XaPool extends Pool
       */
       FAIR("fair"),
 
+      /**
+       * fill-concurrency tag
+       */
+      FILL_CONCURRENCY("fill-concurrency"),
+
+      /**
+       * lifo tag
+       */
+      LIFO("lifo"),
+
       /**
        * use-strict-min tag
        */
@@ -85,6 +85,16 @@ public interface DsXaPool extends XaPool
        */
       FAIR("fair"),
 
+      /**
+       * fill-concurrency tag
+       */
+      FILL_CONCURRENCY("fill-concurrency"),
+
+      /**
+       * lifo tag
+       */
+      LIFO("lifo"),
+
       /**
        * use-strict-min tag
        */
@@ -59,7 +59,12 @@ public interface Statement extends JCAMetadata, ValidatableMetadata
       /**
        * NOWARN
        */
-      NOWARN("nowarn");
+      NOWARN("nowarn"),
+
+      /**
+       * CALLSITE
+       */
+      CALLSITE("callsite");
 
       private String value;
 
@@ -107,6 +107,14 @@ public interface Validation extends org.jboss.jca.common.api.metadata.common.Val
       */
       USE_FAST_FAIL("use-fast-fail"),
       /**
+      * validationConcurrency tag
+      */
+      VALIDATION_CONCURRENCY("validation-concurrency"),
+      /**
+      * validationBudgetMillis tag
+      */
+      VALIDATION_BUDGET_MILLIS("validation-budget-millis"),
+      /**
       * staleConnectionCheckerClassName tag
       */
       STALE_CONNECTION_CHECKER("stale-connection-checker"),
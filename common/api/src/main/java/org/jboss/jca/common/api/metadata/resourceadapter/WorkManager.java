@@ -38,6 +38,12 @@ public interface WorkManager extends Serializable
     */
    public WorkManagerSecurity getSecurity();
 
+   /**
+    * Get the maximum number of Work instances running concurrently on virtual threads
+    * @return The value; <code>null</code> if the thread pools of the work manager are used
+    */
+   public Integer getVirtualThreads();
+
    /**
     * A Tag.
     *
@@ -53,7 +59,12 @@ public interface WorkManager extends Serializable
       /**
        * security tag
        */
-      SECURITY("security");
+      SECURITY("security"),
+
+      /**
+       * virtual-threads tag
+       */
+      VIRTUAL_THREADS("virtual-threads");
 
       private String name;
 
@@ -34,7 +34,7 @@ import org.jboss.jandex.AnnotationTarget;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
 import org.jboss.jandex.FieldInfo;
-import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexView;
 import org.jboss.jandex.MethodInfo;
 import org.jboss.jandex.Type;
 
@@ -46,7 +46,7 @@ import org.jboss.jandex.Type;
  */
 public class AnnotationRepositoryImpl implements AnnotationRepository
 {
-   private Index backingRepository;
+   private IndexView backingRepository;
    private ClassLoader cl;
 
    /**
@@ -55,7 +55,7 @@ public class AnnotationRepositoryImpl implements AnnotationRepository
     * @param backingRepository The repository
     * @param cl The class loader
     */
-   public AnnotationRepositoryImpl(Index backingRepository, ClassLoader cl)
+   public AnnotationRepositoryImpl(IndexView backingRepository, ClassLoader cl)
    {
       if (backingRepository == null)
          throw new IllegalArgumentException("repository cannot be null");
@@ -70,7 +70,7 @@ public class AnnotationRepositoryImpl implements AnnotationRepository
    @Override
    public Collection<Annotation> getAnnotation(Class<?> annotationClass)
    {
-      List<AnnotationInstance> instances = 
+      Collection<AnnotationInstance> instances = 
          backingRepository.getAnnotations(DotName.createSimple(annotationClass.getName()));
 
       ArrayList<Annotation> annotations = new ArrayList<Annotation>(instances.size());
@@ -26,30 +26,100 @@ import org.jboss.jca.common.spi.annotations.repository.AnnotationScanner;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import org.jboss.jandex.CompositeIndex;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.IndexWriter;
 import org.jboss.jandex.Indexer;
 import org.jboss.logging.Logger;
 
 /**
  * An AnnotationScannerImpl based on jandex.
  *
+ * A prebuilt <code>META-INF/jandex.idx</code> inside a jar is used instead of indexing
+ * the jar. Computed jar indexes can be kept in the directory given by the
+ * <code>ironjacamar.jandex_cache</code> system property, keyed by the digest of the jar,
+ * and jars are indexed in parallel by up to <code>ironjacamar.jandex_threads</code> threads.
+ *
  * @author <a href="jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 public class AnnotationScannerImpl implements AnnotationScanner
 {
    private static Logger log = Logger.getLogger(AnnotationScannerImpl.class);
 
+   /** The location of a prebuilt index */
+   private static final String JANDEX_INDEX = "META-INF/jandex.idx";
+
+   /** The default index cache directory */
+   private static File defaultCacheDirectory;
+
+   /** The default number of indexing threads */
+   private static int defaultThreads;
+
+   /** The index cache directory */
+   private File cacheDirectory;
+
+   /** The number of indexing threads */
+   private int threads;
+
+   static
+   {
+      String value = SecurityActions.getSystemProperty("ironjacamar.jandex_cache");
+      if (value != null && !value.trim().equals(""))
+         defaultCacheDirectory = new File(value.trim());
+
+      defaultThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+      value = SecurityActions.getSystemProperty("ironjacamar.jandex_threads");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            defaultThreads = Math.max(1, Integer.parseInt(value.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+   }
+
    /**
     * Create a new AnnotationScannerImpl with a jandex backend
     */
    public AnnotationScannerImpl()
    {
+      this(defaultCacheDirectory, defaultThreads);
+   }
+
+   /**
+    * Create a new AnnotationScannerImpl with a jandex backend
+    * @param cacheDirectory The index cache directory; <code>null</code> disables the cache
+    * @param threads The number of indexing threads
+    */
+   public AnnotationScannerImpl(File cacheDirectory, int threads)
+   {
+      this.cacheDirectory = cacheDirectory;
+      this.threads = Math.max(1, threads);
    }
 
    /**
@@ -59,6 +129,7 @@ public class AnnotationScannerImpl implements AnnotationScanner
    public AnnotationRepository scan(URL[] urls, ClassLoader cl)
    {
       Indexer indexer = new Indexer();
+      List<File> jars = new ArrayList<File>();
 
       if (urls != null && urls.length > 0)
       {
@@ -95,54 +166,160 @@ public class AnnotationScannerImpl implements AnnotationScanner
             }
             else if (externalForm.endsWith(".jar"))
             {
-               JarFile jarFile = null;
                try
                {
-                  jarFile = new JarFile(new File(url.toURI()));
-                  Enumeration<JarEntry> entries = jarFile.entries();
-                  while (entries.hasMoreElements())
-                  {
-                     JarEntry jarEntry = entries.nextElement();
-                     if (jarEntry.getName().endsWith(".class"))
-                     {
-                        InputStream is = null;
-                        try
-                        {
-                           is = jarFile.getInputStream(jarEntry);
-                           indexer.index(is);
-                        }
-                        catch (Throwable t)
-                        {
-                           log.error("Unable to process: " + jarEntry.getName(), t);
-                        }
-                        finally
-                        {
-                           if (is != null)
-                           {
-                              try
-                              {
-                                 is.close();
-                              }
-                              catch (IOException ioe)
-                              {
-                                 // Nothing
-                              }
-                           }
-                        }
-                     }
-                  }
+                  jars.add(new File(url.toURI()));
                }
                catch (Throwable t)
                {
                   log.error("Unable to process: " + externalForm, t);
                }
+            }
+         }
+      }
+
+      List<IndexView> indexes = new ArrayList<IndexView>(jars.size() + 1);
+      indexes.add(indexer.complete());
+      indexes.addAll(indexJars(jars));
+
+      if (indexes.size() == 1)
+         return new AnnotationRepositoryImpl(indexes.get(0), cl);
+
+      return new AnnotationRepositoryImpl(CompositeIndex.create(indexes), cl);
+   }
+
+   /**
+    * Index the jar files, in parallel if there are more than one
+    * @param jars The jar files
+    * @return The indexes in the order of the jar files
+    */
+   private List<Index> indexJars(List<File> jars)
+   {
+      List<Index> result = new ArrayList<Index>(jars.size());
+
+      if (jars.size() <= 1 || threads <= 1)
+      {
+         for (File jar : jars)
+         {
+            Index index = indexJar(jar);
+            if (index != null)
+               result.add(index);
+         }
+
+         return result;
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, jars.size()),
+                                                              new ScannerThreadFactory());
+      try
+      {
+         List<Future<Index>> futures = new ArrayList<Future<Index>>(jars.size());
+
+         for (final File jar : jars)
+         {
+            futures.add(executor.submit(new Callable<Index>()
+            {
+               public Index call()
+               {
+                  return indexJar(jar);
+               }
+            }));
+         }
+
+         for (int i = 0; i < futures.size(); i++)
+         {
+            try
+            {
+               Index index = futures.get(i).get();
+               if (index != null)
+                  result.add(index);
+            }
+            catch (ExecutionException ee)
+            {
+               log.error("Unable to process: " + jars.get(i), ee.getCause());
+            }
+            catch (InterruptedException ie)
+            {
+               Thread.currentThread().interrupt();
+               log.error("Interrupted while processing: " + jars.get(i), ie);
+               break;
+            }
+         }
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+
+      return result;
+   }
+
+   /**
+    * Get the index of a jar file; either the prebuilt one, a cached one, or a computed one
+    * @param file The jar file
+    * @return The index, or <code>null</code> if the jar file couldn't be processed
+    */
+   private Index indexJar(File file)
+   {
+      JarFile jarFile = null;
+      try
+      {
+         jarFile = new JarFile(file);
+
+         JarEntry prebuilt = jarFile.getJarEntry(JANDEX_INDEX);
+         if (prebuilt != null)
+         {
+            try
+            {
+               return readIndex(jarFile.getInputStream(prebuilt));
+            }
+            catch (IOException ioe)
+            {
+               log.debugf("Unable to read %s from %s: %s", JANDEX_INDEX, file, ioe.getMessage());
+            }
+         }
+
+         File cached = null;
+         if (cacheDirectory != null)
+         {
+            cached = new File(cacheDirectory, digest(file) + ".idx");
+            if (cached.exists())
+            {
+               try
+               {
+                  return readIndex(new FileInputStream(cached));
+               }
+               catch (IOException ioe)
+               {
+                  log.debugf("Unable to read cached index %s for %s: %s", cached, file, ioe.getMessage());
+               }
+            }
+         }
+
+         Indexer indexer = new Indexer();
+         Enumeration<JarEntry> entries = jarFile.entries();
+         while (entries.hasMoreElements())
+         {
+            JarEntry jarEntry = entries.nextElement();
+            if (jarEntry.getName().endsWith(".class"))
+            {
+               InputStream is = null;
+               try
+               {
+                  is = jarFile.getInputStream(jarEntry);
+                  indexer.index(is);
+               }
+               catch (Throwable t)
+               {
+                  log.error("Unable to process: " + jarEntry.getName(), t);
+               }
                finally
                {
-                  if (jarFile != null)
+                  if (is != null)
                   {
                      try
                      {
-                        jarFile.close();
+                        is.close();
                      }
                      catch (IOException ioe)
                      {
@@ -152,8 +329,159 @@ public class AnnotationScannerImpl implements AnnotationScanner
                }
             }
          }
+
+         Index index = indexer.complete();
+
+         if (cached != null)
+            writeIndex(index, cached);
+
+         return index;
+      }
+      catch (Throwable t)
+      {
+         log.error("Unable to process: " + file, t);
+      }
+      finally
+      {
+         if (jarFile != null)
+         {
+            try
+            {
+               jarFile.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Read an index
+    * @param is The input stream, which is closed
+    * @return The index
+    * @exception IOException Thrown if the index can't be read
+    */
+   private static Index readIndex(InputStream is) throws IOException
+   {
+      try
+      {
+         return new IndexReader(is).read();
+      }
+      finally
+      {
+         try
+         {
+            is.close();
+         }
+         catch (IOException ioe)
+         {
+            // Nothing
+         }
+      }
+   }
+
+   /**
+    * Write an index to the cache; the file is replaced atomically so concurrent
+    * readers never see a partial index
+    * @param index The index
+    * @param file The file
+    */
+   private void writeIndex(Index index, File file)
+   {
+      File tmp = null;
+      OutputStream os = null;
+      try
+      {
+         if (!cacheDirectory.exists() && !cacheDirectory.mkdirs() && !cacheDirectory.exists())
+            throw new IOException("Unable to create " + cacheDirectory);
+
+         tmp = File.createTempFile("jandex", ".tmp", cacheDirectory);
+         os = new FileOutputStream(tmp);
+         new IndexWriter(os).write(index);
+         os.close();
+         os = null;
+
+         if (tmp.renameTo(file))
+            tmp = null;
+      }
+      catch (Throwable t)
+      {
+         log.debugf("Unable to cache index in %s: %s", file, t.getMessage());
+      }
+      finally
+      {
+         if (os != null)
+         {
+            try
+            {
+               os.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+
+         if (tmp != null && !tmp.delete())
+            tmp.deleteOnExit();
+      }
+   }
+
+   /**
+    * Compute the digest of a file
+    * @param file The file
+    * @return The digest as a hex string
+    * @exception Exception Thrown if the file can't be read
+    */
+   private static String digest(File file) throws Exception
+   {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         byte[] buffer = new byte[8192];
+         int read = is.read(buffer);
+         while (read != -1)
+         {
+            md.update(buffer, 0, read);
+            read = is.read(buffer);
+         }
+      }
+      finally
+      {
+         is.close();
       }
 
-      return new AnnotationRepositoryImpl(indexer.complete(), cl);
+      StringBuilder sb = new StringBuilder();
+      for (byte b : md.digest())
+      {
+         sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+         sb.append(Character.forDigit(b & 0xF, 16));
+      }
+
+      return sb.toString();
+   }
+
+   /**
+    * Thread factory for the indexing threads
+    */
+   private static class ScannerThreadFactory implements ThreadFactory
+   {
+      /** The thread number */
+      private final AtomicInteger count = new AtomicInteger(1);
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, "AnnotationScanner-" + count.getAndIncrement());
+         t.setDaemon(true);
+         return t;
+      }
    }
 }
@@ -0,0 +1,442 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.common.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.jboss.logging.Logger;
+
+/**
+ * An on-disk snapshot of parsed and merged metadata.
+ *
+ * A snapshot is keyed by the SHA-256 digest of the content of its input files and the
+ * IronJacamar version, such that a deployment whose descriptors and archive are unchanged
+ * can use the metadata from the previous boot instead of parsing, scanning and merging it
+ * again. The metadata is stored with Java serialization in a deflated stream, and only classes
+ * from <code>java.</code> and <code>org.jboss.jca.common.</code> are accepted when
+ * a snapshot is read.
+ *
+ * Snapshots are stored in the directory given by the <code>ironjacamar.metadata_cache</code>
+ * system property, and are disabled if it isn't set. A deployment whose descriptors contain
+ * a <code>${...}</code> reference doesn't get a snapshot, since the parsed metadata depends
+ * on system properties which aren't part of the key.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class MetadataSnapshot
+{
+   private static Logger log = Logger.getLogger(MetadataSnapshot.class);
+
+   /** The snapshot format; part of the key, so a format change invalidates all snapshots */
+   private static final int FORMAT = 1;
+
+   /** The snapshot file magic */
+   private static final int MAGIC = 0x494A4D53;
+
+   /** The default snapshot directory */
+   private static File defaultDirectory;
+
+   /** The IronJacamar version; part of the key, since the merge rules may change between versions */
+   private static String version;
+
+   /** The start of a system property reference in a descriptor */
+   private static final byte[] PROPERTY_REFERENCE = {'$', '{'};
+
+   /** The snapshot directory */
+   private File directory;
+
+   static
+   {
+      String value = SecurityActions.getSystemProperty("ironjacamar.metadata_cache");
+      if (value != null && !value.trim().equals(""))
+         defaultDirectory = new File(value.trim());
+
+      Package p = MetadataSnapshot.class.getPackage();
+      if (p != null)
+         version = p.getImplementationVersion();
+   }
+
+   /**
+    * Constructor
+    */
+   public MetadataSnapshot()
+   {
+      this(defaultDirectory);
+   }
+
+   /**
+    * Constructor
+    * @param directory The snapshot directory; <code>null</code> disables the snapshots
+    */
+   public MetadataSnapshot(File directory)
+   {
+      this.directory = directory;
+   }
+
+   /**
+    * Are snapshots enabled
+    * @return True if enabled; otherwise false
+    */
+   public boolean isEnabled()
+   {
+      return directory != null;
+   }
+
+   /**
+    * Get the key of a snapshot. A directory input contributes the relative path and
+    * content of all the files below it, and a missing input contributes a marker.
+    * A file input, and the <code>.xml</code> files below a directory input, are descriptors
+    * which must not contain a <code>${...}</code> reference.
+    * @param inputs The input files
+    * @return The key; <code>null</code> if snapshots are disabled, an input can't be read
+    *         or a descriptor contains a system property reference
+    */
+   public String getKey(File... inputs)
+   {
+      if (directory == null)
+         return null;
+
+      try
+      {
+         MessageDigest md = MessageDigest.getInstance("SHA-256");
+         byte[] buffer = new byte[8192];
+
+         update(md, Integer.toString(FORMAT));
+         update(md, String.valueOf(version));
+
+         for (File input : inputs)
+         {
+            if (input == null || !input.exists())
+            {
+               update(md, "-");
+            }
+            else if (input.isDirectory())
+            {
+               update(md, "d");
+               if (!digestDirectory(md, input, "", buffer))
+                  return null;
+            }
+            else
+            {
+               update(md, "f");
+               if (!digestFile(md, input, true, buffer))
+                  return null;
+            }
+         }
+
+         StringBuilder sb = new StringBuilder();
+         for (byte b : md.digest())
+         {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+         }
+
+         return sb.toString();
+      }
+      catch (Throwable t)
+      {
+         log.debugf("Unable to compute snapshot key: %s", t.getMessage());
+      }
+
+      return null;
+   }
+
+   /**
+    * Load a snapshot
+    * @param key The key
+    * @param size The number of values
+    * @return The values; <code>null</code> if there is no usable snapshot
+    */
+   public Object[] load(String key, int size)
+   {
+      if (directory == null || key == null)
+         return null;
+
+      File file = new File(directory, key + ".snapshot");
+      if (!file.exists())
+         return null;
+
+      ObjectInputStream ois = null;
+      try
+      {
+         long start = System.currentTimeMillis();
+
+         ois = new SnapshotObjectInputStream(
+            new InflaterInputStream(new BufferedInputStream(new FileInputStream(file))));
+
+         if (ois.readInt() != MAGIC || ois.readInt() != size)
+            throw new IOException("Invalid snapshot");
+
+         Object[] values = new Object[size];
+         for (int i = 0; i < size; i++)
+         {
+            values[i] = ois.readObject();
+         }
+
+         log.debugf("Loaded snapshot %s in %d ms", file, (System.currentTimeMillis() - start));
+
+         return values;
+      }
+      catch (Throwable t)
+      {
+         log.debugf("Unable to load snapshot %s: %s", file, t.getMessage());
+      }
+      finally
+      {
+         if (ois != null)
+         {
+            try
+            {
+               ois.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Store a snapshot; the file is replaced atomically so concurrent readers never
+    * see a partial snapshot
+    * @param key The key
+    * @param values The values, which may contain <code>null</code>
+    */
+   public void store(String key, Serializable... values)
+   {
+      if (directory == null || key == null)
+         return;
+
+      File file = new File(directory, key + ".snapshot");
+      File tmp = null;
+      ObjectOutputStream oos = null;
+      try
+      {
+         if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+            throw new IOException("Unable to create " + directory);
+
+         tmp = File.createTempFile("snapshot", ".tmp", directory);
+
+         OutputStream os = new DeflaterOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)),
+                                                    new Deflater(Deflater.BEST_SPEED));
+         oos = new ObjectOutputStream(os);
+         oos.writeInt(MAGIC);
+         oos.writeInt(values.length);
+         for (Serializable value : values)
+         {
+            oos.writeObject(value);
+         }
+         oos.close();
+         oos = null;
+
+         if (tmp.renameTo(file))
+            tmp = null;
+      }
+      catch (Throwable t)
+      {
+         log.debugf("Unable to store snapshot %s: %s", file, t.getMessage());
+      }
+      finally
+      {
+         if (oos != null)
+         {
+            try
+            {
+               oos.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+
+         if (tmp != null && !tmp.delete())
+            tmp.deleteOnExit();
+      }
+   }
+
+   /**
+    * Add the files of a directory to a digest in a stable order
+    * @param md The digest
+    * @param dir The directory
+    * @param path The relative path of the directory
+    * @param buffer The buffer
+    * @return False if a descriptor contains a system property reference; otherwise true
+    * @exception IOException Thrown if a file can't be read
+    */
+   private static boolean digestDirectory(MessageDigest md, File dir, String path, byte[] buffer)
+      throws IOException
+   {
+      File[] files = dir.listFiles();
+      if (files == null)
+         throw new IOException("Unable to list " + dir);
+
+      Arrays.sort(files);
+
+      for (File f : files)
+      {
+         String name = path + "/" + f.getName();
+         if (f.isDirectory())
+         {
+            if (!digestDirectory(md, f, name, buffer))
+               return false;
+         }
+         else
+         {
+            update(md, name);
+            if (!digestFile(md, f, name.endsWith(".xml"), buffer))
+               return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Add the length and content of a file to a digest
+    * @param md The digest
+    * @param file The file
+    * @param descriptor Is the file a descriptor
+    * @param buffer The buffer
+    * @return False if the descriptor contains a system property reference; otherwise true
+    * @exception IOException Thrown if the file can't be read
+    */
+   private static boolean digestFile(MessageDigest md, File file, boolean descriptor, byte[] buffer)
+      throws IOException
+   {
+      update(md, Long.toString(file.length()));
+
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         int matched = 0;
+         int read = is.read(buffer);
+         while (read != -1)
+         {
+            md.update(buffer, 0, read);
+
+            if (descriptor)
+            {
+               for (int i = 0; i < read; i++)
+               {
+                  if (buffer[i] == PROPERTY_REFERENCE[matched])
+                  {
+                     matched++;
+                     if (matched == PROPERTY_REFERENCE.length)
+                     {
+                        log.debugf("No snapshot, since %s contains a system property reference", file);
+                        return false;
+                     }
+                  }
+                  else
+                  {
+                     matched = buffer[i] == PROPERTY_REFERENCE[0] ? 1 : 0;
+                  }
+               }
+            }
+
+            read = is.read(buffer);
+         }
+      }
+      finally
+      {
+         is.close();
+      }
+
+      return true;
+   }
+
+   /**
+    * Add a string to a digest
+    * @param md The digest
+    * @param s The string
+    */
+   private static void update(MessageDigest md, String s)
+   {
+      md.update(s.getBytes(StandardCharsets.UTF_8));
+      md.update((byte)0);
+   }
+
+   /**
+    * An object input stream which only accepts metadata classes
+    */
+   private static class SnapshotObjectInputStream extends ObjectInputStream
+   {
+      /**
+       * Constructor
+       * @param is The input stream
+       * @exception IOException Thrown if the stream header can't be read
+       */
+      SnapshotObjectInputStream(InputStream is) throws IOException
+      {
+         super(is);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+      {
+         String name = desc.getName();
+         int dims = 0;
+         while (dims < name.length() && name.charAt(dims) == '[')
+            dims++;
+
+         if (dims > 0)
+         {
+            name = name.substring(dims);
+            if (name.startsWith("L") && name.endsWith(";"))
+               name = name.substring(1, name.length() - 1);
+            else
+               return super.resolveClass(desc);
+         }
+
+         if (!name.startsWith("java.") && !name.startsWith("org.jboss.jca.common."))
+            throw new InvalidClassException(desc.getName(), "Not a metadata class");
+
+         return super.resolveClass(desc);
+      }
+   }
+}
@@ -1,6 +1,6 @@
 /*
  * IronJacamar, a Java EE Connector Architecture implementation
- * Copyright 2012, Red Hat Inc, and individual contributors
+ * Copyright 2026, Red Hat Inc, and individual contributors
  * as indicated by the @author tags. See the copyright.txt file in the
  * distribution for a full listing of individual contributors.
  *
@@ -20,10 +20,7 @@
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
 
-package org.jboss.jca.core.workmanager.transport.remote.socket;
-
-import org.jboss.jca.core.workmanager.ClassBundle;
-import org.jboss.jca.core.workmanager.WorkClassLoader;
+package org.jboss.jca.common.metadata;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -42,17 +39,20 @@ class SecurityActions
    }
 
    /**
-    * Create a WorkClassLoader
-    * @param cb The class bundle
-    * @return The class loader
+    * Get a system property
+    * @param name The property name
+    * @return The property value
     */
-   static WorkClassLoader createWorkClassLoader(final ClassBundle cb)
+   static String getSystemProperty(final String name)
    {
-      return AccessController.doPrivileged(new PrivilegedAction<WorkClassLoader>() 
+      if (System.getSecurityManager() == null)
+         return System.getProperty(name);
+
+      return AccessController.doPrivileged(new PrivilegedAction<String>()
       {
-         public WorkClassLoader run()
+         public String run()
          {
-            return new WorkClassLoader(cb);
+            return System.getProperty(name);
          }
       });
    }
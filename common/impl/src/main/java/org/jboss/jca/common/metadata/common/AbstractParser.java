@@ -298,6 +298,8 @@ public abstract class AbstractParser
       Integer maxPoolSize = Defaults.MAX_POOL_SIZE;
       Boolean prefill = Defaults.PREFILL;
       Boolean fair = Defaults.FAIR;
+      Integer fillConcurrency = null;
+      Boolean lifo = null;
       Boolean useStrictMin = Defaults.USE_STRICT_MIN;
       FlushStrategy flushStrategy = Defaults.FLUSH_STRATEGY;
       Capacity capacity = null;
@@ -310,7 +312,7 @@ public abstract class AbstractParser
                if (DataSource.Tag.forName(reader.getLocalName()) == DataSource.Tag.POOL)
                {
                   return new PoolImpl(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin,
-                                      flushStrategy, capacity, fair);
+                                      flushStrategy, capacity, fair, fillConcurrency, lifo);
                }
                else
                {
@@ -344,6 +346,14 @@ public abstract class AbstractParser
                      fair = elementAsBoolean(reader);
                      break;
                   }
+                  case FILL_CONCURRENCY : {
+                     fillConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case LIFO : {
+                     lifo = elementAsBoolean(reader);
+                     break;
+                  }
                   case USE_STRICT_MIN : {
                      useStrictMin = elementAsBoolean(reader);
                      break;
@@ -384,6 +394,8 @@ public abstract class AbstractParser
       Integer maxPoolSize = Defaults.MAX_POOL_SIZE;
       Boolean prefill = Defaults.PREFILL;
       Boolean fair = Defaults.FAIR;
+      Integer fillConcurrency = null;
+      Boolean lifo = null;
       FlushStrategy flushStrategy = Defaults.FLUSH_STRATEGY;
       Capacity capacity = null;
       Boolean interleaving = Defaults.INTERLEAVING;
@@ -404,7 +416,7 @@ public abstract class AbstractParser
                   return new XaPoolImpl(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin,
                                         flushStrategy, capacity, fair,
                                         isSameRmOverride, interleaving, padXid,
-                                        wrapXaDataSource, noTxSeparatePool);
+                                        wrapXaDataSource, noTxSeparatePool, fillConcurrency, lifo);
 
                }
                else
@@ -459,6 +471,14 @@ public abstract class AbstractParser
                      fair = elementAsBoolean(reader);
                      break;
                   }
+                  case FILL_CONCURRENCY : {
+                     fillConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case LIFO : {
+                     lifo = elementAsBoolean(reader);
+                     break;
+                  }
                   case USE_STRICT_MIN : {
                      useStrictMin = elementAsBoolean(reader);
                      break;
@@ -908,6 +928,8 @@ public abstract class AbstractParser
       Boolean useFastFail = Defaults.USE_FAST_FAIL;
       Boolean backgroundValidation = Defaults.BACKGROUND_VALIDATION;
       Long backgroundValidationMillis = null;
+      Integer validationConcurrency = null;
+      Long validationBudgetMillis = null;
 
       while (reader.hasNext())
       {
@@ -917,7 +939,7 @@ public abstract class AbstractParser
                if (ConnectionDefinition.Tag.forName(reader.getLocalName()) == ConnectionDefinition.Tag.VALIDATION)
                {
                   return new ValidationImpl(validateOnMatch, backgroundValidation, backgroundValidationMillis,
-                                            useFastFail);
+                                            useFastFail, validationConcurrency, validationBudgetMillis);
                }
                else
                {
@@ -947,6 +969,14 @@ public abstract class AbstractParser
                      useFastFail = elementAsBoolean(reader);
                      break;
                   }
+                  case VALIDATION_CONCURRENCY : {
+                     validationConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case VALIDATION_BUDGET_MILLIS : {
+                     validationBudgetMillis = elementAsLong(reader);
+                     break;
+                  }
                   default :
                      throw new ParserException(bundle.unexpectedElement(reader.getLocalName()));
                }
@@ -170,6 +170,7 @@ public abstract class CommonIronJacamarParser extends AbstractParser
       ValidateException
    {
       WorkManagerSecurity security = null;
+      Integer virtualThreads = null;
 
       while (reader.hasNext())
       {
@@ -178,7 +179,7 @@ public abstract class CommonIronJacamarParser extends AbstractParser
             case END_ELEMENT : {
                if (Activation.Tag.forName(reader.getLocalName()) == Activation.Tag.WORKMANAGER)
                {
-                  return new WorkManagerImpl(security);
+                  return new WorkManagerImpl(security, virtualThreads);
                }
                else
                {
@@ -196,6 +197,10 @@ public abstract class CommonIronJacamarParser extends AbstractParser
                      security = parseWorkManagerSecurity(reader);
                      break;
                   }
+                  case VIRTUAL_THREADS : {
+                     virtualThreads = elementAsInteger(reader);
+                     break;
+                  }
                   default :
                      throw new ParserException(bundle.unexpectedElement(reader.getLocalName()));
                }
@@ -85,6 +85,16 @@ public class PoolImpl implements Pool
     */
    protected Boolean fair;
 
+   /**
+    * fill-concurrency
+    */
+   protected Integer fillConcurrency;
+
+   /**
+    * lifo
+    */
+   protected Boolean lifo;
+
    /**
     * Constructor
     *
@@ -102,6 +112,31 @@ public class PoolImpl implements Pool
                    Boolean prefill, Boolean useStrictMin,
                    FlushStrategy flushStrategy, Capacity capacity, Boolean fair)
       throws ValidateException
+   {
+      this(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair,
+           null, null);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param minPoolSize minPoolSize
+    * @param initialPoolSize initialPoolSize
+    * @param maxPoolSize maxPoolSize
+    * @param prefill prefill
+    * @param useStrictMin useStrictMin
+    * @param flushStrategy flushStrategy
+    * @param capacity capacity
+    * @param fair fair
+    * @param fillConcurrency fillConcurrency
+    * @param lifo lifo
+    * @throws ValidateException ValidateException
+    */
+   public PoolImpl(Integer minPoolSize, Integer initialPoolSize, Integer maxPoolSize, 
+                   Boolean prefill, Boolean useStrictMin,
+                   FlushStrategy flushStrategy, Capacity capacity, Boolean fair,
+                   Integer fillConcurrency, Boolean lifo)
+      throws ValidateException
    {
       this.minPoolSize = minPoolSize;
       this.initialPoolSize = initialPoolSize;
@@ -111,6 +146,8 @@ public class PoolImpl implements Pool
       this.flushStrategy = flushStrategy;
       this.capacity = capacity;
       this.fair = fair;
+      this.fillConcurrency = fillConcurrency;
+      this.lifo = lifo;
       this.validate();
    }
 
@@ -178,6 +215,22 @@ public class PoolImpl implements Pool
       return fair;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Integer getFillConcurrency()
+   {
+      return fillConcurrency;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Boolean isLifo()
+   {
+      return lifo;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -199,6 +252,12 @@ public class PoolImpl implements Pool
                                                               Tag.MIN_POOL_SIZE.getLocalName()));
       }
 
+      if (this.fillConcurrency != null && this.fillConcurrency.intValue() < 0)
+         throw new ValidateException(bundle.invalidNegative(Tag.FILL_CONCURRENCY.getLocalName()));
+
+      if (this.fillConcurrency != null && this.fillConcurrency.intValue() == 0)
+         throw new ValidateException(bundle.invalidZero(Tag.FILL_CONCURRENCY.getLocalName()));
+
       if (this.flushStrategy == null)
          throw new ValidateException(bundle.nullValue(Tag.FLUSH_STRATEGY.getLocalName()));
    }
@@ -217,6 +276,8 @@ public class PoolImpl implements Pool
       result = prime * result + ((useStrictMin == null) ? 0 : useStrictMin.hashCode());
       result = prime * result + ((flushStrategy == null) ? 0 : flushStrategy.hashCode());
       result = prime * result + ((fair == null) ? 0 : fair.hashCode());
+      result = prime * result + ((fillConcurrency == null) ? 0 : fillConcurrency.hashCode());
+      result = prime * result + ((lifo == null) ? 0 : lifo.hashCode());
       return result;
    }
 
@@ -288,6 +349,20 @@ public class PoolImpl implements Pool
       }
       else if (!fair.equals(other.fair))
          return false;
+      if (fillConcurrency == null)
+      {
+         if (other.fillConcurrency != null)
+            return false;
+      }
+      else if (!fillConcurrency.equals(other.fillConcurrency))
+         return false;
+      if (lifo == null)
+      {
+         if (other.lifo != null)
+            return false;
+      }
+      else if (!lifo.equals(other.lifo))
+         return false;
       return true;
    }
 
@@ -342,6 +417,20 @@ public class PoolImpl implements Pool
          sb.append("</").append(Pool.Tag.FAIR).append(">");
       }
 
+      if (fillConcurrency != null)
+      {
+         sb.append("<").append(Pool.Tag.FILL_CONCURRENCY).append(">");
+         sb.append(fillConcurrency);
+         sb.append("</").append(Pool.Tag.FILL_CONCURRENCY).append(">");
+      }
+
+      if (lifo != null)
+      {
+         sb.append("<").append(Pool.Tag.LIFO).append(">");
+         sb.append(lifo);
+         sb.append("</").append(Pool.Tag.LIFO).append(">");
+      }
+
       if (flushStrategy != null)
       {
          sb.append("<").append(Pool.Tag.FLUSH_STRATEGY).append(">");
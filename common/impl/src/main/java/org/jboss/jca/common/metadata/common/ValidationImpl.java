@@ -54,6 +54,12 @@ public class ValidationImpl implements Validation
    /** useFastFail **/
    protected Boolean useFastFail;
 
+   /** validationConcurrency **/
+   protected Integer validationConcurrency;
+
+   /** validationBudgetMillis **/
+   protected Long validationBudgetMillis;
+
    /**
     * Constructor
     *
@@ -67,11 +73,32 @@ public class ValidationImpl implements Validation
                          Boolean backgroundValidation, Long backgroundValidationMillis,
                          Boolean useFastFail)
       throws ValidateException
+   {
+      this(validateOnMatch, backgroundValidation, backgroundValidationMillis, useFastFail, null, null);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param validateOnMatch validateOnMatch
+    * @param backgroundValidation backgroundValidation
+    * @param backgroundValidationMillis backgroundValidationMillis
+    * @param useFastFail useFastFail
+    * @param validationConcurrency validationConcurrency
+    * @param validationBudgetMillis validationBudgetMillis
+    * @throws ValidateException in case of error
+    */
+   public ValidationImpl(Boolean validateOnMatch,
+                         Boolean backgroundValidation, Long backgroundValidationMillis,
+                         Boolean useFastFail, Integer validationConcurrency, Long validationBudgetMillis)
+      throws ValidateException
    {
       this.validateOnMatch = validateOnMatch;
       this.backgroundValidation = backgroundValidation;
       this.backgroundValidationMillis = backgroundValidationMillis;
       this.useFastFail = useFastFail;
+      this.validationConcurrency = validationConcurrency;
+      this.validationBudgetMillis = validationBudgetMillis;
       partialCommonValidate();
    }
 
@@ -107,6 +134,22 @@ public class ValidationImpl implements Validation
       return useFastFail;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Integer getValidationConcurrency()
+   {
+      return validationConcurrency;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Long getValidationBudgetMillis()
+   {
+      return validationBudgetMillis;
+   }
+
    /**
     * 
     * Validation 
@@ -117,6 +160,15 @@ public class ValidationImpl implements Validation
    {
       if (this.backgroundValidationMillis != null && this.backgroundValidationMillis < 0)
          throw new ValidateException(bundle.invalidNegative(Tag.BACKGROUND_VALIDATION_MILLIS.getLocalName()));
+
+      if (this.validationConcurrency != null && this.validationConcurrency < 0)
+         throw new ValidateException(bundle.invalidNegative(Tag.VALIDATION_CONCURRENCY.getLocalName()));
+
+      if (this.validationConcurrency != null && this.validationConcurrency == 0)
+         throw new ValidateException(bundle.invalidZero(Tag.VALIDATION_CONCURRENCY.getLocalName()));
+
+      if (this.validationBudgetMillis != null && this.validationBudgetMillis < 0)
+         throw new ValidateException(bundle.invalidNegative(Tag.VALIDATION_BUDGET_MILLIS.getLocalName()));
    }
 
    /**
@@ -130,6 +182,8 @@ public class ValidationImpl implements Validation
       result = prime * result + ((backgroundValidation == null) ? 0 : backgroundValidation.hashCode());
       result = prime * result + ((backgroundValidationMillis == null) ? 0 : backgroundValidationMillis.hashCode());
       result = prime * result + ((useFastFail == null) ? 0 : useFastFail.hashCode());
+      result = prime * result + ((validationConcurrency == null) ? 0 : validationConcurrency.hashCode());
+      result = prime * result + ((validationBudgetMillis == null) ? 0 : validationBudgetMillis.hashCode());
       return result;
    }
 
@@ -173,6 +227,20 @@ public class ValidationImpl implements Validation
       }
       else if (!useFastFail.equals(other.useFastFail))
          return false;
+      if (validationConcurrency == null)
+      {
+         if (other.validationConcurrency != null)
+            return false;
+      }
+      else if (!validationConcurrency.equals(other.validationConcurrency))
+         return false;
+      if (validationBudgetMillis == null)
+      {
+         if (other.validationBudgetMillis != null)
+            return false;
+      }
+      else if (!validationBudgetMillis.equals(other.validationBudgetMillis))
+         return false;
       return true;
    }
 
@@ -213,6 +281,20 @@ public class ValidationImpl implements Validation
          sb.append("</").append(Validation.Tag.USE_FAST_FAIL).append(">");
       }
 
+      if (validationConcurrency != null)
+      {
+         sb.append("<").append(Validation.Tag.VALIDATION_CONCURRENCY).append(">");
+         sb.append(validationConcurrency);
+         sb.append("</").append(Validation.Tag.VALIDATION_CONCURRENCY).append(">");
+      }
+
+      if (validationBudgetMillis != null)
+      {
+         sb.append("<").append(Validation.Tag.VALIDATION_BUDGET_MILLIS).append(">");
+         sb.append(validationBudgetMillis);
+         sb.append("</").append(Validation.Tag.VALIDATION_BUDGET_MILLIS).append(">");
+      }
+
       sb.append("</validation>");
       
       return sb.toString();
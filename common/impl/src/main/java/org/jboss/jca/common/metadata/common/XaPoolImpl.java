@@ -79,7 +79,39 @@ public class XaPoolImpl extends PoolImpl implements XaPool
                      Boolean padXid, Boolean wrapXaResource,
                      Boolean noTxSeparatePool) throws ValidateException
    {
-      super(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair);
+      this(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair,
+           isSameRmOverride, interleaving, padXid, wrapXaResource, noTxSeparatePool, null, null);
+   }
+
+   /**
+    * Create a new XaPoolImpl.
+    *
+    * @param minPoolSize minPoolSize
+    * @param initialPoolSize initialPoolSize
+    * @param maxPoolSize maxPoolSize
+    * @param prefill prefill
+    * @param useStrictMin useStrictMin
+    * @param flushStrategy flushStrategy
+    * @param capacity capacity
+    * @param isSameRmOverride isSameRmOverride
+    * @param interleaving interleaving
+    * @param padXid padXid
+    * @param wrapXaResource wrapXaResource
+    * @param noTxSeparatePool noTxSeparatePool
+    * @param fair fair
+    * @param fillConcurrency fillConcurrency
+    * @param lifo lifo
+    * @throws ValidateException ValidateException
+    */
+   public XaPoolImpl(Integer minPoolSize, Integer initialPoolSize, Integer maxPoolSize,
+                     Boolean prefill, Boolean useStrictMin,
+                     FlushStrategy flushStrategy, Capacity capacity,
+                     Boolean fair, Boolean isSameRmOverride, Boolean interleaving,
+                     Boolean padXid, Boolean wrapXaResource,
+                     Boolean noTxSeparatePool, Integer fillConcurrency, Boolean lifo) throws ValidateException
+   {
+      super(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair,
+            fillConcurrency, lifo);
       this.isSameRmOverride = isSameRmOverride;
       this.interleaving = interleaving;
       this.padXid = padXid;
@@ -243,6 +275,20 @@ public class XaPoolImpl extends PoolImpl implements XaPool
          sb.append("</").append(XaPool.Tag.FAIR).append(">");
       }
 
+      if (fillConcurrency != null)
+      {
+         sb.append("<").append(XaPool.Tag.FILL_CONCURRENCY).append(">");
+         sb.append(fillConcurrency);
+         sb.append("</").append(XaPool.Tag.FILL_CONCURRENCY).append(">");
+      }
+
+      if (lifo != null)
+      {
+         sb.append("<").append(XaPool.Tag.LIFO).append(">");
+         sb.append(lifo);
+         sb.append("</").append(XaPool.Tag.LIFO).append(">");
+      }
+
       if (flushStrategy != null)
       {
          sb.append("<").append(XaPool.Tag.FLUSH_STRATEGY).append(">");
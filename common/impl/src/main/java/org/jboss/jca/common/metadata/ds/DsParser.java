@@ -382,6 +382,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
       String checkValidConnectionSql = null;
       Extension validConnectionChecker = null;
       Extension exceptionSorter = null;
+      Integer validationConcurrency = null;
+      Long validationBudgetMillis = null;
 
       while (reader.hasNext())
       {
@@ -394,7 +396,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
 
                   return new ValidationImpl(backgroundValidation, backgroundValidationMillis, useFastFail,
                                             validConnectionChecker, checkValidConnectionSql, validateOnMatch,
-                                            staleConnectionChecker, exceptionSorter);
+                                            staleConnectionChecker, exceptionSorter,
+                                            validationConcurrency, validationBudgetMillis);
 
                }
                else
@@ -434,6 +437,14 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                      useFastFail = elementAsBoolean(reader);
                      break;
                   }
+                  case VALIDATION_CONCURRENCY : {
+                     validationConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case VALIDATION_BUDGET_MILLIS : {
+                     validationBudgetMillis = elementAsLong(reader);
+                     break;
+                  }
                   case VALIDATE_ON_MATCH : {
                      validateOnMatch = elementAsBoolean(reader);
                      break;
@@ -625,6 +636,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
       Boolean allowMultipleUsers = Defaults.ALLOW_MULTIPLE_USERS;
       Capacity capacity = null;
       Boolean fair = Defaults.FAIR;
+      Integer fillConcurrency = null;
+      Boolean lifo = null;
       Extension connectionListener = null;
 
       while (reader.hasNext())
@@ -636,7 +649,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                    org.jboss.jca.common.api.metadata.ds.DataSource.Tag.POOL)
                {
                   return new DsPoolImpl(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy,
-                                        allowMultipleUsers, capacity, fair, connectionListener);
+                                        allowMultipleUsers, capacity, fair, connectionListener,
+                                        fillConcurrency, lifo);
                }
                else
                {
@@ -671,6 +685,14 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                      fair = elementAsBoolean(reader);
                      break;
                   }
+                  case FILL_CONCURRENCY : {
+                     fillConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case LIFO : {
+                     lifo = elementAsBoolean(reader);
+                     break;
+                  }
                   case USE_STRICT_MIN : {
                      useStrictMin = elementAsBoolean(reader);
                      break;
@@ -722,6 +744,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
       Boolean allowMultipleUsers = Defaults.ALLOW_MULTIPLE_USERS;
       Capacity capacity = null;
       Boolean fair = Defaults.FAIR;
+      Integer fillConcurrency = null;
+      Boolean lifo = null;
       Extension connectionListener = null;
       Boolean interleaving = Defaults.INTERLEAVING;
       Boolean isSameRmOverride = Defaults.IS_SAME_RM_OVERRIDE;
@@ -741,7 +765,7 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                   return new DsXaPoolImpl(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin,
                                           flushStrategy, isSameRmOverride, interleaving, padXid,
                                           wrapXaDataSource, noTxSeparatePool, allowMultipleUsers, capacity,
-                                          fair, connectionListener);
+                                          fair, connectionListener, fillConcurrency, lifo);
                }
                else
                {
@@ -796,6 +820,14 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                      fair = elementAsBoolean(reader);
                      break;
                   }
+                  case FILL_CONCURRENCY : {
+                     fillConcurrency = elementAsInteger(reader);
+                     break;
+                  }
+                  case LIFO : {
+                     lifo = elementAsBoolean(reader);
+                     break;
+                  }
                   case USE_STRICT_MIN : {
                      useStrictMin = elementAsBoolean(reader);
                      break;
@@ -77,7 +77,36 @@ public class DsPoolImpl extends org.jboss.jca.common.metadata.common.PoolImpl im
                      Capacity capacity, Boolean fair, Extension connectionListener)
       throws ValidateException
    {
-      super(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair);
+      this(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, allowMultipleUsers,
+           capacity, fair, connectionListener, null, null);
+   }
+
+   /**
+    * Create a new PoolImpl.
+    *
+    * @param minPoolSize minPoolSize
+    * @param initialPoolSize initialPoolSize
+    * @param maxPoolSize maxPoolSize
+    * @param prefill prefill
+    * @param useStrictMin useStrictMin
+    * @param flushStrategy flushStrategy
+    * @param allowMultipleUsers allowMultipleUsers
+    * @param capacity capacity
+    * @param fair fair
+    * @param connectionListener connectionListener
+    * @param fillConcurrency fillConcurrency
+    * @param lifo lifo
+    * @throws ValidateException ValidateException
+    */
+   public DsPoolImpl(Integer minPoolSize, Integer initialPoolSize, Integer maxPoolSize, 
+                     Boolean prefill, Boolean useStrictMin,
+                     FlushStrategy flushStrategy, Boolean allowMultipleUsers,
+                     Capacity capacity, Boolean fair, Extension connectionListener,
+                     Integer fillConcurrency, Boolean lifo)
+      throws ValidateException
+   {
+      super(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair,
+            fillConcurrency, lifo);
       this.allowMultipleUsers = allowMultipleUsers;
       this.connectionListener = connectionListener;
 
@@ -196,6 +225,20 @@ public class DsPoolImpl extends org.jboss.jca.common.metadata.common.PoolImpl im
          sb.append("</").append(DsPool.Tag.FAIR).append(">");
       }
 
+      if (fillConcurrency != null)
+      {
+         sb.append("<").append(DsPool.Tag.FILL_CONCURRENCY).append(">");
+         sb.append(fillConcurrency);
+         sb.append("</").append(DsPool.Tag.FILL_CONCURRENCY).append(">");
+      }
+
+      if (lifo != null)
+      {
+         sb.append("<").append(DsPool.Tag.LIFO).append(">");
+         sb.append(lifo);
+         sb.append("</").append(DsPool.Tag.LIFO).append(">");
+      }
+
       if (flushStrategy != null)
       {
          sb.append("<").append(DsPool.Tag.FLUSH_STRATEGY).append(">");
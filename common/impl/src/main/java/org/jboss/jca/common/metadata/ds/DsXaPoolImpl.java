@@ -82,9 +82,46 @@ public class DsXaPoolImpl extends org.jboss.jca.common.metadata.common.XaPoolImp
                        Boolean noTxSeparatePool,
                        Boolean allowMultipleUsers,
                        Capacity capacity, Boolean fair, Extension connectionListener) throws ValidateException
+   {
+      this(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, isSameRmOverride,
+           interleaving, padXid, wrapXaResource, noTxSeparatePool, allowMultipleUsers, capacity, fair,
+           connectionListener, null, null);
+   }
+
+   /**
+    * Create a new XaPoolImpl.
+    *
+    * @param minPoolSize minPoolSize
+    * @param initialPoolSize initialPoolSize
+    * @param maxPoolSize maxPoolSize
+    * @param prefill prefill
+    * @param useStrictMin useStrictMin
+    * @param flushStrategy flushStrategy
+    * @param isSameRmOverride isSameRmOverride
+    * @param interleaving interleaving
+    * @param padXid padXid
+    * @param wrapXaResource wrapXaResource
+    * @param noTxSeparatePool noTxSeparatePool
+    * @param allowMultipleUsers allowMultipleUsers
+    * @param capacity capacity
+    * @param fair fair
+    * @param connectionListener connectionListener
+    * @param fillConcurrency fillConcurrency
+    * @param lifo lifo
+    * @throws ValidateException ValidateException
+    */
+   public DsXaPoolImpl(Integer minPoolSize, Integer initialPoolSize, Integer maxPoolSize,
+                       Boolean prefill, Boolean useStrictMin,
+                       FlushStrategy flushStrategy,
+                       Boolean isSameRmOverride, Boolean interleaving, 
+                       Boolean padXid, Boolean wrapXaResource,
+                       Boolean noTxSeparatePool,
+                       Boolean allowMultipleUsers,
+                       Capacity capacity, Boolean fair, Extension connectionListener,
+                       Integer fillConcurrency, Boolean lifo) throws ValidateException
    {
       super(minPoolSize, initialPoolSize, maxPoolSize, prefill, useStrictMin, flushStrategy, capacity, fair,
-            isSameRmOverride, interleaving, padXid, wrapXaResource, noTxSeparatePool);
+            isSameRmOverride, interleaving, padXid, wrapXaResource, noTxSeparatePool, fillConcurrency, lifo);
 
       this.allowMultipleUsers = allowMultipleUsers;
       this.connectionListener = connectionListener;
@@ -202,6 +239,20 @@ public class DsXaPoolImpl extends org.jboss.jca.common.metadata.common.XaPoolImp
          sb.append("</").append(DsXaPool.Tag.FAIR).append(">");
       }
 
+      if (fillConcurrency != null)
+      {
+         sb.append("<").append(DsXaPool.Tag.FILL_CONCURRENCY).append(">");
+         sb.append(fillConcurrency);
+         sb.append("</").append(DsXaPool.Tag.FILL_CONCURRENCY).append(">");
+      }
+
+      if (lifo != null)
+      {
+         sb.append("<").append(DsXaPool.Tag.LIFO).append(">");
+         sb.append(lifo);
+         sb.append("</").append(DsXaPool.Tag.LIFO).append(">");
+      }
+
       if (flushStrategy != null)
       {
          sb.append("<").append(DsXaPool.Tag.FLUSH_STRATEGY).append(">");
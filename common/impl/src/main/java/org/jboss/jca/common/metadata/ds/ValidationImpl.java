@@ -71,7 +71,32 @@ public class ValidationImpl extends org.jboss.jca.common.metadata.common.Validat
       Extension validConnectionChecker, String checkValidConnectionSql, Boolean validateOnMatch,
       Extension staleConnectionChecker, Extension exceptionSorter) throws ValidateException
    {
-      super(validateOnMatch, backgroundValidation, backgroundValidationMillis, useFastFail);
+      this(backgroundValidation, backgroundValidationMillis, useFastFail, validConnectionChecker,
+           checkValidConnectionSql, validateOnMatch, staleConnectionChecker, exceptionSorter, null, null);
+   }
+
+   /**
+    * Create a new ValidationImpl.
+    *
+    * @param backgroundValidation backgroundValidation
+    * @param backgroundValidationMillis backgroundValidationMillis
+    * @param useFastFail useFastFail
+    * @param validConnectionChecker validConnectionChecker
+    * @param checkValidConnectionSql checkValidConnectionSql
+    * @param validateOnMatch validateOnMatch
+    * @param staleConnectionChecker staleConnectionChecker
+    * @param exceptionSorter exceptionSorter
+    * @param validationConcurrency validationConcurrency
+    * @param validationBudgetMillis validationBudgetMillis
+    * @throws ValidateException ValidateException
+    */
+   public ValidationImpl(Boolean backgroundValidation, Long backgroundValidationMillis, Boolean useFastFail,
+      Extension validConnectionChecker, String checkValidConnectionSql, Boolean validateOnMatch,
+      Extension staleConnectionChecker, Extension exceptionSorter,
+      Integer validationConcurrency, Long validationBudgetMillis) throws ValidateException
+   {
+      super(validateOnMatch, backgroundValidation, backgroundValidationMillis, useFastFail,
+            validationConcurrency, validationBudgetMillis);
       this.validConnectionChecker = validConnectionChecker;
       this.checkValidConnectionSql = checkValidConnectionSql;
       this.staleConnectionChecker = staleConnectionChecker;
@@ -227,6 +252,20 @@ public class ValidationImpl extends org.jboss.jca.common.metadata.common.Validat
          sb.append("</").append(Validation.Tag.USE_FAST_FAIL).append(">");
       }
 
+      if (validationConcurrency != null)
+      {
+         sb.append("<").append(Validation.Tag.VALIDATION_CONCURRENCY).append(">");
+         sb.append(validationConcurrency);
+         sb.append("</").append(Validation.Tag.VALIDATION_CONCURRENCY).append(">");
+      }
+
+      if (validationBudgetMillis != null)
+      {
+         sb.append("<").append(Validation.Tag.VALIDATION_BUDGET_MILLIS).append(">");
+         sb.append(validationBudgetMillis);
+         sb.append("</").append(Validation.Tag.VALIDATION_BUDGET_MILLIS).append(">");
+      }
+
       if (staleConnectionChecker != null)
       {
          sb.append("<").append(Validation.Tag.STALE_CONNECTION_CHECKER);
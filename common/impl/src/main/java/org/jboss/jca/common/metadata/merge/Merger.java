@@ -897,7 +897,7 @@ public class Merger
                + " that can determine for a particular vender db when a connection is stale."),
          /** TRACKSTATEMENTS **/
          TRACKSTATEMENTS("TrackStatements", "java.lang.String",
-            "Whether to track unclosed statements - false/true/nowarn"),
+            "Whether to track unclosed statements - false/true/nowarn/callsite"),
          /** TRANSACTIONQUERYTIMEOUT **/
          TRANSACTIONQUERYTIMEOUT("TransactionQueryTimeout", "java.lang.Boolean",
             "Whether to set the query timeout based on the transaction timeout"),
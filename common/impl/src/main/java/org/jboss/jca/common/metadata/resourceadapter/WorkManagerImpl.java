@@ -21,8 +21,12 @@
  */
 package org.jboss.jca.common.metadata.resourceadapter;
 
+import org.jboss.jca.common.CommonBundle;
 import org.jboss.jca.common.api.metadata.resourceadapter.WorkManager;
 import org.jboss.jca.common.api.metadata.resourceadapter.WorkManagerSecurity;
+import org.jboss.jca.common.api.validator.ValidateException;
+
+import org.jboss.logging.Messages;
 
 /**
  * WorkManager configuration
@@ -34,9 +38,15 @@ public class WorkManagerImpl implements WorkManager
    /** The serialVersionUID */
    private static final long serialVersionUID = 1L;
 
+   /** The bundle */
+   private static CommonBundle bundle = Messages.getBundle(CommonBundle.class);
+
    /** The WorkManager security */
    private WorkManagerSecurity security;
 
+   /** The maximum number of concurrent Work instances on virtual threads */
+   private Integer virtualThreads;
+
    /**
     * Constructor
     * @param security security
@@ -44,6 +54,28 @@ public class WorkManagerImpl implements WorkManager
    public WorkManagerImpl(WorkManagerSecurity security)
    {
       this.security = security;
+      this.virtualThreads = null;
+   }
+
+   /**
+    * Constructor
+    * @param security security
+    * @param virtualThreads The maximum number of concurrent Work instances on virtual threads
+    * @exception ValidateException Thrown if the number of virtual threads isn't positive
+    */
+   public WorkManagerImpl(WorkManagerSecurity security, Integer virtualThreads) throws ValidateException
+   {
+      this.security = security;
+      this.virtualThreads = virtualThreads;
+
+      if (virtualThreads != null)
+      {
+         if (virtualThreads.intValue() < 0)
+            throw new ValidateException(bundle.invalidNegative(Tag.VIRTUAL_THREADS.getLocalName()));
+
+         if (virtualThreads.intValue() == 0)
+            throw new ValidateException(bundle.invalidZero(Tag.VIRTUAL_THREADS.getLocalName()));
+      }
    }
 
    /**
@@ -54,6 +86,14 @@ public class WorkManagerImpl implements WorkManager
       return security;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Integer getVirtualThreads()
+   {
+      return virtualThreads;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -62,6 +102,7 @@ public class WorkManagerImpl implements WorkManager
       int result = 31;
 
       result += security != null ? 7 * security.hashCode() : 7;
+      result += virtualThreads != null ? 7 * virtualThreads.hashCode() : 7;
 
       return result;
    }
@@ -90,6 +131,17 @@ public class WorkManagerImpl implements WorkManager
             return false;
       }
 
+      if (virtualThreads != null)
+      {
+         if (!virtualThreads.equals(other.virtualThreads))
+            return false;
+      }
+      else
+      {
+         if (other.virtualThreads != null)
+            return false;
+      }
+
       return true;
    }
 
@@ -105,6 +157,13 @@ public class WorkManagerImpl implements WorkManager
       if (security != null)
          sb.append(security);
 
+      if (virtualThreads != null)
+      {
+         sb.append("<").append(Tag.VIRTUAL_THREADS).append(">");
+         sb.append(virtualThreads);
+         sb.append("</").append(Tag.VIRTUAL_THREADS).append(">");
+      }
+
       sb.append("</workmanager>");
 
       return sb.toString();
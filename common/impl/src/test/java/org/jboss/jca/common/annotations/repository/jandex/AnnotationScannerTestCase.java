@@ -0,0 +1,233 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.common.annotations.repository.jandex;
+
+import org.jboss.jca.common.spi.annotations.repository.Annotation;
+import org.jboss.jca.common.spi.annotations.repository.AnnotationRepository;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.jboss.jandex.Indexer;
+import org.jboss.jandex.IndexWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AnnotationScannerImpl}
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AnnotationScannerTestCase
+{
+   /** Temporary folder */
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   /**
+    * Jars are indexed in parallel, and their indexes merged
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testParallelScan() throws Throwable
+   {
+      File first = createJar("first.jar", First.class, false);
+      File second = createJar("second.jar", Second.class, false);
+
+      AnnotationRepository repository =
+         new AnnotationScannerImpl(null, 2).scan(new URL[] {first.toURI().toURL(), second.toURI().toURL()},
+                                                getClass().getClassLoader());
+
+      assertEquals(names(First.class, Second.class), names(repository.getAnnotation(Deprecated.class)));
+   }
+
+   /**
+    * A prebuilt index is used instead of the classes in the jar
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testPrebuiltIndex() throws Throwable
+   {
+      File jar = createJar("prebuilt.jar", First.class, true);
+
+      AnnotationRepository repository =
+         new AnnotationScannerImpl(null, 1).scan(new URL[] {jar.toURI().toURL()}, getClass().getClassLoader());
+
+      assertEquals(names(First.class), names(repository.getAnnotation(Deprecated.class)));
+   }
+
+   /**
+    * Computed indexes are stored in, and read from the cache
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testCache() throws Throwable
+   {
+      File cache = new File(folder.getRoot(), "cache");
+      File jar = createJar("cached.jar", First.class, false);
+      URL[] urls = new URL[] {jar.toURI().toURL()};
+
+      AnnotationRepository repository =
+         new AnnotationScannerImpl(cache, 1).scan(urls, getClass().getClassLoader());
+      assertEquals(names(First.class), names(repository.getAnnotation(Deprecated.class)));
+
+      File[] entries = cache.listFiles();
+      assertNotNull(entries);
+      assertEquals(1, entries.length);
+      assertTrue(entries[0].getName().endsWith(".idx"));
+
+      // Replace the cached index with an empty one, and verify that it is used
+      FileOutputStream os = new FileOutputStream(entries[0]);
+      try
+      {
+         new IndexWriter(os).write(new Indexer().complete());
+      }
+      finally
+      {
+         os.close();
+      }
+
+      repository = new AnnotationScannerImpl(cache, 1).scan(urls, getClass().getClassLoader());
+      assertNull(repository.getAnnotation(Deprecated.class));
+   }
+
+   /**
+    * Create a jar containing a class, or only a prebuilt index of it
+    * @param name The name of the jar
+    * @param clz The class
+    * @param prebuilt Store a prebuilt index instead of the class
+    * @return The jar
+    * @throws Throwable throwable exception
+    */
+   private File createJar(String name, Class<?> clz, boolean prebuilt) throws Throwable
+   {
+      String resource = clz.getName().replace('.', '/') + ".class";
+      File jar = new File(folder.getRoot(), name);
+
+      JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar));
+      try
+      {
+         InputStream is = clz.getClassLoader().getResourceAsStream(resource);
+         try
+         {
+            if (prebuilt)
+            {
+               Indexer indexer = new Indexer();
+               indexer.index(is);
+
+               jos.putNextEntry(new ZipEntry("META-INF/jandex.idx"));
+               new IndexWriter(jos).write(indexer.complete());
+            }
+            else
+            {
+               jos.putNextEntry(new ZipEntry(resource));
+
+               byte[] buffer = new byte[8192];
+               int read = is.read(buffer);
+               while (read != -1)
+               {
+                  jos.write(buffer, 0, read);
+                  read = is.read(buffer);
+               }
+            }
+            jos.closeEntry();
+         }
+         finally
+         {
+            is.close();
+         }
+      }
+      finally
+      {
+         jos.close();
+      }
+
+      return jar;
+   }
+
+   /**
+    * Get the class names of the annotations
+    * @param annotations The annotations
+    * @return The class names
+    */
+   private static Set<String> names(Collection<Annotation> annotations)
+   {
+      Set<String> result = new HashSet<String>();
+
+      if (annotations != null)
+      {
+         for (Annotation annotation : annotations)
+         {
+            result.add(annotation.getClassName());
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Get the names of classes
+    * @param classes The classes
+    * @return The class names
+    */
+   private static Set<String> names(Class<?>... classes)
+   {
+      Set<String> result = new HashSet<String>();
+
+      for (Class<?> clz : classes)
+      {
+         result.add(clz.getName());
+      }
+
+      return result;
+   }
+
+   /**
+    * First annotated class
+    */
+   @Deprecated
+   public static class First
+   {
+   }
+
+   /**
+    * Second annotated class
+    */
+   @Deprecated
+   public static class Second
+   {
+   }
+}
@@ -0,0 +1,217 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.common.metadata;
+
+import org.jboss.jca.common.api.metadata.ds.DataSources;
+import org.jboss.jca.common.api.metadata.resourceadapter.Activations;
+import org.jboss.jca.common.api.metadata.spec.Connector;
+import org.jboss.jca.common.metadata.ds.DsParser;
+import org.jboss.jca.common.metadata.resourceadapter.ResourceAdapterParser;
+import org.jboss.jca.common.metadata.spec.RaParser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link MetadataSnapshot}
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class MetadataSnapshotTestCase
+{
+   /** Temporary folder */
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   /**
+    * Set the properties used by the test resources
+    */
+   @BeforeClass
+   public static void beforeClass()
+   {
+      System.setProperty("jboss.server.data.dir", "/tmp");
+      System.setProperty("ironjacamar.home", "/tmp");
+   }
+
+   /**
+    * Parsed data sources are restored from a snapshot
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testDataSources() throws Throwable
+   {
+      File file = resource("ds/unit/complex-ds.xml");
+      MetadataSnapshot snapshot = new MetadataSnapshot(folder.newFolder("snapshots"));
+
+      DataSources parsed = new DsParser().parse(new FileInputStream(file));
+
+      String key = snapshot.getKey(file);
+      assertNotNull(key);
+      assertNull(snapshot.load(key, 1));
+
+      snapshot.store(key, parsed);
+
+      Object[] values = snapshot.load(snapshot.getKey(file), 1);
+      assertNotNull(values);
+      assertEquals(parsed, values[0]);
+   }
+
+   /**
+    * Parsed resource adapter metadata is restored from a snapshot, also with missing values
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testResourceAdapter() throws Throwable
+   {
+      File raXml = resource("ra/example/ra.xml");
+      File activationXml = resource("resource-adapter/example/all-ra.xml");
+      MetadataSnapshot snapshot = new MetadataSnapshot(folder.newFolder("snapshots"));
+
+      Connector connector = new RaParser().parse(new FileInputStream(raXml));
+      Activations activations = new ResourceAdapterParser().parse(new FileInputStream(activationXml));
+
+      String key = snapshot.getKey(raXml, activationXml, null);
+      snapshot.store(key, connector, activations, null);
+
+      Object[] values = snapshot.load(key, 3);
+      assertNotNull(values);
+      assertEquals(connector, values[0]);
+      assertEquals(activations, values[1]);
+      assertNull(values[2]);
+
+      assertNull(snapshot.load(key, 2));
+   }
+
+   /**
+    * The key follows the content of the inputs
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testKey() throws Throwable
+   {
+      MetadataSnapshot snapshot = new MetadataSnapshot(folder.newFolder("snapshots"));
+
+      File dir = folder.newFolder("archive");
+      File file = new File(dir, "ra.xml");
+      write(file, "<connector/>");
+
+      String fileKey = snapshot.getKey(file);
+      String dirKey = snapshot.getKey(dir);
+
+      assertEquals(fileKey, snapshot.getKey(file));
+      assertFalse(fileKey.equals(dirKey));
+
+      write(file, "<connector></connector>");
+
+      assertFalse(fileKey.equals(snapshot.getKey(file)));
+      assertFalse(dirKey.equals(snapshot.getKey(dir)));
+
+      assertNull(new MetadataSnapshot(null).getKey(file));
+   }
+
+   /**
+    * Descriptors with system property references don't get a snapshot
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testPropertyReference() throws Throwable
+   {
+      MetadataSnapshot snapshot = new MetadataSnapshot(folder.newFolder("snapshots"));
+
+      File file = folder.newFile("test-ds.xml");
+      write(file, "<datasources><password>${db.password}</password></datasources>");
+
+      assertNull(snapshot.getKey(file));
+
+      File dir = folder.newFolder("archive");
+      File metaInf = new File(dir, "META-INF");
+      metaInf.mkdirs();
+      write(new File(metaInf, "ironjacamar.xml"), "<ironjacamar><jndi>${jndi}</jndi></ironjacamar>");
+
+      assertNull(snapshot.getKey(dir));
+
+      write(new File(metaInf, "ironjacamar.xml"), "<ironjacamar><jndi>$ {jndi}</jndi></ironjacamar>");
+      write(new File(dir, "test.jar"), "${binary}");
+
+      assertNotNull(snapshot.getKey(dir));
+   }
+
+   /**
+    * A corrupt snapshot is ignored
+    * @throws Throwable throwable exception
+    */
+   @Test
+   public void testCorruptSnapshot() throws Throwable
+   {
+      File dir = folder.newFolder("snapshots");
+      MetadataSnapshot snapshot = new MetadataSnapshot(dir);
+
+      File file = resource("ds/unit/complex-ds.xml");
+      String key = snapshot.getKey(file);
+
+      write(new File(dir, key + ".snapshot"), "corrupt");
+
+      assertNull(snapshot.load(key, 1));
+   }
+
+   /**
+    * Get a test resource
+    * @param name The name
+    * @return The file
+    * @throws Throwable throwable exception
+    */
+   private File resource(String name) throws Throwable
+   {
+      return new File(MetadataSnapshotTestCase.class.getClassLoader().getResource(name).toURI());
+   }
+
+   /**
+    * Write a file
+    * @param file The file
+    * @param content The content
+    * @throws Throwable throwable exception
+    */
+   private void write(File file, String content) throws Throwable
+   {
+      OutputStream os = new FileOutputStream(file);
+      try
+      {
+         os.write(content.getBytes("UTF-8"));
+      }
+      finally
+      {
+         os.close();
+      }
+   }
+}
@@ -92,6 +92,8 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertNotNull(poolXa);
       assertFalse(poolXa.isPadXid());
       assertTrue(poolXa.isWrapXaResource());
+      assertNull(poolXa.getFillConcurrency());
+      assertNull(poolXa.isLifo());
       
       Recovery recovery = xads.getRecovery();
       assertFalse(recovery.getNoRecovery());
@@ -134,6 +136,8 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertTrue(pool.isPrefill());
       assertTrue(pool.isFair());
       assertTrue(pool.isUseStrictMin());
+      assertEquals((int) pool.getFillConcurrency(), 2);
+      assertTrue(pool.isLifo());
       assertEquals(pool.getFlushStrategy(), FlushStrategy.ENTIRE_POOL);
       assertTrue(pool.isAllowMultipleUsers());
       assertNotNull(pool.getCapacity());
@@ -154,6 +158,8 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertTrue(validation.isBackgroundValidation());
       assertEquals((long) validation.getBackgroundValidationMillis(), 2000L);
       assertTrue(validation.isUseFastFail());
+      assertEquals((int) validation.getValidationConcurrency(), 2);
+      assertEquals((long) validation.getValidationBudgetMillis(), 1000L);
       assertEquals(validation.getCheckValidConnectionSql(), "select 1");
       assertTrue(validation.isValidateOnMatch());
       checkExtension(validation.getValidConnectionChecker(), "someClass2");
@@ -204,6 +210,8 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertTrue(poolXa.isPrefill());
       assertTrue(poolXa.isFair());
       assertTrue(poolXa.isUseStrictMin());
+      assertEquals((int) poolXa.getFillConcurrency(), 2);
+      assertTrue(poolXa.isLifo());
       assertEquals(poolXa.getFlushStrategy(), FlushStrategy.IDLE_CONNECTIONS);
       assertTrue(poolXa.isAllowMultipleUsers());
       assertNotNull(poolXa.getCapacity());
@@ -229,6 +237,8 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertTrue(validation.isBackgroundValidation());
       assertEquals((long) validation.getBackgroundValidationMillis(), 2000L);
       assertTrue(validation.isUseFastFail());
+      assertEquals((int) validation.getValidationConcurrency(), 2);
+      assertEquals((long) validation.getValidationBudgetMillis(), 1000L);
       assertEquals(validation.getCheckValidConnectionSql(), "select 1");
       assertTrue(validation.isValidateOnMatch());
       checkExtension(validation.getValidConnectionChecker(), "someClass2");
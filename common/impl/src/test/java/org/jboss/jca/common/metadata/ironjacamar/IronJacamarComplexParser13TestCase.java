@@ -85,6 +85,9 @@ public class IronJacamarComplexParser13TestCase extends XMLParserTestBase
       assertEquals(2, cp.size());
       assertEquals(cp.get("Property1"), "A");
       assertEquals(cp.get("Property2"), "B");
+      assertNotNull(ra.getWorkManager());
+      assertNull(ra.getWorkManager().getSecurity());
+      assertEquals(Integer.valueOf(100), ra.getWorkManager().getVirtualThreads());
 
       List<ConnectionDefinition> cds = ra.getConnectionDefinitions();
       assertEquals(3, cds.size());
@@ -114,6 +117,8 @@ public class IronJacamarComplexParser13TestCase extends XMLParserTestBase
       assertEquals(5, (int) xaPool.getMaxPoolSize());
       assertTrue(xaPool.isPrefill());
       assertTrue(xaPool.isFair());
+      assertEquals(2, (int) xaPool.getFillConcurrency());
+      assertFalse(xaPool.isLifo());
       assertTrue(xaPool.isUseStrictMin());
       assertEquals(xaPool.getFlushStrategy(), FlushStrategy.IDLE_CONNECTIONS);
       assertNotNull(xaPool.getCapacity());
@@ -149,6 +154,8 @@ public class IronJacamarComplexParser13TestCase extends XMLParserTestBase
       assertEquals(5000, (long) cv.getBackgroundValidationMillis());
       assertTrue(cv.isBackgroundValidation());
       assertTrue(cv.isUseFastFail());
+      assertEquals(2, (int) cv.getValidationConcurrency());
+      assertEquals(1000, (long) cv.getValidationBudgetMillis());
 
       Recovery rec = cd.getRecovery();
       assertFalse(rec.getNoRecovery());
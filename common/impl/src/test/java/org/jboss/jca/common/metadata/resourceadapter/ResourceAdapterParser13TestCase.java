@@ -118,6 +118,8 @@ public class ResourceAdapterParser13TestCase extends XMLParserTestBase
       assertTrue(xaPool.isPrefill());
       assertTrue(xaPool.isFair());
       assertTrue(xaPool.isUseStrictMin());
+      assertEquals(2, (int) xaPool.getFillConcurrency());
+      assertFalse(xaPool.isLifo());
       assertEquals(xaPool.getFlushStrategy(), FlushStrategy.IDLE_CONNECTIONS);
       assertNotNull(xaPool.getCapacity());
       assertNotNull(xaPool.getCapacity().getIncrementer());
@@ -144,6 +146,8 @@ public class ResourceAdapterParser13TestCase extends XMLParserTestBase
       assertEquals(5000, (long) cv.getBackgroundValidationMillis());
       assertTrue(cv.isBackgroundValidation());
       assertTrue(cv.isUseFastFail());
+      assertEquals(2, (int) cv.getValidationConcurrency());
+      assertEquals(1000, (long) cv.getValidationBudgetMillis());
 
       Recovery rec = cd.getRecovery();
       assertFalse(rec.getNoRecovery());
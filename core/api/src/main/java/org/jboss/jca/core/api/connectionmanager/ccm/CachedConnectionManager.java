@@ -111,6 +111,57 @@ public interface CachedConnectionManager extends UserTransactionListener, Compon
     */
    public Map<String, String> listConnections();
 
+   /**
+    * Get the leak detection sampling
+    *
+    * A value of 0 disables leak detection, 1 tracks every connection handed out,
+    * and N tracks on average one out of N connections
+    * @return The value
+    */
+   public int getLeakSampling();
+
+   /**
+    * Set the leak detection sampling
+    * @param v The value
+    */
+   public void setLeakSampling(int v);
+
+   /**
+    * Get the leak threshold in milliseconds
+    * @return The value
+    */
+   public long getLeakThreshold();
+
+   /**
+    * Set the leak threshold in milliseconds
+    * @param v The value
+    */
+   public void setLeakThreshold(long v);
+
+   /**
+    * Get the number of sampled connections held longer than the leak threshold
+    * @return The value
+    */
+   public int getNumberOfLeakedConnections();
+
+   /**
+    * List the sampled connections held longer than the leak threshold
+    *
+    * The return value is the connection key, and the time it has been held
+    * followed by its allocation call site
+    * @return The map
+    */
+   public Map<String, String> listLeakedConnections();
+
+   /**
+    * List the distinct call sites of the sampled connections held longer than the leak threshold
+    *
+    * The return value is the allocation call site, and the number of connections
+    * obtained from it which are currently held longer than the threshold
+    * @return The map
+    */
+   public Map<String, Integer> listLeakedCallSites();
+
    /**
     * Start
     */
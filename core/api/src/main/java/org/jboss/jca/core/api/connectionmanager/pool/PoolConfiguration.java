@@ -37,6 +37,14 @@ import java.util.concurrent.atomic.AtomicLong;
 public class PoolConfiguration {
    private static List<String> poolsWithDisabledValidationLogging;
 
+   private static int defaultFillConcurrency = 1;
+
+   private static boolean defaultLifo = false;
+
+   private static int defaultValidationConcurrency = 1;
+
+   private static long defaultValidationBudget = 0L;
+
    static {
       String value = org.jboss.jca.core.api.connectionmanager.pool.SecurityActions.getSystemProperty("ironjacamar.disable_enlistment_trace");
 
@@ -53,6 +61,44 @@ public class PoolConfiguration {
          poolsWithDisabledValidationLogging = Collections.emptyList();
       }
 
+      value = org.jboss.jca.core.api.connectionmanager.pool.SecurityActions.getSystemProperty("ironjacamar.fill_concurrency");
+
+      if (value != null && !value.trim().equals("")) {
+         try {
+            defaultFillConcurrency = Math.max(1, Integer.parseInt(value.trim()));
+         } catch (Throwable t) {
+            //Ignore invalid parameter
+            defaultFillConcurrency = 1;
+         }
+      }
+
+      value = org.jboss.jca.core.api.connectionmanager.pool.SecurityActions.getSystemProperty("ironjacamar.lifo");
+
+      if (value != null && !value.trim().equals("")) {
+         defaultLifo = Boolean.valueOf(value.trim());
+      }
+
+      value = org.jboss.jca.core.api.connectionmanager.pool.SecurityActions.getSystemProperty("ironjacamar.validation_concurrency");
+
+      if (value != null && !value.trim().equals("")) {
+         try {
+            defaultValidationConcurrency = Math.max(1, Integer.parseInt(value.trim()));
+         } catch (Throwable t) {
+            //Ignore invalid parameter
+            defaultValidationConcurrency = 1;
+         }
+      }
+
+      value = org.jboss.jca.core.api.connectionmanager.pool.SecurityActions.getSystemProperty("ironjacamar.validation_budget");
+
+      if (value != null && !value.trim().equals("")) {
+         try {
+            defaultValidationBudget = Math.max(0L, Long.parseLong(value.trim()));
+         } catch (Throwable t) {
+            //Ignore invalid parameter
+            defaultValidationBudget = 0L;
+         }
+      }
    }
 
    public static List<String> getPoolsWithDisabledValidationLogging()
@@ -99,6 +145,18 @@ public class PoolConfiguration {
    /** Fairness of semaphore permits, default true */
    private AtomicBoolean fair;
 
+   /** Number of connections created in parallel when filling the pool */
+   private AtomicInteger fillConcurrency;
+
+   /** Wake up the most recent waiter first for non-fair semaphore permits, default false */
+   private AtomicBoolean lifo;
+
+   /** Number of connections validated in parallel during a background validation pass */
+   private AtomicInteger validationConcurrency;
+
+   /** Time budget of a background validation pass in milliseconds, 0 means the validation interval */
+   private AtomicLong validationBudget;
+
    /**
     * Constructor
     */
@@ -116,6 +174,10 @@ public class PoolConfiguration {
       strictMin = new AtomicBoolean(false);
       useFastFail = new AtomicBoolean(false);
       fair = new AtomicBoolean(true);
+      fillConcurrency = new AtomicInteger(defaultFillConcurrency);
+      lifo = new AtomicBoolean(defaultLifo);
+      validationConcurrency = new AtomicInteger(defaultValidationConcurrency);
+      validationBudget = new AtomicLong(defaultValidationBudget);
    }
 
    /**
@@ -332,6 +394,75 @@ public class PoolConfiguration {
    }
 
 
+   /**
+    * @return the number of connections created in parallel when filling the pool
+    */
+   public int getFillConcurrency()
+   {
+      return fillConcurrency.get();
+   }
+
+   /**
+    * @param fillConcurrency the number of connections created in parallel when filling the pool
+    */
+   public void setFillConcurrency(int fillConcurrency)
+   {
+      this.fillConcurrency.set(Math.max(1, fillConcurrency));
+   }
+
+   /**
+    * @return the lifo
+    */
+   public boolean isLifo()
+   {
+      return lifo.get();
+   }
+
+   /**
+    * @param useLifo the lifo value
+    */
+   public void setLifo(boolean useLifo)
+   {
+      this.lifo.set(useLifo);
+   }
+
+   /**
+    * @return the number of connections validated in parallel during a background validation pass
+    */
+   public int getValidationConcurrency()
+   {
+      return validationConcurrency.get();
+   }
+
+   /**
+    * @param validationConcurrency the number of connections validated in parallel
+    */
+   public void setValidationConcurrency(int validationConcurrency)
+   {
+      this.validationConcurrency.set(Math.max(1, validationConcurrency));
+   }
+
+   /**
+    * Get the time budget of a background validation pass; when not set the
+    * background validation interval is used
+    * @return The value in milliseconds
+    */
+   public long getValidationBudget()
+   {
+      if (validationBudget.get() > 0L)
+         return validationBudget.get();
+
+      return backgroundValidationMillis.get();
+   }
+
+   /**
+    * @param validationBudget the time budget of a background validation pass in milliseconds
+    */
+   public void setValidationBudget(long validationBudget)
+   {
+      this.validationBudget.set(Math.max(0L, validationBudget));
+   }
+
    /**
     * String representation
     * @return The string
@@ -354,6 +485,10 @@ public class PoolConfiguration {
       sb.append(" strictMin=").append(strictMin.get());
       sb.append(" useFastFail=").append(useFastFail.get());
       sb.append(" fair=").append(fair.get());
+      sb.append(" fillConcurrency=").append(fillConcurrency.get());
+      sb.append(" lifo=").append(lifo.get());
+      sb.append(" validationConcurrency=").append(validationConcurrency.get());
+      sb.append(" validationBudget=").append(validationBudget.get());
       sb.append("]");
 
       return sb.toString();
@@ -36,6 +36,18 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public int getActiveCount();
 
+   /**
+    * Get the number of connections reclaimed through thread affinity
+    * @return The value
+    */
+   public long getAffinityHitCount();
+
+   /**
+    * Get the number of connection requests which missed the thread affinity cache
+    * @return The value
+    */
+   public long getAffinityMissCount();
+
    /**
     * Get the available count
     * @return The value
@@ -90,6 +102,18 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public int getDestroyedCount();
 
+   /**
+    * Get the number of connections created by the pool and capacity fillers
+    * @return The value
+    */
+   public long getFilledCount();
+
+   /**
+    * Get the number of connections currently being created by the pool and capacity fillers
+    * @return The value
+    */
+   public int getFillingCount();
+
    /**
     * Get idle count
     * @return The value
@@ -144,6 +168,102 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public long getMaxWaitTime();
 
+   /**
+    * Get the median time spent obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP50GetTime();
+
+   /**
+    * Get the 90th percentile of the time spent obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP90GetTime();
+
+   /**
+    * Get the 99th percentile of the time spent obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP99GetTime();
+
+   /**
+    * Get the 99.9th percentile of the time spent obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP999GetTime();
+
+   /**
+    * Get the median time spent blocking on obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP50BlockingTime();
+
+   /**
+    * Get the 90th percentile of the time spent blocking on obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP90BlockingTime();
+
+   /**
+    * Get the 99th percentile of the time spent blocking on obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP99BlockingTime();
+
+   /**
+    * Get the 99.9th percentile of the time spent blocking on obtaining a connection (milliseconds)
+    * @return The value
+    */
+   public long getP999BlockingTime();
+
+   /**
+    * Get the median time spent using a connection (milliseconds)
+    * @return The value
+    */
+   public long getP50UsageTime();
+
+   /**
+    * Get the 90th percentile of the time spent using a connection (milliseconds)
+    * @return The value
+    */
+   public long getP90UsageTime();
+
+   /**
+    * Get the 99th percentile of the time spent using a connection (milliseconds)
+    * @return The value
+    */
+   public long getP99UsageTime();
+
+   /**
+    * Get the 99.9th percentile of the time spent using a connection (milliseconds)
+    * @return The value
+    */
+   public long getP999UsageTime();
+
+   /**
+    * Get the median time spent creating a connection (milliseconds)
+    * @return The value
+    */
+   public long getP50CreationTime();
+
+   /**
+    * Get the 90th percentile of the time spent creating a connection (milliseconds)
+    * @return The value
+    */
+   public long getP90CreationTime();
+
+   /**
+    * Get the 99th percentile of the time spent creating a connection (milliseconds)
+    * @return The value
+    */
+   public long getP99CreationTime();
+
+   /**
+    * Get the 99.9th percentile of the time spent creating a connection (milliseconds)
+    * @return The value
+    */
+   public long getP999CreationTime();
+
    /**
     * Get timed out
     * @return The value
@@ -180,6 +300,30 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public long getTotalUsageTime();
 
+   /**
+    * Get the number of background validation passes
+    * @return The value
+    */
+   public long getValidationPassCount();
+
+   /**
+    * Get the average duration of a background validation pass (milliseconds)
+    * @return The value
+    */
+   public long getAverageValidationPassTime();
+
+   /**
+    * Get the maximum duration of a background validation pass (milliseconds)
+    * @return The value
+    */
+   public long getMaxValidationPassTime();
+
+   /**
+    * Get the number of background validation passes that exceeded their time budget
+    * @return The value
+    */
+   public long getValidationBudgetExceededCount();
+
    /**
     * Get wait count
     * @return The value
@@ -54,6 +54,30 @@ public interface XAResourceStatistics extends StatisticsPlugin
     */
    public long getCommitMaxTime();
 
+   /**
+    * Get the median commit time (milliseconds)
+    * @return The value
+    */
+   public long getCommitP50Time();
+
+   /**
+    * Get the 90th percentile commit time (milliseconds)
+    * @return The value
+    */
+   public long getCommitP90Time();
+
+   /**
+    * Get the 99th percentile commit time (milliseconds)
+    * @return The value
+    */
+   public long getCommitP99Time();
+
+   /**
+    * Get the 99.9th percentile commit time (milliseconds)
+    * @return The value
+    */
+   public long getCommitP999Time();
+
    /**
     * Delta commit
     * @param time The milliseconds
@@ -84,6 +108,30 @@ public interface XAResourceStatistics extends StatisticsPlugin
     */
    public long getEndMaxTime();
 
+   /**
+    * Get the median end time (milliseconds)
+    * @return The value
+    */
+   public long getEndP50Time();
+
+   /**
+    * Get the 90th percentile end time (milliseconds)
+    * @return The value
+    */
+   public long getEndP90Time();
+
+   /**
+    * Get the 99th percentile end time (milliseconds)
+    * @return The value
+    */
+   public long getEndP99Time();
+
+   /**
+    * Get the 99.9th percentile end time (milliseconds)
+    * @return The value
+    */
+   public long getEndP999Time();
+
    /**
     * Delta end
     * @param time The milliseconds
@@ -144,6 +192,30 @@ public interface XAResourceStatistics extends StatisticsPlugin
     */
    public long getPrepareMaxTime();
 
+   /**
+    * Get the median prepare time (milliseconds)
+    * @return The value
+    */
+   public long getPrepareP50Time();
+
+   /**
+    * Get the 90th percentile prepare time (milliseconds)
+    * @return The value
+    */
+   public long getPrepareP90Time();
+
+   /**
+    * Get the 99th percentile prepare time (milliseconds)
+    * @return The value
+    */
+   public long getPrepareP99Time();
+
+   /**
+    * Get the 99.9th percentile prepare time (milliseconds)
+    * @return The value
+    */
+   public long getPrepareP999Time();
+
    /**
     * Delta prepare
     * @param time The milliseconds
@@ -234,6 +306,30 @@ public interface XAResourceStatistics extends StatisticsPlugin
     */
    public long getStartMaxTime();
 
+   /**
+    * Get the median start time (milliseconds)
+    * @return The value
+    */
+   public long getStartP50Time();
+
+   /**
+    * Get the 90th percentile start time (milliseconds)
+    * @return The value
+    */
+   public long getStartP90Time();
+
+   /**
+    * Get the 99th percentile start time (milliseconds)
+    * @return The value
+    */
+   public long getStartP99Time();
+
+   /**
+    * Get the 99.9th percentile start time (milliseconds)
+    * @return The value
+    */
+   public long getStartP999Time();
+
    /**
     * Delta start
     * @param time The milliseconds
@@ -176,6 +176,14 @@ public interface CoreBundle
     */
    @Message(id = 266, value = "Invalid number of parameters %d (%s)")
    public String invalidNumberOfParameters(int number, String c);
+
+   /**
+    * Unknown class bundle
+    * @param digest The digest
+    * @return The value
+    */
+   @Message(id = 267, value = "Unknown class bundle: %s")
+   public String unknownClassBundle(String digest);
    
    // CONNECTION MANAGER LISTENER (300)
 
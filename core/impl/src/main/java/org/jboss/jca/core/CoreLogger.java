@@ -95,6 +95,14 @@ public interface CoreLogger extends BasicLogger
    @LogMessage(level = ERROR)
    @Message(id = 202, value = "SecurityContext setup failed since CallbackSecurity was null")
    public void securityContextSetupFailedCallbackSecurityNull();
+
+   /**
+    * Virtual threads not supported
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 203, value = "Virtual threads are not supported by the platform, using a platform thread " +
+            "for each Work instance")
+   public void virtualThreadsNotSupported();
    
    
    // CONNECTION MANAGER LISTENER (300)
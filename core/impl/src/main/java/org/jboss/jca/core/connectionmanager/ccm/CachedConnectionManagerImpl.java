@@ -112,6 +112,11 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
     */
    private final Map<Object, Throwable> connectionStackTraces = new WeakHashMap<Object, Throwable>();
 
+   /**
+    * Sampled leak detector
+    */
+   private final LeakDetector leakDetector = new LeakDetector();
+
    /**
     * Creates a new instance.
     * @param transactionIntegration The transaction integration
@@ -190,6 +195,38 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       ignoreConnections = v;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public int getLeakSampling()
+   {
+      return leakDetector.getSampling();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setLeakSampling(int v)
+   {
+      leakDetector.setSampling(v);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getLeakThreshold()
+   {
+      return leakDetector.getThreshold();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setLeakThreshold(long v)
+   {
+      leakDetector.setThreshold(v);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -310,6 +347,8 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
          }
       }
 
+      leakDetector.track(connection);
+
       KeyConnectionAssociation key = peekMetaAwareObject();
 
       log.tracef("registering connection from connection manager: %s, connection : %s, key: %s",
@@ -363,6 +402,8 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
          }
       }
 
+      leakDetector.release(connection);
+
       KeyConnectionAssociation key = peekMetaAwareObject();
 
       log.tracef("unregistering connection from connection manager: %s, connection: %s, key: %s",
@@ -508,6 +549,30 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public int getNumberOfLeakedConnections()
+   {
+      return leakDetector.getLeakedCount();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Map<String, String> listLeakedConnections()
+   {
+      return Collections.unmodifiableMap(leakDetector.listLeaked());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Map<String, Integer> listLeakedCallSites()
+   {
+      return Collections.unmodifiableMap(leakDetector.listLeakedCallSites());
+   }
+
    /**
     * Close all connections.
     * @param key The key
@@ -617,6 +682,8 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
             exception = connectionStackTraces.remove(connectionHandle);
          }
 
+         leakDetector.release(connectionHandle);
+
          Method m = SecurityActions.getMethod(connectionHandle.getClass(), "close", new Class[]{});
 
          try
@@ -731,6 +798,8 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       sb.append("[debug=").append(debug);
       sb.append(" error=").append(error);
       sb.append(" ignoreConnections=").append(ignoreConnections);
+      sb.append(" leakSampling=").append(leakDetector.getSampling());
+      sb.append(" leakThreshold=").append(leakDetector.getThreshold());
       sb.append(" transactionIntegration=").append(transactionIntegration);
       sb.append(" currentObjects=").append(currentObjects.get());
       sb.append(" objectToConnectionManagerMap=").append(objectToConnectionManagerMap);
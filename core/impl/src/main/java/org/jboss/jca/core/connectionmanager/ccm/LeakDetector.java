@@ -0,0 +1,486 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.ccm;
+
+import org.jboss.jca.core.api.connectionmanager.listener.ConnectionCacheListener;
+import org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Sampled connection leak detector.
+ *
+ * A sample of the connection handles registered with the cached connection manager
+ * is tracked together with the time of allocation and the allocation call site.
+ * Identical call sites are shared between handles, and handles are only weakly
+ * referenced, so the footprint stays bounded by the number of connections in use.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class LeakDetector
+{
+   /** The maximum number of frames recorded per call site */
+   private static final int MAX_DEPTH = 32;
+
+   /** The maximum number of distinct call sites kept for sharing */
+   private static final int MAX_CALL_SITES = 4096;
+
+   /** The stack walker */
+   private static final StackWalker WALKER = SecurityActions.getStackWalker();
+
+   /** The sampling; 0 is disabled */
+   private volatile int sampling;
+
+   /** The threshold in milliseconds */
+   private volatile long threshold;
+
+   /** The tracked handles */
+   private final ConcurrentMap<HandleReference, Allocation> allocations;
+
+   /** Handles which have been garbage collected */
+   private final ReferenceQueue<Object> queue;
+
+   /** The distinct call sites */
+   private final ConcurrentMap<CallSite, CallSite> callSites;
+
+   /**
+    * Constructor
+    */
+   LeakDetector()
+   {
+      this.sampling = 0;
+      this.threshold = 30000L;
+      this.allocations = new ConcurrentHashMap<HandleReference, Allocation>();
+      this.queue = new ReferenceQueue<Object>();
+      this.callSites = new ConcurrentHashMap<CallSite, CallSite>();
+   }
+
+   /**
+    * Get the sampling
+    * @return The value
+    */
+   int getSampling()
+   {
+      return sampling;
+   }
+
+   /**
+    * Set the sampling
+    * @param v The value
+    */
+   void setSampling(int v)
+   {
+      sampling = v < 0 ? 0 : v;
+
+      if (sampling == 0)
+      {
+         allocations.clear();
+         callSites.clear();
+      }
+   }
+
+   /**
+    * Get the threshold
+    * @return The value
+    */
+   long getThreshold()
+   {
+      return threshold;
+   }
+
+   /**
+    * Set the threshold
+    * @param v The value
+    */
+   void setThreshold(long v)
+   {
+      threshold = v < 0 ? 0 : v;
+   }
+
+   /**
+    * Track a connection handle if it is part of the sample
+    * @param handle The connection handle
+    */
+   void track(Object handle)
+   {
+      int s = sampling;
+
+      if (s == 0 || (s > 1 && ThreadLocalRandom.current().nextInt(s) != 0))
+         return;
+
+      expunge();
+
+      allocations.put(new HandleReference(handle, queue),
+                      new Allocation(capture(), System.currentTimeMillis(), Thread.currentThread().getName()));
+   }
+
+   /**
+    * Stop tracking a connection handle
+    * @param handle The connection handle
+    */
+   void release(Object handle)
+   {
+      if (allocations.isEmpty())
+         return;
+
+      allocations.remove(new HandleReference(handle, null));
+   }
+
+   /**
+    * Get the number of tracked handles
+    * @return The value
+    */
+   int size()
+   {
+      expunge();
+      return allocations.size();
+   }
+
+   /**
+    * Get the number of tracked handles held longer than the threshold
+    * @return The value
+    */
+   int getLeakedCount()
+   {
+      expunge();
+
+      long limit = System.currentTimeMillis() - threshold;
+      int result = 0;
+
+      for (Allocation allocation : allocations.values())
+      {
+         if (allocation.getTimestamp() <= limit)
+            result++;
+      }
+
+      return result;
+   }
+
+   /**
+    * List the tracked handles held longer than the threshold
+    * @return The handles, and their age and call site
+    */
+   Map<String, String> listLeaked()
+   {
+      expunge();
+
+      long now = System.currentTimeMillis();
+      long limit = now - threshold;
+      Map<String, String> result = new HashMap<String, String>();
+
+      for (Map.Entry<HandleReference, Allocation> entry : allocations.entrySet())
+      {
+         Object handle = entry.getKey().get();
+         Allocation allocation = entry.getValue();
+
+         if (handle != null && allocation.getTimestamp() <= limit)
+         {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Held for ").append(now - allocation.getTimestamp()).append(" ms by thread ");
+            sb.append(allocation.getThread()).append('\n');
+            sb.append(allocation.getCallSite());
+
+            result.put(handle.toString(), sb.toString());
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * List the distinct call sites of the tracked handles held longer than the threshold
+    * @return The call sites, and the number of handles allocated from them
+    */
+   Map<String, Integer> listLeakedCallSites()
+   {
+      expunge();
+
+      long limit = System.currentTimeMillis() - threshold;
+      Map<CallSite, Integer> counts = new HashMap<CallSite, Integer>();
+
+      for (Allocation allocation : allocations.values())
+      {
+         if (allocation.getTimestamp() <= limit)
+         {
+            Integer count = counts.get(allocation.getCallSite());
+            counts.put(allocation.getCallSite(), Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+         }
+      }
+
+      Map<String, Integer> result = new HashMap<String, Integer>(counts.size());
+
+      for (Map.Entry<CallSite, Integer> entry : counts.entrySet())
+      {
+         result.put(entry.getKey().toString(), entry.getValue());
+      }
+
+      return result;
+   }
+
+   /**
+    * Remove the handles which have been garbage collected
+    */
+   private void expunge()
+   {
+      Object ref = queue.poll();
+
+      while (ref != null)
+      {
+         allocations.remove(ref);
+         ref = queue.poll();
+      }
+   }
+
+   /**
+    * Capture the call site of the current thread, skipping the connection manager frames
+    * @return The shared call site instance
+    */
+   private CallSite capture()
+   {
+      StackTraceElement[] frames = WALKER.walk(new Function<Stream<StackWalker.StackFrame>, StackTraceElement[]>()
+      {
+         public StackTraceElement[] apply(Stream<StackWalker.StackFrame> s)
+         {
+            List<StackTraceElement> l = new ArrayList<StackTraceElement>(MAX_DEPTH);
+            boolean skipping = true;
+
+            Iterator<StackWalker.StackFrame> it = s.iterator();
+
+            while (it.hasNext())
+            {
+               StackWalker.StackFrame frame = it.next();
+
+               if (skipping && isInternal(frame.getDeclaringClass()))
+                  continue;
+
+               skipping = false;
+               l.add(frame.toStackTraceElement());
+
+               if (l.size() == MAX_DEPTH)
+                  break;
+            }
+
+            return l.toArray(new StackTraceElement[l.size()]);
+         }
+      });
+
+      CallSite callSite = new CallSite(frames);
+      CallSite shared = callSites.get(callSite);
+
+      if (shared != null)
+         return shared;
+
+      if (callSites.size() >= MAX_CALL_SITES)
+         return callSite;
+
+      shared = callSites.putIfAbsent(callSite, callSite);
+
+      return shared != null ? shared : callSite;
+   }
+
+   /**
+    * Is the class part of the connection manager allocation path
+    * @param clz The class
+    * @return True if internal; otherwise false
+    */
+   private static boolean isInternal(Class<?> clz)
+   {
+      return clz == LeakDetector.class || clz == CachedConnectionManagerImpl.class ||
+         ConnectionCacheListener.class.isAssignableFrom(clz) || ConnectionListener.class.isAssignableFrom(clz);
+   }
+
+   /**
+    * Weak identity reference to a connection handle
+    */
+   static class HandleReference extends WeakReference<Object>
+   {
+      /** The identity hash code */
+      private final int hash;
+
+      /**
+       * Constructor
+       * @param handle The connection handle
+       * @param queue The reference queue
+       */
+      HandleReference(Object handle, ReferenceQueue<Object> queue)
+      {
+         super(handle, queue);
+         this.hash = System.identityHashCode(handle);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+            return true;
+
+         if (!(o instanceof HandleReference))
+            return false;
+
+         Object handle = get();
+         return handle != null && handle == ((HandleReference)o).get();
+      }
+   }
+
+   /**
+    * An allocation
+    */
+   static class Allocation
+   {
+      /** The call site */
+      private final CallSite callSite;
+
+      /** The timestamp */
+      private final long timestamp;
+
+      /** The thread name */
+      private final String thread;
+
+      /**
+       * Constructor
+       * @param callSite The call site
+       * @param timestamp The timestamp
+       * @param thread The thread name
+       */
+      Allocation(CallSite callSite, long timestamp, String thread)
+      {
+         this.callSite = callSite;
+         this.timestamp = timestamp;
+         this.thread = thread;
+      }
+
+      /**
+       * Get the call site
+       * @return The value
+       */
+      CallSite getCallSite()
+      {
+         return callSite;
+      }
+
+      /**
+       * Get the timestamp
+       * @return The value
+       */
+      long getTimestamp()
+      {
+         return timestamp;
+      }
+
+      /**
+       * Get the thread name
+       * @return The value
+       */
+      String getThread()
+      {
+         return thread;
+      }
+   }
+
+   /**
+    * A call site
+    */
+   static class CallSite
+   {
+      /** The frames */
+      private final StackTraceElement[] frames;
+
+      /** The hash code */
+      private final int hash;
+
+      /**
+       * Constructor
+       * @param frames The frames
+       */
+      CallSite(StackTraceElement[] frames)
+      {
+         this.frames = frames;
+         this.hash = Arrays.hashCode(frames);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+            return true;
+
+         if (!(o instanceof CallSite))
+            return false;
+
+         CallSite other = (CallSite)o;
+         return hash == other.hash && Arrays.equals(frames, other.frames);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public String toString()
+      {
+         StringBuilder sb = new StringBuilder();
+
+         for (StackTraceElement frame : frames)
+         {
+            sb.append("\tat ").append(frame).append('\n');
+         }
+
+         return sb.toString();
+      }
+   }
+}
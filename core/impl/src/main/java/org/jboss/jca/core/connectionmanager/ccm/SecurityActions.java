@@ -73,4 +73,22 @@ class SecurityActions
 
       throw new NoSuchMethodException();
    }
+
+   /**
+    * Get a stack walker retaining class references
+    * @return The stack walker
+    */
+   static StackWalker getStackWalker()
+   {
+      if (System.getSecurityManager() == null)
+         return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+      return AccessController.doPrivileged(new PrivilegedAction<StackWalker>()
+      {
+         public StackWalker run()
+         {
+            return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+         }
+      });
+   }
 }
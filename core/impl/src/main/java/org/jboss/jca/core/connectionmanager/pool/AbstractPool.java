@@ -178,7 +178,7 @@ public abstract class AbstractPool implements Pool
       this.mcpClass = mcp;
       this.log = getLogger();
       this.statistics = new PoolStatisticsImpl(pc.getMaxSize());
-      this.permits = new Semaphore(pc.getMaxSize(), pc.isFair(), statistics);
+      this.permits = new Semaphore(pc.getMaxSize(), pc.isFair(), pc.isLifo(), statistics);
       this.capacity = null;
       this.interleaving = false;
       this.noLazyEnlistmentAvailable = new AtomicBoolean(false);
@@ -286,7 +286,7 @@ public abstract class AbstractPool implements Pool
     */
    public boolean isFull()
    {
-      return permits.availablePermits() == 0;
+      return permits.availablePermits() <= 0;
    }
 
    /**
@@ -1147,6 +1147,21 @@ public abstract class AbstractPool implements Pool
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void setMaxSize(int maxSize)
+   {
+      if (maxSize < 1)
+         throw new IllegalArgumentException("Invalid max size: " + maxSize);
+
+      poolConfiguration.setMaxSize(maxSize);
+
+      int size = poolConfiguration.getMaxSize();
+      permits.setMaxPermits(size);
+      statistics.setMaxPoolSize(size);
+   }
+
    /**
     * {@inheritDoc}
     */
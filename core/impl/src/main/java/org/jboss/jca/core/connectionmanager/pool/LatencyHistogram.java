@@ -0,0 +1,166 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size, lock-free latency histogram.
+ *
+ * Values below 64 have their own bucket, and each power of two above that
+ * is split into 32 buckets, giving a relative error of about 3%. Values
+ * above 2^37 are recorded in the last bucket.
+ *
+ * Most of the values tend to fall in a few buckets, like 0 ms for a connection
+ * which is available right away, so each bucket is a striped counter created
+ * on first use, such that concurrent threads recording the same value don't
+ * compete for a single slot.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class LatencyHistogram
+{
+   /** Bits used for the buckets within a power of two */
+   private static final int SUB_BUCKET_BITS = 5;
+
+   /** Buckets within a power of two */
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+   /** Highest power of two with its own buckets */
+   private static final int MAX_EXPONENT = 36;
+
+   /** Number of buckets */
+   private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+   /** The counts; a bucket is created when its first value is recorded */
+   private final AtomicReferenceArray<LongAdder> counts;
+
+   /**
+    * Constructor
+    */
+   LatencyHistogram()
+   {
+      this.counts = new AtomicReferenceArray<LongAdder>(BUCKETS);
+   }
+
+   /**
+    * Record a value
+    * @param value The value; negative values are recorded as 0
+    */
+   void record(long value)
+   {
+      int index = index(value);
+      LongAdder count = counts.get(index);
+
+      if (count == null)
+      {
+         counts.compareAndSet(index, null, new LongAdder());
+         count = counts.get(index);
+      }
+
+      count.increment();
+   }
+
+   /**
+    * Get the value at a percentile; the highest value of the bucket is reported
+    * @param percentile The percentile, from 0 to 100
+    * @return The value, or 0 if nothing has been recorded
+    */
+   long getValueAtPercentile(double percentile)
+   {
+      long[] snapshot = new long[BUCKETS];
+      long total = 0L;
+
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         LongAdder count = counts.get(i);
+         if (count != null)
+         {
+            snapshot[i] = count.sum();
+            total += snapshot[i];
+         }
+      }
+
+      if (total == 0L)
+         return 0L;
+
+      long target = Math.max(1L, (long)Math.ceil(total * Math.min(100.0, percentile) / 100.0));
+      long seen = 0L;
+
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         seen += snapshot[i];
+         if (seen >= target)
+            return highestValue(i);
+      }
+
+      return highestValue(BUCKETS - 1);
+   }
+
+   /**
+    * Reset the histogram
+    */
+   void reset()
+   {
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         LongAdder count = counts.get(i);
+         if (count != null)
+            count.reset();
+      }
+   }
+
+   /**
+    * Get the bucket of a value
+    * @param value The value
+    * @return The index
+    */
+   private static int index(long value)
+   {
+      if (value < 2 * SUB_BUCKETS)
+         return value < 0L ? 0 : (int)value;
+
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      if (exponent > MAX_EXPONENT)
+         return BUCKETS - 1;
+
+      int shift = exponent - SUB_BUCKET_BITS;
+      return shift * SUB_BUCKETS + (int)(value >>> shift);
+   }
+
+   /**
+    * Get the highest value recorded in a bucket
+    * @param index The index
+    * @return The value
+    */
+   private static long highestValue(int index)
+   {
+      if (index < 2 * SUB_BUCKETS)
+         return index;
+
+      int shift = index / SUB_BUCKETS - 1;
+      long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+      return ((sub + 1L) << shift) - 1L;
+   }
+}
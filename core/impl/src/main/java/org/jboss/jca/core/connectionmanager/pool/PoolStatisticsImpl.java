@@ -38,7 +38,9 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
 
 /**
  * Pool statistics
@@ -51,6 +53,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final long serialVersionUID = 9L;
 
    private static final String ACTIVE_COUNT = "ActiveCount";
+   private static final String AFFINITY_HIT_COUNT = "AffinityHitCount";
+   private static final String AFFINITY_MISS_COUNT = "AffinityMissCount";
    private static final String AVAILABLE_COUNT = "AvailableCount";
    private static final String AVERAGE_BLOCKING_TIME = "AverageBlockingTime";
    private static final String AVERAGE_CREATION_TIME = "AverageCreationTime";
@@ -60,6 +64,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String BLOCKING_FAILURE_COUNT = "BlockingFailureCount";
    private static final String CREATED_COUNT = "CreatedCount";
    private static final String DESTROYED_COUNT = "DestroyedCount";
+   private static final String FILLED_COUNT = "FilledCount";
+   private static final String FILLING_COUNT = "FillingCount";
    private static final String IDLE_COUNT = "IdleCount";
    private static final String IN_USE_COUNT = "InUseCount";
    private static final String MAX_CREATION_TIME = "MaxCreationTime";
@@ -69,22 +75,50 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String MAX_USED_COUNT = "MaxUsedCount";
    private static final String MAX_WAIT_COUNT = "MaxWaitCount";
    private static final String MAX_WAIT_TIME = "MaxWaitTime";
+   private static final String P50_GET_TIME = "P50GetTime";
+   private static final String P90_GET_TIME = "P90GetTime";
+   private static final String P99_GET_TIME = "P99GetTime";
+   private static final String P999_GET_TIME = "P999GetTime";
+   private static final String P50_BLOCKING_TIME = "P50BlockingTime";
+   private static final String P90_BLOCKING_TIME = "P90BlockingTime";
+   private static final String P99_BLOCKING_TIME = "P99BlockingTime";
+   private static final String P999_BLOCKING_TIME = "P999BlockingTime";
+   private static final String P50_USAGE_TIME = "P50UsageTime";
+   private static final String P90_USAGE_TIME = "P90UsageTime";
+   private static final String P99_USAGE_TIME = "P99UsageTime";
+   private static final String P999_USAGE_TIME = "P999UsageTime";
+   private static final String P50_CREATION_TIME = "P50CreationTime";
+   private static final String P90_CREATION_TIME = "P90CreationTime";
+   private static final String P99_CREATION_TIME = "P99CreationTime";
+   private static final String P999_CREATION_TIME = "P999CreationTime";
    private static final String TIMED_OUT = "TimedOut";
    private static final String TOTAL_BLOCKING_TIME = "TotalBlockingTime";
    private static final String TOTAL_CREATION_TIME = "TotalCreationTime";
    private static final String TOTAL_GET_TIME = "TotalGetTime";
    private static final String TOTAL_POOL_TIME = "TotalPoolTime";
    private static final String TOTAL_USAGE_TIME = "TotalUsageTime";
+   private static final String VALIDATION_PASS_COUNT = "ValidationPassCount";
+   private static final String AVERAGE_VALIDATION_PASS_TIME = "AverageValidationPassTime";
+   private static final String MAX_VALIDATION_PASS_TIME = "MaxValidationPassTime";
+   private static final String VALIDATION_BUDGET_EXCEEDED_COUNT = "ValidationBudgetExceededCount";
    private static final String WAIT_COUNT = "WaitCount";
 
    private static final String XA_COMMIT_COUNT = "XACommitCount";
    private static final String XA_COMMIT_AVERAGE_TIME = "XACommitAverageTime";
    private static final String XA_COMMIT_TOTAL_TIME = "XACommitTotalTime";
    private static final String XA_COMMIT_MAX_TIME = "XACommitMaxTime";
+   private static final String XA_COMMIT_P50_TIME = "XACommitP50Time";
+   private static final String XA_COMMIT_P90_TIME = "XACommitP90Time";
+   private static final String XA_COMMIT_P99_TIME = "XACommitP99Time";
+   private static final String XA_COMMIT_P999_TIME = "XACommitP999Time";
    private static final String XA_END_COUNT = "XAEndCount";
    private static final String XA_END_AVERAGE_TIME = "XAEndAverageTime";
    private static final String XA_END_TOTAL_TIME = "XAEndTotalTime";
    private static final String XA_END_MAX_TIME = "XAEndMaxTime";
+   private static final String XA_END_P50_TIME = "XAEndP50Time";
+   private static final String XA_END_P90_TIME = "XAEndP90Time";
+   private static final String XA_END_P99_TIME = "XAEndP99Time";
+   private static final String XA_END_P999_TIME = "XAEndP999Time";
    private static final String XA_FORGET_COUNT = "XAForgetCount";
    private static final String XA_FORGET_AVERAGE_TIME = "XAForgetAverageTime";
    private static final String XA_FORGET_TOTAL_TIME = "XAForgetTotalTime";
@@ -93,6 +127,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String XA_PREPARE_AVERAGE_TIME = "XAPrepareAverageTime";
    private static final String XA_PREPARE_TOTAL_TIME = "XAPrepareTotalTime";
    private static final String XA_PREPARE_MAX_TIME = "XAPrepareMaxTime";
+   private static final String XA_PREPARE_P50_TIME = "XAPrepareP50Time";
+   private static final String XA_PREPARE_P90_TIME = "XAPrepareP90Time";
+   private static final String XA_PREPARE_P99_TIME = "XAPrepareP99Time";
+   private static final String XA_PREPARE_P999_TIME = "XAPrepareP999Time";
    private static final String XA_RECOVER_COUNT = "XARecoverCount";
    private static final String XA_RECOVER_AVERAGE_TIME = "XARecoverAverageTime";
    private static final String XA_RECOVER_TOTAL_TIME = "XARecoverTotalTime";
@@ -105,8 +143,21 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String XA_START_AVERAGE_TIME = "XAStartAverageTime";
    private static final String XA_START_TOTAL_TIME = "XAStartTotalTime";
    private static final String XA_START_MAX_TIME = "XAStartMaxTime";
+   private static final String XA_START_P50_TIME = "XAStartP50Time";
+   private static final String XA_START_P90_TIME = "XAStartP90Time";
+   private static final String XA_START_P99_TIME = "XAStartP99Time";
+   private static final String XA_START_P999_TIME = "XAStartP999Time";
 
-   private int maxPoolSize;
+   /** Max function for the accumulators */
+   private static final LongBinaryOperator MAX = new LongBinaryOperator()
+   {
+      public long applyAsLong(long left, long right)
+      {
+         return Math.max(left, right);
+      }
+   };
+
+   private volatile int maxPoolSize;
    private transient SortedSet<String> names;
    private transient Map<String, Class> types;
    private transient Map<Locale, ResourceBundle> rbs;
@@ -114,49 +165,65 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private transient AtomicBoolean enabled;
    private transient AtomicInteger createdCount;
    private transient AtomicInteger destroyedCount;
-   private transient AtomicInteger maxUsedCount;
-   private transient AtomicLong maxCreationTime;
-   private transient AtomicLong maxGetTime;
-   private transient AtomicLong maxPoolTime;
-   private transient AtomicLong maxUsageTime;
-   private transient AtomicInteger maxWaitCount;
-   private transient AtomicLong maxWaitTime;
-   private transient AtomicInteger timedOut;
-   private transient AtomicLong totalBlockingTime;
-   private transient AtomicLong totalBlockingTimeInvocations;
-   private transient AtomicLong totalCreationTime;
-   private transient AtomicLong totalGetTime;
-   private transient AtomicLong totalGetTimeInvocations;
-   private transient AtomicLong totalPoolTime;
-   private transient AtomicLong totalPoolTimeInvocations;
-   private transient AtomicLong totalUsageTime;
-   private transient AtomicLong totalUsageTimeInvocations;
+   private transient LongAccumulator maxUsedCount;
+   private transient LongAccumulator maxCreationTime;
+   private transient LongAccumulator maxGetTime;
+   private transient LongAccumulator maxPoolTime;
+   private transient LongAccumulator maxUsageTime;
+   private transient LongAccumulator maxWaitCount;
+   private transient LongAccumulator maxWaitTime;
+   private transient LongAdder timedOut;
+   private transient LongAdder totalBlockingTime;
+   private transient LongAdder totalBlockingTimeInvocations;
+   private transient LongAdder totalCreationTime;
+   private transient LongAdder totalGetTime;
+   private transient LongAdder totalGetTimeInvocations;
+   private transient LongAdder totalPoolTime;
+   private transient LongAdder totalPoolTimeInvocations;
+   private transient LongAdder totalUsageTime;
+   private transient LongAdder totalUsageTimeInvocations;
    private transient AtomicInteger inUseCount;
-   private transient AtomicInteger blockingFailureCount;
-   private transient AtomicInteger waitCount;
-
-
-   private transient AtomicLong commitCount;
-   private transient AtomicLong commitTotalTime;
-   private transient AtomicLong commitMaxTime;
-   private transient AtomicLong endCount;
-   private transient AtomicLong endTotalTime;
-   private transient AtomicLong endMaxTime;
-   private transient AtomicLong forgetCount;
-   private transient AtomicLong forgetTotalTime;
-   private transient AtomicLong forgetMaxTime;
-   private transient AtomicLong prepareCount;
-   private transient AtomicLong prepareTotalTime;
-   private transient AtomicLong prepareMaxTime;
-   private transient AtomicLong recoverCount;
-   private transient AtomicLong recoverTotalTime;
-   private transient AtomicLong recoverMaxTime;
-   private transient AtomicLong rollbackCount;
-   private transient AtomicLong rollbackTotalTime;
-   private transient AtomicLong rollbackMaxTime;
-   private transient AtomicLong startCount;
-   private transient AtomicLong startTotalTime;
-   private transient AtomicLong startMaxTime;
+   private transient LongAdder blockingFailureCount;
+   private transient LongAdder waitCount;
+   private transient LongAdder affinityHitCount;
+   private transient LongAdder affinityMissCount;
+   private transient LongAdder filledCount;
+   private transient AtomicInteger fillingCount;
+   private transient LongAdder validationPassCount;
+   private transient LongAdder totalValidationPassTime;
+   private transient LongAccumulator maxValidationPassTime;
+   private transient LongAdder validationBudgetExceededCount;
+   private transient LatencyHistogram getTimeHistogram;
+   private transient LatencyHistogram blockingTimeHistogram;
+   private transient LatencyHistogram usageTimeHistogram;
+   private transient LatencyHistogram creationTimeHistogram;
+
+
+   private transient LongAdder commitCount;
+   private transient LongAdder commitTotalTime;
+   private transient LongAccumulator commitMaxTime;
+   private transient LongAdder endCount;
+   private transient LongAdder endTotalTime;
+   private transient LongAccumulator endMaxTime;
+   private transient LongAdder forgetCount;
+   private transient LongAdder forgetTotalTime;
+   private transient LongAccumulator forgetMaxTime;
+   private transient LongAdder prepareCount;
+   private transient LongAdder prepareTotalTime;
+   private transient LongAccumulator prepareMaxTime;
+   private transient LongAdder recoverCount;
+   private transient LongAdder recoverTotalTime;
+   private transient LongAccumulator recoverMaxTime;
+   private transient LongAdder rollbackCount;
+   private transient LongAdder rollbackTotalTime;
+   private transient LongAccumulator rollbackMaxTime;
+   private transient LongAdder startCount;
+   private transient LongAdder startTotalTime;
+   private transient LongAccumulator startMaxTime;
+   private transient LatencyHistogram commitHistogram;
+   private transient LatencyHistogram endHistogram;
+   private transient LatencyHistogram prepareHistogram;
+   private transient LatencyHistogram startHistogram;
 
    /**
     * Constructor
@@ -177,48 +244,64 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
 
       this.createdCount = new AtomicInteger(0);
       this.destroyedCount = new AtomicInteger(0);
-      this.maxCreationTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxGetTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxPoolTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxUsageTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxUsedCount = new AtomicInteger(Integer.MIN_VALUE);
-      this.maxWaitCount = new AtomicInteger(0);
-      this.maxWaitTime = new AtomicLong(Long.MIN_VALUE);
-      this.timedOut = new AtomicInteger(0);
-      this.totalBlockingTime = new AtomicLong(0);
-      this.totalBlockingTimeInvocations = new AtomicLong(0);
-      this.totalCreationTime = new AtomicLong(0);
-      this.totalGetTime = new AtomicLong(0);
-      this.totalGetTimeInvocations = new AtomicLong(0);
-      this.totalPoolTime = new AtomicLong(0);
-      this.totalPoolTimeInvocations = new AtomicLong(0);
-      this.totalUsageTime = new AtomicLong(0);
-      this.totalUsageTimeInvocations = new AtomicLong(0);
+      this.maxCreationTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxGetTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxPoolTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxUsageTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxUsedCount = new LongAccumulator(MAX, Integer.MIN_VALUE);
+      this.maxWaitCount = new LongAccumulator(MAX, 0);
+      this.maxWaitTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.timedOut = new LongAdder();
+      this.totalBlockingTime = new LongAdder();
+      this.totalBlockingTimeInvocations = new LongAdder();
+      this.totalCreationTime = new LongAdder();
+      this.totalGetTime = new LongAdder();
+      this.totalGetTimeInvocations = new LongAdder();
+      this.totalPoolTime = new LongAdder();
+      this.totalPoolTimeInvocations = new LongAdder();
+      this.totalUsageTime = new LongAdder();
+      this.totalUsageTimeInvocations = new LongAdder();
       this.inUseCount = new AtomicInteger(0);
-      this.blockingFailureCount = new AtomicInteger(0);
-      this.waitCount = new AtomicInteger(0);
-
-      this.commitCount = new AtomicLong(0L);
-      this.commitTotalTime = new AtomicLong(0L);
-      this.commitMaxTime = new AtomicLong(0L);
-      this.endCount = new AtomicLong(0L);
-      this.endTotalTime = new AtomicLong(0L);
-      this.endMaxTime = new AtomicLong(0L);
-      this.forgetCount = new AtomicLong(0L);
-      this.forgetTotalTime = new AtomicLong(0L);
-      this.forgetMaxTime = new AtomicLong(0L);
-      this.prepareCount = new AtomicLong(0L);
-      this.prepareTotalTime = new AtomicLong(0L);
-      this.prepareMaxTime = new AtomicLong(0L);
-      this.recoverCount = new AtomicLong(0L);
-      this.recoverTotalTime = new AtomicLong(0L);
-      this.recoverMaxTime = new AtomicLong(0L);
-      this.rollbackCount = new AtomicLong(0L);
-      this.rollbackTotalTime = new AtomicLong(0L);
-      this.rollbackMaxTime = new AtomicLong(0L);
-      this.startCount = new AtomicLong(0L);
-      this.startTotalTime = new AtomicLong(0L);
-      this.startMaxTime = new AtomicLong(0L);
+      this.blockingFailureCount = new LongAdder();
+      this.waitCount = new LongAdder();
+      this.affinityHitCount = new LongAdder();
+      this.affinityMissCount = new LongAdder();
+      this.filledCount = new LongAdder();
+      this.fillingCount = new AtomicInteger(0);
+      this.validationPassCount = new LongAdder();
+      this.totalValidationPassTime = new LongAdder();
+      this.maxValidationPassTime = new LongAccumulator(MAX, 0L);
+      this.validationBudgetExceededCount = new LongAdder();
+      this.getTimeHistogram = new LatencyHistogram();
+      this.blockingTimeHistogram = new LatencyHistogram();
+      this.usageTimeHistogram = new LatencyHistogram();
+      this.creationTimeHistogram = new LatencyHistogram();
+
+      this.commitCount = new LongAdder();
+      this.commitTotalTime = new LongAdder();
+      this.commitMaxTime = new LongAccumulator(MAX, 0L);
+      this.endCount = new LongAdder();
+      this.endTotalTime = new LongAdder();
+      this.endMaxTime = new LongAccumulator(MAX, 0L);
+      this.forgetCount = new LongAdder();
+      this.forgetTotalTime = new LongAdder();
+      this.forgetMaxTime = new LongAccumulator(MAX, 0L);
+      this.prepareCount = new LongAdder();
+      this.prepareTotalTime = new LongAdder();
+      this.prepareMaxTime = new LongAccumulator(MAX, 0L);
+      this.recoverCount = new LongAdder();
+      this.recoverTotalTime = new LongAdder();
+      this.recoverMaxTime = new LongAccumulator(MAX, 0L);
+      this.rollbackCount = new LongAdder();
+      this.rollbackTotalTime = new LongAdder();
+      this.rollbackMaxTime = new LongAccumulator(MAX, 0L);
+      this.startCount = new LongAdder();
+      this.startTotalTime = new LongAdder();
+      this.startMaxTime = new LongAccumulator(MAX, 0L);
+      this.commitHistogram = new LatencyHistogram();
+      this.endHistogram = new LatencyHistogram();
+      this.prepareHistogram = new LatencyHistogram();
+      this.startHistogram = new LatencyHistogram();
 
       SortedSet<String> n = new TreeSet<String>();
       Map<String, Class> t = new HashMap<String, Class>();
@@ -226,6 +309,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(ACTIVE_COUNT);
       t.put(ACTIVE_COUNT, int.class);
 
+      n.add(AFFINITY_HIT_COUNT);
+      t.put(AFFINITY_HIT_COUNT, long.class);
+
+      n.add(AFFINITY_MISS_COUNT);
+      t.put(AFFINITY_MISS_COUNT, long.class);
+
       n.add(AVAILABLE_COUNT);
       t.put(AVAILABLE_COUNT, int.class);
 
@@ -253,6 +342,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(DESTROYED_COUNT);
       t.put(DESTROYED_COUNT, int.class);
 
+      n.add(FILLED_COUNT);
+      t.put(FILLED_COUNT, long.class);
+
+      n.add(FILLING_COUNT);
+      t.put(FILLING_COUNT, int.class);
+
       n.add(IDLE_COUNT);
       t.put(IDLE_COUNT, int.class);
 
@@ -280,6 +375,54 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(MAX_WAIT_TIME);
       t.put(MAX_WAIT_TIME, long.class);
 
+      n.add(P50_GET_TIME);
+      t.put(P50_GET_TIME, long.class);
+
+      n.add(P90_GET_TIME);
+      t.put(P90_GET_TIME, long.class);
+
+      n.add(P99_GET_TIME);
+      t.put(P99_GET_TIME, long.class);
+
+      n.add(P999_GET_TIME);
+      t.put(P999_GET_TIME, long.class);
+
+      n.add(P50_BLOCKING_TIME);
+      t.put(P50_BLOCKING_TIME, long.class);
+
+      n.add(P90_BLOCKING_TIME);
+      t.put(P90_BLOCKING_TIME, long.class);
+
+      n.add(P99_BLOCKING_TIME);
+      t.put(P99_BLOCKING_TIME, long.class);
+
+      n.add(P999_BLOCKING_TIME);
+      t.put(P999_BLOCKING_TIME, long.class);
+
+      n.add(P50_USAGE_TIME);
+      t.put(P50_USAGE_TIME, long.class);
+
+      n.add(P90_USAGE_TIME);
+      t.put(P90_USAGE_TIME, long.class);
+
+      n.add(P99_USAGE_TIME);
+      t.put(P99_USAGE_TIME, long.class);
+
+      n.add(P999_USAGE_TIME);
+      t.put(P999_USAGE_TIME, long.class);
+
+      n.add(P50_CREATION_TIME);
+      t.put(P50_CREATION_TIME, long.class);
+
+      n.add(P90_CREATION_TIME);
+      t.put(P90_CREATION_TIME, long.class);
+
+      n.add(P99_CREATION_TIME);
+      t.put(P99_CREATION_TIME, long.class);
+
+      n.add(P999_CREATION_TIME);
+      t.put(P999_CREATION_TIME, long.class);
+
       n.add(TIMED_OUT);
       t.put(TIMED_OUT, int.class);
 
@@ -298,6 +441,18 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(TOTAL_USAGE_TIME);
       t.put(TOTAL_USAGE_TIME, long.class);
 
+      n.add(VALIDATION_PASS_COUNT);
+      t.put(VALIDATION_PASS_COUNT, long.class);
+
+      n.add(AVERAGE_VALIDATION_PASS_TIME);
+      t.put(AVERAGE_VALIDATION_PASS_TIME, long.class);
+
+      n.add(MAX_VALIDATION_PASS_TIME);
+      t.put(MAX_VALIDATION_PASS_TIME, long.class);
+
+      n.add(VALIDATION_BUDGET_EXCEEDED_COUNT);
+      t.put(VALIDATION_BUDGET_EXCEEDED_COUNT, long.class);
+
       n.add(WAIT_COUNT);
       t.put(WAIT_COUNT, int.class);
 
@@ -309,6 +464,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_COMMIT_TOTAL_TIME, long.class);
       n.add(XA_COMMIT_MAX_TIME);
       t.put(XA_COMMIT_MAX_TIME, long.class);
+      n.add(XA_COMMIT_P50_TIME);
+      t.put(XA_COMMIT_P50_TIME, long.class);
+      n.add(XA_COMMIT_P90_TIME);
+      t.put(XA_COMMIT_P90_TIME, long.class);
+      n.add(XA_COMMIT_P99_TIME);
+      t.put(XA_COMMIT_P99_TIME, long.class);
+      n.add(XA_COMMIT_P999_TIME);
+      t.put(XA_COMMIT_P999_TIME, long.class);
 
       n.add(XA_END_COUNT);
       t.put(XA_END_COUNT, long.class);
@@ -318,6 +481,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_END_TOTAL_TIME, long.class);
       n.add(XA_END_MAX_TIME);
       t.put(XA_END_MAX_TIME, long.class);
+      n.add(XA_END_P50_TIME);
+      t.put(XA_END_P50_TIME, long.class);
+      n.add(XA_END_P90_TIME);
+      t.put(XA_END_P90_TIME, long.class);
+      n.add(XA_END_P99_TIME);
+      t.put(XA_END_P99_TIME, long.class);
+      n.add(XA_END_P999_TIME);
+      t.put(XA_END_P999_TIME, long.class);
 
       n.add(XA_FORGET_COUNT);
       t.put(XA_FORGET_COUNT, long.class);
@@ -336,6 +507,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_PREPARE_TOTAL_TIME, long.class);
       n.add(XA_PREPARE_MAX_TIME);
       t.put(XA_PREPARE_MAX_TIME, long.class);
+      n.add(XA_PREPARE_P50_TIME);
+      t.put(XA_PREPARE_P50_TIME, long.class);
+      n.add(XA_PREPARE_P90_TIME);
+      t.put(XA_PREPARE_P90_TIME, long.class);
+      n.add(XA_PREPARE_P99_TIME);
+      t.put(XA_PREPARE_P99_TIME, long.class);
+      n.add(XA_PREPARE_P999_TIME);
+      t.put(XA_PREPARE_P999_TIME, long.class);
 
       n.add(XA_RECOVER_COUNT);
       t.put(XA_RECOVER_COUNT, long.class);
@@ -363,6 +542,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_START_TOTAL_TIME, long.class);
       n.add(XA_START_MAX_TIME);
       t.put(XA_START_MAX_TIME, long.class);
+      n.add(XA_START_P50_TIME);
+      t.put(XA_START_P50_TIME, long.class);
+      n.add(XA_START_P90_TIME);
+      t.put(XA_START_P90_TIME, long.class);
+      n.add(XA_START_P99_TIME);
+      t.put(XA_START_P99_TIME, long.class);
+      n.add(XA_START_P999_TIME);
+      t.put(XA_START_P999_TIME, long.class);
 
       this.names = Collections.unmodifiableSortedSet(n);
       this.types = Collections.unmodifiableMap(t);
@@ -438,6 +625,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getActiveCount();
       }
+      else if (AFFINITY_HIT_COUNT.equals(name))
+      {
+         return getAffinityHitCount();
+      }
+      else if (AFFINITY_MISS_COUNT.equals(name))
+      {
+         return getAffinityMissCount();
+      }
       else if (AVAILABLE_COUNT.equals(name))
       {
          return getAvailableCount();
@@ -474,6 +669,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getDestroyedCount();
       }
+      else if (FILLED_COUNT.equals(name))
+      {
+         return getFilledCount();
+      }
+      else if (FILLING_COUNT.equals(name))
+      {
+         return getFillingCount();
+      }
       else if (IDLE_COUNT.equals(name))
       {
          return getIdleCount();
@@ -510,6 +713,70 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getMaxWaitTime();
       }
+      else if (P50_GET_TIME.equals(name))
+      {
+         return getP50GetTime();
+      }
+      else if (P90_GET_TIME.equals(name))
+      {
+         return getP90GetTime();
+      }
+      else if (P99_GET_TIME.equals(name))
+      {
+         return getP99GetTime();
+      }
+      else if (P999_GET_TIME.equals(name))
+      {
+         return getP999GetTime();
+      }
+      else if (P50_BLOCKING_TIME.equals(name))
+      {
+         return getP50BlockingTime();
+      }
+      else if (P90_BLOCKING_TIME.equals(name))
+      {
+         return getP90BlockingTime();
+      }
+      else if (P99_BLOCKING_TIME.equals(name))
+      {
+         return getP99BlockingTime();
+      }
+      else if (P999_BLOCKING_TIME.equals(name))
+      {
+         return getP999BlockingTime();
+      }
+      else if (P50_USAGE_TIME.equals(name))
+      {
+         return getP50UsageTime();
+      }
+      else if (P90_USAGE_TIME.equals(name))
+      {
+         return getP90UsageTime();
+      }
+      else if (P99_USAGE_TIME.equals(name))
+      {
+         return getP99UsageTime();
+      }
+      else if (P999_USAGE_TIME.equals(name))
+      {
+         return getP999UsageTime();
+      }
+      else if (P50_CREATION_TIME.equals(name))
+      {
+         return getP50CreationTime();
+      }
+      else if (P90_CREATION_TIME.equals(name))
+      {
+         return getP90CreationTime();
+      }
+      else if (P99_CREATION_TIME.equals(name))
+      {
+         return getP99CreationTime();
+      }
+      else if (P999_CREATION_TIME.equals(name))
+      {
+         return getP999CreationTime();
+      }
       else if (TIMED_OUT.equals(name))
       {
          return getTimedOut();
@@ -534,6 +801,22 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getTotalUsageTime();
       }
+      else if (VALIDATION_PASS_COUNT.equals(name))
+      {
+         return getValidationPassCount();
+      }
+      else if (AVERAGE_VALIDATION_PASS_TIME.equals(name))
+      {
+         return getAverageValidationPassTime();
+      }
+      else if (MAX_VALIDATION_PASS_TIME.equals(name))
+      {
+         return getMaxValidationPassTime();
+      }
+      else if (VALIDATION_BUDGET_EXCEEDED_COUNT.equals(name))
+      {
+         return getValidationBudgetExceededCount();
+      }
       else if (WAIT_COUNT.equals(name))
       {
          return getWaitCount();
@@ -554,6 +837,22 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getCommitMaxTime();
       }
+      else if (XA_COMMIT_P50_TIME.equals(name))
+      {
+         return getCommitP50Time();
+      }
+      else if (XA_COMMIT_P90_TIME.equals(name))
+      {
+         return getCommitP90Time();
+      }
+      else if (XA_COMMIT_P99_TIME.equals(name))
+      {
+         return getCommitP99Time();
+      }
+      else if (XA_COMMIT_P999_TIME.equals(name))
+      {
+         return getCommitP999Time();
+      }
       else if (XA_END_COUNT.equals(name))
       {
          return getEndCount();
@@ -570,6 +869,22 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getEndMaxTime();
       }
+      else if (XA_END_P50_TIME.equals(name))
+      {
+         return getEndP50Time();
+      }
+      else if (XA_END_P90_TIME.equals(name))
+      {
+         return getEndP90Time();
+      }
+      else if (XA_END_P99_TIME.equals(name))
+      {
+         return getEndP99Time();
+      }
+      else if (XA_END_P999_TIME.equals(name))
+      {
+         return getEndP999Time();
+      }
       else if (XA_FORGET_COUNT.equals(name))
       {
          return getForgetCount();
@@ -602,6 +917,22 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getPrepareMaxTime();
       }
+      else if (XA_PREPARE_P50_TIME.equals(name))
+      {
+         return getPrepareP50Time();
+      }
+      else if (XA_PREPARE_P90_TIME.equals(name))
+      {
+         return getPrepareP90Time();
+      }
+      else if (XA_PREPARE_P99_TIME.equals(name))
+      {
+         return getPrepareP99Time();
+      }
+      else if (XA_PREPARE_P999_TIME.equals(name))
+      {
+         return getPrepareP999Time();
+      }
       else if (XA_RECOVER_COUNT.equals(name))
       {
          return getRecoverCount();
@@ -650,6 +981,22 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getStartMaxTime();
       }
+      else if (XA_START_P50_TIME.equals(name))
+      {
+         return getStartP50Time();
+      }
+      else if (XA_START_P90_TIME.equals(name))
+      {
+         return getStartP90Time();
+      }
+      else if (XA_START_P99_TIME.equals(name))
+      {
+         return getStartP99Time();
+      }
+      else if (XA_START_P999_TIME.equals(name))
+      {
+         return getStartP999Time();
+      }
 
       return null;
    }
@@ -699,6 +1046,15 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       return maxPoolSize - inUseCount.get();
    }
 
+   /**
+    * Set the maximum pool size
+    * @param v The value
+    */
+   public void setMaxPoolSize(int v)
+   {
+      maxPoolSize = v;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -707,7 +1063,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalBlockingTimeInvocations.get() != 0 ? totalBlockingTime.get() / totalBlockingTimeInvocations.get() : 0;
+      long invocations = totalBlockingTimeInvocations.sum();
+      return invocations != 0 ? totalBlockingTime.sum() / invocations : 0;
    }
 
    /**
@@ -718,7 +1075,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return createdCount.get() != 0 ? totalCreationTime.get() / createdCount.get() : 0;
+      return createdCount.get() != 0 ? totalCreationTime.sum() / createdCount.get() : 0;
    }
 
    /**
@@ -729,7 +1086,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalGetTimeInvocations.get() != 0 ? totalGetTime.get() / totalGetTimeInvocations.get() : 0;
+      long invocations = totalGetTimeInvocations.sum();
+      return invocations != 0 ? totalGetTime.sum() / invocations : 0;
    }
 
    /**
@@ -740,7 +1098,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalUsageTimeInvocations.get() != 0 ? totalUsageTime.get() / totalUsageTimeInvocations.get() : 0;
+      long invocations = totalUsageTimeInvocations.sum();
+      return invocations != 0 ? totalUsageTime.sum() / invocations : 0;
    }
 
    /**
@@ -751,7 +1110,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalPoolTimeInvocations.get() != 0 ? totalPoolTime.get() / totalPoolTimeInvocations.get() : 0;
+      long invocations = totalPoolTimeInvocations.sum();
+      return invocations != 0 ? totalPoolTime.sum() / invocations : 0;
    }
 
    /**
@@ -762,7 +1122,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return blockingFailureCount.get();
+      return blockingFailureCount.intValue();
    }
 
    /**
@@ -771,7 +1131,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaBlockingFailureCount()
    {
       if (enabled.get())
-         blockingFailureCount.incrementAndGet();
+         blockingFailureCount.increment();
    }
 
    /**
@@ -814,6 +1174,46 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
          destroyedCount.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getFilledCount()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return filledCount.sum();
+   }
+
+   /**
+    * Delta the filled count value
+    */
+   public void deltaFilledCount()
+   {
+      if (enabled.get())
+         filledCount.increment();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getFillingCount()
+   {
+      if (!enabled.get())
+         return 0;
+
+      return fillingCount.get();
+   }
+
+   /**
+    * Delta the filling count value; always tracked, since it is a current value
+    * @param delta The delta
+    */
+   public void deltaFillingCount(int delta)
+   {
+      fillingCount.addAndGet(delta);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -855,7 +1255,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return maxUsedCount.get() != Integer.MIN_VALUE ? maxUsedCount.get() : 0;
+      return maxUsedCount.get() != Integer.MIN_VALUE ? maxUsedCount.intValue() : 0;
    }
 
    /**
@@ -864,8 +1264,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    private void setMaxUsedCount(int v)
    {
-      if (v > maxUsedCount.get())
-         maxUsedCount.set(v);
+      maxUsedCount.accumulate(v);
    }
 
    /**
@@ -921,7 +1320,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0;
 
-      return maxWaitCount.get() != Integer.MIN_VALUE ? maxWaitCount.get() : 0;
+      return maxWaitCount.intValue();
    }
 
    /**
@@ -930,8 +1329,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void setMaxWaitCount(int v)
    {
-      if (v > maxWaitCount.get())
-         maxWaitCount.set(v);
+      maxWaitCount.accumulate(v);
    }
 
    /**
@@ -948,260 +1346,591 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    /**
     * {@inheritDoc}
     */
-   public int getTimedOut()
+   public long getP50GetTime()
    {
       if (!enabled.get())
-         return 0;
+         return 0L;
 
-      return timedOut.get();
+      return getTimeHistogram.getValueAtPercentile(50.0);
    }
 
    /**
-    * Delta the timed out value
+    * {@inheritDoc}
     */
-   public void deltaTimedOut()
+   public long getP90GetTime()
    {
-      if (enabled.get())
-         timedOut.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
+
+      return getTimeHistogram.getValueAtPercentile(90.0);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getTotalBlockingTime()
+   public long getP99GetTime()
    {
       if (!enabled.get())
          return 0L;
 
-      return totalBlockingTime.get();
+      return getTimeHistogram.getValueAtPercentile(99.0);
    }
 
    /**
-    * Add delta to total blocking timeout
-    * @param delta The value
+    * {@inheritDoc}
     */
-   public void deltaTotalBlockingTime(long delta)
+   public long getP999GetTime()
    {
-      if (enabled.get() && delta > 0)
-      {
-         totalBlockingTime.addAndGet(delta);
-         totalBlockingTimeInvocations.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
 
-         if (delta > maxWaitTime.get())
-            maxWaitTime.set(delta);
-      }
+      return getTimeHistogram.getValueAtPercentile(99.9);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getTotalCreationTime()
+   public long getP50BlockingTime()
    {
       if (!enabled.get())
          return 0L;
 
-      return totalCreationTime.get();
+      return blockingTimeHistogram.getValueAtPercentile(50.0);
    }
 
    /**
-    * Add delta to total creation time
-    * @param delta The value
+    * {@inheritDoc}
     */
-   public void deltaTotalCreationTime(long delta)
+   public long getP90BlockingTime()
    {
-      if (enabled.get() && delta > 0)
-      {
-         totalCreationTime.addAndGet(delta);
+      if (!enabled.get())
+         return 0L;
 
-         if (delta > maxCreationTime.get())
-            maxCreationTime.set(delta);
-      }
+      return blockingTimeHistogram.getValueAtPercentile(90.0);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getTotalGetTime()
+   public long getP99BlockingTime()
    {
       if (!enabled.get())
          return 0L;
 
-      return totalGetTime.get();
+      return blockingTimeHistogram.getValueAtPercentile(99.0);
    }
 
    /**
-    * Add delta to total get time
-    * @param delta The value
+    * {@inheritDoc}
     */
-   public void deltaTotalGetTime(long delta)
+   public long getP999BlockingTime()
    {
-      if (enabled.get() && delta > 0)
-      {
-         totalGetTime.addAndGet(delta);
-         totalGetTimeInvocations.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
 
-         if (delta > maxGetTime.get())
-            maxGetTime.set(delta);
-      }
+      return blockingTimeHistogram.getValueAtPercentile(99.9);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getTotalPoolTime()
+   public long getP50UsageTime()
    {
       if (!enabled.get())
          return 0L;
 
-      return totalPoolTime.get();
+      return usageTimeHistogram.getValueAtPercentile(50.0);
    }
 
    /**
-    * Add delta to total pool time
-    * @param delta The value
+    * {@inheritDoc}
     */
-   public void deltaTotalPoolTime(long delta)
+   public long getP90UsageTime()
    {
-      if (enabled.get() && delta > 0)
-      {
-         totalPoolTime.addAndGet(delta);
-         totalPoolTimeInvocations.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
 
-         if (delta > maxPoolTime.get())
-            maxPoolTime.set(delta);
-      }
+      return usageTimeHistogram.getValueAtPercentile(90.0);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getTotalUsageTime()
+   public long getP99UsageTime()
    {
       if (!enabled.get())
          return 0L;
 
-      return totalUsageTime.get();
+      return usageTimeHistogram.getValueAtPercentile(99.0);
    }
 
    /**
-    * Add delta to total usage time
-    * @param delta The value
+    * {@inheritDoc}
     */
-   public void deltaTotalUsageTime(long delta)
+   public long getP999UsageTime()
    {
-      if (enabled.get() && delta > 0)
-      {
-         totalUsageTime.addAndGet(delta);
-         totalUsageTimeInvocations.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
 
-         if (delta > maxUsageTime.get())
-            maxUsageTime.set(delta);
-      }
+      return usageTimeHistogram.getValueAtPercentile(99.9);
    }
 
    /**
     * {@inheritDoc}
     */
-   public int getWaitCount()
+   public long getP50CreationTime()
    {
       if (!enabled.get())
-         return 0;
+         return 0L;
 
-      return waitCount.get();
+      return creationTimeHistogram.getValueAtPercentile(50.0);
    }
 
    /**
-    * Add delta wait count
+    * {@inheritDoc}
     */
-   public void deltaWaitCount()
+   public long getP90CreationTime()
    {
-      if (enabled.get())
-         waitCount.incrementAndGet();
+      if (!enabled.get())
+         return 0L;
+
+      return creationTimeHistogram.getValueAtPercentile(90.0);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getCommitCount()
+   public long getP99CreationTime()
    {
-      if (!isEnabled())
+      if (!enabled.get())
          return 0L;
 
-      return commitCount.get();
+      return creationTimeHistogram.getValueAtPercentile(99.0);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getCommitTotalTime()
+   public long getP999CreationTime()
    {
-      if (!isEnabled())
+      if (!enabled.get())
          return 0L;
 
-      return commitTotalTime.get();
+      return creationTimeHistogram.getValueAtPercentile(99.9);
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getCommitAverageTime()
+   public int getTimedOut()
    {
-      if (!isEnabled())
-         return 0L;
+      if (!enabled.get())
+         return 0;
 
-      if (commitCount.get() > 0)
-         return commitTotalTime.get() / commitCount.get();
+      return timedOut.intValue();
+   }
 
-      return 0L;
+   /**
+    * Delta the timed out value
+    */
+   public void deltaTimedOut()
+   {
+      if (enabled.get())
+         timedOut.increment();
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getCommitMaxTime()
+   public long getTotalBlockingTime()
    {
-      if (!isEnabled())
+      if (!enabled.get())
          return 0L;
 
-      return commitMaxTime.get();
+      return totalBlockingTime.sum();
    }
 
    /**
-    * {@inheritDoc}
+    * Add delta to total blocking timeout
+    * @param delta The value
     */
-   public void deltaCommit(long time)
+   public void deltaTotalBlockingTime(long delta)
    {
-      commitCount.incrementAndGet();
+      if (enabled.get())
+         blockingTimeHistogram.record(delta);
 
-      if (time > 0)
+      if (enabled.get() && delta > 0)
       {
-         commitTotalTime.addAndGet(time);
+         totalBlockingTime.add(delta);
+         totalBlockingTimeInvocations.increment();
 
-         if (time > commitMaxTime.get())
-            commitMaxTime.set(time);
+         maxWaitTime.accumulate(delta);
       }
    }
 
    /**
     * {@inheritDoc}
     */
-   public long getEndCount()
+   public long getTotalCreationTime()
    {
-      if (!isEnabled())
+      if (!enabled.get())
          return 0L;
 
-      return endCount.get();
+      return totalCreationTime.sum();
    }
 
    /**
-    * {@inheritDoc}
+    * Add delta to total creation time
+    * @param delta The value
     */
-   public long getEndTotalTime()
+   public void deltaTotalCreationTime(long delta)
    {
-      if (!isEnabled())
+      if (enabled.get())
+         creationTimeHistogram.record(delta);
+
+      if (enabled.get() && delta > 0)
+      {
+         totalCreationTime.add(delta);
+
+         maxCreationTime.accumulate(delta);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getTotalGetTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return totalGetTime.sum();
+   }
+
+   /**
+    * Add delta to total get time
+    * @param delta The value
+    */
+   public void deltaTotalGetTime(long delta)
+   {
+      if (enabled.get())
+         getTimeHistogram.record(delta);
+
+      if (enabled.get() && delta > 0)
+      {
+         totalGetTime.add(delta);
+         totalGetTimeInvocations.increment();
+
+         maxGetTime.accumulate(delta);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getTotalPoolTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return totalPoolTime.sum();
+   }
+
+   /**
+    * Add delta to total pool time
+    * @param delta The value
+    */
+   public void deltaTotalPoolTime(long delta)
+   {
+      if (enabled.get() && delta > 0)
+      {
+         totalPoolTime.add(delta);
+         totalPoolTimeInvocations.increment();
+
+         maxPoolTime.accumulate(delta);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getTotalUsageTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return totalUsageTime.sum();
+   }
+
+   /**
+    * Add delta to total usage time
+    * @param delta The value
+    */
+   public void deltaTotalUsageTime(long delta)
+   {
+      if (enabled.get())
+         usageTimeHistogram.record(delta);
+
+      if (enabled.get() && delta > 0)
+      {
+         totalUsageTime.add(delta);
+         totalUsageTimeInvocations.increment();
+
+         maxUsageTime.accumulate(delta);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getValidationPassCount()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return validationPassCount.sum();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getAverageValidationPassTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      long passes = validationPassCount.sum();
+      return passes != 0 ? totalValidationPassTime.sum() / passes : 0L;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getMaxValidationPassTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return maxValidationPassTime.get();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getValidationBudgetExceededCount()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return validationBudgetExceededCount.sum();
+   }
+
+   /**
+    * Record a background validation pass
+    * @param duration The duration of the pass in milliseconds
+    * @param budgetExceeded Was the pass stopped by its time budget
+    */
+   public void deltaValidationPass(long duration, boolean budgetExceeded)
+   {
+      if (enabled.get())
+      {
+         validationPassCount.increment();
+         totalValidationPassTime.add(duration);
+         maxValidationPassTime.accumulate(duration);
+
+         if (budgetExceeded)
+            validationBudgetExceededCount.increment();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getWaitCount()
+   {
+      if (!enabled.get())
+         return 0;
+
+      return waitCount.intValue();
+   }
+
+   /**
+    * Add delta wait count
+    */
+   public void deltaWaitCount()
+   {
+      if (enabled.get())
+         waitCount.increment();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getAffinityHitCount()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return affinityHitCount.sum();
+   }
+
+   /**
+    * Add delta affinity hit count
+    */
+   public void deltaAffinityHitCount()
+   {
+      if (enabled.get())
+         affinityHitCount.increment();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getAffinityMissCount()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return affinityMissCount.sum();
+   }
+
+   /**
+    * Add delta affinity miss count
+    */
+   public void deltaAffinityMissCount()
+   {
+      if (enabled.get())
+         affinityMissCount.increment();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitCount()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitCount.sum();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitTotalTime()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitTotalTime.sum();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitAverageTime()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      long count = commitCount.sum();
+      if (count > 0)
+         return commitTotalTime.sum() / count;
+
+      return 0L;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitMaxTime()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitMaxTime.get();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitP50Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitHistogram.getValueAtPercentile(50.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitP90Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitHistogram.getValueAtPercentile(90.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitP99Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return commitHistogram.getValueAtPercentile(99.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getCommitP999Time()
+   {
+      if (!isEnabled())
          return 0L;
 
-      return endTotalTime.get();
+      return commitHistogram.getValueAtPercentile(99.9);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaCommit(long time)
+   {
+      commitCount.increment();
+      commitHistogram.record(time);
+
+      if (time > 0)
+      {
+         commitTotalTime.add(time);
+
+         commitMaxTime.accumulate(time);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndCount()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endCount.sum();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndTotalTime()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endTotalTime.sum();
    }
 
    /**
@@ -1212,8 +1941,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (endCount.get() > 0)
-         return endTotalTime.get() / endCount.get();
+      long count = endCount.sum();
+      if (count > 0)
+         return endTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1229,19 +1959,63 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       return endMaxTime.get();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndP50Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endHistogram.getValueAtPercentile(50.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndP90Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endHistogram.getValueAtPercentile(90.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndP99Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endHistogram.getValueAtPercentile(99.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getEndP999Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return endHistogram.getValueAtPercentile(99.9);
+   }
+
    /**
     * {@inheritDoc}
     */
    public void deltaEnd(long time)
    {
-      endCount.incrementAndGet();
+      endCount.increment();
+      endHistogram.record(time);
 
       if (time > 0)
       {
-         endTotalTime.addAndGet(time);
+         endTotalTime.add(time);
 
-         if (time > endMaxTime.get())
-            endMaxTime.set(time);
+         endMaxTime.accumulate(time);
       }
    }
 
@@ -1253,7 +2027,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return forgetCount.get();
+      return forgetCount.sum();
    }
 
    /**
@@ -1264,7 +2038,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return forgetTotalTime.get();
+      return forgetTotalTime.sum();
    }
 
    /**
@@ -1275,8 +2049,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (forgetCount.get() > 0)
-         return forgetTotalTime.get() / forgetCount.get();
+      long count = forgetCount.sum();
+      if (count > 0)
+         return forgetTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1297,14 +2072,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaForget(long time)
    {
-      forgetCount.incrementAndGet();
+      forgetCount.increment();
 
       if (time > 0)
       {
-         forgetTotalTime.addAndGet(time);
+         forgetTotalTime.add(time);
 
-         if (time > forgetMaxTime.get())
-            forgetMaxTime.set(time);
+         forgetMaxTime.accumulate(time);
       }
    }
 
@@ -1316,7 +2090,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return prepareCount.get();
+      return prepareCount.sum();
    }
 
    /**
@@ -1327,7 +2101,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return prepareTotalTime.get();
+      return prepareTotalTime.sum();
    }
 
    /**
@@ -1338,8 +2112,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (prepareCount.get() > 0)
-         return prepareTotalTime.get() / prepareCount.get();
+      long count = prepareCount.sum();
+      if (count > 0)
+         return prepareTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1355,19 +2130,63 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       return prepareMaxTime.get();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getPrepareP50Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return prepareHistogram.getValueAtPercentile(50.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getPrepareP90Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return prepareHistogram.getValueAtPercentile(90.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getPrepareP99Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return prepareHistogram.getValueAtPercentile(99.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getPrepareP999Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return prepareHistogram.getValueAtPercentile(99.9);
+   }
+
    /**
     * {@inheritDoc}
     */
    public void deltaPrepare(long time)
    {
-      prepareCount.incrementAndGet();
+      prepareCount.increment();
+      prepareHistogram.record(time);
 
       if (time > 0)
       {
-         prepareTotalTime.addAndGet(time);
+         prepareTotalTime.add(time);
 
-         if (time > prepareMaxTime.get())
-            prepareMaxTime.set(time);
+         prepareMaxTime.accumulate(time);
       }
    }
 
@@ -1379,7 +2198,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return recoverCount.get();
+      return recoverCount.sum();
    }
 
    /**
@@ -1390,7 +2209,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return recoverTotalTime.get();
+      return recoverTotalTime.sum();
    }
 
    /**
@@ -1401,8 +2220,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (recoverCount.get() > 0)
-         return recoverTotalTime.get() / recoverCount.get();
+      long count = recoverCount.sum();
+      if (count > 0)
+         return recoverTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1423,14 +2243,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaRecover(long time)
    {
-      recoverCount.incrementAndGet();
+      recoverCount.increment();
 
       if (time > 0)
       {
-         recoverTotalTime.addAndGet(time);
+         recoverTotalTime.add(time);
 
-         if (time > recoverMaxTime.get())
-            recoverMaxTime.set(time);
+         recoverMaxTime.accumulate(time);
       }
    }
 
@@ -1442,7 +2261,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return rollbackCount.get();
+      return rollbackCount.sum();
    }
 
    /**
@@ -1453,7 +2272,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return rollbackTotalTime.get();
+      return rollbackTotalTime.sum();
    }
 
    /**
@@ -1464,8 +2283,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (rollbackCount.get() > 0)
-         return rollbackTotalTime.get() / rollbackCount.get();
+      long count = rollbackCount.sum();
+      if (count > 0)
+         return rollbackTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1486,14 +2306,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaRollback(long time)
    {
-      rollbackCount.incrementAndGet();
+      rollbackCount.increment();
 
       if (time > 0)
       {
-         rollbackTotalTime.addAndGet(time);
+         rollbackTotalTime.add(time);
 
-         if (time > rollbackMaxTime.get())
-            rollbackMaxTime.set(time);
+         rollbackMaxTime.accumulate(time);
       }
    }
 
@@ -1505,7 +2324,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return startCount.get();
+      return startCount.sum();
    }
 
    /**
@@ -1516,7 +2335,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return startTotalTime.get();
+      return startTotalTime.sum();
    }
 
    /**
@@ -1527,8 +2346,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (startCount.get() > 0)
-         return startTotalTime.get() / startCount.get();
+      long count = startCount.sum();
+      if (count > 0)
+         return startTotalTime.sum() / count;
 
       return 0L;
    }
@@ -1544,19 +2364,63 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       return startMaxTime.get();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getStartP50Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return startHistogram.getValueAtPercentile(50.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getStartP90Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return startHistogram.getValueAtPercentile(90.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getStartP99Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return startHistogram.getValueAtPercentile(99.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getStartP999Time()
+   {
+      if (!isEnabled())
+         return 0L;
+
+      return startHistogram.getValueAtPercentile(99.9);
+   }
+
    /**
     * {@inheritDoc}
     */
    public void deltaStart(long time)
    {
-      startCount.incrementAndGet();
+      startCount.increment();
+      startHistogram.record(time);
 
       if (time > 0)
       {
-         startTotalTime.addAndGet(time);
+         startTotalTime.add(time);
 
-         if (time > startMaxTime.get())
-            startMaxTime.set(time);
+         startMaxTime.accumulate(time);
       }
    }
 
@@ -1565,46 +2429,61 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void clear()
    {
-      this.maxCreationTime.set(Long.MIN_VALUE);
-      this.maxGetTime.set(Long.MIN_VALUE);
-      this.maxPoolTime.set(Long.MIN_VALUE);
-      this.maxUsageTime.set(Long.MIN_VALUE);
-      this.maxUsedCount.set(Integer.MIN_VALUE);
-      this.maxWaitTime.set(Long.MIN_VALUE);
-      this.timedOut.set(0);
-      this.totalBlockingTime.set(0L);
-      this.totalBlockingTimeInvocations.set(0L);
-      this.totalCreationTime.set(0L);
-      this.totalGetTime.set(0L);
-      this.totalGetTimeInvocations.set(0L);
-      this.totalPoolTime.set(0L);
-      this.totalPoolTimeInvocations.set(0L);
-      this.totalUsageTime.set(0L);
-      this.totalUsageTimeInvocations.set(0L);
-      this.blockingFailureCount.set(0);
-      this.waitCount.set(0);
-
-      this.commitCount = new AtomicLong(0L);
-      this.commitTotalTime = new AtomicLong(0L);
-      this.commitMaxTime = new AtomicLong(0L);
-      this.endCount = new AtomicLong(0L);
-      this.endTotalTime = new AtomicLong(0L);
-      this.endMaxTime = new AtomicLong(0L);
-      this.forgetCount = new AtomicLong(0L);
-      this.forgetTotalTime = new AtomicLong(0L);
-      this.forgetMaxTime = new AtomicLong(0L);
-      this.prepareCount = new AtomicLong(0L);
-      this.prepareTotalTime = new AtomicLong(0L);
-      this.prepareMaxTime = new AtomicLong(0L);
-      this.recoverCount = new AtomicLong(0L);
-      this.recoverTotalTime = new AtomicLong(0L);
-      this.recoverMaxTime = new AtomicLong(0L);
-      this.rollbackCount = new AtomicLong(0L);
-      this.rollbackTotalTime = new AtomicLong(0L);
-      this.rollbackMaxTime = new AtomicLong(0L);
-      this.startCount = new AtomicLong(0L);
-      this.startTotalTime = new AtomicLong(0L);
-      this.startMaxTime = new AtomicLong(0L);
+      this.maxCreationTime.reset();
+      this.maxGetTime.reset();
+      this.maxPoolTime.reset();
+      this.maxUsageTime.reset();
+      this.maxUsedCount.reset();
+      this.maxWaitTime.reset();
+      this.timedOut.reset();
+      this.totalBlockingTime.reset();
+      this.totalBlockingTimeInvocations.reset();
+      this.totalCreationTime.reset();
+      this.totalGetTime.reset();
+      this.totalGetTimeInvocations.reset();
+      this.totalPoolTime.reset();
+      this.totalPoolTimeInvocations.reset();
+      this.totalUsageTime.reset();
+      this.totalUsageTimeInvocations.reset();
+      this.blockingFailureCount.reset();
+      this.waitCount.reset();
+      this.affinityHitCount.reset();
+      this.affinityMissCount.reset();
+      this.filledCount.reset();
+      this.validationPassCount.reset();
+      this.totalValidationPassTime.reset();
+      this.maxValidationPassTime.reset();
+      this.validationBudgetExceededCount.reset();
+      this.getTimeHistogram.reset();
+      this.blockingTimeHistogram.reset();
+      this.usageTimeHistogram.reset();
+      this.creationTimeHistogram.reset();
+
+      this.commitCount.reset();
+      this.commitTotalTime.reset();
+      this.commitMaxTime.reset();
+      this.endCount.reset();
+      this.endTotalTime.reset();
+      this.endMaxTime.reset();
+      this.forgetCount.reset();
+      this.forgetTotalTime.reset();
+      this.forgetMaxTime.reset();
+      this.prepareCount.reset();
+      this.prepareTotalTime.reset();
+      this.prepareMaxTime.reset();
+      this.recoverCount.reset();
+      this.recoverTotalTime.reset();
+      this.recoverMaxTime.reset();
+      this.rollbackCount.reset();
+      this.rollbackTotalTime.reset();
+      this.rollbackMaxTime.reset();
+      this.startCount.reset();
+      this.startTotalTime.reset();
+      this.startMaxTime.reset();
+      this.commitHistogram.reset();
+      this.endHistogram.reset();
+      this.prepareHistogram.reset();
+      this.startHistogram.reset();
    }
 
    private void writeObject(ObjectOutputStream out) throws IOException
@@ -1635,6 +2514,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(ACTIVE_COUNT).append("=").append(getActiveCount());
       sb.append(",");
+      sb.append(AFFINITY_HIT_COUNT).append("=").append(getAffinityHitCount());
+      sb.append(",");
+      sb.append(AFFINITY_MISS_COUNT).append("=").append(getAffinityMissCount());
+      sb.append(",");
       sb.append(AVAILABLE_COUNT).append("=").append(getAvailableCount());
       sb.append(",");
       sb.append(AVERAGE_BLOCKING_TIME).append("=").append(getAverageBlockingTime());
@@ -1653,6 +2536,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(DESTROYED_COUNT).append("=").append(getDestroyedCount());
       sb.append(",");
+      sb.append(FILLED_COUNT).append("=").append(getFilledCount());
+      sb.append(",");
+      sb.append(FILLING_COUNT).append("=").append(getFillingCount());
+      sb.append(",");
       sb.append(IDLE_COUNT).append("=").append(getIdleCount());
       sb.append(",");
       sb.append(IN_USE_COUNT).append("=").append(getInUseCount());
@@ -1671,6 +2558,38 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(MAX_WAIT_TIME).append("=").append(getMaxWaitTime());
       sb.append(",");
+      sb.append(P50_GET_TIME).append("=").append(getP50GetTime());
+      sb.append(",");
+      sb.append(P90_GET_TIME).append("=").append(getP90GetTime());
+      sb.append(",");
+      sb.append(P99_GET_TIME).append("=").append(getP99GetTime());
+      sb.append(",");
+      sb.append(P999_GET_TIME).append("=").append(getP999GetTime());
+      sb.append(",");
+      sb.append(P50_BLOCKING_TIME).append("=").append(getP50BlockingTime());
+      sb.append(",");
+      sb.append(P90_BLOCKING_TIME).append("=").append(getP90BlockingTime());
+      sb.append(",");
+      sb.append(P99_BLOCKING_TIME).append("=").append(getP99BlockingTime());
+      sb.append(",");
+      sb.append(P999_BLOCKING_TIME).append("=").append(getP999BlockingTime());
+      sb.append(",");
+      sb.append(P50_USAGE_TIME).append("=").append(getP50UsageTime());
+      sb.append(",");
+      sb.append(P90_USAGE_TIME).append("=").append(getP90UsageTime());
+      sb.append(",");
+      sb.append(P99_USAGE_TIME).append("=").append(getP99UsageTime());
+      sb.append(",");
+      sb.append(P999_USAGE_TIME).append("=").append(getP999UsageTime());
+      sb.append(",");
+      sb.append(P50_CREATION_TIME).append("=").append(getP50CreationTime());
+      sb.append(",");
+      sb.append(P90_CREATION_TIME).append("=").append(getP90CreationTime());
+      sb.append(",");
+      sb.append(P99_CREATION_TIME).append("=").append(getP99CreationTime());
+      sb.append(",");
+      sb.append(P999_CREATION_TIME).append("=").append(getP999CreationTime());
+      sb.append(",");
       sb.append(TIMED_OUT).append("=").append(getTimedOut());
       sb.append(",");
       sb.append(TOTAL_BLOCKING_TIME).append("=").append(getTotalBlockingTime());
@@ -1683,6 +2602,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(TOTAL_USAGE_TIME).append("=").append(getTotalUsageTime());
       sb.append(",");
+      sb.append(VALIDATION_PASS_COUNT).append("=").append(getValidationPassCount());
+      sb.append(",");
+      sb.append(AVERAGE_VALIDATION_PASS_TIME).append("=").append(getAverageValidationPassTime());
+      sb.append(",");
+      sb.append(MAX_VALIDATION_PASS_TIME).append("=").append(getMaxValidationPassTime());
+      sb.append(",");
+      sb.append(VALIDATION_BUDGET_EXCEEDED_COUNT).append("=").append(getValidationBudgetExceededCount());
+      sb.append(",");
       sb.append(WAIT_COUNT).append("=").append(getWaitCount());
 
       sb.append(",");
@@ -1694,6 +2621,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(XA_COMMIT_MAX_TIME).append("=").append(getCommitMaxTime());
       sb.append(",");
+      sb.append(XA_COMMIT_P50_TIME).append("=").append(getCommitP50Time());
+      sb.append(",");
+      sb.append(XA_COMMIT_P90_TIME).append("=").append(getCommitP90Time());
+      sb.append(",");
+      sb.append(XA_COMMIT_P99_TIME).append("=").append(getCommitP99Time());
+      sb.append(",");
+      sb.append(XA_COMMIT_P999_TIME).append("=").append(getCommitP999Time());
+      sb.append(",");
       sb.append(XA_END_COUNT).append("=").append(getEndCount());
       sb.append(",");
       sb.append(XA_END_AVERAGE_TIME).append("=").append(getEndAverageTime());
@@ -1702,6 +2637,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(XA_END_MAX_TIME).append("=").append(getEndMaxTime());
       sb.append(",");
+      sb.append(XA_END_P50_TIME).append("=").append(getEndP50Time());
+      sb.append(",");
+      sb.append(XA_END_P90_TIME).append("=").append(getEndP90Time());
+      sb.append(",");
+      sb.append(XA_END_P99_TIME).append("=").append(getEndP99Time());
+      sb.append(",");
+      sb.append(XA_END_P999_TIME).append("=").append(getEndP999Time());
+      sb.append(",");
       sb.append(XA_FORGET_COUNT).append("=").append(getForgetCount());
       sb.append(",");
       sb.append(XA_FORGET_AVERAGE_TIME).append("=").append(getForgetAverageTime());
@@ -1718,6 +2661,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(XA_PREPARE_MAX_TIME).append("=").append(getPrepareMaxTime());
       sb.append(",");
+      sb.append(XA_PREPARE_P50_TIME).append("=").append(getPrepareP50Time());
+      sb.append(",");
+      sb.append(XA_PREPARE_P90_TIME).append("=").append(getPrepareP90Time());
+      sb.append(",");
+      sb.append(XA_PREPARE_P99_TIME).append("=").append(getPrepareP99Time());
+      sb.append(",");
+      sb.append(XA_PREPARE_P999_TIME).append("=").append(getPrepareP999Time());
+      sb.append(",");
       sb.append(XA_RECOVER_COUNT).append("=").append(getRecoverCount());
       sb.append(",");
       sb.append(XA_RECOVER_AVERAGE_TIME).append("=").append(getRecoverAverageTime());
@@ -1741,6 +2692,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(XA_START_TOTAL_TIME).append("=").append(getStartTotalTime());
       sb.append(",");
       sb.append(XA_START_MAX_TIME).append("=").append(getStartMaxTime());
+      sb.append(",");
+      sb.append(XA_START_P50_TIME).append("=").append(getStartP50Time());
+      sb.append(",");
+      sb.append(XA_START_P90_TIME).append("=").append(getStartP90Time());
+      sb.append(",");
+      sb.append(XA_START_P99_TIME).append("=").append(getStartP99Time());
+      sb.append(",");
+      sb.append(XA_START_P999_TIME).append("=").append(getStartP999Time());
 
       sb.append("]");
       
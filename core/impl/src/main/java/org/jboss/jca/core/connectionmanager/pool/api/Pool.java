@@ -202,4 +202,11 @@ public interface Pool extends org.jboss.jca.core.api.connectionmanager.pool.Pool
     * @return The value
     */
    public CoreLogger getLogger();
+
+   /**
+    * Change the maximum size of the pool. Connections in use above
+    * a lower maximum are destroyed when they are returned
+    * @param maxSize The value
+    */
+   public void setMaxSize(int maxSize);
 }
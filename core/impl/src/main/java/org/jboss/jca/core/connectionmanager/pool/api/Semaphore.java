@@ -24,27 +24,48 @@ package org.jboss.jca.core.connectionmanager.pool.api;
 
 import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * A semaphore implementation that supports statistics
+ * A semaphore implementation that supports statistics.
+ *
+ * The number of waiting threads is tracked in a counter, so it can be reported
+ * on every acquire without walking the wait queue. Waiting threads are woken up
+ * in arrival order, or - for a non-fair semaphore - optionally in reverse order,
+ * and the number of permits can be changed while the semaphore is in use.
  *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
-public class Semaphore extends java.util.concurrent.Semaphore
+public class Semaphore
 {
-   /** Serial version uid */
-   private static final long serialVersionUID = 4L;
+   /** 1 represents current thread */
+   private static final int CURRENT_THREAD = 1;
 
    /** Max size */
-   private int maxSize;
+   private volatile int maxSize;
+
+   /** Fairness */
+   private final boolean fairness;
+
+   /** Wake up the most recent waiter first */
+   private final boolean lifo;
 
    /** Statistics */
    private PoolStatisticsImpl statistics;
 
-   /** 1 represents current thread */
-   private static final int CURRENT_THREAD = 1;
+   /** Available permits; negative when the semaphore has been shrunk below the permits in use */
+   private final AtomicInteger permits;
+
+   /** Number of waiting threads */
+   private final AtomicInteger waiters;
+
+   /** Waiting threads */
+   private final ConcurrentLinkedDeque<Thread> queue;
 
    /**
     * Constructor
@@ -54,55 +75,236 @@ public class Semaphore extends java.util.concurrent.Semaphore
     */
    public Semaphore(int maxSize, boolean fairness, PoolStatisticsImpl statistics)
    {
-      super(maxSize, fairness);
+      this(maxSize, fairness, false, statistics);
+   }
+
+   /**
+    * Constructor
+    * @param maxSize The maximum size
+    * @param fairness The fairness
+    * @param lifo Wake up the most recent waiter first; only used for a non-fair semaphore
+    * @param statistics The statistics module
+    */
+   public Semaphore(int maxSize, boolean fairness, boolean lifo, PoolStatisticsImpl statistics)
+   {
       this.maxSize = maxSize;
+      this.fairness = fairness;
+      this.lifo = lifo && !fairness;
       this.statistics = statistics;
+      this.permits = new AtomicInteger(maxSize);
+      this.waiters = new AtomicInteger(0);
+      this.queue = new ConcurrentLinkedDeque<Thread>();
    }
 
    /**
-    * {@inheritDoc}
+    * Acquire a permit, waiting up to the specified time
+    * @param timeout The maximum time to wait
+    * @param unit The time unit of the timeout
+    * @return True if a permit was acquired, false if the timeout elapsed
+    * @exception InterruptedException If the current thread is interrupted
     */
-   @Override
    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException
    {
+      if (Thread.interrupted())
+         throw new InterruptedException();
+
       if (statistics.isEnabled())
       {
-         if (availablePermits() == 0)
-            statistics.setMaxWaitCount(getQueueLength() + CURRENT_THREAD);
+         if (permits.get() <= 0)
+            statistics.setMaxWaitCount(waiters.get() + CURRENT_THREAD);
          else
-            statistics.setMaxWaitCount(getQueueLength());
+            statistics.setMaxWaitCount(waiters.get());
       }
 
-      boolean result = super.tryAcquire(timeout, unit);
+      boolean result = false;
+
+      if (!fairness || waiters.get() == 0)
+         result = acquirePermit();
+
+      if (!result)
+         result = await(unit.toNanos(timeout));
 
       if (result && statistics.isEnabled())
       {
-         statistics.setInUsedCount(maxSize - availablePermits());
+         statistics.setInUsedCount(maxSize - permits.get());
       }
 
       return result;
    }
 
    /**
-    * {@inheritDoc}
+    * Release a permit
     */
-   @Override
    public void release()
    {
-      super.release();
+      permits.incrementAndGet();
+      signal();
 
       if (statistics.isEnabled())
       {
-         statistics.setInUsedCount(maxSize - availablePermits());
+         statistics.setInUsedCount(maxSize - permits.get());
       }
    }
 
    /**
-    * {@inheritDoc}
+    * Get the number of available permits
+    * @return The value; negative if the semaphore was shrunk below the permits in use
+    */
+   public int availablePermits()
+   {
+      return permits.get();
+   }
+
+   /**
+    * Get the maximum number of permits
+    * @return The value
+    */
+   public int getMaxPermits()
+   {
+      return maxSize;
+   }
+
+   /**
+    * Change the maximum number of permits. Permits in use above a lower
+    * maximum aren't revoked, but aren't handed out again once released
+    * @param max The value
+    */
+   public synchronized void setMaxPermits(int max)
+   {
+      if (max < 1)
+         throw new IllegalArgumentException("Invalid max permits: " + max);
+
+      int delta = max - maxSize;
+      maxSize = max;
+
+      if (permits.addAndGet(delta) > 0)
+         signal();
+   }
+
+   /**
+    * Is the semaphore fair
+    * @return The value
+    */
+   public boolean isFair()
+   {
+      return fairness;
+   }
+
+   /**
+    * Is the most recent waiter woken up first
+    * @return The value
+    */
+   public boolean isLifo()
+   {
+      return lifo;
+   }
+
+   /**
+    * Are there threads waiting for a permit
+    * @return The value
+    */
+   public boolean hasQueuedThreads()
+   {
+      return waiters.get() > 0;
+   }
+
+   /**
+    * Get the number of threads waiting for a permit
+    * @return The value
+    */
+   public int getQueueLength()
+   {
+      return waiters.get();
+   }
+
+   /**
+    * Get the threads waiting for a permit
+    * @return The value
     */
-   @Override
    public Collection<Thread> getQueuedThreads()
    {
-      return super.getQueuedThreads();
+      return new ArrayList<Thread>(queue);
+   }
+
+   /**
+    * Take an available permit
+    * @return True if a permit was taken
+    */
+   private boolean acquirePermit()
+   {
+      for (;;)
+      {
+         int available = permits.get();
+
+         if (available <= 0)
+            return false;
+
+         if (permits.compareAndSet(available, available - 1))
+            return true;
+      }
+   }
+
+   /**
+    * Wait for a permit
+    * @param nanos The maximum time to wait
+    * @return True if a permit was taken
+    * @exception InterruptedException If the current thread is interrupted
+    */
+   private boolean await(long nanos) throws InterruptedException
+   {
+      if (nanos <= 0L)
+         return false;
+
+      Thread current = Thread.currentThread();
+      long deadline = System.nanoTime() + nanos;
+
+      queue.addLast(current);
+      waiters.incrementAndGet();
+      try
+      {
+         // A release after the enqueue either leaves the permit for the check below,
+         // or finds this thread in the queue and unparks it
+         for (;;)
+         {
+            if ((!fairness || queue.peekFirst() == current) && acquirePermit())
+               return true;
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+               return false;
+
+            LockSupport.parkNanos(this, remaining);
+
+            if (Thread.interrupted())
+               throw new InterruptedException();
+         }
+      }
+      finally
+      {
+         if (lifo)
+         {
+            queue.removeLastOccurrence(current);
+         }
+         else
+         {
+            queue.removeFirstOccurrence(current);
+         }
+         waiters.decrementAndGet();
+
+         // Pass on a wake up which this thread didn't use, or a permit which is left
+         if (permits.get() > 0)
+            signal();
+      }
+   }
+
+   /**
+    * Wake up the next waiter
+    */
+   private void signal()
+   {
+      Thread next = lifo ? queue.peekLast() : queue.peekFirst();
+
+      if (next != null)
+         LockSupport.unpark(next);
    }
 }
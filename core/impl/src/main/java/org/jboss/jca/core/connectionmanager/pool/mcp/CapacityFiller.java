@@ -21,7 +21,11 @@
  */
 package org.jboss.jca.core.connectionmanager.pool.mcp;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -37,8 +41,12 @@ class CapacityFiller implements Runnable
    /** Managed connection pool list */
    private final LinkedList<CapacityRequest> crs = new LinkedList<CapacityRequest>();
 
-   /** Filler thread */
-   private final Thread fillerThread;
+   /** Managed connection pools having their capacity increased */
+   private final Set<ManagedConnectionPool> running =
+      Collections.newSetFromMap(new IdentityHashMap<ManagedConnectionPool, Boolean>());
+
+   /** Filler threads */
+   private final Thread[] fillerThreads;
 
    /** Thread name */
    private static final String THREAD_FILLER_NAME = "JCA CapacityFiller";
@@ -60,8 +68,7 @@ class CapacityFiller implements Runnable
     */
    CapacityFiller()
    {
-      fillerThread = new Thread(this, THREAD_FILLER_NAME);
-      fillerThread.setDaemon(true);
+      fillerThreads = FillerThreads.create(this, THREAD_FILLER_NAME);
    }
 
    /**
@@ -74,30 +81,13 @@ class CapacityFiller implements Runnable
 
       while (true)
       {
-         boolean empty = false;
-
-         while (!empty)
-         {
-            CapacityRequest cr = null;
-
-            synchronized (crs)
-            {
-               empty = crs.isEmpty();
-               if (!empty)
-                  cr = crs.removeFirst();
-            }
-
-            if (!empty)
-            {
-               cr.getManagedConnectionPool().increaseCapacity(cr.getSubject(), cr.getConnectionRequestInfo());
-            }
-         }
+         CapacityRequest cr = null;
 
          try 
          {
             synchronized (crs)
             {
-               while (crs.isEmpty())
+               while ((cr = next()) == null)
                {
                   crs.wait();                        
                }
@@ -108,9 +98,44 @@ class CapacityFiller implements Runnable
             Thread.currentThread().interrupt();
             return;
          }
+
+         try
+         {
+            cr.getManagedConnectionPool().increaseCapacity(cr.getSubject(), cr.getConnectionRequestInfo());
+         }
+         finally
+         {
+            synchronized (crs)
+            {
+               running.remove(cr.getManagedConnectionPool());
+               crs.notifyAll();
+            }
+         }
       }
    }
 
+   /**
+    * Get the next capacity request. The incrementers count the connections created
+    * by each request, so a managed connection pool only has one request processed at a time
+    * @return The capacity request; <code>null</code> if there is none
+    */
+   private CapacityRequest next()
+   {
+      Iterator<CapacityRequest> it = crs.iterator();
+      while (it.hasNext())
+      {
+         CapacityRequest cr = it.next();
+
+         if (running.add(cr.getManagedConnectionPool()))
+         {
+            it.remove();
+            return cr;
+         }
+      }
+
+      return null;
+   }
+
    /**
     * Internal: Schedule
     * @param cr The value
@@ -119,7 +144,8 @@ class CapacityFiller implements Runnable
    {
       if (this.threadStarted.compareAndSet(false, true))         
       {
-         this.fillerThread.start();
+         for (Thread t : fillerThreads)
+            t.start();
       }
       
       // Multiple instances of the same ManagedConnectionPool is allowed
@@ -0,0 +1,165 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.mcp;
+
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection creator; a bounded set of threads creating connections
+ * on behalf of callers waiting in a managed connection pool.
+ *
+ * A creation is only accepted when a creator thread is available for it, so creations
+ * are never queued behind each other; a caller whose creation isn't accepted creates
+ * the connection on its own thread.
+ * 
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class ConnectionCreator implements Runnable
+{
+   /** Singleton instance */
+   private static final ConnectionCreator INSTANCE = new ConnectionCreator();
+
+   /** Pending creations */
+   private final LinkedList<Runnable> requests = new LinkedList<Runnable>();
+
+   /** Creator threads */
+   private final Thread[] creatorThreads;
+
+   /** Thread name */
+   private static final String THREAD_CREATOR_NAME = "JCA ConnectionCreator";
+
+   /** Threads are started or not */
+   private AtomicBoolean threadsStarted = new AtomicBoolean(false);
+
+   /** The number of accepted creations which haven't finished; guarded by requests */
+   private int inFlight;
+
+   /**
+    * Schedule a creation
+    * @param request The creation
+    * @return True if a creator thread will run the creation right away; false if all are busy
+    */
+   static boolean schedule(Runnable request)
+   {
+      return INSTANCE.internalSchedule(request);
+   }
+
+   /**
+    * Constructor
+    */
+   ConnectionCreator()
+   {
+      int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+      String value = SecurityActions.getSystemProperty("ironjacamar.mcp.creator_threads");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            threads = Math.max(1, Integer.parseInt(value.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+
+      inFlight = 0;
+      creatorThreads = new Thread[threads];
+      for (int i = 0; i < threads; i++)
+      {
+         creatorThreads[i] = new Thread(this, THREAD_CREATOR_NAME + "-" + (i + 1));
+         creatorThreads[i].setDaemon(true);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void run()
+   {
+      final ClassLoader myClassLoader = SecurityActions.getClassLoader(getClass());
+      SecurityActions.setThreadContextClassLoader(myClassLoader);
+
+      while (true)
+      {
+         Runnable request = null;
+
+         try 
+         {
+            synchronized (requests)
+            {
+               while (requests.isEmpty())
+               {
+                  requests.wait();                        
+               }
+
+               request = requests.removeFirst();
+            }
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+            return;
+         }
+
+         try
+         {
+            request.run();
+         }
+         finally
+         {
+            synchronized (requests)
+            {
+               inFlight--;
+            }
+         }
+      }
+   }
+
+   /**
+    * Internal: Schedule
+    * @param request The value
+    * @return True if accepted; otherwise false
+    */
+   private boolean internalSchedule(Runnable request)
+   {
+      if (this.threadsStarted.compareAndSet(false, true))         
+      {
+         for (Thread t : creatorThreads)
+            t.start();
+      }
+
+      synchronized (requests)
+      {
+         if (inFlight >= creatorThreads.length)
+            return false;
+
+         inFlight++;
+         requests.addLast(request);
+         requests.notify();
+         return true;
+      }
+   }
+}
@@ -35,15 +35,33 @@ class FillRequest
    /** Fill size */
    private int fillSize;
 
+   /** Fill concurrency */
+   private int concurrency;
+
+   /** Number of fillers which have taken the request; guarded by the pool filler */
+   private int claims;
+
    /**
     * Constructor
     * @param mcp The managed connection pool
     * @param fillSize The fill size
     */
    FillRequest(ManagedConnectionPool mcp, int fillSize)
+   {
+      this(mcp, fillSize, 1);
+   }
+
+   /**
+    * Constructor
+    * @param mcp The managed connection pool
+    * @param fillSize The fill size
+    * @param concurrency The number of fillers which may work on the request at the same time
+    */
+   FillRequest(ManagedConnectionPool mcp, int fillSize, int concurrency)
    {
       this.mcp = mcp;
       this.fillSize = fillSize;
+      this.concurrency = Math.max(1, concurrency);
    }
 
    /**
@@ -64,6 +82,24 @@ class FillRequest
       return fillSize;
    }
 
+   /**
+    * Get the fill concurrency
+    * @return The value
+    */
+   int getConcurrency()
+   {
+      return concurrency;
+   }
+
+   /**
+    * Claim the request for a filler
+    * @return The number of fillers which have taken the request
+    */
+   int claim()
+   {
+      return ++claims;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -0,0 +1,78 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.mcp;
+
+/**
+ * Creates the threads of the pool and capacity fillers
+ * 
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class FillerThreads
+{
+   /** Number of threads for each filler */
+   private static int threads;
+
+   static
+   {
+      threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+      String value = SecurityActions.getSystemProperty("ironjacamar.filler_threads");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            threads = Math.max(1, Integer.parseInt(value.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+   }
+
+   /**
+    * Constructor
+    */
+   private FillerThreads()
+   {
+   }
+
+   /**
+    * Create the daemon threads for a filler
+    * @param filler The filler
+    * @param name The thread name
+    * @return The threads, not started
+    */
+   static Thread[] create(Runnable filler, String name)
+   {
+      Thread[] result = new Thread[threads];
+
+      for (int i = 0; i < threads; i++)
+      {
+         result[i] = new Thread(filler, threads == 1 ? name : name + "-" + (i + 1));
+         result[i].setDaemon(true);
+      }
+
+      return result;
+   }
+}
@@ -52,6 +52,10 @@ public class ManagedConnectionPoolFactory
    public static final String EXPERIMENTAL_IMPLEMENTATION = 
       "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool";
 
+   /** Concurrent bag implementation */
+   public static final String CONCURRENT_BAG_IMPLEMENTATION =
+      "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentBagManagedConnectionPool";
+
    /** Deprecated implementations */
    private static final String[] DEPRECATED_IMPLEMENTATIONS = new String[] {
       "org.jboss.jca.core.connectionmanager.pool.mcp.ArrayBlockingQueueManagedConnectionPool",
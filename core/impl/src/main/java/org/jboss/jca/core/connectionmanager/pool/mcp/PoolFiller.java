@@ -21,7 +21,10 @@
  */
 package org.jboss.jca.core.connectionmanager.pool.mcp;
 
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -42,8 +45,11 @@ class PoolFiller implements Runnable
    /** Pools list */
    private final LinkedList<FillRequest> pools = new LinkedList<FillRequest>();
 
-   /** Filler thread */
-   private final Thread fillerThread;
+   /** Number of filler threads working on each managed connection pool */
+   private final Map<ManagedConnectionPool, Integer> running = new IdentityHashMap<ManagedConnectionPool, Integer>();
+
+   /** Filler threads */
+   private final Thread[] fillerThreads;
 
    /** Thread name */
    private static final String THREAD_FILLER_NAME = "JCA PoolFiller";
@@ -65,8 +71,7 @@ class PoolFiller implements Runnable
     */
    PoolFiller()
    {
-      fillerThread = new Thread(this, THREAD_FILLER_NAME);
-      fillerThread.setDaemon(true);
+      fillerThreads = FillerThreads.create(this, THREAD_FILLER_NAME);
    }
 
    /**
@@ -79,41 +84,75 @@ class PoolFiller implements Runnable
 
       while (true)
       {
-         boolean empty = false;
+         FillRequest fr = null;
 
-         while (!empty)
+         try 
          {
-            FillRequest fr = null;
-
             synchronized (pools)
             {
-               empty = pools.isEmpty();
-               if (!empty)
-                  fr = pools.removeFirst();
-            }
-
-            if (!empty)
-            {
-               fr.getManagedConnectionPool().fillTo(fr.getFillSize());
+               while ((fr = next()) == null)
+               {
+                  pools.wait();                        
+               }
             }
          }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+            return;
+         }
 
-         try 
+         try
+         {
+            fr.getManagedConnectionPool().fillTo(fr.getFillSize());
+         }
+         finally
          {
             synchronized (pools)
             {
-               while (pools.isEmpty())
+               int count = running.get(fr.getManagedConnectionPool()).intValue() - 1;
+               if (count == 0)
                {
-                  pools.wait();                        
+                  running.remove(fr.getManagedConnectionPool());
                }
+               else
+               {
+                  running.put(fr.getManagedConnectionPool(), Integer.valueOf(count));
+               }
+
+               // A request held back by the concurrency limit of the pool may run now
+               pools.notifyAll();
             }
          }
-         catch (InterruptedException ie)
+      }
+   }
+
+   /**
+    * Get the next fill request, which the concurrency limit of its pool allows to run.
+    * A request stays in the list until it has the number of fillers it allows
+    * @return The fill request; <code>null</code> if there is none
+    */
+   private FillRequest next()
+   {
+      Iterator<FillRequest> it = pools.iterator();
+      while (it.hasNext())
+      {
+         FillRequest fr = it.next();
+         Integer count = running.get(fr.getManagedConnectionPool());
+         int current = count != null ? count.intValue() : 0;
+
+         if (current < fr.getConcurrency())
          {
-            Thread.currentThread().interrupt();
-            return;
+            running.put(fr.getManagedConnectionPool(), Integer.valueOf(current + 1));
+
+            if (fr.claim() >= fr.getConcurrency())
+               it.remove();
+
+            return fr;
          }
       }
+
+      return null;
    }
 
    /**
@@ -124,7 +163,8 @@ class PoolFiller implements Runnable
    {
       if (this.threadStarted.compareAndSet(false, true))         
       {
-         this.fillerThread.start();
+         for (Thread t : fillerThreads)
+            t.start();
       }
       
       synchronized (pools)
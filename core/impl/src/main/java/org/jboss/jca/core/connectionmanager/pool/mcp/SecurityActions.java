@@ -53,6 +53,24 @@ class SecurityActions
       });
    }
 
+   /**
+    * Get the context classloader.
+    * @return The classloader
+    */
+   static ClassLoader getThreadContextClassLoader()
+   {
+      if (System.getSecurityManager() == null)
+         return Thread.currentThread().getContextClassLoader();
+
+      return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>()
+      {
+         public ClassLoader run()
+         {
+            return Thread.currentThread().getContextClassLoader();
+         }
+      });
+   }
+
    /**
     * Set the context classloader.
     * @param cl classloader
@@ -37,6 +37,7 @@ import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutFIFODecrementer;
 import org.jboss.jca.core.connectionmanager.pool.idle.IdleRemover;
 import org.jboss.jca.core.connectionmanager.pool.validator.ConnectionValidator;
+import org.jboss.jca.core.connectionmanager.pool.validator.ValidationPass;
 import org.jboss.jca.core.tracer.Tracer;
 
 import java.util.ArrayList;
@@ -48,6 +49,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jakarta.resource.ResourceException;
 import jakarta.resource.spi.ConnectionRequestInfo;
@@ -119,6 +122,9 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
    /** The checked out connections */
    private final ArrayList<ConnectionListener> checkedOut = new ArrayList<ConnectionListener>();
 
+   /** Connections being created by the fillers */
+   private AtomicInteger filling = new AtomicInteger();
+
    /** Supports lazy association */
    private Boolean supportsLazyAssociation;
 
@@ -189,7 +195,7 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       // Schedule managed connection pool for prefill
       if ((pc.isPrefill() || pc.isStrictMin()) && p instanceof PrefillPool && pc.getInitialSize() > 0)
       {
-         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize()));
+         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize(), pc.getFillConcurrency()));
       }
 
       if (poolConfiguration.getIdleTimeoutMinutes() > 0)
@@ -271,6 +277,38 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       }
    }
 
+   /**
+    * Reserve the creation of a connection by a filler
+    * 
+    * @param size The size the pool is filled to
+    * @return True if reserved; false if the pool has, or will have, enough connections
+    */
+   private boolean reserveFill(int size)
+   {
+      while (true)
+      {
+         int current = filling.get();
+
+         if (isSize(size - current))
+            return false;
+
+         if (filling.compareAndSet(current, current + 1))
+         {
+            pool.getInternalStatistics().deltaFillingCount(1);
+            return true;
+         }
+      }
+   }
+
+   /**
+    * Release a reservation made by reserveFill
+    */
+   private void releaseFill()
+   {
+      filling.decrementAndGet();
+      pool.getInternalStatistics().deltaFillingCount(-1);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -280,7 +318,8 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
           (poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) &&
           pool instanceof PrefillPool &&
           poolConfiguration.getMinSize() > 0)
-         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize()));
+         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize(),
+                                             poolConfiguration.getFillConcurrency()));
    }
 
    /**
@@ -1109,8 +1148,8 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                      return;
                   }
 
-                  // We already have enough connections
-                  if (isSize(size))
+                  // We already have enough connections, or other fillers are creating them
+                  if (!reserveFill(size))
                   {
                      return;
                   }
@@ -1133,6 +1172,9 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                         {
                            log.tracef("Filling pool cl=%s", cl);
 
+                           if (pool.getInternalStatistics().isEnabled())
+                              pool.getInternalStatistics().deltaFilledCount();
+
                            cls.add(cl);
                            added = true;
                         }
@@ -1155,6 +1197,10 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                      log.unableFillPool(re, cm.getJndiName());
                      return;
                   }
+                  finally
+                  {
+                     releaseFill();
+                  }
                }
                finally
                {
@@ -1207,6 +1253,7 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
 
                   if (create)
                   {
+                     pool.getInternalStatistics().deltaFillingCount(1);
                      try
                      {
                         ConnectionListener cl = createConnectionEventListener(subject, cri);
@@ -1224,6 +1271,9 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                            {
                               log.tracef("Capacity fill: cl=%s", cl);
 
+                              if (pool.getInternalStatistics().isEnabled())
+                                 pool.getInternalStatistics().deltaFilledCount();
+
                               cls.add(cl);
                               created++;
                               added = true;
@@ -1247,6 +1297,10 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                         log.unableFillPool(re, cm.getJndiName());
                         return;
                      }
+                     finally
+                     {
+                        pool.getInternalStatistics().deltaFillingCount(-1);
+                     }
                   }
                }
                finally
@@ -1352,107 +1406,124 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
 
       if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
       {
-         boolean anyDestroyed = false;
+         final AtomicBoolean anyDestroyed = new AtomicBoolean(false);
+         final long start = System.currentTimeMillis();
+         ValidationPass pass = new ValidationPass(poolConfiguration.getValidationConcurrency(),
+                                                  poolConfiguration.getValidationBudget());
 
          try
          {
-            while (true)
+            pass.run(new ValidationPass.Source()
             {
-               ConnectionListener cl = null;
-               boolean destroyed = false;
-
-               synchronized (cls)
+               public Runnable next()
                {
-                  if (cls.size() == 0)
+                  final ConnectionListener cl;
+
+                  synchronized (cls)
                   {
-                     break;
+                     if (cls.size() == 0)
+                        return null;
+
+                     cl = removeForFrequencyCheck(start);
                   }
 
-                  cl = removeForFrequencyCheck();
-               }
+                  if (cl == null)
+                     return null;
 
-               if (cl == null)
-               {
-                  break;
+                  return new Runnable()
+                  {
+                     public void run()
+                     {
+                        if (validateConnection(cl))
+                           anyDestroyed.set(true);
+                     }
+                  };
                }
+            });
+         }
+         finally
+         {
+            pool.getLock().release();
 
-               try
-               {
-                  Set candidateSet = Collections.singleton(cl.getManagedConnection());
+            pool.getInternalStatistics().deltaValidationPass(pass.getDuration(), pass.isBudgetExceeded());
 
-                  if (mcf instanceof ValidatingManagedConnectionFactory)
-                  {
-                     ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
-                     candidateSet = vcf.getInvalidConnections(candidateSet);
+            if (anyDestroyed.get())
+               prefill();
+         }
+      }
+   }
 
-                     if ((candidateSet != null && candidateSet.size() > 0) || !isRunning())
-                     {
-                        if (cl.getState() != ConnectionState.DESTROY)
-                        {
-                           if (pool.getInternalStatistics().isEnabled())
-                              pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                                                                              cl.getLastReturnedTime());
+   /**
+    * Validate a connection taken out of the pool for background validation
+    * @param cl The connection listener
+    * @return True if the connection was destroyed, otherwise it is returned to the pool
+    */
+   private boolean validateConnection(ConnectionListener cl)
+   {
+      boolean destroyed = false;
 
-                           if (Tracer.isEnabled())
-                              Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, true,
-                                                               false, false, false, false,
-                                                               Tracer.isRecordCallstacks() ?
-                                                               new Throwable("CALLSTACK") : null);
-                     
-                           cl.destroy();
-                           cl = null;
-                           destroyed = true;
-                           anyDestroyed = true;
-                        }
-                     }
-                  }
-                  else
-                  {
-                     log.backgroundValidationNonCompliantManagedConnectionFactory();
-                  }
-               }
-               catch (ResourceException re)
-               {
-                  if (cl != null)
-                  {
-                     if (pool.getInternalStatistics().isEnabled())
-                        pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                                                                        cl.getLastReturnedTime());
+      try
+      {
+         Set candidateSet = Collections.singleton(cl.getManagedConnection());
 
-                     if (Tracer.isEnabled())
-                        Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, false,
-                                                         false, true, false, false,
-                                                         Tracer.isRecordCallstacks() ?
-                                                         new Throwable("CALLSTACK") : null);
-                     
-                     cl.destroy();
-                     cl = null;
-                     destroyed = true;
-                     anyDestroyed = true;
-                  }
+         if (mcf instanceof ValidatingManagedConnectionFactory)
+         {
+            ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+            candidateSet = vcf.getInvalidConnections(candidateSet);
 
-                  log.connectionValidatorIgnoredUnexpectedError(re);
-               }
-               finally
+            if ((candidateSet != null && candidateSet.size() > 0) || !isRunning())
+            {
+               if (cl.getState() != ConnectionState.DESTROY)
                {
-                  if (!destroyed)
-                  {
-                     synchronized (cls)
-                     {
-                        returnForFrequencyCheck(cl);
-                     }
-                  }
+                  if (pool.getInternalStatistics().isEnabled())
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                                     cl.getLastReturnedTime());
+
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, true,
+                                                      false, false, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+
+                  cl.destroy();
+                  destroyed = true;
                }
             }
          }
-         finally
+         else
          {
-            pool.getLock().release();
+            log.backgroundValidationNonCompliantManagedConnectionFactory();
+         }
+      }
+      catch (ResourceException re)
+      {
+         if (pool.getInternalStatistics().isEnabled())
+            pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                            cl.getLastReturnedTime());
 
-            if (anyDestroyed)
-               prefill();
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, false,
+                                             false, true, false, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+
+         cl.destroy();
+         destroyed = true;
+
+         log.connectionValidatorIgnoredUnexpectedError(re);
+      }
+      finally
+      {
+         if (!destroyed)
+         {
+            synchronized (cls)
+            {
+               returnForFrequencyCheck(cl);
+            }
          }
       }
+
+      return destroyed;
    }
 
    /**
@@ -1469,9 +1540,10 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
 
    /**
     * Returns the connection listener that should be removed due to background validation
+    * @param start The start of the validation pass
     * @return The listener; otherwise null if none should be removed
     */
-   private ConnectionListener removeForFrequencyCheck()
+   private ConnectionListener removeForFrequencyCheck(long start)
    {
       ConnectionListener cl = null;
 
@@ -1480,7 +1552,7 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
          cl = iter.next();
          long lastCheck = cl.getLastValidatedTime();
 
-         if ((System.currentTimeMillis() - lastCheck) >= poolConfiguration.getBackgroundValidationMillis())
+         if ((start - lastCheck) >= poolConfiguration.getBackgroundValidationMillis())
          {
             cls.remove(cl);
             break;
@@ -0,0 +1,1904 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.mcp;
+
+import org.jboss.jca.core.CoreBundle;
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.connectionmanager.pool.FlushMode;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionState;
+import org.jboss.jca.core.connectionmanager.pool.api.CapacityDecrementer;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PrefillPool;
+import org.jboss.jca.core.connectionmanager.pool.capacity.DefaultCapacity;
+import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
+import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutFIFODecrementer;
+import org.jboss.jca.core.connectionmanager.pool.idle.IdleRemover;
+import org.jboss.jca.core.connectionmanager.pool.validator.ConnectionValidator;
+import org.jboss.jca.core.connectionmanager.pool.validator.ValidationPass;
+import org.jboss.jca.core.tracer.Tracer;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import jakarta.resource.ResourceException;
+import jakarta.resource.spi.ConnectionRequestInfo;
+import jakarta.resource.spi.DissociatableManagedConnection;
+import jakarta.resource.spi.ManagedConnection;
+import jakarta.resource.spi.ManagedConnectionFactory;
+import jakarta.resource.spi.RetryableException;
+import jakarta.resource.spi.ValidatingManagedConnectionFactory;
+import javax.security.auth.Subject;
+
+import org.jboss.logging.Messages;
+
+/**
+ * ManagedConnectionPool implementation based on a semaphore and a concurrent bag.
+ * <p>
+ * Each connection listener carries its own pool state which is changed using
+ * compare-and-set, so checkout and return never take a pool wide monitor and never
+ * copy the backing array. The backing array is only copied when a connection
+ * listener is created or destroyed.
+ * </p>
+ * <p>
+ * A thread first tries to reclaim the connection listener it returned last, before
+ * scanning the shared listeners.
+ * </p>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SemaphoreConcurrentBagManagedConnectionPool implements ManagedConnectionPool
+{
+   /** The log */
+   private CoreLogger log;
+
+   /** Whether debug is enabled */
+   private boolean debug;
+
+   /** The bundle */
+   private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
+
+   /** The managed connection factory */
+   private ManagedConnectionFactory mcf;
+
+   /** The connection manager */
+   private ConnectionManager cm;
+
+   /** The default subject */
+   private Subject defaultSubject;
+
+   /** The default connection request information */
+   private ConnectionRequestInfo defaultCri;
+
+   /** The pool configuration */
+   private PoolConfiguration poolConfiguration;
+
+   /** The pool */
+   private Pool pool;
+
+   /** FIFO / FILO */
+   private boolean fifo;
+
+   /** Copy of the maximum size from the pooling parameters */
+   private int maxSize;
+
+   /** All connection listeners; only copied when a listener is created or destroyed */
+   private CopyOnWriteArrayList<ConnectionListenerWrapper> shared;
+
+   /** Connection listener to wrapper lookup */
+   private ConcurrentHashMap<ConnectionListener, ConnectionListenerWrapper> cls;
+
+   /** The connection listener each thread returned last */
+   private ThreadLocal<WeakReference<ConnectionListenerWrapper>> lastReturned;
+
+   /** Current pool size **/
+   private AtomicInteger poolSize = new AtomicInteger();
+
+   /** Connections being created by the fillers */
+   private AtomicInteger filling = new AtomicInteger();
+
+   /** Supports lazy association */
+   private Boolean supportsLazyAssociation;
+
+   /** Last idle check */
+   private long lastIdleCheck;
+
+   /** Last used */
+   private long lastUsed;
+
+   private boolean poolValidationLoggingEnabled = true;
+
+   private static boolean disableLazyAssociation;
+   static
+   {
+      String value = SecurityActions.getSystemProperty("ironjacamar.disable_lazy_association");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            disableLazyAssociation = Boolean.valueOf(value);
+         }
+         catch (Throwable t)
+         {
+            disableLazyAssociation = false;
+         }
+      }
+   }
+
+   /**
+    * Constructor
+    */
+   public SemaphoreConcurrentBagManagedConnectionPool()
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void initialize(ManagedConnectionFactory mcf, ConnectionManager cm, Subject subject,
+                          ConnectionRequestInfo cri, PoolConfiguration pc, Pool p)
+   {
+      if (mcf == null)
+         throw new IllegalArgumentException("ManagedConnectionFactory is null");
+
+      if (cm == null)
+         throw new IllegalArgumentException("ConnectionManager is null");
+
+      if (pc == null)
+         throw new IllegalArgumentException("PoolConfiguration is null");
+
+      if (p == null)
+         throw new IllegalArgumentException("Pool is null");
+
+      this.mcf = mcf;
+      this.cm = cm;
+      this.defaultSubject = subject;
+      this.defaultCri = cri;
+      this.poolConfiguration = pc;
+      this.maxSize = pc.getMaxSize();
+      this.pool = p;
+      this.fifo = p.isFIFO();
+      this.log = pool.getLogger();
+      this.poolValidationLoggingEnabled =
+         !PoolConfiguration.getPoolsWithDisabledValidationLogging().contains(pool.getName());
+      this.debug = log.isDebugEnabled();
+      this.shared = new CopyOnWriteArrayList<ConnectionListenerWrapper>();
+      this.cls = new ConcurrentHashMap<ConnectionListener, ConnectionListenerWrapper>();
+      this.lastReturned = new ThreadLocal<WeakReference<ConnectionListenerWrapper>>();
+      this.poolSize.set(0);
+      this.supportsLazyAssociation = null;
+      this.lastIdleCheck = System.currentTimeMillis();
+      this.lastUsed = Long.MAX_VALUE;
+
+      // Schedule managed connection pool for prefill
+      if ((pc.isPrefill() || pc.isStrictMin()) && p instanceof PrefillPool && pc.getInitialSize() > 0)
+      {
+         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize(), pc.getFillConcurrency()));
+      }
+
+      if (poolConfiguration.getIdleTimeoutMinutes() > 0)
+      {
+         // Register removal support
+         IdleRemover.getInstance().registerPool(this,
+                                                poolConfiguration.getIdleTimeoutMinutes() * 1000L * 60);
+      }
+
+      if (poolConfiguration.isBackgroundValidation() && poolConfiguration.getBackgroundValidationMillis() > 0)
+      {
+         if (debug)
+            log.debug("Registering for background validation at interval " +
+                      poolConfiguration.getBackgroundValidationMillis());
+
+         // Register validation
+         ConnectionValidator.getInstance().registerPool(this,
+                                                        poolConfiguration.getBackgroundValidationMillis());
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getLastUsed()
+   {
+      return lastUsed;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean isRunning()
+   {
+      return !pool.isShutdown();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean isEmpty()
+   {
+      return poolSize.get() == 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean isIdle()
+   {
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.isCheckedOut())
+            return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getActive()
+   {
+      return poolSize.get();
+   }
+
+   /**
+    * Check if the pool has reached a certain size
+    *
+    * @param size The size
+    * @return True if reached; otherwise false
+    */
+   private boolean isSize(int size)
+   {
+      return poolSize.get() >= size;
+   }
+
+   /**
+    * Reserve the creation of a connection by a filler
+    * 
+    * @param size The size the pool is filled to
+    * @return True if reserved; false if the pool has, or will have, enough connections
+    */
+   private boolean reserveFill(int size)
+   {
+      while (true)
+      {
+         int current = filling.get();
+
+         if (isSize(size - current))
+            return false;
+
+         if (filling.compareAndSet(current, current + 1))
+         {
+            pool.getInternalStatistics().deltaFillingCount(1);
+            return true;
+         }
+      }
+   }
+
+   /**
+    * Release a reservation made by reserveFill
+    */
+   private void releaseFill()
+   {
+      filling.decrementAndGet();
+      pool.getInternalStatistics().deltaFillingCount(-1);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void prefill()
+   {
+      if (isRunning() &&
+          (poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) &&
+          pool instanceof PrefillPool &&
+          poolConfiguration.getMinSize() > 0)
+         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize(),
+                                             poolConfiguration.getFillConcurrency()));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException
+   {
+      if (log.isTraceEnabled())
+      {
+         String method = "getConnection(" + subject + ", " + cri + ")";
+         logFullDetails(method, subject, cri);
+      }
+      else if (debug)
+      {
+         String method = "getConnection(" + subject + ", " + cri + ")";
+         log.debug(ManagedConnectionPoolUtility.details(method, pool.getName(),
+                                                        pool.getInternalStatistics().getInUseCount(), maxSize));
+      }
+
+      subject = (subject == null) ? defaultSubject : subject;
+      cri = (cri == null) ? defaultCri : cri;
+
+      if (pool.isFull())
+      {
+         if (pool.getInternalStatistics().isEnabled())
+            pool.getInternalStatistics().deltaWaitCount();
+
+         if (pool.isSharable() && !disableLazyAssociation &&
+             (supportsLazyAssociation == null || supportsLazyAssociation.booleanValue()))
+         {
+            if (supportsLazyAssociation == null)
+               checkLazyAssociation();
+
+            if (supportsLazyAssociation != null && supportsLazyAssociation.booleanValue())
+            {
+               if (log.isTraceEnabled())
+                  log.tracef("Trying to detach - Pool: %s MCP: %s", pool.getName(),
+                             Integer.toHexString(System.identityHashCode(this)));
+
+               if (!detachConnectionListener())
+               {
+                  if (log.isTraceEnabled())
+                     log.tracef("Detaching didn't succeed - Pool: %s MCP: %s", pool.getName(),
+                                Integer.toHexString(System.identityHashCode(this)));
+               }
+            }
+         }
+      }
+
+      long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+      try
+      {
+         if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
+
+            // We have a permit to get a connection. Is there one in the pool already?
+            ConnectionListenerWrapper clw = null;
+            while (true)
+            {
+               if (!isRunning())
+               {
+                  pool.getLock().release();
+
+                  throw new ResourceException(
+                     bundle.thePoolHasBeenShutdown(pool.getName(),
+                                                   Integer.toHexString(System.identityHashCode(this))));
+               }
+
+               clw = reserve();
+
+               if (clw == null)
+                  break;
+
+               ConnectionListener cl = clw.getConnectionListener();
+               if (cl.getState() != ConnectionState.NORMAL)
+               {
+                  // Being destroyed by somebody else; make sure it doesn't come back
+                  removeConnectionListenerFromPool(clw);
+                  continue;
+               }
+
+               // Yes, we retrieved a ManagedConnection from the pool.
+               // Does it match?
+               try
+               {
+                  Object matchedMC = mcf.matchManagedConnections(Collections.singleton(
+                     cl.getManagedConnection()), subject, cri);
+
+                  boolean valid = true;
+
+                  if (matchedMC != null)
+                  {
+                     if (poolConfiguration.isValidateOnMatch())
+                        valid = isValid(cl, "ValidateOnMatch");
+
+                     if (valid)
+                     {
+                        log.tracef("supplying ManagedConnection from pool: %s", cl);
+
+                        long now = System.currentTimeMillis();
+                        if (lastUsed != now)
+                           lastUsed = now;
+                        cl.setLastCheckedOutTime(now);
+
+                        if (pool.getInternalStatistics().isEnabled())
+                        {
+                           pool.getInternalStatistics().deltaTotalGetTime(now - startWait);
+                           pool.getInternalStatistics().deltaTotalPoolTime(now - cl.getLastReturnedTime());
+                        }
+
+                        if (Tracer.isEnabled())
+                           Tracer.getConnectionListener(pool.getName(), this, cl,
+                                                        true, pool.isInterleaving(),
+                                                        Tracer.isRecordCallstacks() ?
+                                                        new Throwable("CALLSTACK") : null);
+
+                        clw.setHasPermit(true);
+
+                        return cl;
+                     }
+                  }
+
+                  // Match did not succeed but no exception was
+                  // thrown.
+                  // Either we have the matching strategy wrong or the
+                  // connection died while being checked. We need to
+                  // distinguish these cases, but for now we always
+                  // destroy the connection.
+                  if (valid)
+                  {
+                     log.destroyingConnectionNotSuccessfullyMatched(cl);
+                  }
+                  else
+                  {
+                     if (poolValidationLoggingEnabled)
+                     {
+                        log.destroyingConnectionNotValidated(cl);
+                     }
+                  }
+
+                  if (pool.getInternalStatistics().isEnabled())
+                  {
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                                     cl.getLastReturnedTime());
+                  }
+
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                                      false, false, true, false, false, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  cl.destroy();
+                  clw = null;
+               }
+               catch (Throwable t)
+               {
+                  log.throwableWhileTryingMatchManagedConnectionThenDestroyingConnection(cl, t);
+
+                  if (pool.getInternalStatistics().isEnabled())
+                  {
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                                     cl.getLastReturnedTime());
+                  }
+
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                                      false, false, false, false, true, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  cl.destroy();
+                  clw = null;
+               }
+
+               // We made it here, something went wrong and we should
+               // validate if we should continue attempting to acquire a
+               // connection
+               if (poolConfiguration.isUseFastFail())
+               {
+                  if (log.isTraceEnabled())
+                     log.trace("Fast failing for connection attempt. No more attempts will be made to " +
+                               "acquire connection from pool and a new connection will be created immeadiately");
+                  break;
+               }
+            }
+
+            // OK, we couldnt find a working connection from the pool. Make
+            // a new one.
+            try
+            {
+               // No, the pool was empty, so we have to make a new one.
+               clw = new ConnectionListenerWrapper(createConnectionEventListener(subject, cri),
+                                                   ConnectionListenerWrapper.STATE_IN_USE, true);
+
+               if (Tracer.isEnabled())
+                  Tracer.createConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                  clw.getConnectionListener().getManagedConnection(),
+                                                  true, false, false,
+                                                  Tracer.isRecordCallstacks() ?
+                                                  new Throwable("CALLSTACK") : null);
+
+               cls.put(clw.getConnectionListener(), clw);
+               shared.add(clw);
+
+               log.tracef("supplying new ManagedConnection: %s", clw.getConnectionListener());
+
+               lastUsed = System.currentTimeMillis();
+
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+
+               prefill();
+
+               // Trigger capacity increase
+               if (pool.getCapacity().getIncrementer() != null)
+                  CapacityFiller.schedule(new CapacityRequest(this, subject, cri));
+
+               if (Tracer.isEnabled())
+                  Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(), false,
+                                               pool.isInterleaving(),
+                                               Tracer.isRecordCallstacks() ?
+                                               new Throwable("CALLSTACK") : null);
+
+               return clw.getConnectionListener();
+            }
+            catch (Throwable t)
+            {
+               if (clw != null || !(t instanceof RetryableException))
+                  log.throwableWhileAttemptingGetNewGonnection(clw != null ? clw.getConnectionListener() : null, t);
+
+               // Return permit and rethrow
+               if (clw != null)
+               {
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                      false, false, false, false, true, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  clw.getConnectionListener().destroy();
+               }
+
+               pool.getLock().release();
+
+               if (t instanceof ResourceException)
+               {
+                  throw (ResourceException)t;
+               }
+               else
+               {
+                  throw new ResourceException(
+                     bundle.unexpectedThrowableWhileTryingCreateConnection(
+                             clw != null ? clw.getConnectionListener() : null), t);
+               }
+            }
+         }
+         else
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaBlockingFailureCount();
+
+            // We timed out
+            throw new ResourceException(
+               bundle.noMManagedConnectionsAvailableWithinConfiguredBlockingTimeout(
+                  poolConfiguration.getBlockingTimeout()));
+         }
+
+      }
+      catch (InterruptedException ie)
+      {
+         Thread.interrupted();
+
+         long end = pool.getInternalStatistics().isEnabled() ? (System.currentTimeMillis() - startWait) : 0L;
+         pool.getInternalStatistics().deltaTotalBlockingTime(end);
+         throw new ResourceException(bundle.interruptedWhileRequestingPermit(end));
+      }
+   }
+
+   /**
+    * Reserve an available connection listener for checkout
+    *
+    * @return The wrapper, now in use; <code>null</code> if none is available
+    */
+   private ConnectionListenerWrapper reserve()
+   {
+      if (!fifo)
+      {
+         WeakReference<ConnectionListenerWrapper> ref = lastReturned.get();
+         if (ref != null)
+         {
+            ConnectionListenerWrapper clw = ref.get();
+            if (clw != null && clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                                      ConnectionListenerWrapper.STATE_IN_USE))
+            {
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaAffinityHitCount();
+
+               return clw;
+            }
+         }
+
+         if (pool.getInternalStatistics().isEnabled())
+            pool.getInternalStatistics().deltaAffinityMissCount();
+
+         for (ConnectionListenerWrapper clw : shared)
+         {
+            if (clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                       ConnectionListenerWrapper.STATE_IN_USE))
+               return clw;
+         }
+
+         return null;
+      }
+
+      // FIFO: hand out the connection listener which has been in the pool the longest
+      while (true)
+      {
+         ConnectionListenerWrapper oldest = null;
+         for (ConnectionListenerWrapper clw : shared)
+         {
+            if (clw.getState() == ConnectionListenerWrapper.STATE_AVAILABLE &&
+                (oldest == null ||
+                 clw.getConnectionListener().getLastReturnedTime() <
+                 oldest.getConnectionListener().getLastReturnedTime()))
+               oldest = clw;
+         }
+
+         if (oldest == null)
+            return null;
+
+         if (oldest.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                       ConnectionListenerWrapper.STATE_IN_USE))
+            return oldest;
+      }
+   }
+
+   /**
+    * Is the connection listener valid
+    * @param cl The connection listener
+    * @param operation The operation performing the validation
+    * @return True if valid; otherwise false
+    */
+   private boolean isValid(ConnectionListener cl, String operation)
+   {
+      if (mcf instanceof ValidatingManagedConnectionFactory)
+      {
+         try
+         {
+            ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+            Set candidateSet = Collections.singleton(cl.getManagedConnection());
+            candidateSet = vcf.getInvalidConnections(candidateSet);
+
+            return candidateSet == null || candidateSet.size() == 0;
+         }
+         catch (Throwable t)
+         {
+            if (log.isTraceEnabled())
+               log.trace("Exception while " + operation + ": " + t.getMessage(), t);
+
+            return false;
+         }
+      }
+      else
+      {
+         log.validateOnMatchNonCompliantManagedConnectionFactory(mcf.getClass().getName());
+      }
+
+      return true;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener findConnectionListener(ManagedConnection mc)
+   {
+      return findConnectionListener(mc, null);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener findConnectionListener(ManagedConnection mc, Object connection)
+   {
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.isCheckedOut() && clw.getConnectionListener().controls(mc, connection))
+            return clw.getConnectionListener();
+      }
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void returnConnection(ConnectionListener cl, boolean kill)
+   {
+      returnConnection(cl, kill, !kill);
+   }
+
+   /**
+    * Return connection to the pool
+    * @param cl The connection listener
+    * @param kill Kill the connection
+    * @param cleanup Cleanup the managed connection
+    */
+   public void returnConnection(ConnectionListener cl, boolean kill, boolean cleanup)
+   {
+      if (pool.getInternalStatistics().isEnabled() && cl.getState() != ConnectionState.DESTROYED)
+         pool.getInternalStatistics().deltaTotalUsageTime(System.currentTimeMillis() - cl.getLastCheckedOutTime());
+
+      if (log.isTraceEnabled())
+      {
+         String method = "returnConnection(" + Integer.toHexString(System.identityHashCode(cl)) + ", " + kill + ")";
+         logFullDetails(method, defaultSubject, defaultCri);
+      }
+      else if (debug)
+      {
+         String method = "returnConnection(" + Integer.toHexString(System.identityHashCode(cl)) + ", " + kill + ")";
+         log.debug(ManagedConnectionPoolUtility.details(method,
+               pool.getName(), pool.getInternalStatistics().getInUseCount(), maxSize));
+      }
+
+      ConnectionListenerWrapper clw = cls.get(cl);
+      if (cl.getState() == ConnectionState.DESTROYED)
+      {
+         log.tracef("ManagedConnection is being returned after it was destroyed: %s", cl);
+
+         if (clw != null && clw.releasePermit())
+            pool.getLock().release();
+
+         return;
+      }
+
+      if (cleanup)
+      {
+         try
+         {
+            cl.getManagedConnection().cleanup();
+         }
+         catch (ResourceException re)
+         {
+            log.resourceExceptionCleaningUpManagedConnection(cl, re);
+            kill = true;
+         }
+      }
+
+      // We need to destroy this one
+      if (clw == null || cl.getState() == ConnectionState.DESTROY || cl.getState() == ConnectionState.DESTROYED)
+         kill = true;
+
+      // This is really an error
+      if (!kill && isSize(poolConfiguration.getMaxSize() + 1))
+      {
+         log.destroyingReturnedConnectionMaximumPoolSizeExceeded(cl);
+         kill = true;
+      }
+
+      boolean releasePermit = clw != null && clw.releasePermit();
+
+      if (kill)
+      {
+         log.tracef("Destroying returned connection %s", cl);
+
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                             true, false, false, false, false, false, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+
+         // Adrian Brock: A resource adapter can asynchronously notify us
+         // that a connection error occurred.
+         // This could happen while the connection is not checked out.
+         // e.g. JMS can do this via an ExceptionListener on the connection.
+         // I have twice had to reinstate this line of code, PLEASE DO NOT
+         // REMOVE IT!
+         if (clw != null)
+         {
+            removeConnectionListenerFromPool(clw);
+         }
+         else
+         {
+            prefill();
+         }
+      }
+      else
+      {
+         // return to the pool
+         cl.toPool();
+         if (clw.compareAndSetState(ConnectionListenerWrapper.STATE_IN_USE,
+                                    ConnectionListenerWrapper.STATE_AVAILABLE))
+         {
+            if (!fifo)
+               lastReturned.set(clw.getReference());
+         }
+         else if (clw.getState() == ConnectionListenerWrapper.STATE_AVAILABLE)
+         {
+            log.attemptReturnConnectionTwice(cl, new Throwable("STACKTRACE"));
+         }
+      }
+
+      if (releasePermit)
+         pool.getLock().release();
+
+      if (kill)
+         cl.destroy();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void flush(FlushMode mode, Collection<ConnectionListener> toDestroy)
+   {
+      ArrayList<ConnectionListenerWrapper> destroy = null;
+
+      if (FlushMode.ALL == mode)
+      {
+         if (log.isTraceEnabled())
+            log.tracef("Flushing pool checkedOut=%s inPool=%s", getCheckedOut(), cls);
+
+         // Mark checked out connections as requiring destruction
+         for (ConnectionListenerWrapper clw : shared)
+         {
+            if (clw.compareAndSetState(ConnectionListenerWrapper.STATE_IN_USE,
+                                       ConnectionListenerWrapper.STATE_RESERVED))
+            {
+               ConnectionListener cl = clw.getConnectionListener();
+               log.tracef("Flush marking checked out connection for destruction %s", cl);
+
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalUsageTime(System.currentTimeMillis() -
+                                                                   cl.getLastCheckedOutTime());
+
+               if (clw.releasePermit())
+                  pool.getLock().release();
+
+               cl.setState(ConnectionState.DESTROY);
+
+               if (destroy == null)
+                  destroy = new ArrayList<ConnectionListenerWrapper>(1);
+
+               destroy.add(clw);
+            }
+         }
+      }
+      else if (FlushMode.GRACEFULLY == mode)
+      {
+         if (log.isTraceEnabled())
+            log.tracef("Gracefully flushing pool checkedOut=%s inPool=%s", getCheckedOut(), cls);
+
+         for (ConnectionListenerWrapper clw : shared)
+         {
+            if (clw.isCheckedOut())
+            {
+               log.tracef("Graceful flush marking checked out connection for destruction %s",
+                          clw.getConnectionListener());
+
+               clw.getConnectionListener().setState(ConnectionState.DESTROY);
+            }
+         }
+      }
+
+      // Destroy connections in the pool
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (!clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                     ConnectionListenerWrapper.STATE_RESERVED))
+            continue;
+
+         boolean kill = true;
+
+         if (FlushMode.INVALID == mode && clw.getConnectionListener().getState().equals(ConnectionState.NORMAL))
+         {
+            if (mcf instanceof ValidatingManagedConnectionFactory)
+            {
+               try
+               {
+                  ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+                  Set candidateSet = Collections.singleton(clw.getConnectionListener().getManagedConnection());
+                  candidateSet = vcf.getInvalidConnections(candidateSet);
+
+                  if (candidateSet == null || candidateSet.size() == 0)
+                  {
+                     kill = false;
+                  }
+               }
+               catch (Throwable t)
+               {
+                  log.trace("Exception during invalid flush", t);
+               }
+            }
+         }
+
+         if (kill)
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                               clw.getConnectionListener().getLastReturnedTime());
+
+            if (destroy == null)
+               destroy = new ArrayList<ConnectionListenerWrapper>(1);
+
+            clw.getConnectionListener().setState(ConnectionState.DESTROY);
+            destroy.add(clw);
+         }
+         else
+         {
+            clw.setState(ConnectionListenerWrapper.STATE_AVAILABLE);
+         }
+      }
+
+      // We need to destroy some connections
+      if (destroy != null)
+      {
+         for (ConnectionListenerWrapper clw : destroy)
+         {
+            removeConnectionListenerFromPool(clw);
+            toDestroy.add(clw.getConnectionListener());
+         }
+      }
+
+      // Trigger prefill
+      prefill();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void removeIdleConnections()
+   {
+      long now = System.currentTimeMillis();
+      long timeoutSetting = poolConfiguration.getIdleTimeoutMinutes() * 1000L * 60;
+
+      CapacityDecrementer decrementer = pool.getCapacity().getDecrementer();
+
+      if (decrementer == null)
+         decrementer = DefaultCapacity.DEFAULT_DECREMENTER;
+
+      if (TimedOutDecrementer.class.getName().equals(decrementer.getClass().getName()) ||
+          TimedOutFIFODecrementer.class.getName().equals(decrementer.getClass().getName()))
+      {
+         // Allow through each minute
+         if (now < (lastIdleCheck + 60000L))
+            return;
+      }
+      else
+      {
+         // Otherwise, strict check
+         if (now < (lastIdleCheck + timeoutSetting))
+            return;
+      }
+
+      lastIdleCheck = now;
+
+      ArrayList<ConnectionListenerWrapper> destroyConnections = new ArrayList<ConnectionListenerWrapper>();
+      long timeout = now - timeoutSetting;
+
+      boolean destroy = true;
+      int destroyed = 0;
+
+      if (log.isTraceEnabled())
+      {
+         String method = "removeIdleConnections(" + timeout + ")";
+         logFullDetails(method, defaultSubject, defaultCri);
+      }
+      else if (debug)
+      {
+         String method = "removeIdleConnections(" + timeout + ")";
+         log.debug(ManagedConnectionPoolUtility.details(method, pool.getName(),
+                                                        pool.getInternalStatistics().getInUseCount(), maxSize));
+      }
+
+      // Oldest returned first, the decrementers stop at the first connection to keep
+      List<ConnectionListenerWrapper> candidates = new ArrayList<ConnectionListenerWrapper>();
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.getState() == ConnectionListenerWrapper.STATE_AVAILABLE)
+            candidates.add(clw);
+      }
+      Collections.sort(candidates, LAST_RETURNED);
+
+      for (int i = 0; destroy && i < candidates.size(); i++)
+      {
+         ConnectionListenerWrapper clw = candidates.get(i);
+
+         if (!clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                     ConnectionListenerWrapper.STATE_RESERVED))
+            continue;
+
+         destroy = decrementer.shouldDestroy(clw.getConnectionListener(), timeout, poolSize.get(),
+                                             poolConfiguration.getMinSize(), destroyed);
+
+         if (destroy && (shouldRemove() || !isRunning()))
+         {
+            clw.getConnectionListener().setState(ConnectionState.TO_BE_DESTROYED);
+
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTimedOut();
+
+            log.tracef("Idle connection cl=%s", clw.getConnectionListener());
+
+            // We need to destroy this one, so deregister now
+            removeConnectionListenerFromPool(clw);
+
+            destroyConnections.add(clw);
+            destroyed++;
+         }
+         else
+         {
+            clw.setState(ConnectionListenerWrapper.STATE_AVAILABLE);
+            destroy = false;
+         }
+      }
+
+      // We found some connections to destroy
+      if (destroyConnections.size() > 0 || isEmpty())
+      {
+         for (ConnectionListenerWrapper clw : destroyConnections)
+         {
+            log.tracef("Destroying connection %s", clw.getConnectionListener());
+
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                               clw.getConnectionListener().getLastReturnedTime());
+
+            if (Tracer.isEnabled())
+               Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                false, true, false, false, false, false, false,
+                                                Tracer.isRecordCallstacks() ?
+                                                new Throwable("CALLSTACK") : null);
+            clw.getConnectionListener().destroy();
+         }
+
+         if (isRunning())
+         {
+            // Let prefill and use-strict-min be the same
+            boolean emptyManagedConnectionPool = false;
+
+            if ((poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) && pool instanceof PrefillPool)
+            {
+               if (poolConfiguration.getMinSize() > 0)
+               {
+                  prefill();
+               }
+               else
+               {
+                  emptyManagedConnectionPool = true;
+               }
+            }
+            else
+            {
+               emptyManagedConnectionPool = true;
+            }
+
+            // Empty pool
+            if (emptyManagedConnectionPool && isEmpty())
+               pool.emptyManagedConnectionPool(this);
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void shutdown()
+   {
+      if (log.isTraceEnabled())
+         log.tracef("Shutdown - Pool: %s MCP: %s", pool.getName(), Integer.toHexString(System.identityHashCode(this)));
+
+      IdleRemover.getInstance().unregisterPool(this);
+      ConnectionValidator.getInstance().unregisterPool(this);
+
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.isCheckedOut())
+            log.destroyingActiveConnection(pool.getName(), clw.getConnectionListener().getManagedConnection());
+
+         if (Tracer.isEnabled())
+            Tracer.clearConnectionListener(pool.getName(), this, clw.getConnectionListener());
+      }
+
+      final Collection<ConnectionListener> toDestroy = new ArrayList<ConnectionListener>();
+      flush(FlushMode.ALL, toDestroy);
+      for (ConnectionListener cl : toDestroy)
+      {
+         cl.destroy();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void fillTo(int size)
+   {
+      if (size <= 0)
+         return;
+
+      if (!(poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()))
+         return;
+
+      if (!(pool instanceof PrefillPool))
+         return;
+
+      if (log.isTraceEnabled())
+      {
+         String method = "fillTo(" + size + ")";
+         logFullDetails(method, defaultSubject, defaultCri);
+      }
+      else if (debug)
+      {
+         String method = "fillTo(" + size + ")";
+         log.debug(ManagedConnectionPoolUtility.details(method, pool.getName(),
+                                                        pool.getInternalStatistics().getInUseCount(), maxSize));
+      }
+
+      while (!pool.isFull())
+      {
+         // Get a permit - avoids a race when the pool is nearly full
+         // Also avoids unnecessary fill checking when all connections are
+         // checked out
+         try
+         {
+            long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+            if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+            {
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
+               try
+               {
+                  if (!isRunning())
+                  {
+                     return;
+                  }
+
+                  // We already have enough connections, or other fillers are creating them
+                  if (!reserveFill(size))
+                  {
+                     return;
+                  }
+
+                  // Create a connection to fill the pool
+                  try
+                  {
+                     // this increments pool size
+                     final ConnectionListener cl = createConnectionEventListener(defaultSubject, defaultCri);
+
+                     if (Tracer.isEnabled())
+                        Tracer.createConnectionListener(pool.getName(), this, cl, cl.getManagedConnection(),
+                                                        false, true, false,
+                                                        Tracer.isRecordCallstacks() ?
+                                                        new Throwable("CALLSTACK") : null);
+
+                     // we need to add clw before checking for pool size; if we exceeded pool size, removing without
+                     // adding will cause pool size to not be decremented at removeConnectionListenerFromPool
+                     final ConnectionListenerWrapper clw = addAvailable(cl);
+
+                     // We have to add 1, since poolSize is already incremented
+                     if (isSize(size + 1))
+                     {
+                        if (Tracer.isEnabled())
+                           Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, false, false,
+                                                            false, true, false,
+                                                            Tracer.isRecordCallstacks() ?
+                                                            new Throwable("CALLSTACK") : null);
+                        removeConnectionListenerFromPool(clw);
+                        cl.destroy();
+                        return;
+                     }
+                     log.tracef("Filling pool cl=%s", cl);
+
+                     if (pool.getInternalStatistics().isEnabled())
+                        pool.getInternalStatistics().deltaFilledCount();
+                  }
+                  catch (ResourceException re)
+                  {
+                     log.unableFillPool(re, cm.getJndiName());
+                     return;
+                  }
+                  finally
+                  {
+                     releaseFill();
+                  }
+               }
+               finally
+               {
+                  pool.getLock().release();
+               }
+            }
+         }
+         catch (InterruptedException ignored)
+         {
+            Thread.interrupted();
+
+            log.trace("Interrupted while requesting permit in fillTo");
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void increaseCapacity(Subject subject, ConnectionRequestInfo cri)
+   {
+      // We have already created one connection when this method is scheduled
+      int created = 1;
+      boolean create = true;
+
+      while (create && !pool.isFull())
+      {
+         try
+         {
+            long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+            if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+            {
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
+               try
+               {
+                  if (!isRunning())
+                  {
+                     return;
+                  }
+
+                  create = pool.getCapacity().getIncrementer().shouldCreate(poolSize.get(),
+                                                                            poolConfiguration.getMaxSize(), created);
+
+                  if (create)
+                  {
+                     pool.getInternalStatistics().deltaFillingCount(1);
+                     try
+                     {
+                        // this increments pool size
+                        final ConnectionListener cl = createConnectionEventListener(subject, cri);
+
+                        if (Tracer.isEnabled())
+                           Tracer.createConnectionListener(pool.getName(), this, cl, cl.getManagedConnection(),
+                                                           false, false, true,
+                                                           Tracer.isRecordCallstacks() ?
+                                                           new Throwable("CALLSTACK") : null);
+
+                        final ConnectionListenerWrapper clw = addAvailable(cl);
+
+                        // We have to add 1, since poolSize is already incremented
+                        if (isSize(poolConfiguration.getMaxSize() + 1))
+                        {
+                           // maximum size of pool is reached, destroy the connection, remove it, and return
+                           if (Tracer.isEnabled())
+                              Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, true, false,
+                                                               false, false, true,
+                                                               Tracer.isRecordCallstacks() ?
+                                                               new Throwable("CALLSTACK") : null);
+
+                           removeConnectionListenerFromPool(clw);
+                           cl.destroy();
+                           return;
+                        }
+                        else
+                        {
+                           log.tracef("Capacity fill: cl=%s", cl);
+
+                           if (pool.getInternalStatistics().isEnabled())
+                              pool.getInternalStatistics().deltaFilledCount();
+                           created++;
+                        }
+                     }
+                     catch (ResourceException re)
+                     {
+                        log.unableFillPool(re, cm.getJndiName());
+                        return;
+                     }
+                     finally
+                     {
+                        pool.getInternalStatistics().deltaFillingCount(-1);
+                     }
+                  }
+               }
+               finally
+               {
+                  pool.getLock().release();
+               }
+            }
+         }
+         catch (InterruptedException ignored)
+         {
+            Thread.interrupted();
+
+            log.trace("Interrupted while requesting permit in increaseCapacity");
+         }
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void addConnectionListener(ConnectionListener cl)
+   {
+      addAvailable(cl);
+      poolSize.incrementAndGet();
+
+      if (pool.getInternalStatistics().isEnabled())
+         pool.getInternalStatistics().deltaCreatedCount();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener removeConnectionListener()
+   {
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                    ConnectionListenerWrapper.STATE_RESERVED))
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaDestroyedCount();
+
+            removeConnectionListenerFromPool(clw);
+            return clw.getConnectionListener();
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Add an available connection listener to the pool
+    * @param cl The connection listener
+    * @return The wrapper
+    */
+   private ConnectionListenerWrapper addAvailable(ConnectionListener cl)
+   {
+      ConnectionListenerWrapper clw =
+         new ConnectionListenerWrapper(cl, ConnectionListenerWrapper.STATE_AVAILABLE, false);
+      cls.put(cl, clw);
+      shared.add(clw);
+      return clw;
+   }
+
+   /**
+    * Create a connection event listener
+    *
+    * @param subject
+    *            the subject
+    * @param cri
+    *            the connection request information
+    * @return the new listener
+    * @throws ResourceException
+    *             for any error
+    */
+   private ConnectionListener createConnectionEventListener(Subject subject, ConnectionRequestInfo cri)
+      throws ResourceException
+   {
+      long start = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+
+      ManagedConnection mc = mcf.createManagedConnection(subject, cri);
+
+      if (pool.getInternalStatistics().isEnabled())
+      {
+         pool.getInternalStatistics().deltaTotalCreationTime(System.currentTimeMillis() - start);
+         pool.getInternalStatistics().deltaCreatedCount();
+      }
+      try
+      {
+         ConnectionListener cl = cm.createConnectionListener(mc, this);
+         poolSize.incrementAndGet();
+         return cl;
+      }
+      catch (ResourceException re)
+      {
+         if (pool.getInternalStatistics().isEnabled())
+            pool.getInternalStatistics().deltaDestroyedCount();
+         mc.destroy();
+         throw re;
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void connectionListenerDestroyed(ConnectionListener cl)
+   {
+      if (pool.getInternalStatistics().isEnabled())
+         pool.getInternalStatistics().deltaDestroyedCount();
+   }
+
+   /**
+    * Remove Connection Listener from pool and update counters.
+    *
+    * Only the first call for a wrapper has an effect
+    * @param clw The wrapper
+    */
+   private void removeConnectionListenerFromPool(ConnectionListenerWrapper clw)
+   {
+      if (clw.remove())
+      {
+         shared.remove(clw);
+         cls.remove(clw.getConnectionListener());
+         poolSize.decrementAndGet();
+      }
+
+      prefill();
+   }
+
+   /**
+    * Should any connections be removed from the pool
+    *
+    * @return True if connections should be removed; otherwise false
+    */
+   private boolean shouldRemove()
+   {
+      boolean remove = true;
+
+      if (poolConfiguration.isStrictMin() && pool instanceof PrefillPool)
+      {
+         // Add 1 to min-pool-size since it is strict
+         remove = isSize(poolConfiguration.getMinSize() + 1);
+
+         log.tracef("StrictMin is active. Current connection will be removed is %b", remove);
+      }
+
+      return remove;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void validateConnections() throws Exception
+   {
+      log.tracef("Attempting to validate connections for pool %s", this);
+
+      if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+      {
+         final AtomicBoolean anyDestroyed = new AtomicBoolean(false);
+         final Iterator<ConnectionListenerWrapper> candidates = shared.iterator();
+         ValidationPass pass = new ValidationPass(poolConfiguration.getValidationConcurrency(),
+                                                  poolConfiguration.getValidationBudget());
+
+         try
+         {
+            pass.run(new ValidationPass.Source()
+            {
+               public Runnable next()
+               {
+                  while (candidates.hasNext())
+                  {
+                     final ConnectionListenerWrapper clw = candidates.next();
+
+                     if ((System.currentTimeMillis() - clw.getConnectionListener().getLastValidatedTime()) <
+                         poolConfiguration.getBackgroundValidationMillis())
+                        continue;
+
+                     if (!clw.compareAndSetState(ConnectionListenerWrapper.STATE_AVAILABLE,
+                                                 ConnectionListenerWrapper.STATE_RESERVED))
+                        continue;
+
+                     return new Runnable()
+                     {
+                        public void run()
+                        {
+                           if (validateConnection(clw))
+                              anyDestroyed.set(true);
+                        }
+                     };
+                  }
+
+                  return null;
+               }
+            });
+         }
+         finally
+         {
+            pool.getLock().release();
+
+            pool.getInternalStatistics().deltaValidationPass(pass.getDuration(), pass.isBudgetExceeded());
+
+            if (anyDestroyed.get())
+               prefill();
+         }
+      }
+   }
+
+   /**
+    * Validate a connection reserved for background validation
+    * @param clw The connection listener wrapper
+    * @return True if the connection was destroyed, otherwise it is made available again
+    */
+   private boolean validateConnection(ConnectionListenerWrapper clw)
+   {
+      ConnectionListener cl = clw.getConnectionListener();
+      boolean destroyed = false;
+
+      try
+      {
+         if (mcf instanceof ValidatingManagedConnectionFactory)
+         {
+            ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+            Set candidateSet = vcf.getInvalidConnections(Collections.singleton(cl.getManagedConnection()));
+
+            if (((candidateSet != null && candidateSet.size() > 0) || !isRunning()) &&
+                cl.getState() != ConnectionState.DESTROY)
+            {
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                                  cl.getLastReturnedTime());
+
+               if (Tracer.isEnabled())
+                  Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                                   false, false, true, false, false, false, false,
+                                                   Tracer.isRecordCallstacks() ?
+                                                   new Throwable("CALLSTACK") : null);
+
+               removeConnectionListenerFromPool(clw);
+               cl.destroy();
+               destroyed = true;
+            }
+         }
+         else
+         {
+            log.backgroundValidationNonCompliantManagedConnectionFactory();
+         }
+      }
+      catch (Exception re)
+      {
+         if (pool.getInternalStatistics().isEnabled())
+            pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                            cl.getLastReturnedTime());
+
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                             false, false, false, false, true, false, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+
+         removeConnectionListenerFromPool(clw);
+         cl.destroy();
+         destroyed = true;
+
+         log.connectionValidatorIgnoredUnexpectedError(re);
+      }
+      finally
+      {
+         if (!destroyed)
+         {
+            cl.setLastValidatedTime(System.currentTimeMillis());
+            clw.compareAndSetState(ConnectionListenerWrapper.STATE_RESERVED,
+                                   ConnectionListenerWrapper.STATE_AVAILABLE);
+         }
+      }
+
+      return destroyed;
+   }
+
+   /**
+    * Get the pool name
+    * @return The value
+    */
+   String getPoolName()
+   {
+      if (pool == null)
+         return "";
+
+      return pool.getName();
+   }
+
+   /**
+    * Get the checked out connection listeners
+    * @return The value
+    */
+   private SortedSet<ConnectionListener> getCheckedOut()
+   {
+      SortedSet<ConnectionListener> checkedOut = new TreeSet<ConnectionListener>();
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.isCheckedOut())
+            checkedOut.add(clw.getConnectionListener());
+      }
+      return checkedOut;
+   }
+
+   /**
+    * Log the full details of the pool
+    * @param method The method
+    * @param subject The subject
+    * @param cri The connection request information
+    */
+   private void logFullDetails(String method, Subject subject, ConnectionRequestInfo cri)
+   {
+      SortedSet<ConnectionListener> checkedOut = new TreeSet<ConnectionListener>();
+      SortedSet<ConnectionListener> available = new TreeSet<ConnectionListener>();
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         if (clw.isCheckedOut())
+            checkedOut.add(clw.getConnectionListener());
+         else
+            available.add(clw.getConnectionListener());
+      }
+      log.trace(ManagedConnectionPoolUtility.fullDetails(this, method, mcf, cm, pool,
+                                                         poolConfiguration, available, checkedOut,
+                                                         pool.getInternalStatistics(), subject, cri));
+   }
+
+   /**
+    * Check if the resource adapter supports lazy association
+    */
+   private void checkLazyAssociation()
+   {
+      ConnectionListener cl = null;
+
+      if (shared.size() > 0)
+      {
+         try
+         {
+            cl = shared.get(0).getConnectionListener();
+         }
+         catch (IndexOutOfBoundsException ioobe)
+         {
+            // Removed in the meantime
+         }
+      }
+
+      if (cl != null)
+      {
+         if (cl.supportsLazyAssociation())
+         {
+            if (debug)
+               log.debug("Enable lazy association support for: " + pool.getName());
+
+            supportsLazyAssociation = Boolean.TRUE;
+         }
+         else
+         {
+            if (debug)
+               log.debug("Disable lazy association support for: " + pool.getName());
+
+            supportsLazyAssociation = Boolean.FALSE;
+         }
+      }
+   }
+
+   /**
+    * Detach connection listener
+    *
+    * @return The outcome
+    */
+   private boolean detachConnectionListener()
+   {
+      ConnectionListener toDetach = null;
+      for (ConnectionListenerWrapper clw : shared)
+      {
+         ConnectionListener cl = clw.getConnectionListener();
+         if (clw.isCheckedOut() && !cl.isEnlisted() &&
+             cl.getManagedConnection() instanceof DissociatableManagedConnection)
+         {
+            toDetach = cl;
+            break;
+         }
+      }
+
+      if (toDetach == null)
+      {
+         return false;
+      }
+
+      try
+      {
+         log.tracef("Detach: %s", toDetach);
+
+         DissociatableManagedConnection dmc = (DissociatableManagedConnection) toDetach.getManagedConnection();
+         dmc.dissociateConnections();
+
+         toDetach.unregisterConnections();
+
+         if (Tracer.isEnabled())
+         {
+            Tracer.returnConnectionListener(pool.getName(), this, toDetach, false, pool.isInterleaving(),
+                                            Tracer.isRecordCallstacks() ? new Throwable("CALLSTACK") : null);
+         }
+         returnConnection(toDetach, false, false);
+         return true;
+      }
+      catch (Throwable t)
+      {
+         // Ok - didn't work; nuke it and disable
+         if (debug)
+         {
+            log.debug("Exception during detach for: " + pool.getName(), t);
+         }
+
+         supportsLazyAssociation = Boolean.FALSE;
+
+         if (Tracer.isEnabled())
+         {
+            Tracer.returnConnectionListener(pool.getName(), this, toDetach, true, pool.isInterleaving(),
+                                            Tracer.isRecordCallstacks() ? new Throwable("CALLSTACK") : null);
+         }
+
+         returnConnection(toDetach, true, true);
+      }
+
+      return false;
+   }
+
+   /**
+    * String representation
+    *
+    * @return The string
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("SemaphoreConcurrentBagManagedConnectionPool@");
+      sb.append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[pool=").append(pool.getName());
+      sb.append("]");
+
+      return sb.toString();
+   }
+
+   /** Orders wrappers by the time their connection listener was returned */
+   private static final Comparator<ConnectionListenerWrapper> LAST_RETURNED =
+      new Comparator<ConnectionListenerWrapper>()
+      {
+         public int compare(ConnectionListenerWrapper o1, ConnectionListenerWrapper o2)
+         {
+            return Long.compare(o1.getConnectionListener().getLastReturnedTime(),
+                                o2.getConnectionListener().getLastReturnedTime());
+         }
+      };
+
+   /**
+    * Connection Listener wrapper holding the pool state of a connection listener
+    *
+    * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+    */
+   static class ConnectionListenerWrapper
+   {
+      /** Removed from the pool */
+      static final int STATE_REMOVED = -1;
+
+      /** Available for checkout */
+      static final int STATE_AVAILABLE = 0;
+
+      /** Checked out */
+      static final int STATE_IN_USE = 1;
+
+      /** Reserved by the pool for validation, idle removal or flush */
+      static final int STATE_RESERVED = 2;
+
+      private static final AtomicIntegerFieldUpdater<ConnectionListenerWrapper> STATE =
+         AtomicIntegerFieldUpdater.newUpdater(ConnectionListenerWrapper.class, "state");
+
+      private static final AtomicIntegerFieldUpdater<ConnectionListenerWrapper> PERMIT =
+         AtomicIntegerFieldUpdater.newUpdater(ConnectionListenerWrapper.class, "permit");
+
+      private final ConnectionListener cl;
+      private final WeakReference<ConnectionListenerWrapper> reference;
+      private volatile int state;
+      private volatile int permit;
+
+      /**
+       * Constructor
+       *
+       * @param connectionListener wrapped Connection Listener
+       * @param state The initial state
+       * @param hasPermit does connection listener have a permit
+       */
+      ConnectionListenerWrapper(ConnectionListener connectionListener, int state, boolean hasPermit)
+      {
+         this.cl = connectionListener;
+         this.reference = new WeakReference<ConnectionListenerWrapper>(this);
+         this.state = state;
+         this.permit = hasPermit ? 1 : 0;
+      }
+
+      /**
+       * Get wrapped Connection Listener
+       *
+       * @return Wrapped Connection Listener
+       */
+      ConnectionListener getConnectionListener()
+      {
+         return cl;
+      }
+
+      /**
+       * Get a weak reference to this wrapper, allocated once
+       *
+       * @return The reference
+       */
+      WeakReference<ConnectionListenerWrapper> getReference()
+      {
+         return reference;
+      }
+
+      /**
+       * Get the state
+       *
+       * @return The value
+       */
+      int getState()
+      {
+         return state;
+      }
+
+      /**
+       * Set the state
+       *
+       * @param state The value
+       */
+      void setState(int state)
+      {
+         this.state = state;
+      }
+
+      /**
+       * Change the state
+       *
+       * @param expect The expected state
+       * @param update The new state
+       * @return True if changed; otherwise false
+       */
+      boolean compareAndSetState(int expect, int update)
+      {
+         return state == expect && STATE.compareAndSet(this, expect, update);
+      }
+
+      /**
+       * Mark the wrapper as removed
+       *
+       * @return True if this call removed the wrapper; otherwise false
+       */
+      boolean remove()
+      {
+         return STATE.getAndSet(this, STATE_REMOVED) != STATE_REMOVED;
+      }
+
+      /**
+       * Is Connection Listener checked out
+       *
+       * @return Connection Listener is checked out
+       */
+      boolean isCheckedOut()
+      {
+         return state == STATE_IN_USE;
+      }
+
+      /**
+       * Set whether Connection Listener has permit
+       *
+       * @param hasPermit does connection listener have a permit
+       */
+      void setHasPermit(boolean hasPermit)
+      {
+         this.permit = hasPermit ? 1 : 0;
+      }
+
+      /**
+       * Give up the permit of the Connection Listener
+       *
+       * @return True if the caller must release the permit; otherwise false
+       */
+      boolean releasePermit()
+      {
+         return permit == 1 && PERMIT.compareAndSet(this, 1, 0);
+      }
+   }
+}
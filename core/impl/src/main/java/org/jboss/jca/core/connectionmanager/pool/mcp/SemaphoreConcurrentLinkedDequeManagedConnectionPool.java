@@ -37,22 +37,29 @@ import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutFIFODecrementer;
 import org.jboss.jca.core.connectionmanager.pool.idle.IdleRemover;
 import org.jboss.jca.core.connectionmanager.pool.validator.ConnectionValidator;
+import org.jboss.jca.core.connectionmanager.pool.validator.ValidationPass;
 import org.jboss.jca.core.tracer.Tracer;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 
 import jakarta.resource.ResourceException;
 import jakarta.resource.spi.ConnectionRequestInfo;
@@ -116,12 +123,21 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
    /** all connection event listeners */
    private Map<ConnectionListener, ConnectionListenerWrapper> cls;
 
+   /** The connection listener each thread returned last; <code>null</code> if thread affinity is disabled */
+   private ThreadLocal<WeakReference<ConnectionListenerWrapper>> lastReturned;
+
+   /** Callers waiting for a background creation; <code>null</code> if connections are created by the caller */
+   private ConcurrentLinkedQueue<ConnectionRequest> requests;
+
    /** Current pool size **/
    private AtomicInteger poolSize = new AtomicInteger();
 
    /** Current checked out connections **/
    private AtomicInteger checkedOutSize = new AtomicInteger();
 
+   /** Connections being created by the fillers */
+   private AtomicInteger filling = new AtomicInteger();
+
    /** Supports lazy association */
    private Boolean supportsLazyAssociation;
 
@@ -134,6 +150,10 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
    private boolean poolValidationLoggingEnabled = true;
 
    private static boolean disableLazyAssociation;
+
+   private static boolean affinity;
+
+   private static boolean asyncCreation;
    static
    {
       String value = SecurityActions.getSystemProperty("ironjacamar.disable_lazy_association");
@@ -148,6 +168,18 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
             disableLazyAssociation = false;
          }
       }
+
+      value = SecurityActions.getSystemProperty("ironjacamar.mcp.affinity");
+      if (value != null && !value.trim().equals(""))
+      {
+         affinity = Boolean.valueOf(value.trim());
+      }
+
+      value = SecurityActions.getSystemProperty("ironjacamar.mcp.async_creation");
+      if (value != null && !value.trim().equals(""))
+      {
+         asyncCreation = Boolean.valueOf(value.trim());
+      }
    }
 
    /**
@@ -188,6 +220,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       this.debug = log.isDebugEnabled();
       this.clq = new ConcurrentLinkedDeque<ConnectionListenerWrapper>();
       this.cls = new ConcurrentHashMap<ConnectionListener, ConnectionListenerWrapper>();
+      this.lastReturned = affinity && !fifo ? new ThreadLocal<WeakReference<ConnectionListenerWrapper>>() : null;
+      this.requests = asyncCreation ? new ConcurrentLinkedQueue<ConnectionRequest>() : null;
       this.poolSize.set(0);
       this.checkedOutSize.set(0);
       this.supportsLazyAssociation = null;
@@ -197,7 +231,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       // Schedule managed connection pool for prefill
       if ((pc.isPrefill() || pc.isStrictMin()) && p instanceof PrefillPool && pc.getInitialSize() > 0) 
       {
-         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize()));
+         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize(), pc.getFillConcurrency()));
       }
 
       if (poolConfiguration.getIdleTimeoutMinutes() > 0) 
@@ -270,6 +304,38 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       return poolSize.get() >= size;
    }
 
+   /**
+    * Reserve the creation of a connection by a filler
+    * 
+    * @param size The size the pool is filled to
+    * @return True if reserved; false if the pool has, or will have, enough connections
+    */
+   private boolean reserveFill(int size)
+   {
+      while (true)
+      {
+         int current = filling.get();
+
+         if (isSize(size - current))
+            return false;
+
+         if (filling.compareAndSet(current, current + 1))
+         {
+            pool.getInternalStatistics().deltaFillingCount(1);
+            return true;
+         }
+      }
+   }
+
+   /**
+    * Release a reservation made by reserveFill
+    */
+   private void releaseFill()
+   {
+      filling.decrementAndGet();
+      pool.getInternalStatistics().deltaFillingCount(-1);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -279,7 +345,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
           (poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) && 
           pool instanceof PrefillPool && 
           poolConfiguration.getMinSize() > 0)
-         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize()));
+         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize(),
+                                             poolConfiguration.getFillConcurrency()));
    }
 
    /**
@@ -343,6 +410,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       }
 
       long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+      long deadline = requests != null ?
+         System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(poolConfiguration.getBlockingTimeout()) : 0L;
       try 
       {
          if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
@@ -350,275 +419,634 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
             if (pool.getInternalStatistics().isEnabled())
                pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
 
-            // We have a permit to get a connection. Is there one in the pool already?
+            // We have a permit to get a connection. Did this thread return one recently?
+            ConnectionListener cl = null;
+            if (lastReturned != null && !poolConfiguration.isValidateOnMatch())
+               cl = getLastReturned(subject, cri, startWait);
+
+            // Is there one in the pool already?
+            if (cl == null)
+               cl = getFromPool(subject, cri, startWait);
+
+            if (cl != null)
+               return cl;
+
+            // Have the connection created in the background, and take whichever
+            // connection becomes available first
+            if (requests != null)
+            {
+               cl = getFromCreator(subject, cri, startWait, deadline);
+
+               if (cl != null)
+                  return cl;
+            }
+
+            // OK, we couldnt find a working connection from the pool. Make
+            // a new one.
             ConnectionListenerWrapper clw = null;
-            do 
+            try 
             {
-               if (!isRunning()) 
-               {
-                  pool.getLock().release();
+               // No, the pool was empty, so we have to make a new one.
+               clw = new ConnectionListenerWrapper(createConnectionEventListener(subject, cri), true, true);
 
-                  throw new ResourceException(
-                     bundle.thePoolHasBeenShutdown(pool.getName(),
-                                                   Integer.toHexString(System.identityHashCode(this))));
+               if (Tracer.isEnabled())
+                  Tracer.createConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                  clw.getConnectionListener().getManagedConnection(),
+                                                  true, false, false,
+                                                  Tracer.isRecordCallstacks() ?
+                                                  new Throwable("CALLSTACK") : null);
+
+               clw.setCheckedOut(true);
+               checkedOutSize.incrementAndGet();
+
+               if (lastReturned != null)
+                  clw.setCredentials(subject, cri);
+
+               cls.put(clw.getConnectionListener(), clw);
+
+               log.tracef("supplying new ManagedConnection: %s", clw.getConnectionListener());
+
+               lastUsed = System.currentTimeMillis();
+
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+
+               prefill();
+
+               // Trigger capacity increase
+               if (pool.getCapacity().getIncrementer() != null)
+                  CapacityFiller.schedule(new CapacityRequest(this, subject, cri));
+
+               if (Tracer.isEnabled())
+                  Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(), false, 
+                                               pool.isInterleaving(),
+                                               Tracer.isRecordCallstacks() ?
+                                               new Throwable("CALLSTACK") : null);
+
+               return clw.getConnectionListener();
+            } 
+            catch (Throwable t) 
+            {
+               if (clw != null || !(t instanceof RetryableException))
+                  log.throwableWhileAttemptingGetNewGonnection(clw != null ? clw.getConnectionListener() : null, t);
+
+               // Return permit and rethrow
+               if (clw != null) 
+               {
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                      false, false, false, false, true, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  clw.getConnectionListener().destroy();
                }
 
-               if (fifo)
+               pool.getLock().release();
+
+               if (t instanceof ResourceException)
                {
-                  clw = clq.pollFirst();
+                  throw (ResourceException)t;
                }
                else
                {
-                  clw = clq.pollLast();
+                  throw new ResourceException(
+                     bundle.unexpectedThrowableWhileTryingCreateConnection(
+                             clw != null ? clw.getConnectionListener() : null), t);
                }
+            }
+         } 
+         else 
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaBlockingFailureCount();
 
+            // We timed out
+            throw new ResourceException(
+               bundle.noMManagedConnectionsAvailableWithinConfiguredBlockingTimeout(
+                  poolConfiguration.getBlockingTimeout()));
+         }
 
-               if (clw != null) 
+      } 
+      catch (InterruptedException ie) 
+      {
+         Thread.interrupted();
+
+         long end = pool.getInternalStatistics().isEnabled() ? (System.currentTimeMillis() - startWait) : 0L;
+         pool.getInternalStatistics().deltaTotalBlockingTime(end);
+         throw new ResourceException(bundle.interruptedWhileRequestingPermit(end));
+      } 
+   }
+
+   /**
+    * Have a connection listener created in the background, and wait for it or
+    * a returned connection listener, whichever becomes available first
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param startWait The time the request started waiting
+    * @param deadline The end of the blocking timeout, in nanoseconds
+    * @return The connection listener; <code>null</code> if all creator threads are busy, and the
+    *         connection should be created by the caller
+    * @exception ResourceException Thrown if a connection listener couldn't be obtained
+    */
+   private ConnectionListener getFromCreator(Subject subject, ConnectionRequestInfo cri, long startWait,
+                                             long deadline)
+      throws ResourceException
+   {
+      ConnectionRequest request = new ConnectionRequest(subject, cri);
+      requests.add(request);
+      try
+      {
+         if (!ConnectionCreator.schedule(request))
+            return null;
+
+         while (true)
+         {
+            Object outcome = request.getOutcome();
+
+            if (outcome instanceof ConnectionListenerWrapper)
+            {
+               ConnectionListenerWrapper clw = (ConnectionListenerWrapper)outcome;
+
+               clw.setHasPermit(true);
+
+               if (lastReturned != null)
+                  clw.setCredentials(subject, cri);
+
+               log.tracef("supplying new ManagedConnection: %s", clw.getConnectionListener());
+
+               lastUsed = System.currentTimeMillis();
+
+               if (pool.getInternalStatistics().isEnabled())
+                  pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+
+               if (Tracer.isEnabled())
+                  Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(), false, 
+                                               pool.isInterleaving(),
+                                               Tracer.isRecordCallstacks() ?
+                                               new Throwable("CALLSTACK") : null);
+
+               return clw.getConnectionListener();
+            }
+            else if (outcome != null)
+            {
+               Throwable t = (Throwable)outcome;
+
+               if (!(t instanceof RetryableException))
+                  log.throwableWhileAttemptingGetNewGonnection(null, t);
+
+               pool.getLock().release();
+
+               if (t instanceof ResourceException)
+                  throw (ResourceException)t;
+
+               throw new ResourceException(bundle.unexpectedThrowableWhileTryingCreateConnection(null), t);
+            }
+
+            // A connection may have been returned in the meantime
+            ConnectionListener cl = null;
+            try
+            {
+               if (!clq.isEmpty())
+                  cl = getFromPool(subject, cri, startWait);
+            }
+            catch (ResourceException re)
+            {
+               if (!request.cancel() && request.getOutcome() instanceof ConnectionListenerWrapper)
+                  addCreated((ConnectionListenerWrapper)request.getOutcome());
+
+               throw re;
+            }
+
+            if (cl != null)
+            {
+               // The creation may have finished at the same time
+               if (!request.cancel() && request.getOutcome() instanceof ConnectionListenerWrapper)
+                  addCreated((ConnectionListenerWrapper)request.getOutcome());
+
+               return cl;
+            }
+
+            if (Thread.interrupted())
+            {
+               if (request.cancel())
                {
-                  Lock connectionLock = clw.getConnectionListener().getLock();
-                  try
-                  {
-                     connectionLock.lock();
-                     if(clw.getConnectionListener().getState().equals(ConnectionState.DESTROY) ||
-                           clw.getConnectionListener().getState().equals(ConnectionState.DESTROYED) ||
-                           clw.getConnectionListener().getState().equals(ConnectionState.TO_BE_DESTROYED))
-                     {
-                        continue;
-                     }
-                     clw.setCheckedOut(true);
-                     checkedOutSize.incrementAndGet();
+                  pool.getLock().release();
 
-                     // Yes, we retrieved a ManagedConnection from the pool.
-                     // Does it match?
-                     try
-                     {
-                        Object matchedMC = mcf.matchManagedConnections(Collections.singleton(
-                           clw.getConnectionListener().getManagedConnection()), subject, cri);
+                  long end = pool.getInternalStatistics().isEnabled() ? (System.currentTimeMillis() - startWait) : 0L;
+                  throw new ResourceException(bundle.interruptedWhileRequestingPermit(end));
+               }
 
-                        boolean valid = true;
+               // It has been created, so hand it out
+               Thread.currentThread().interrupt();
+               continue;
+            }
 
-                        if (matchedMC != null)
-                        {
-                           if (poolConfiguration.isValidateOnMatch())
-                           {
-                              if (mcf instanceof ValidatingManagedConnectionFactory)
-                              {
-                                 try
-                                 {
-                                    ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
-                                    Set candidateSet =
-                                       Collections.singleton(clw.getConnectionListener().getManagedConnection());
-                                    candidateSet = vcf.getInvalidConnections(candidateSet);
-
-                                    if (candidateSet != null && candidateSet.size() > 0)
-                                    {
-                                       valid = false;
-                                    }
-                                 }
-                                 catch (Throwable t)
-                                 {
-                                    valid = false;
-                                    if (log.isTraceEnabled())
-                                       log.trace("Exception while ValidateOnMatch: " + t.getMessage(), t);
-                                 }
-                              }
-                              else
-                              {
-                                 log.validateOnMatchNonCompliantManagedConnectionFactory(mcf.getClass().getName());
-                              }
-                           }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+            {
+               if (request.cancel())
+               {
+                  pool.getLock().release();
 
-                           if (valid)
-                           {
-                              log.tracef("supplying ManagedConnection from pool: %s", clw.getConnectionListener());
+                  if (pool.getInternalStatistics().isEnabled())
+                     pool.getInternalStatistics().deltaBlockingFailureCount();
 
-                              lastUsed = System.currentTimeMillis();
-                              clw.getConnectionListener().setLastCheckedOutTime(lastUsed);
+                  // We timed out; the connection listener ends up in the pool once created
+                  throw new ResourceException(
+                     bundle.noMManagedConnectionsAvailableWithinConfiguredBlockingTimeout(
+                        poolConfiguration.getBlockingTimeout()));
+               }
 
-                              if (pool.getInternalStatistics().isEnabled())
-                              {
-                                 pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
-                                 pool.getInternalStatistics().deltaTotalPoolTime(lastUsed -
-                                    clw.getConnectionListener().getLastReturnedTime());
-                              }
+               // It has been created, so hand it out
+               continue;
+            }
 
-                              if (Tracer.isEnabled())
-                                 Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                              true, pool.isInterleaving(),
-                                                              Tracer.isRecordCallstacks() ?
-                                                              new Throwable("CALLSTACK") : null);
+            request.await(remaining);
+         }
+      }
+      finally
+      {
+         requests.remove(request);
+      }
+   }
 
-                              clw.setHasPermit(true);
+   /**
+    * Create a connection listener for a waiting caller; invoked by the connection creator
+    * @param request The request
+    */
+   private void createConnectionListener(ConnectionRequest request)
+   {
+      // Already served by a returned connection listener
+      if (!request.isPending())
+         return;
 
-                              return clw.getConnectionListener();
-                           }
-                        }
+      if (!isRunning())
+      {
+         request.complete(new ResourceException(
+            bundle.thePoolHasBeenShutdown(pool.getName(),
+                                          Integer.toHexString(System.identityHashCode(this)))));
+         return;
+      }
 
-                        // Match did not succeed but no exception was
-                        // thrown.
-                        // Either we have the matching strategy wrong or the
-                        // connection died while being checked. We need to
-                        // distinguish these cases, but for now we always
-                        // destroy the connection.
-                        if (valid)
-                        {
-                           log.destroyingConnectionNotSuccessfullyMatched(clw.getConnectionListener());
-                        }
-                        else
+      ConnectionListenerWrapper clw = null;
+      try
+      {
+         clw = new ConnectionListenerWrapper(createConnectionEventListener(request.getSubject(), request.getCri()),
+                                             true, false);
+      }
+      catch (Throwable t)
+      {
+         if (!request.complete(t) && !(t instanceof RetryableException))
+            log.throwableWhileAttemptingGetNewGonnection(null, t);
+
+         return;
+      }
+
+      if (Tracer.isEnabled())
+         Tracer.createConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                         clw.getConnectionListener().getManagedConnection(),
+                                         true, false, false,
+                                         Tracer.isRecordCallstacks() ?
+                                         new Throwable("CALLSTACK") : null);
+
+      checkedOutSize.incrementAndGet();
+      cls.put(clw.getConnectionListener(), clw);
+
+      if (!request.complete(clw))
+         addCreated(clw);
+
+      prefill();
+
+      // Trigger capacity increase
+      if (pool.getCapacity().getIncrementer() != null)
+         CapacityFiller.schedule(new CapacityRequest(this, request.getSubject(), request.getCri()));
+   }
+
+   /**
+    * Add a connection listener created for a caller, which was served by another
+    * connection listener, to the pool
+    * @param clw The wrapper
+    */
+   private void addCreated(ConnectionListenerWrapper clw)
+   {
+      ConnectionListener cl = clw.getConnectionListener();
+      boolean destroy = false;
+
+      Lock connectionLock = cl.getLock();
+      try
+      {
+         connectionLock.lock();
+
+         if (clw.isCheckedOut())
+         {
+            clw.setCheckedOut(false);
+            checkedOutSize.decrementAndGet();
+         }
+
+         if (!isRunning() || cl.getState() != ConnectionState.NORMAL ||
+             isSize(poolConfiguration.getMaxSize() + 1))
+         {
+            destroy = true;
+         }
+         else
+         {
+            cl.toPool();
+            clq.addLast(clw);
+         }
+      }
+      finally
+      {
+         connectionLock.unlock();
+      }
+
+      if (destroy)
+      {
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, cl,
+                                             false, false, false, false, false, true, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+         removeConnectionListenerFromPool(clw);
+         cl.destroy();
+      }
+      else
+      {
+         signalRequest();
+      }
+   }
+
+   /**
+    * Wake up a caller waiting for a background creation, since a connection listener is available
+    */
+   private void signalRequest()
+   {
+      for (ConnectionRequest request : requests)
+      {
+         if (request.isPending())
+         {
+            request.signal();
+            return;
+         }
+      }
+   }
+
+   /**
+    * Get a matching connection listener from the pool
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param startWait The time the request started waiting
+    * @return The connection listener; <code>null</code> if there is none
+    * @exception ResourceException Thrown if the pool has been shutdown
+    */
+   private ConnectionListener getFromPool(Subject subject, ConnectionRequestInfo cri, long startWait)
+      throws ResourceException
+   {
+      ConnectionListenerWrapper clw = null;
+      do 
+      {
+         if (!isRunning()) 
+         {
+            pool.getLock().release();
+
+            throw new ResourceException(
+               bundle.thePoolHasBeenShutdown(pool.getName(),
+                                             Integer.toHexString(System.identityHashCode(this))));
+         }
+
+         if (fifo)
+         {
+            clw = clq.pollFirst();
+         }
+         else
+         {
+            clw = clq.pollLast();
+         }
+
+
+         if (clw != null) 
+         {
+            Lock connectionLock = clw.getConnectionListener().getLock();
+            try
+            {
+               connectionLock.lock();
+               if(clw.getConnectionListener().getState().equals(ConnectionState.DESTROY) ||
+                     clw.getConnectionListener().getState().equals(ConnectionState.DESTROYED) ||
+                     clw.getConnectionListener().getState().equals(ConnectionState.TO_BE_DESTROYED))
+               {
+                  continue;
+               }
+               clw.setCheckedOut(true);
+               checkedOutSize.incrementAndGet();
+
+               // Yes, we retrieved a ManagedConnection from the pool.
+               // Does it match?
+               try
+               {
+                  Object matchedMC = mcf.matchManagedConnections(Collections.singleton(
+                     clw.getConnectionListener().getManagedConnection()), subject, cri);
+
+                  boolean valid = true;
+
+                  if (matchedMC != null)
+                  {
+                     if (poolConfiguration.isValidateOnMatch())
+                     {
+                        if (mcf instanceof ValidatingManagedConnectionFactory)
                         {
-                           if (poolValidationLoggingEnabled)
+                           try
                            {
-                              log.destroyingConnectionNotValidated(clw.getConnectionListener());
+                              ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+                              Set candidateSet =
+                                 Collections.singleton(clw.getConnectionListener().getManagedConnection());
+                              candidateSet = vcf.getInvalidConnections(candidateSet);
+
+                              if (candidateSet != null && candidateSet.size() > 0)
+                              {
+                                 valid = false;
+                              }
+                           }
+                           catch (Throwable t)
+                           {
+                              valid = false;
+                              if (log.isTraceEnabled())
+                                 log.trace("Exception while ValidateOnMatch: " + t.getMessage(), t);
                            }
                         }
-
-                        if (pool.getInternalStatistics().isEnabled())
+                        else
                         {
-                           pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                              clw.getConnectionListener().getLastReturnedTime());
+                           log.validateOnMatchNonCompliantManagedConnectionFactory(mcf.getClass().getName());
                         }
-
-                        if (Tracer.isEnabled())
-                           Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                            false, false, true, false, false, false, false,
-                                                            Tracer.isRecordCallstacks() ?
-                                                            new Throwable("CALLSTACK") : null);
-                        removeConnectionListenerFromPool(clw);
-                        clw.getConnectionListener().destroy();
-                        clw = null;
                      }
-                     catch (Throwable t)
+
+                     if (valid)
                      {
-                        log.throwableWhileTryingMatchManagedConnectionThenDestroyingConnection(
-                           clw.getConnectionListener(), t);
+                        log.tracef("supplying ManagedConnection from pool: %s", clw.getConnectionListener());
+
+                        lastUsed = System.currentTimeMillis();
+                        clw.getConnectionListener().setLastCheckedOutTime(lastUsed);
+
+                        if (lastReturned != null)
+                           clw.setCredentials(subject, cri);
 
                         if (pool.getInternalStatistics().isEnabled())
                         {
-                           pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                           pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+                           pool.getInternalStatistics().deltaTotalPoolTime(lastUsed -
                               clw.getConnectionListener().getLastReturnedTime());
                         }
 
                         if (Tracer.isEnabled())
-                           Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                            false, false, false, false, true, false, false,
-                                                            Tracer.isRecordCallstacks() ?
-                                                            new Throwable("CALLSTACK") : null);
-                        removeConnectionListenerFromPool(clw);
-                        clw.getConnectionListener().destroy();
-                        clw = null;
+                           Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                        true, pool.isInterleaving(),
+                                                        Tracer.isRecordCallstacks() ?
+                                                        new Throwable("CALLSTACK") : null);
+
+                        clw.setHasPermit(true);
+
+                        return clw.getConnectionListener();
                      }
+                  }
 
-                     // We made it here, something went wrong and we should
-                     // validate
-                     // if we should continue attempting to acquire a
-                     // connection
-                     if (poolConfiguration.isUseFastFail())
+                  // Match did not succeed but no exception was
+                  // thrown.
+                  // Either we have the matching strategy wrong or the
+                  // connection died while being checked. We need to
+                  // distinguish these cases, but for now we always
+                  // destroy the connection.
+                  if (valid)
+                  {
+                     log.destroyingConnectionNotSuccessfullyMatched(clw.getConnectionListener());
+                  }
+                  else
+                  {
+                     if (poolValidationLoggingEnabled)
                      {
-                        if (log.isTraceEnabled())
-                           log.trace("Fast failing for connection attempt. No more attempts will be made to "
-                                 + "acquire connection from pool and a new connection will be created immeadiately");
-                        break;
+                        log.destroyingConnectionNotValidated(clw.getConnectionListener());
                      }
                   }
-                  finally
+
+                  if (pool.getInternalStatistics().isEnabled())
                   {
-                     connectionLock.unlock();
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                        clw.getConnectionListener().getLastReturnedTime());
                   }
-               }
-            }
-            while (clq.size() > 0);
-
-            // OK, we couldnt find a working connection from the pool. Make
-            // a new one.
-            try 
-            {
-               // No, the pool was empty, so we have to make a new one.
-               clw = new ConnectionListenerWrapper(createConnectionEventListener(subject, cri), true, true);
-
-               if (Tracer.isEnabled())
-                  Tracer.createConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                  clw.getConnectionListener().getManagedConnection(),
-                                                  true, false, false,
-                                                  Tracer.isRecordCallstacks() ?
-                                                  new Throwable("CALLSTACK") : null);
 
-               clw.setCheckedOut(true);
-               checkedOutSize.incrementAndGet();
-
-               cls.put(clw.getConnectionListener(), clw);
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                      false, false, true, false, false, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  clw.getConnectionListener().destroy();
+                  clw = null;
+               }
+               catch (Throwable t)
+               {
+                  log.throwableWhileTryingMatchManagedConnectionThenDestroyingConnection(
+                     clw.getConnectionListener(), t);
 
-               log.tracef("supplying new ManagedConnection: %s", clw.getConnectionListener());
+                  if (pool.getInternalStatistics().isEnabled())
+                  {
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                        clw.getConnectionListener().getLastReturnedTime());
+                  }
 
-               lastUsed = System.currentTimeMillis();
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                      false, false, false, false, true, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+                  removeConnectionListenerFromPool(clw);
+                  clw.getConnectionListener().destroy();
+                  clw = null;
+               }
 
-               if (pool.getInternalStatistics().isEnabled())
-                  pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+               // We made it here, something went wrong and we should
+               // validate
+               // if we should continue attempting to acquire a
+               // connection
+               if (poolConfiguration.isUseFastFail())
+               {
+                  if (log.isTraceEnabled())
+                     log.trace("Fast failing for connection attempt. No more attempts will be made to "
+                           + "acquire connection from pool and a new connection will be created immeadiately");
+                  break;
+               }
+            }
+            finally
+            {
+               connectionLock.unlock();
+            }
+         }
+      }
+      while (clq.size() > 0);
 
-               prefill();
+      return null;
+   }
 
-               // Trigger capacity increase
-               if (pool.getCapacity().getIncrementer() != null)
-                  CapacityFiller.schedule(new CapacityRequest(this, subject, cri));
+   /**
+    * Reclaim the connection listener the current thread returned last, if it is still in the pool
+    * and was matched against the same subject and connection request information
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param startWait The time the request started waiting
+    * @return The connection listener; <code>null</code> if it couldn't be reclaimed
+    */
+   private ConnectionListener getLastReturned(Subject subject, ConnectionRequestInfo cri, long startWait)
+   {
+      WeakReference<ConnectionListenerWrapper> ref = lastReturned.get();
+      ConnectionListenerWrapper clw = ref != null ? ref.get() : null;
 
-               if (Tracer.isEnabled())
-                  Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(), false, 
-                                               pool.isInterleaving(),
-                                               Tracer.isRecordCallstacks() ?
-                                               new Throwable("CALLSTACK") : null);
+      if (clw != null && clw.matches(subject, cri))
+      {
+         ConnectionListener cl = clw.getConnectionListener();
+         Lock connectionLock = cl.getLock();
 
-               return clw.getConnectionListener();
-            } 
-            catch (Throwable t) 
+         // Somebody else is working on it, so don't wait around
+         if (connectionLock.tryLock())
+         {
+            try
             {
-               if (clw != null || !(t instanceof RetryableException))
-                  log.throwableWhileAttemptingGetNewGonnection(clw != null ? clw.getConnectionListener() : null, t);
-
-               // Return permit and rethrow
-               if (clw != null) 
+               if (cl.getState() == ConnectionState.NORMAL && !clw.isCheckedOut() && clq.removeLastOccurrence(clw))
                {
+                  clw.setCheckedOut(true);
+                  checkedOutSize.incrementAndGet();
+
+                  log.tracef("supplying ManagedConnection from thread affinity: %s", cl);
+
+                  lastUsed = System.currentTimeMillis();
+                  cl.setLastCheckedOutTime(lastUsed);
+
+                  if (pool.getInternalStatistics().isEnabled())
+                  {
+                     pool.getInternalStatistics().deltaAffinityHitCount();
+                     pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+                     pool.getInternalStatistics().deltaTotalPoolTime(lastUsed - cl.getLastReturnedTime());
+                  }
+
                   if (Tracer.isEnabled())
-                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                      false, false, false, false, true, false, false,
-                                                      Tracer.isRecordCallstacks() ?
-                                                      new Throwable("CALLSTACK") : null);
-                  removeConnectionListenerFromPool(clw);
-                  clw.getConnectionListener().destroy();
-               }
+                     Tracer.getConnectionListener(pool.getName(), this, cl,
+                                                  true, pool.isInterleaving(),
+                                                  Tracer.isRecordCallstacks() ?
+                                                  new Throwable("CALLSTACK") : null);
 
-               pool.getLock().release();
+                  clw.setHasPermit(true);
 
-               if (t instanceof ResourceException)
-               {
-                  throw (ResourceException)t;
-               }
-               else
-               {
-                  throw new ResourceException(
-                     bundle.unexpectedThrowableWhileTryingCreateConnection(
-                             clw != null ? clw.getConnectionListener() : null), t);
+                  return cl;
                }
             }
-         } 
-         else 
-         {
-            if (pool.getInternalStatistics().isEnabled())
-               pool.getInternalStatistics().deltaBlockingFailureCount();
-
-            // We timed out
-            throw new ResourceException(
-               bundle.noMManagedConnectionsAvailableWithinConfiguredBlockingTimeout(
-                  poolConfiguration.getBlockingTimeout()));
+            finally
+            {
+               connectionLock.unlock();
+            }
          }
+      }
 
-      } 
-      catch (InterruptedException ie) 
-      {
-         Thread.interrupted();
+      if (pool.getInternalStatistics().isEnabled())
+         pool.getInternalStatistics().deltaAffinityMissCount();
 
-         long end = pool.getInternalStatistics().isEnabled() ? (System.currentTimeMillis() - startWait) : 0L;
-         pool.getInternalStatistics().deltaTotalBlockingTime(end);
-         throw new ResourceException(bundle.interruptedWhileRequestingPermit(end));
-      } 
+      return null;
    }
 
    /**
@@ -760,6 +1188,12 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
             if (!clq.contains(clw))
             {
                clq.addLast(clw);
+
+               if (lastReturned != null)
+                  lastReturned.set(clw.getReference());
+
+               if (requests != null)
+                  signalRequest();
             }
             else
             {
@@ -1190,8 +1624,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                      return;
                   }
 
-                  // We already have enough connections
-                  if (isSize(size)) 
+                  // We already have enough connections, or other fillers are creating them
+                  if (!reserveFill(size))
                   {
                      return;
                   }
@@ -1233,12 +1667,19 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                         return;
                      }
                      log.tracef("Filling pool cl=%s", cl);
+
+                     if (pool.getInternalStatistics().isEnabled())
+                        pool.getInternalStatistics().deltaFilledCount();
                   }
                   catch (ResourceException re) 
                   {
                      log.unableFillPool(re, cm.getJndiName());
                      return;
                   }
+                  finally
+                  {
+                     releaseFill();
+                  }
                } 
                finally 
                {
@@ -1281,9 +1722,10 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                   create = pool.getCapacity().getIncrementer().shouldCreate(poolSize.get(),
                                                                             poolConfiguration.getMaxSize(), created);
 
-                  if (create) 
+                  if (create)
                   {
-                     try 
+                     pool.getInternalStatistics().deltaFillingCount(1);
+                     try
                      {
                         // this increments pool size
                         final ConnectionListener cl = createConnectionEventListener(subject, cri);
@@ -1321,6 +1763,9 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                            return;
                         } else {
                            log.tracef("Capacity fill: cl=%s", cl);
+
+                           if (pool.getInternalStatistics().isEnabled())
+                              pool.getInternalStatistics().deltaFilledCount();
                            created++;
                         }
                      } 
@@ -1329,6 +1774,10 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                         log.unableFillPool(re, cm.getJndiName());
                         return;
                      }
+                     finally
+                     {
+                        pool.getInternalStatistics().deltaFillingCount(-1);
+                     }
                   }
                } 
                finally 
@@ -1490,121 +1939,135 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
 
       if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
       {
-         boolean anyDestroyed = false;
+         final AtomicBoolean anyDestroyed = new AtomicBoolean(false);
+         final Iterator<ConnectionListenerWrapper> candidates = clq.iterator();
+         final long start = System.currentTimeMillis();
+         ValidationPass pass = new ValidationPass(poolConfiguration.getValidationConcurrency(),
+                                                  poolConfiguration.getValidationBudget());
 
          try 
          {
-            while (true) 
+            pass.run(new ValidationPass.Source()
             {
-               ConnectionListener cl = null;
-               boolean destroyed = false;
-
-               synchronized (cls)
+               public Runnable next()
                {
-                  if (clq.size() == 0) 
+                  final ConnectionListener cl;
+
+                  synchronized (cls)
                   {
-                     break;
+                     cl = removeForFrequencyCheck(candidates, start);
                   }
 
-                  cl = removeForFrequencyCheck();
-               }
+                  if (cl == null)
+                     return null;
 
-               if (cl == null) 
-               {
-                  break;
+                  return new Runnable()
+                  {
+                     public void run()
+                     {
+                        if (validateConnection(cl))
+                           anyDestroyed.set(true);
+                     }
+                  };
                }
+            });
+         } 
+         finally 
+         {
+            pool.getLock().release();
 
-               try 
-               {
-                  Set candidateSet = Collections.singleton(cl.getManagedConnection());
+            pool.getInternalStatistics().deltaValidationPass(pass.getDuration(), pass.isBudgetExceeded());
 
-                  if (mcf instanceof ValidatingManagedConnectionFactory) 
-                  {
-                     ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
-                     candidateSet = vcf.getInvalidConnections(candidateSet);
+            if (anyDestroyed.get())
+                prefill();
+         }
+      }
+   }
 
-                     if ((candidateSet != null && candidateSet.size() > 0) || !isRunning())
-                     {
-                        if (cl.getState() != ConnectionState.DESTROY) 
-                        {
-                           ConnectionListenerWrapper clw = doRemoveConnectionListenerFromPool(cl);
+   /**
+    * Validate a connection taken out of the pool for background validation
+    * @param cl The connection listener
+    * @return True if the connection was destroyed, otherwise it is returned to the pool
+    */
+   private boolean validateConnection(ConnectionListener cl)
+   {
+      boolean destroyed = false;
 
-                           if (clw != null)
-                           {
-                              if (pool.getInternalStatistics().isEnabled())
-                                 pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                                         clw.getConnectionListener().getLastReturnedTime());
+      try 
+      {
+         Set candidateSet = Collections.singleton(cl.getManagedConnection());
 
-                              if (Tracer.isEnabled())
-                                 Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                         false, false, true, false, false, false, false,
-                                         Tracer.isRecordCallstacks() ?
-                                                 new Throwable("CALLSTACK") : null);
+         if (mcf instanceof ValidatingManagedConnectionFactory) 
+         {
+            ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+            candidateSet = vcf.getInvalidConnections(candidateSet);
 
-                              removeConnectionListenerFromPool(clw);
-                              clw.getConnectionListener().destroy();
-                              clw = null;
-                           }
-                           destroyed = true;
-                           anyDestroyed = true;
-                        }
-                     }
-                  } 
-                  else 
-                  {
-                     log.backgroundValidationNonCompliantManagedConnectionFactory();
-                  }
-               } 
-               catch (Exception re)
+            if ((candidateSet != null && candidateSet.size() > 0) || !isRunning())
+            {
+               if (cl.getState() != ConnectionState.DESTROY) 
                {
-                  if (cl != null) 
-                  {
-                     ConnectionListenerWrapper clw = doRemoveConnectionListenerFromPool(cl);
-
-                     if (clw != null)
-                     {
-                        if (pool.getInternalStatistics().isEnabled())
-                           pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                                   clw.getConnectionListener().getLastReturnedTime());
+                  ConnectionListenerWrapper clw = doRemoveConnectionListenerFromPool(cl);
 
-                        if (Tracer.isEnabled())
-                           Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                   false, false, false, false, true, false, false,
-                                   Tracer.isRecordCallstacks() ?
-                                           new Throwable("CALLSTACK") : null);
+                  if (clw != null)
+                  {
+                     if (pool.getInternalStatistics().isEnabled())
+                        pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                clw.getConnectionListener().getLastReturnedTime());
 
-                        removeConnectionListenerFromPool(clw);
-                        clw.getConnectionListener().destroy();
-                        clw = null;
-                     }
-                     destroyed = true;
-                     anyDestroyed = true;
-                  }
+                     if (Tracer.isEnabled())
+                        Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                false, false, true, false, false, false, false,
+                                Tracer.isRecordCallstacks() ?
+                                        new Throwable("CALLSTACK") : null);
 
-                  log.connectionValidatorIgnoredUnexpectedError(re);
-               } 
-               finally 
-               {
-                  if (!destroyed) 
-                  {
-                     synchronized (cls)
-                     {
-                         if(cl != null && cls.containsKey(cl)) {
-                             returnForFrequencyCheck(cl);
-                         }
-                     }
+                     removeConnectionListenerFromPool(clw);
+                     clw.getConnectionListener().destroy();
                   }
+                  destroyed = true;
                }
             }
          } 
-         finally 
+         else 
          {
-            pool.getLock().release();
+            log.backgroundValidationNonCompliantManagedConnectionFactory();
+         }
+      } 
+      catch (Exception re)
+      {
+         ConnectionListenerWrapper clw = doRemoveConnectionListenerFromPool(cl);
 
-            if (anyDestroyed)
-                prefill();
+         if (clw != null)
+         {
+            if (pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                       clw.getConnectionListener().getLastReturnedTime());
+
+            if (Tracer.isEnabled())
+               Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                       false, false, false, false, true, false, false,
+                       Tracer.isRecordCallstacks() ?
+                               new Throwable("CALLSTACK") : null);
+
+            removeConnectionListenerFromPool(clw);
+            clw.getConnectionListener().destroy();
+         }
+         destroyed = true;
+
+         log.connectionValidatorIgnoredUnexpectedError(re);
+      } 
+      finally 
+      {
+         if (!destroyed) 
+         {
+            synchronized (cls)
+            {
+               if (cls.containsKey(cl))
+                  returnForFrequencyCheck(cl);
+            }
          }
       }
+
+      return destroyed;
    }
 
    /**
@@ -1623,34 +2086,27 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
     * Returns the connection listener that should be removed due to background
     * validation
     * 
+    * @param candidates The cursor of the validation pass over the pool
+    * @param start The start of the validation pass
     * @return The listener; otherwise null if none should be removed
     */
-   private ConnectionListener removeForFrequencyCheck() 
+   private ConnectionListener removeForFrequencyCheck(Iterator<ConnectionListenerWrapper> candidates,
+                                                      long start) 
    {
       log.debug("Checking for connection within frequency");
 
-      ConnectionListenerWrapper clw = null;
-
-      for (Iterator<ConnectionListenerWrapper> iter = clq.iterator(); iter.hasNext();) 
+      while (candidates.hasNext()) 
       {
-         clw = iter.next();
+         ConnectionListenerWrapper clw = candidates.next();
          long lastCheck = clw.getConnectionListener().getLastValidatedTime();
 
-         if ((System.currentTimeMillis() - lastCheck) >= poolConfiguration.getBackgroundValidationMillis()) 
-         {
-            clq.remove(clw);
-            break;
-         } 
-         else 
-         {
-            clw = null;
-         }
+         // The cursor survives between calls, so each pass scans the deque only once;
+         // the removal makes sure the connection wasn't handed out in the meantime
+         if ((start - lastCheck) >= poolConfiguration.getBackgroundValidationMillis() && clq.remove(clw)) 
+            return clw.getConnectionListener();
       }
 
-      if (clw != null)
-         return clw.getConnectionListener();
-      else
-         return null;
+      return null;
    }
 
    /**
@@ -1785,6 +2241,137 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       return sb.toString();
    }
 
+   /**
+    * A caller waiting for a connection listener from the connection creator
+    */
+   class ConnectionRequest implements Runnable
+   {
+      private final Subject subject;
+      private final ConnectionRequestInfo cri;
+      private final Thread thread;
+      private final ClassLoader classLoader;
+      private final AtomicReference<Object> outcome;
+
+      /**
+       * Constructor
+       * 
+       * @param subject the subject
+       * @param cri the connection request information
+       */
+      ConnectionRequest(Subject subject, ConnectionRequestInfo cri)
+      {
+         this.subject = subject;
+         this.cri = cri;
+         this.thread = Thread.currentThread();
+         this.classLoader = SecurityActions.getThreadContextClassLoader();
+         this.outcome = new AtomicReference<Object>();
+      }
+
+      /**
+       * Get the subject
+       * 
+       * @return The subject
+       */
+      Subject getSubject()
+      {
+         return subject;
+      }
+
+      /**
+       * Get the connection request information
+       * 
+       * @return The connection request information
+       */
+      ConnectionRequestInfo getCri()
+      {
+         return cri;
+      }
+
+      /**
+       * Get the outcome
+       * 
+       * @return The created wrapper, the failure, or <code>null</code> if pending or cancelled
+       */
+      Object getOutcome()
+      {
+         Object o = outcome.get();
+         return o != this ? o : null;
+      }
+
+      /**
+       * Is the request still waiting for an outcome
+       * 
+       * @return True if pending
+       */
+      boolean isPending()
+      {
+         return outcome.get() == null;
+      }
+
+      /**
+       * Complete the request
+       * 
+       * @param value the created wrapper, or the failure
+       * @return True if the caller will use the value; false if it was served otherwise
+       */
+      boolean complete(Object value)
+      {
+         if (outcome.compareAndSet(null, value))
+         {
+            LockSupport.unpark(thread);
+            return true;
+         }
+
+         return false;
+      }
+
+      /**
+       * Cancel the request, since the caller was served otherwise
+       * 
+       * @return True if cancelled; false if the request has been completed
+       */
+      boolean cancel()
+      {
+         return outcome.compareAndSet(null, this);
+      }
+
+      /**
+       * Wait for an outcome, or a signal
+       * 
+       * @param nanos the maximum time to wait
+       */
+      void await(long nanos)
+      {
+         LockSupport.parkNanos(this, nanos);
+      }
+
+      /**
+       * Signal the caller that a connection listener has been returned
+       */
+      void signal()
+      {
+         LockSupport.unpark(thread);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         // Create the connection with the context class loader of the caller
+         ClassLoader tccl = SecurityActions.getThreadContextClassLoader();
+         SecurityActions.setThreadContextClassLoader(classLoader);
+         try
+         {
+            createConnectionListener(this);
+         }
+         finally
+         {
+            SecurityActions.setThreadContextClassLoader(tccl);
+         }
+      }
+   }
+
    /**
     * Connection Listener wrapper to retain connection listener pool state
     * 
@@ -1796,6 +2383,9 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       private volatile ConnectionListener cl;
       private volatile boolean checkedOut;
       private volatile boolean hasPermit;
+      private volatile Subject subject;
+      private volatile ConnectionRequestInfo cri;
+      private final WeakReference<ConnectionListenerWrapper> reference;
 
       /**
        * Constructor
@@ -1830,6 +2420,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
          this.cl = connectionListener;
          this.checkedOut = checkedOut;
          this.hasPermit = hasPermit;
+         this.reference = new WeakReference<ConnectionListenerWrapper>(this);
       }
 
       /**
@@ -1881,5 +2472,39 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       {
          this.hasPermit = hasPermit;
       }
+
+      /**
+       * Set the credentials the Connection Listener was last matched against
+       * 
+       * @param subject the subject
+       * @param cri the connection request information
+       */
+      public void setCredentials(Subject subject, ConnectionRequestInfo cri)
+      {
+         this.subject = subject;
+         this.cri = cri;
+      }
+
+      /**
+       * Was the Connection Listener last matched against the credentials
+       * 
+       * @param subject the subject
+       * @param cri the connection request information
+       * @return True if the credentials are unchanged
+       */
+      public boolean matches(Subject subject, ConnectionRequestInfo cri)
+      {
+         return Objects.equals(this.subject, subject) && Objects.equals(this.cri, cri);
+      }
+
+      /**
+       * Get a weak reference to this wrapper
+       * 
+       * @return The reference
+       */
+      public WeakReference<ConnectionListenerWrapper> getReference()
+      {
+         return reference;
+      }
    }
 }
@@ -25,12 +25,17 @@ package org.jboss.jca.core.connectionmanager.pool.validator;
 import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -40,6 +45,12 @@ import org.jboss.logging.Logger;
 /**
  * Connection validator
  * 
+ * Each registered pool is validated on its own jittered schedule, and its validation
+ * pass runs on a separate thread, such that a slow pool doesn't delay the other pools
+ * and the passes of pools with the same interval don't line up. The passes always run
+ * on threads owned by the validator, also when the executor running the schedules is
+ * external, since that executor may not have a thread to spare for them.
+ *
  * @author <a href="mailto:gurkanerdogdu@yahoo.com">Gurkan Erdogdu</a>
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  * @author Flavia Rainone
@@ -51,25 +62,25 @@ public class ConnectionValidator
    
    /** Thread name */
    private static final String THREAD_NAME = "ConnectionValidator";
+
+   /** The jitter of the schedules in percent */
+   private static final int JITTER = 10;
    
    /** Singleton instance */
    private static ConnectionValidator instance = new ConnectionValidator();
    
    /** Registered pool instances */
-   private CopyOnWriteArrayList<ManagedConnectionPool> registeredPools = 
-      new CopyOnWriteArrayList<ManagedConnectionPool>();
+   private ConcurrentMap<ManagedConnectionPool, Schedule> registeredPools = 
+      new ConcurrentHashMap<ManagedConnectionPool, Schedule>();
    
    /** Executor service */
    private ExecutorService executorService;
 
    /** Is the executor external */
    private boolean isExternal;
-   
-   /** The interval */
-   private long interval;
 
-   /** The next scan */
-   private long next;
+   /** Executor service for the validation passes */
+   private ExecutorService passExecutorService;
    
    /** Shutdown */
    private AtomicBoolean shutdown;
@@ -87,8 +98,7 @@ public class ConnectionValidator
    {
       this.executorService = null;
       this.isExternal = false;
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
+      this.passExecutorService = null;
       this.shutdown = new AtomicBoolean(false);
       this.lock = new ReentrantLock(true);
       this.condition = lock.newCondition();
@@ -128,13 +138,11 @@ public class ConnectionValidator
    public void start() throws Throwable
    {
       if (!isExternal)
-      {
-         this.executorService = Executors.newSingleThreadExecutor(new ValidatorThreadFactory());
-      }
+         this.executorService = Executors.newSingleThreadExecutor(new ValidatorThreadFactory(THREAD_NAME));
+
+      this.passExecutorService = Executors.newCachedThreadPool(new ValidatorThreadFactory(THREAD_NAME + "-Pass"));
 
       this.shutdown.set(false);
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
 
       this.executorService.execute(new ConnectionValidatorRunner());
    }
@@ -153,6 +161,12 @@ public class ConnectionValidator
          instance.executorService = null;
       }
 
+      if (instance.passExecutorService != null)
+      {
+         instance.passExecutorService.shutdownNow();
+         instance.passExecutorService = null;
+      }
+
       instance.registeredPools.clear();
    }
    
@@ -181,46 +195,145 @@ public class ConnectionValidator
    
    private void internalRegisterPool(ManagedConnectionPool mcp, long interval)
    {
-      try
+      Schedule schedule = new Schedule(interval > 1 ? interval / 2 : Long.MAX_VALUE);
+
+      if (this.registeredPools.putIfAbsent(mcp, schedule) == null)
       {
-         this.lock.lock();
-         
-         this.registeredPools.addIfAbsent(mcp);
-         
-         if (interval > 1 && interval / 2 < this.interval) 
+         try
          {
-            this.interval = interval / 2;
-            long maybeNext = System.currentTimeMillis() + this.interval;
-            if (next > maybeNext && maybeNext > 0) 
+            this.lock.lock();
+
+            if (logger.isDebugEnabled())
             {
-               next = maybeNext;
-               if (logger.isDebugEnabled())
-               {
-                  logger.debug("About to notify thread: old next: " + next + ", new next: " + maybeNext);
-               }               
-               
-               this.condition.signal();
+               logger.debug("About to notify thread: next: " + schedule.getNext());
             }
+
+            this.condition.signal();
+         } 
+         finally
+         {
+            this.lock.unlock();
          }
-      } 
-      finally
-      {
-         this.lock.unlock();
       }
    }
    
    private void internalUnregisterPool(ManagedConnectionPool mcp)
    {
       this.registeredPools.remove(mcp);
-      
-      if (this.registeredPools.size() == 0) 
+   }
+
+   /**
+    * Wake up the runner thread
+    */
+   private void signal()
+   {
+      try
       {
-         if (logger.isDebugEnabled())
+         lock.lock();
+         condition.signal();
+      }
+      finally
+      {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Add a jitter to a period
+    * @param period The period
+    * @return The jittered period
+    */
+   private static long jitter(long period)
+   {
+      long range = period / 100 * JITTER;
+
+      if (range <= 0L || period == Long.MAX_VALUE)
+         return period;
+
+      return period - range + ThreadLocalRandom.current().nextLong(2 * range + 1);
+   }
+
+   /**
+    * Get the time for a period from now
+    * @param period The period
+    * @return The time
+    */
+   private static long after(long period)
+   {
+      long result = System.currentTimeMillis() + period;
+
+      return result > 0L ? result : Long.MAX_VALUE;
+   }
+
+   /**
+    * The validation schedule of a pool
+    */
+   private static class Schedule
+   {
+      /** The period */
+      private final long period;
+
+      /** The next validation pass */
+      private volatile long next;
+
+      /** Is a validation pass running */
+      private final AtomicBoolean running;
+
+      /**
+       * Constructor
+       * @param period The period
+       */
+      Schedule(long period)
+      {
+         this.period = period;
+         this.running = new AtomicBoolean(false);
+
+         // Spread the first pass of pools registered together over the second half of the period
+         if (period != Long.MAX_VALUE)
          {
-            logger.debug("Setting interval to Long.MAX_VALUE");  
+            this.next = after(period / 2 + ThreadLocalRandom.current().nextLong(period / 2 + 1));
          }
-         
-         interval = Long.MAX_VALUE;
+         else
+         {
+            this.next = Long.MAX_VALUE;
+         }
+      }
+
+      /**
+       * Get the next validation pass
+       * @return The value
+       */
+      long getNext()
+      {
+         return next;
+      }
+
+      /**
+       * Start a validation pass if one is due and not running
+       * @param now The current time
+       * @return True if started, otherwise false
+       */
+      boolean start(long now)
+      {
+         return now >= next && running.compareAndSet(false, true);
+      }
+
+      /**
+       * Complete a validation pass
+       */
+      void complete()
+      {
+         next = after(jitter(period));
+         running.set(false);
+      }
+
+      /**
+       * Is a validation pass running
+       * @return The value
+       */
+      boolean isRunning()
+      {
+         return running.get();
       }
    }
 
@@ -229,17 +342,91 @@ public class ConnectionValidator
     */
    private static class ValidatorThreadFactory implements ThreadFactory
    {
+      /** The thread name */
+      private final String name;
+
+      /** The thread counter */
+      private final AtomicInteger counter;
+
+      /**
+       * Constructor
+       * @param name The thread name
+       */
+      ValidatorThreadFactory(String name)
+      {
+         this.name = name;
+         this.counter = new AtomicInteger(0);
+      }
+
       /**
        * {@inheritDoc}
        */
       public Thread newThread(Runnable r)
       {
-         Thread thread = new Thread(r, ConnectionValidator.THREAD_NAME);
+         int number = counter.incrementAndGet();
+         Thread thread = new Thread(r, number == 1 ? name : name + "-" + number);
          thread.setDaemon(true);
          
          return thread;
       }      
    }
+
+   /**
+    * A validation pass over a pool
+    */
+   private class ValidationPassRunner implements Runnable
+   {
+      /** The pool */
+      private final ManagedConnectionPool mcp;
+
+      /** The schedule */
+      private final Schedule schedule;
+
+      /**
+       * Constructor
+       * @param mcp The pool
+       * @param schedule The schedule
+       */
+      ValidationPassRunner(ManagedConnectionPool mcp, Schedule schedule)
+      {
+         this.mcp = mcp;
+         this.schedule = schedule;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         final ClassLoader oldTccl = SecurityActions.getThreadContextClassLoader();
+         SecurityActions.setThreadContextClassLoader(ConnectionValidator.class.getClassLoader());
+
+         try
+         {
+            mcp.validateConnections();
+         }
+         catch (InterruptedException e)
+         {
+            if (!shutdown.get())
+               logger.returningConnectionValidatorInterrupted();
+         }
+         catch (RuntimeException e)
+         {
+            logger.connectionValidatorIgnoredUnexpectedRuntimeException(e);
+         }
+         catch (Exception e)
+         {
+            logger.connectionValidatorIgnoredUnexpectedError(e);
+         }
+         finally
+         {
+            schedule.complete();
+            SecurityActions.setThreadContextClassLoader(oldTccl);
+
+            signal();
+         }
+      }
+   }
    
    /**
     * ConnectionValidatorRunner.
@@ -257,46 +444,61 @@ public class ConnectionValidator
          
          try
          {
-
-
             while (!shutdown.get())
             {
                try
                {
                   lock.lock();
 
-                  boolean result = instance.condition.await(instance.interval, TimeUnit.MILLISECONDS);
-
-                  if (logger.isTraceEnabled())
+                  long next = Long.MAX_VALUE;
+                  for (Schedule schedule : registeredPools.values())
                   {
-                     logger.trace("Result of await: " + result);
+                     if (!schedule.isRunning() && schedule.getNext() < next)
+                        next = schedule.getNext();
                   }
 
-                  if (logger.isDebugEnabled())
+                  long wait = next == Long.MAX_VALUE ? Long.MAX_VALUE : next - System.currentTimeMillis();
+
+                  if (wait > 0L)
                   {
-                     logger.debug("Notifying pools, interval: " + interval);
+                     boolean result = instance.condition.await(wait, TimeUnit.MILLISECONDS);
+
+                     if (logger.isTraceEnabled())
+                     {
+                        logger.trace("Result of await: " + result);
+                     }
                   }
                } finally {
                   lock.unlock();
                }
 
-               for (ManagedConnectionPool mcp : registeredPools)
+               long now = System.currentTimeMillis();
+
+               for (Map.Entry<ManagedConnectionPool, Schedule> entry : registeredPools.entrySet())
                {
-                  mcp.validateConnections();
-               }
+                  if (!shutdown.get() && entry.getValue().start(now))
+                  {
+                     if (logger.isDebugEnabled())
+                     {
+                        logger.debug("Validating pool: " + entry.getKey());
+                     }
 
-               try {
-                  lock.lock();
-                  next = System.currentTimeMillis() + interval;
+                     ValidationPassRunner runner = new ValidationPassRunner(entry.getKey(), entry.getValue());
+                     ExecutorService es = passExecutorService;
 
-                  if (next < 0)
-                  {
-                     next = Long.MAX_VALUE;
+                     try
+                     {
+                        if (es == null)
+                           throw new RejectedExecutionException();
+
+                        es.execute(runner);
+                     }
+                     catch (RejectedExecutionException ree)
+                     {
+                        runner.run();
+                     }
                   }
-               } finally {
-                  lock.unlock();
                }
-
             }            
          }
          catch (InterruptedException e)
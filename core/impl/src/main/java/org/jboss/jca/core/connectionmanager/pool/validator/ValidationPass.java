@@ -0,0 +1,364 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.validator;
+
+import org.jboss.jca.core.CoreLogger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A single background validation pass over a pool.
+ *
+ * The connections are validated by up to <code>concurrency</code> shared validator
+ * threads, and no new connection is handed out once the time budget of the pass
+ * has been spent; connections already being validated are always completed.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ValidationPass
+{
+   /** Logger instance */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, ValidationPass.class.getName());
+
+   /** Thread name */
+   private static final String THREAD_NAME = "ConnectionValidator";
+
+   /** Number of shared validator threads */
+   private static int threads;
+
+   /** The shared validator threads */
+   private static volatile ExecutorService executorService;
+
+   static
+   {
+      threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+      String value = SecurityActions.getSystemProperty("ironjacamar.validator_threads");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            threads = Math.max(1, Integer.parseInt(value.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+   }
+
+   /**
+    * The connections of a pass
+    */
+   public interface Source
+   {
+      /**
+       * Take the next connection that is due for validation
+       * @return The validation of the connection, or <code>null</code> if there are no more
+       */
+      public Runnable next();
+   }
+
+   /** The number of connections validated in parallel */
+   private final int concurrency;
+
+   /** The time budget in milliseconds */
+   private final long budget;
+
+   /** The number of connections validated */
+   private int validated;
+
+   /** The duration in milliseconds */
+   private long duration;
+
+   /** Was the pass stopped by its time budget */
+   private boolean budgetExceeded;
+
+   /**
+    * Constructor
+    * @param concurrency The number of connections validated in parallel
+    * @param budget The time budget in milliseconds, 0 or less for no budget
+    */
+   public ValidationPass(int concurrency, long budget)
+   {
+      this.concurrency = Math.max(1, concurrency);
+      this.budget = budget;
+      this.validated = 0;
+      this.duration = 0L;
+      this.budgetExceeded = false;
+   }
+
+   /**
+    * Run the pass
+    * @param source The connections
+    * @exception InterruptedException Thrown if interrupted while waiting for the validations
+    */
+   public void run(Source source) throws InterruptedException
+   {
+      long start = System.currentTimeMillis();
+      long deadline = budget > 0L && start + budget > 0L ? start + budget : Long.MAX_VALUE;
+
+      try
+      {
+         if (concurrency == 1)
+         {
+            runSerial(source, deadline);
+         }
+         else
+         {
+            runParallel(source, deadline);
+         }
+      }
+      finally
+      {
+         duration = System.currentTimeMillis() - start;
+
+         if (log.isDebugEnabled())
+            log.debugf("Validation pass: validated=%d, duration=%d, budgetExceeded=%s",
+                       Integer.valueOf(validated), Long.valueOf(duration), Boolean.valueOf(budgetExceeded));
+      }
+   }
+
+   /**
+    * Get the number of connections validated
+    * @return The value
+    */
+   public int getValidatedCount()
+   {
+      return validated;
+   }
+
+   /**
+    * Get the duration of the pass
+    * @return The value in milliseconds
+    */
+   public long getDuration()
+   {
+      return duration;
+   }
+
+   /**
+    * Was the pass stopped by its time budget
+    * @return The value
+    */
+   public boolean isBudgetExceeded()
+   {
+      return budgetExceeded;
+   }
+
+   /**
+    * Validate the connections in the calling thread
+    * @param source The connections
+    * @param deadline The deadline
+    */
+   private void runSerial(Source source, long deadline)
+   {
+      while (true)
+      {
+         if (System.currentTimeMillis() >= deadline)
+         {
+            budgetExceeded = true;
+            return;
+         }
+
+         Runnable validation = source.next();
+
+         if (validation == null)
+            return;
+
+         validated++;
+         validation.run();
+      }
+   }
+
+   /**
+    * Validate the connections using the shared validator threads
+    * @param source The connections
+    * @param deadline The deadline
+    * @exception InterruptedException Thrown if interrupted
+    */
+   private void runParallel(Source source, long deadline) throws InterruptedException
+   {
+      Semaphore permits = new Semaphore(concurrency);
+      ClassLoader cl = SecurityActions.getThreadContextClassLoader();
+      ExecutorService es = getExecutorService();
+
+      try
+      {
+         while (true)
+         {
+            long remaining = deadline - System.currentTimeMillis();
+
+            if (remaining <= 0L || !permits.tryAcquire(remaining, TimeUnit.MILLISECONDS))
+            {
+               budgetExceeded = true;
+               return;
+            }
+
+            Runnable validation = null;
+            try
+            {
+               validation = source.next();
+            }
+            finally
+            {
+               if (validation == null)
+                  permits.release();
+            }
+
+            if (validation == null)
+               return;
+
+            validated++;
+
+            try
+            {
+               es.execute(new Validation(validation, permits, cl));
+            }
+            catch (RejectedExecutionException ree)
+            {
+               try
+               {
+                  validation.run();
+               }
+               finally
+               {
+                  permits.release();
+               }
+            }
+         }
+      }
+      finally
+      {
+         permits.acquire(concurrency);
+      }
+   }
+
+   /**
+    * Get the shared validator threads
+    * @return The executor service
+    */
+   private static ExecutorService getExecutorService()
+   {
+      ExecutorService es = executorService;
+
+      if (es == null)
+      {
+         synchronized (ValidationPass.class)
+         {
+            es = executorService;
+
+            if (es == null)
+            {
+               ThreadPoolExecutor tpe = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                                                               new LinkedBlockingQueue<Runnable>(),
+                                                               new ValidationThreadFactory());
+               tpe.allowCoreThreadTimeOut(true);
+
+               es = tpe;
+               executorService = es;
+            }
+         }
+      }
+
+      return es;
+   }
+
+   /**
+    * The validation of a connection on a shared validator thread
+    */
+   private static class Validation implements Runnable
+   {
+      private final Runnable validation;
+      private final Semaphore permits;
+      private final ClassLoader cl;
+
+      /**
+       * Constructor
+       * @param validation The validation
+       * @param permits The permits of the pass
+       * @param cl The context class loader of the pass
+       */
+      Validation(Runnable validation, Semaphore permits, ClassLoader cl)
+      {
+         this.validation = validation;
+         this.permits = permits;
+         this.cl = cl;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         ClassLoader oldTccl = SecurityActions.getThreadContextClassLoader();
+         SecurityActions.setThreadContextClassLoader(cl);
+
+         try
+         {
+            validation.run();
+         }
+         catch (RuntimeException re)
+         {
+            log.connectionValidatorIgnoredUnexpectedRuntimeException(re);
+         }
+         catch (Error e)
+         {
+            log.connectionValidatorIgnoredUnexpectedError(e);
+         }
+         finally
+         {
+            permits.release();
+            SecurityActions.setThreadContextClassLoader(oldTccl);
+         }
+      }
+   }
+
+   /**
+    * Thread factory
+    */
+   private static class ValidationThreadFactory implements ThreadFactory
+   {
+      private final AtomicInteger counter = new AtomicInteger(0);
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread thread = new Thread(r, THREAD_NAME + "-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+
+         return thread;
+      }
+   }
+}
@@ -0,0 +1,569 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Reader for the binary trace files
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class BinaryTraceReader
+{
+   /** The default number of records sorted in memory when streaming */
+   public static final int DEFAULT_RUN_SIZE = 256 * 1024;
+
+   /** Timestamp order */
+   private static final Comparator<Record> ORDER = new Comparator<Record>()
+   {
+      public int compare(Record r1, Record r2)
+      {
+         return Long.compare(r1.timestamp, r2.timestamp);
+      }
+   };
+
+   /**
+    * Handler for the events of a binary trace file
+    */
+   public interface EventHandler
+   {
+      /**
+       * An event
+       * @param te The event
+       * @exception Exception If an error occurs
+       */
+      public void event(TraceEvent te) throws Exception;
+   }
+
+   /**
+    * Constructor
+    */
+   private BinaryTraceReader()
+   {
+   }
+
+   /**
+    * Is the file a binary trace file
+    * @param file The file
+    * @return True if it is, otherwise false
+    */
+   public static boolean isBinary(File file)
+   {
+      if (file == null || !file.isFile() || file.length() < 8L)
+         return false;
+
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         ByteBuffer header = ByteBuffer.allocate(4);
+         channel.read(header);
+         header.flip();
+         return header.getInt() == BinaryTraceWriter.MAGIC;
+      }
+      catch (IOException ioe)
+      {
+         return false;
+      }
+   }
+
+   /**
+    * Get the events from a binary trace file
+    * @param file The file
+    * @return The events sorted by timestamp
+    * @exception IOException If the file can't be read
+    */
+   public static List<TraceEvent> getEvents(File file) throws IOException
+   {
+      ByteBuffer data = open(file);
+      Map<Integer, String> strings = new HashMap<Integer, String>();
+      List<Record> records = new ArrayList<Record>();
+
+      Record r = next(data, strings);
+      while (r != null)
+      {
+         records.add(r);
+         r = next(data, strings);
+      }
+
+      List<TraceEvent> result = new ArrayList<TraceEvent>(records.size());
+      for (Record record : records)
+      {
+         result.add(event(record, strings));
+      }
+
+      Collections.sort(result, new Comparator<TraceEvent>()
+      {
+         public int compare(TraceEvent e1, TraceEvent e2)
+         {
+            return Long.compare(e1.getTimestamp(), e2.getTimestamp());
+         }
+      });
+
+      return result;
+   }
+
+   /**
+    * Stream the events from a binary trace file in the order of
+    * {@link #getEvents(File)}
+    * @param file The file
+    * @param directory The directory for the temporary files; <code>null</code> for the default
+    * @param handler The handler
+    * @exception Exception If an error occurs
+    */
+   public static void getEvents(File file, File directory, EventHandler handler) throws Exception
+   {
+      getEvents(file, directory, DEFAULT_RUN_SIZE, handler);
+   }
+
+   /**
+    * Stream the events from a binary trace file in the order of {@link #getEvents(File)}.
+    *
+    * The records aren't written in timestamp order, so they are sorted in runs of
+    * <code>runSize</code> records which are written to temporary files and merged.
+    * Only the strings, one run and a record per run are kept in memory.
+    * @param file The file
+    * @param directory The directory for the temporary files; <code>null</code> for the default
+    * @param runSize The number of records sorted in memory
+    * @param handler The handler
+    * @exception Exception If an error occurs
+    */
+   public static void getEvents(File file, File directory, int runSize, EventHandler handler) throws Exception
+   {
+      if (runSize <= 0)
+         throw new IllegalArgumentException("RunSize must be positive: " + runSize);
+
+      ByteBuffer data = open(file);
+      int start = data.position();
+
+      // A string may be written after the first record using it
+      Map<Integer, String> strings = new HashMap<Integer, String>();
+      while (next(data, strings) != null)
+      {
+         // Strings only
+      }
+
+      data.position(start);
+
+      List<Record> run = new ArrayList<Record>();
+      List<File> runs = new ArrayList<File>();
+
+      try
+      {
+         Record r = next(data, null);
+         while (r != null)
+         {
+            run.add(r);
+
+            if (run.size() == runSize)
+            {
+               runs.add(writeRun(run, directory));
+               run.clear();
+            }
+
+            r = next(data, null);
+         }
+
+         if (runs.isEmpty())
+         {
+            Collections.sort(run, ORDER);
+
+            for (Record record : run)
+            {
+               handler.event(event(record, strings));
+            }
+         }
+         else
+         {
+            if (!run.isEmpty())
+               runs.add(writeRun(run, directory));
+
+            run = null;
+            merge(runs, strings, handler);
+         }
+      }
+      finally
+      {
+         for (File f : runs)
+         {
+            if (!f.delete())
+               f.deleteOnExit();
+         }
+      }
+   }
+
+   /**
+    * Open a binary trace file
+    * @param file The file
+    * @return The data, positioned after the header
+    * @exception IOException If the file can't be read
+    */
+   private static ByteBuffer open(File file) throws IOException
+   {
+      ByteBuffer data;
+
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+      {
+         data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+
+      if (data.remaining() < 8 || data.getInt() != BinaryTraceWriter.MAGIC)
+         throw new IOException("Not a trace file: " + file);
+
+      int version = data.getInt();
+      if (version != BinaryTraceWriter.VERSION)
+         throw new IOException("Unsupported trace file version: " + version);
+
+      return data;
+   }
+
+   /**
+    * Read up to the next record
+    * @param data The data
+    * @param strings The strings read on the way; <code>null</code> if they should be skipped
+    * @return The record; <code>null</code> at the end of the data
+    */
+   private static Record next(ByteBuffer data, Map<Integer, String> strings)
+   {
+      while (data.remaining() >= 4)
+      {
+         int tag = data.getInt();
+
+         if (tag == BinaryTraceWriter.TAG_RECORD)
+         {
+            if (data.remaining() < TraceRing.RECORD_SIZE)
+               return null;
+
+            Record r = new Record();
+            r.timestamp = data.getLong();
+            r.threadId = data.getLong();
+            r.type = data.getInt();
+            r.flags = data.getInt();
+            r.pool = data.getInt();
+            r.mcp = data.getInt();
+            r.cl = data.getInt();
+            r.payload1 = data.getInt();
+            r.payload2 = data.getInt();
+            data.getInt();
+
+            return r;
+         }
+         else if (tag == BinaryTraceWriter.TAG_STRING)
+         {
+            int id = data.getInt();
+            int length = data.getInt();
+
+            if (strings != null)
+            {
+               byte[] value = new byte[length];
+               data.get(value);
+
+               strings.put(Integer.valueOf(id), new String(value, StandardCharsets.UTF_8));
+            }
+            else
+            {
+               data.position(data.position() + length);
+            }
+         }
+         else if (tag == BinaryTraceWriter.TAG_DROPPED)
+         {
+            data.getLong();
+         }
+         else
+         {
+            return null;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Create the event of a record
+    * @param r The record
+    * @param strings The strings
+    * @return The event
+    */
+   private static TraceEvent event(Record r, Map<Integer, String> strings)
+   {
+      String mcp = (r.flags & BinaryTraceWriter.FLAG_MCP_NONE) != 0 ? "NONE" : Integer.toHexString(r.mcp);
+      String cl = (r.flags & BinaryTraceWriter.FLAG_CL_NONE) != 0 ? "NONE" : Integer.toHexString(r.cl);
+      String payload1 = payload(r.flags, BinaryTraceWriter.FLAG_PAYLOAD1_STRING,
+                                BinaryTraceWriter.FLAG_PAYLOAD1_OBJECT, r.payload1, strings);
+      String payload2 = payload(r.flags, BinaryTraceWriter.FLAG_PAYLOAD2_STRING,
+                                BinaryTraceWriter.FLAG_PAYLOAD2_OBJECT, r.payload2, strings);
+
+      return new TraceEvent(string(r.pool, strings), mcp, r.threadId, r.type, r.timestamp, cl,
+                            payload1, payload2);
+   }
+
+   /**
+    * Sort a run, and write it to a temporary file
+    * @param run The records
+    * @param directory The directory; <code>null</code> for the default
+    * @return The file
+    * @exception IOException If the file can't be written
+    */
+   private static File writeRun(List<Record> run, File directory) throws IOException
+   {
+      Collections.sort(run, ORDER);
+
+      File f = File.createTempFile("run", ".bin", directory);
+
+      try (DataOutputStream out =
+           new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f), 64 * 1024)))
+      {
+         out.writeInt(run.size());
+
+         for (Record r : run)
+         {
+            out.writeLong(r.timestamp);
+            out.writeLong(r.threadId);
+            out.writeInt(r.type);
+            out.writeInt(r.flags);
+            out.writeInt(r.pool);
+            out.writeInt(r.mcp);
+            out.writeInt(r.cl);
+            out.writeInt(r.payload1);
+            out.writeInt(r.payload2);
+         }
+      }
+
+      return f;
+   }
+
+   /**
+    * Merge the sorted runs; records with the same timestamp are kept in file order
+    * @param runs The runs, in file order
+    * @param strings The strings
+    * @param handler The handler
+    * @exception Exception If an error occurs
+    */
+   private static void merge(List<File> runs, Map<Integer, String> strings, EventHandler handler) throws Exception
+   {
+      PriorityQueue<Run> queue = new PriorityQueue<Run>(runs.size(), new Comparator<Run>()
+      {
+         public int compare(Run r1, Run r2)
+         {
+            int result = Long.compare(r1.current.timestamp, r2.current.timestamp);
+            return result != 0 ? result : Integer.compare(r1.index, r2.index);
+         }
+      });
+
+      try
+      {
+         for (int i = 0; i < runs.size(); i++)
+         {
+            Run run = new Run(runs.get(i), i);
+
+            if (run.next())
+            {
+               queue.add(run);
+            }
+            else
+            {
+               run.close();
+            }
+         }
+
+         Run run = queue.poll();
+         while (run != null)
+         {
+            handler.event(event(run.current, strings));
+
+            if (run.next())
+            {
+               queue.add(run);
+            }
+            else
+            {
+               run.close();
+            }
+
+            run = queue.poll();
+         }
+      }
+      finally
+      {
+         for (Run run : queue)
+         {
+            run.close();
+         }
+      }
+   }
+
+   /**
+    * Get a payload
+    * @param flags The flags
+    * @param stringFlag The flag for a string payload
+    * @param objectFlag The flag for an object payload
+    * @param value The value
+    * @param strings The strings
+    * @return The payload
+    */
+   private static String payload(int flags, int stringFlag, int objectFlag, int value, Map<Integer, String> strings)
+   {
+      if ((flags & stringFlag) != 0)
+         return string(value, strings);
+
+      if ((flags & objectFlag) != 0)
+         return Integer.toHexString(value);
+
+      return "";
+   }
+
+   /**
+    * Get a string
+    * @param id The id
+    * @param strings The strings
+    * @return The string; empty if unknown
+    */
+   private static String string(int id, Map<Integer, String> strings)
+   {
+      String s = strings.get(Integer.valueOf(id));
+      return s != null ? s : "";
+   }
+
+   /**
+    * A raw record
+    */
+   private static class Record
+   {
+      /** The timestamp */
+      long timestamp;
+
+      /** The thread id */
+      long threadId;
+
+      /** The event type */
+      int type;
+
+      /** The flags */
+      int flags;
+
+      /** The pool */
+      int pool;
+
+      /** The managed connection pool */
+      int mcp;
+
+      /** The connection listener */
+      int cl;
+
+      /** The first payload */
+      int payload1;
+
+      /** The second payload */
+      int payload2;
+   }
+
+   /**
+    * A sorted run being merged
+    */
+   private static class Run
+   {
+      /** The input */
+      private final DataInputStream in;
+
+      /** The index of the run */
+      final int index;
+
+      /** The records left */
+      private int remaining;
+
+      /** The current record */
+      Record current;
+
+      /**
+       * Constructor
+       * @param file The file
+       * @param index The index of the run
+       * @exception IOException If the file can't be read
+       */
+      Run(File file, int index) throws IOException
+      {
+         this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 8 * 1024));
+         this.index = index;
+         this.remaining = in.readInt();
+         this.current = null;
+      }
+
+      /**
+       * Move to the next record
+       * @return True if there is a record, otherwise false
+       * @exception IOException If the file can't be read
+       */
+      boolean next() throws IOException
+      {
+         if (remaining == 0)
+            return false;
+
+         Record r = new Record();
+         r.timestamp = in.readLong();
+         r.threadId = in.readLong();
+         r.type = in.readInt();
+         r.flags = in.readInt();
+         r.pool = in.readInt();
+         r.mcp = in.readInt();
+         r.cl = in.readInt();
+         r.payload1 = in.readInt();
+         r.payload2 = in.readInt();
+
+         current = r;
+         remaining--;
+         return true;
+      }
+
+      /**
+       * Close the input
+       */
+      void close()
+      {
+         try
+         {
+            in.close();
+         }
+         catch (IOException ignore)
+         {
+            // Ignore
+         }
+      }
+   }
+}
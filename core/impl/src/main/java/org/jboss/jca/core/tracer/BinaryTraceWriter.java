@@ -0,0 +1,535 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Binary trace writer.
+ *
+ * Events are recorded as fixed size records into a ring per thread, and a
+ * background thread moves them into a memory-mapped file. Strings - pool
+ * names, transactions, keys and call stacks - are referenced by id from the
+ * records, and each string is written to the file in front of the first
+ * record using it. When the file is full it is moved to
+ * <code>&lt;file&gt;.1</code>, and a new file is started, which gets the
+ * strings again as they are used.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class BinaryTraceWriter implements Runnable
+{
+   /** File magic */
+   static final int MAGIC = 0x494A5452;
+
+   /** File format version */
+   static final int VERSION = 1;
+
+   /** Tag: end of data */
+   static final int TAG_END = 0;
+
+   /** Tag: a record */
+   static final int TAG_RECORD = 1;
+
+   /** Tag: a string */
+   static final int TAG_STRING = 2;
+
+   /** Tag: records were dropped */
+   static final int TAG_DROPPED = 3;
+
+   /** Flag: no managed connection pool */
+   static final int FLAG_MCP_NONE = 1;
+
+   /** Flag: no connection listener */
+   static final int FLAG_CL_NONE = 2;
+
+   /** Flag: the first payload is a string id */
+   static final int FLAG_PAYLOAD1_STRING = 4;
+
+   /** Flag: the first payload is an object identity */
+   static final int FLAG_PAYLOAD1_OBJECT = 8;
+
+   /** Flag: the second payload is a string id */
+   static final int FLAG_PAYLOAD2_STRING = 16;
+
+   /** Flag: the second payload is an object identity */
+   static final int FLAG_PAYLOAD2_OBJECT = 32;
+
+   /** Maximum number of strings remembered */
+   private static final int MAX_STRINGS = 65536;
+
+   /** Maximum number of strings remembered by the writer */
+   private static final int MAX_NAMES = 2 * MAX_STRINGS;
+
+   /** Idle wait in milliseconds */
+   private static final long IDLE_WAIT = 5L;
+
+   /** The logger */
+   private static Logger log = Logger.getLogger(BinaryTraceWriter.class);
+
+   /** The file */
+   private final File file;
+
+   /** The maximum file size */
+   private final int maxSize;
+
+   /** The number of records in each ring */
+   private final int ringSize;
+
+   /** The rings */
+   private final CopyOnWriteArrayList<TraceRing> rings;
+
+   /** The ring of the current thread */
+   private final ThreadLocal<TraceRing> ring;
+
+   /** The string ids */
+   private final ConcurrentHashMap<String, Integer> strings;
+
+   /** Strings not written yet */
+   private final ConcurrentLinkedQueue<StringEntry> pending;
+
+   /** The next string id */
+   private final AtomicInteger nextId;
+
+   /** The strings known by the writer; only used by the writer */
+   private final LinkedHashMap<Integer, Name> names;
+
+   /** The maximum length of a string in the file */
+   private final int maxStringLength;
+
+   /** The current file; used to know which strings it contains */
+   private int fileNumber;
+
+   /** The output channel */
+   private FileChannel channel;
+
+   /** The output */
+   private MappedByteBuffer out;
+
+   /** Running */
+   private volatile boolean running;
+
+   /**
+    * Constructor
+    * @param file The file
+    * @param maxSize The maximum file size in bytes
+    * @param ringSize The number of records in each ring
+    * @exception IOException If the file can't be opened
+    */
+   BinaryTraceWriter(File file, int maxSize, int ringSize) throws IOException
+   {
+      this.file = file;
+      this.maxSize = maxSize;
+      this.ringSize = ringSize;
+      this.rings = new CopyOnWriteArrayList<TraceRing>();
+      this.ring = new ThreadLocal<TraceRing>();
+      this.strings = new ConcurrentHashMap<String, Integer>();
+      this.pending = new ConcurrentLinkedQueue<StringEntry>();
+      this.nextId = new AtomicInteger(1);
+      this.names = new LinkedHashMap<Integer, Name>(1024, 0.75f, true)
+      {
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Integer, Name> eldest)
+         {
+            return size() > MAX_NAMES;
+         }
+      };
+      // Up to three strings and a record always fit in an empty file
+      this.maxStringLength = maxSize / 8;
+
+      open();
+   }
+
+   /**
+    * Start the writer
+    */
+   void start()
+   {
+      running = true;
+
+      Thread writer = new Thread(this, "JCA TraceWriter");
+      writer.setDaemon(true);
+      writer.start();
+
+      Runtime.getRuntime().addShutdownHook(new Thread(new Runnable()
+      {
+         public void run()
+         {
+            stop();
+         }
+      }, "JCA TraceWriter shutdown"));
+   }
+
+   /**
+    * Stop the writer, and write the remaining records
+    */
+   synchronized void stop()
+   {
+      if (running)
+      {
+         running = false;
+         flush();
+         out.force();
+      }
+   }
+
+   /**
+    * Record an event
+    * @param timestamp The timestamp
+    * @param pool The pool name
+    * @param mcp The managed connection pool, or <code>Tracer.NONE</code>
+    * @param type The event type
+    * @param cl The connection listener, or <code>Tracer.NONE</code>
+    * @param payload1 The first payload; a string, an object or null
+    * @param payload2 The second payload; a string, an object or null
+    */
+   void record(long timestamp, String pool, Object mcp, int type, Object cl, Object payload1, Object payload2)
+   {
+      TraceRing r = ring.get();
+      if (r == null)
+      {
+         r = new TraceRing(Thread.currentThread(), ringSize);
+         ring.set(r);
+         rings.add(r);
+      }
+
+      int flags = 0;
+
+      if (mcp == Tracer.NONE)
+         flags |= FLAG_MCP_NONE;
+
+      if (cl == Tracer.NONE)
+         flags |= FLAG_CL_NONE;
+
+      int p1 = 0;
+      if (payload1 instanceof String)
+      {
+         p1 = id((String)payload1);
+         flags |= FLAG_PAYLOAD1_STRING;
+      }
+      else if (payload1 != null)
+      {
+         p1 = System.identityHashCode(payload1);
+         flags |= FLAG_PAYLOAD1_OBJECT;
+      }
+
+      int p2 = 0;
+      if (payload2 instanceof String)
+      {
+         p2 = id((String)payload2);
+         flags |= FLAG_PAYLOAD2_STRING;
+      }
+      else if (payload2 != null)
+      {
+         p2 = System.identityHashCode(payload2);
+         flags |= FLAG_PAYLOAD2_OBJECT;
+      }
+
+      r.offer(timestamp, type, flags, id(pool), System.identityHashCode(mcp), System.identityHashCode(cl), p1, p2);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void run()
+   {
+      while (running)
+      {
+         try
+         {
+            if (!flush())
+               Thread.sleep(IDLE_WAIT);
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.interrupted();
+         }
+         catch (Throwable t)
+         {
+            log.debugf(t, "Trace writer: %s", t.getMessage());
+         }
+      }
+   }
+
+   /**
+    * Get the id of a string
+    * @param s The string
+    * @return The id; 0 for an empty string
+    */
+   private int id(String s)
+   {
+      if (s == null || s.isEmpty())
+         return 0;
+
+      Integer id = strings.get(s);
+      if (id != null)
+         return id.intValue();
+
+      // Strings are written again after the map is cleared, so the file stays readable
+      if (strings.size() >= MAX_STRINGS)
+         strings.clear();
+
+      // The string is queued before the id is visible, so the writer knows it for any record using it
+      int n = nextId.getAndIncrement();
+      pending.offer(new StringEntry(n, s));
+
+      id = strings.putIfAbsent(s, Integer.valueOf(n));
+      if (id != null)
+         return id.intValue();
+
+      return n;
+   }
+
+   /**
+    * Move the pending strings and records to the file
+    * @return True if anything was written
+    */
+   synchronized boolean flush()
+   {
+      boolean written = false;
+
+      takePending();
+
+      for (TraceRing r : rings)
+      {
+         long dropped = r.takeDropped();
+         if (dropped > 0L)
+         {
+            ensure(12);
+            out.putInt(TAG_DROPPED);
+            out.putLong(dropped);
+         }
+
+         while (!r.isEmpty())
+         {
+            int flags = r.peek(TraceRing.FLAGS);
+            Name pool = name(r.peek(TraceRing.POOL));
+            Name payload1 = (flags & FLAG_PAYLOAD1_STRING) != 0 ? name(r.peek(TraceRing.PAYLOAD1)) : null;
+            Name payload2 = (flags & FLAG_PAYLOAD2_STRING) != 0 ? name(r.peek(TraceRing.PAYLOAD2)) : null;
+
+            int size = size(pool) + size(payload1) + size(payload2) + 4 + TraceRing.RECORD_SIZE;
+            if (out.remaining() < size + 4)
+               rollover();
+
+            writeString(pool);
+            writeString(payload1);
+            writeString(payload2);
+
+            r.drain(out, TAG_RECORD, 1);
+            written = true;
+         }
+
+         if (r.isTerminated() && r.isEmpty())
+            rings.remove(r);
+      }
+
+      return written;
+   }
+
+   /**
+    * Move the pending strings to the strings known by the writer
+    */
+   private void takePending()
+   {
+      StringEntry entry = pending.poll();
+      while (entry != null)
+      {
+         byte[] data = entry.value.getBytes(StandardCharsets.UTF_8);
+         if (data.length > maxStringLength)
+            data = Arrays.copyOf(data, maxStringLength);
+
+         names.put(Integer.valueOf(entry.id), new Name(entry.id, data));
+         entry = pending.poll();
+      }
+   }
+
+   /**
+    * Get a string known by the writer
+    * @param id The id
+    * @return The string; <code>null</code> for the empty string or an unknown id
+    */
+   private Name name(int id)
+   {
+      if (id == 0)
+         return null;
+
+      Integer key = Integer.valueOf(id);
+      Name name = names.get(key);
+      if (name == null)
+      {
+         // The string may have been queued after the last poll
+         takePending();
+         name = names.get(key);
+      }
+
+      return name;
+   }
+
+   /**
+    * Get the number of bytes needed to write a string to the current file
+    * @param name The string
+    * @return The value; 0 if it is already in the file
+    */
+   private int size(Name name)
+   {
+      if (name == null || name.file == fileNumber)
+         return 0;
+
+      return 12 + name.data.length;
+   }
+
+   /**
+    * Write a string unless it is already in the current file
+    * @param name The string
+    */
+   private void writeString(Name name)
+   {
+      if (name == null || name.file == fileNumber)
+         return;
+
+      out.putInt(TAG_STRING);
+      out.putInt(name.id);
+      out.putInt(name.data.length);
+      out.put(name.data);
+
+      name.file = fileNumber;
+   }
+
+   /**
+    * Make room in the file, keeping space for the end tag
+    * @param size The number of bytes
+    */
+   private void ensure(int size)
+   {
+      if (out.remaining() < size + 4)
+         rollover();
+   }
+
+   /**
+    * Open the file
+    */
+   private void open()
+   {
+      try
+      {
+         channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+         out = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxSize);
+         out.putInt(MAGIC);
+         out.putInt(VERSION);
+
+         fileNumber++;
+      }
+      catch (IOException ioe)
+      {
+         throw new IllegalStateException("Unable to open trace file: " + file, ioe);
+      }
+   }
+
+   /**
+    * Move the current file to the backup file, and start a new file
+    */
+   private void rollover()
+   {
+      try
+      {
+         out.force();
+         channel.close();
+
+         Files.move(file.toPath(), new File(file.getPath() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (IOException ioe)
+      {
+         log.debugf(ioe, "Trace writer rollover: %s", ioe.getMessage());
+      }
+
+      open();
+   }
+
+   /**
+    * A string which hasn't been written yet
+    */
+   private static class StringEntry
+   {
+      /** The id */
+      private final int id;
+
+      /** The value */
+      private final String value;
+
+      /**
+       * Constructor
+       * @param id The id
+       * @param value The value
+       */
+      StringEntry(int id, String value)
+      {
+         this.id = id;
+         this.value = value;
+      }
+   }
+
+   /**
+    * A string known by the writer
+    */
+   private static class Name
+   {
+      /** The id */
+      private final int id;
+
+      /** The UTF-8 data */
+      private final byte[] data;
+
+      /** The last file the string was written to */
+      private int file;
+
+      /**
+       * Constructor
+       * @param id The id
+       * @param data The data
+       */
+      Name(int id, byte[] data)
+      {
+         this.id = id;
+         this.data = data;
+      }
+   }
+}
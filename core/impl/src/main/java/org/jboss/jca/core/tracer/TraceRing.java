@@ -0,0 +1,202 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single producer, single consumer ring of fixed size binary trace records,
+ * kept off-heap. The owning thread writes the records, and the trace writer
+ * drains them.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class TraceRing
+{
+   /** The size of a record */
+   static final int RECORD_SIZE = 48;
+
+   /** The offset of the flags in a record */
+   static final int FLAGS = 20;
+
+   /** The offset of the pool name in a record */
+   static final int POOL = 24;
+
+   /** The offset of the first payload in a record */
+   static final int PAYLOAD1 = 36;
+
+   /** The offset of the second payload in a record */
+   static final int PAYLOAD2 = 40;
+
+   /** The owner */
+   private final WeakReference<Thread> owner;
+
+   /** The thread id of the owner */
+   private final long threadId;
+
+   /** The records */
+   private final ByteBuffer buffer;
+
+   /** Index mask */
+   private final long mask;
+
+   /** The number of records */
+   private final int capacity;
+
+   /** The next record to write; only written by the owner */
+   private final AtomicLong tail;
+
+   /** The next record to read; only written by the trace writer */
+   private final AtomicLong head;
+
+   /** Records dropped because the ring was full */
+   private final AtomicLong dropped;
+
+   /**
+    * Constructor
+    * @param owner The owning thread
+    * @param size The minimum number of records
+    */
+   TraceRing(Thread owner, int size)
+   {
+      int c = Integer.highestOneBit(Math.max(16, size) - 1) << 1;
+
+      this.owner = new WeakReference<Thread>(owner);
+      this.threadId = owner.getId();
+      this.buffer = ByteBuffer.allocateDirect(c * RECORD_SIZE);
+      this.mask = c - 1;
+      this.capacity = c;
+      this.tail = new AtomicLong(0L);
+      this.head = new AtomicLong(0L);
+      this.dropped = new AtomicLong(0L);
+   }
+
+   /**
+    * Add a record; the record is dropped if the ring is full
+    * @param timestamp The timestamp
+    * @param type The event type
+    * @param flags The flags
+    * @param pool The pool name
+    * @param mcp The managed connection pool
+    * @param cl The connection listener
+    * @param payload1 The first payload
+    * @param payload2 The second payload
+    * @return True if added
+    */
+   boolean offer(long timestamp, int type, int flags, int pool, int mcp, int cl, int payload1, int payload2)
+   {
+      long t = tail.get();
+
+      if (t - head.get() >= capacity)
+      {
+         dropped.incrementAndGet();
+         return false;
+      }
+
+      int offset = (int)(t & mask) * RECORD_SIZE;
+
+      buffer.putLong(offset, timestamp);
+      buffer.putLong(offset + 8, threadId);
+      buffer.putInt(offset + 16, type);
+      buffer.putInt(offset + 20, flags);
+      buffer.putInt(offset + 24, pool);
+      buffer.putInt(offset + 28, mcp);
+      buffer.putInt(offset + 32, cl);
+      buffer.putInt(offset + 36, payload1);
+      buffer.putInt(offset + 40, payload2);
+      buffer.putInt(offset + 44, 0);
+
+      tail.lazySet(t + 1);
+      return true;
+   }
+
+   /**
+    * Move records to the target, each preceded by the record tag
+    * @param target The target buffer
+    * @param tag The record tag
+    * @param max The maximum number of records
+    * @return The number of records moved
+    */
+   int drain(ByteBuffer target, int tag, int max)
+   {
+      long h = head.get();
+      int count = (int)Math.min(max, tail.get() - h);
+
+      for (int i = 0; i < count; i++)
+      {
+         int offset = (int)((h + i) & mask) * RECORD_SIZE;
+
+         target.putInt(tag);
+         for (int j = 0; j < RECORD_SIZE; j += 8)
+            target.putLong(buffer.getLong(offset + j));
+      }
+
+      if (count > 0)
+         head.lazySet(h + count);
+
+      return count;
+   }
+
+   /**
+    * Get a field of the next record; only valid if the ring isn't empty
+    * @param field The offset of the field
+    * @return The value
+    */
+   int peek(int field)
+   {
+      return buffer.getInt((int)(head.get() & mask) * RECORD_SIZE + field);
+   }
+
+   /**
+    * Is the ring empty
+    * @return The value
+    */
+   boolean isEmpty()
+   {
+      return tail.get() == head.get();
+   }
+
+   /**
+    * Has the owner terminated
+    * @return The value
+    */
+   boolean isTerminated()
+   {
+      Thread t = owner.get();
+      return t == null || !t.isAlive();
+   }
+
+   /**
+    * Get and reset the number of dropped records
+    * @return The value
+    */
+   long takeDropped()
+   {
+      if (dropped.get() == 0L)
+         return 0L;
+
+      return dropped.getAndSet(0L);
+   }
+}
@@ -24,6 +24,7 @@ package org.jboss.jca.core.tracer;
 import org.jboss.jca.Version;
 
 import java.io.CharArrayWriter;
+import java.io.File;
 import java.io.PrintWriter;
 
 import org.jboss.logging.Logger;
@@ -38,6 +39,9 @@ public class Tracer
    /** Tracer logger */
    private static Logger log = Logger.getLogger(Tracer.class);
    
+   /** No object */
+   static final Object NONE = new Object();
+
    /** Is the tracer enabled */
    private static boolean enabled = log.isTraceEnabled();
 
@@ -47,11 +51,47 @@ public class Tracer
    /** Is the tracer confidential */
    private static boolean confidential = false;
 
+   /** The binary writer */
+   private static BinaryTraceWriter writer = null;
+
    static
    {
-      log.tracef("%s", new TraceEvent(Version.VERSION, "NONE", TraceEvent.VERSION, "NONE"));
+      String value = SecurityActions.getSystemProperty("ironjacamar.tracer.file");
+      if (value != null && !value.trim().equals(""))
+      {
+         int size = 64;
+         int buffer = 2048;
+
+         try
+         {
+            String s = SecurityActions.getSystemProperty("ironjacamar.tracer.file.size");
+            if (s != null && !s.trim().equals(""))
+               size = Integer.parseInt(s.trim());
 
-      String value = SecurityActions.getSystemProperty("ironjacamar.tracer.callstacks");
+            s = SecurityActions.getSystemProperty("ironjacamar.tracer.buffer");
+            if (s != null && !s.trim().equals(""))
+               buffer = Integer.parseInt(s.trim());
+         }
+         catch (Throwable t)
+         {
+            // Use the defaults
+         }
+
+         try
+         {
+            writer = new BinaryTraceWriter(new File(value.trim()), size * 1024 * 1024, buffer);
+            writer.start();
+            enabled = true;
+         }
+         catch (Throwable t)
+         {
+            log.debugf(t, "Unable to open trace file: %s", value);
+         }
+      }
+
+      trace(Version.VERSION, NONE, TraceEvent.VERSION, NONE, null, null);
+
+      value = SecurityActions.getSystemProperty("ironjacamar.tracer.callstacks");
       if (value != null && !value.trim().equals(""))
       {
          try
@@ -125,45 +165,32 @@ public class Tracer
     * @param interleaving Interleaving flag
     * @param callstack The call stack
     */
-   public static synchronized void getConnectionListener(String poolName, Object mcp, Object cl,
-                                                         boolean pooled, boolean interleaving,
-                                                         Throwable callstack)
+   public static void getConnectionListener(String poolName, Object mcp, Object cl,
+                                            boolean pooled, boolean interleaving,
+                                            Throwable callstack)
    {
       if (!interleaving)
       {
          if (pooled)
          {
-            log.tracef("%s", new TraceEvent(poolName, Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.GET_CONNECTION_LISTENER, cl, !confidential ? callstack : null, null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_CONNECTION_LISTENER_NEW,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.GET_CONNECTION_LISTENER_NEW, cl, !confidential ? callstack : null, null);
          }
       }
       else
       {
          if (pooled)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER, cl,
+                  !confidential ? callstack : null, null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER_NEW,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER_NEW, cl,
+                  !confidential ? callstack : null, null);
          }
       }
    }
@@ -177,46 +204,33 @@ public class Tracer
     * @param interleaving Interleaving flag
     * @param callstack The call stack
     */
-   public static synchronized void returnConnectionListener(String poolName, Object mcp,
-                                                            Object cl, boolean kill, boolean interleaving,
-                                                            Throwable callstack)
+   public static void returnConnectionListener(String poolName, Object mcp,
+                                               Object cl, boolean kill, boolean interleaving,
+                                               Throwable callstack)
    {
       if (!interleaving)
       {
          if (!kill)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.RETURN_CONNECTION_LISTENER, cl, !confidential ? callstack : null, null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_CONNECTION_LISTENER_WITH_KILL,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.RETURN_CONNECTION_LISTENER_WITH_KILL, cl,
+                  !confidential ? callstack : null, null);
          }
       }
       else
       {
          if (!kill)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER, cl,
+                  !confidential ? callstack : null, null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER_WITH_KILL,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(poolName, mcp, TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER_WITH_KILL, cl,
+                  !confidential ? callstack : null, null);
          }
       }
    }
@@ -227,12 +241,9 @@ public class Tracer
     * @param mcp The managed connection pool
     * @param cl The connection listener
     */
-   public static synchronized void clearConnectionListener(String poolName, Object mcp, Object cl)
+   public static void clearConnectionListener(String poolName, Object mcp, Object cl)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLEAR_CONNECTION_LISTENER,
-                                      Integer.toHexString(System.identityHashCode(cl))));
+      trace(poolName, mcp, TraceEvent.CLEAR_CONNECTION_LISTENER, cl, null, null);
    }
 
    /**
@@ -244,46 +255,31 @@ public class Tracer
     * @param success Outcome
     * @param interleaving Interleaving flag
     */
-   public static synchronized void enlistConnectionListener(String poolName, Object mcp, Object cl,
-                                                            String tx,
-                                                            boolean success, boolean interleaving)
+   public static void enlistConnectionListener(String poolName, Object mcp, Object cl,
+                                               String tx,
+                                               boolean success, boolean interleaving)
    {
       if (!interleaving)
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.ENLIST_CONNECTION_LISTENER, cl, tx.replace('-', '_'), null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.ENLIST_CONNECTION_LISTENER_FAILED, cl, tx.replace('-', '_'), null);
          }
       }
       else
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER, cl, tx.replace('-', '_'), null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER_FAILED, cl,
+                  tx.replace('-', '_'), null);
          }
       }
    }
@@ -298,8 +294,8 @@ public class Tracer
     * @param rollbacked Is the transaction rollbacked
     * @param interleaving Interleaving flag
     */
-   public static synchronized void delistConnectionListener(String poolName, Object mcp, Object cl, String tx,
-                                                            boolean success, boolean rollbacked, boolean interleaving)
+   public static void delistConnectionListener(String poolName, Object mcp, Object cl, String tx,
+                                               boolean success, boolean rollbacked, boolean interleaving)
    {
       if (!rollbacked)
       {
@@ -307,38 +303,23 @@ public class Tracer
          {
             if (success)
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_CONNECTION_LISTENER,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(poolName, mcp, TraceEvent.DELIST_CONNECTION_LISTENER, cl, tx.replace('-', '_'), null);
             }
             else
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_CONNECTION_LISTENER_FAILED,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(poolName, mcp, TraceEvent.DELIST_CONNECTION_LISTENER_FAILED, cl, tx.replace('-', '_'), null);
             }
          }
          else
          {
             if (success)
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(poolName, mcp, TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER, cl, tx.replace('-', '_'), null);
             }
             else
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(poolName, mcp, TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER_FAILED, cl,
+                     tx.replace('-', '_'), null);
             }
          }
       }
@@ -346,19 +327,12 @@ public class Tracer
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER, cl, tx.replace('-', '_'), null);
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(poolName, mcp, TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER_FAILED, cl,
+                  tx.replace('-', '_'), null);
          }
       }
    }
@@ -370,13 +344,9 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void getConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void getConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.GET_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(poolName, mcp, TraceEvent.GET_CONNECTION, cl, connection, null);
    }
 
    /**
@@ -386,13 +356,9 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void returnConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void returnConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.RETURN_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(poolName, mcp, TraceEvent.RETURN_CONNECTION, cl, connection, null);
    }
 
    /**
@@ -402,13 +368,9 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void clearConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void clearConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLEAR_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(poolName, mcp, TraceEvent.CLEAR_CONNECTION, cl, connection, null);
    }
 
    /**
@@ -418,14 +380,10 @@ public class Tracer
     * @param cl The connection listener
     * @param exception The exception
     */
-   public static synchronized void exception(String poolName, Object mcp, Object cl, Throwable exception)
+   public static void exception(String poolName, Object mcp, Object cl, Throwable exception)
    {
       if (!confidential)
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.EXCEPTION,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         toString(exception)));
+         trace(poolName, mcp, TraceEvent.EXCEPTION, cl, exception, null);
    }
 
    /**
@@ -439,36 +397,22 @@ public class Tracer
     * @param incrementer An INCREMENTER operation
     * @param callstack The call stack
     */
-   public static synchronized void createConnectionListener(String poolName, Object mcp, Object cl, Object mc,
-                                                            boolean get, boolean prefill, boolean incrementer,
-                                                            Throwable callstack)
+   public static void createConnectionListener(String poolName, Object mcp, Object cl, Object mc,
+                                               boolean get, boolean prefill, boolean incrementer,
+                                               Throwable callstack)
    {
       if (get)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_GET,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.CREATE_CONNECTION_LISTENER_GET, cl, mc, !confidential ? callstack : null);
       }
       else if (prefill)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL, cl, mc, !confidential ? callstack : null);
       }
       else if (incrementer)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER, cl,
+               mc, !confidential ? callstack : null);
       }
    }
 
@@ -486,67 +430,43 @@ public class Tracer
     * @param incrementer An INCREMENTER operation
     * @param callstack The call stack
     */
-   public static synchronized void destroyConnectionListener(String poolName, Object mcp, Object cl,
-                                                             boolean ret, boolean idle, boolean invalid,
-                                                             boolean flush, boolean error,
-                                                             boolean prefill, boolean incrementer,
-                                                             Throwable callstack)
+   public static void destroyConnectionListener(String poolName, Object mcp, Object cl,
+                                                boolean ret, boolean idle, boolean invalid,
+                                                boolean flush, boolean error,
+                                                boolean prefill, boolean incrementer,
+                                                Throwable callstack)
    {
       if (ret)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN, cl,
+               !confidential ? callstack : null, null);
       }
       else if (idle)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE, cl, !confidential ? callstack : null, null);
       }
       else if (invalid)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID, cl,
+               !confidential ? callstack : null, null);
       }
       else if (flush)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH, cl, !confidential ? callstack : null, null);
       }
       else if (error)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR, cl, !confidential ? callstack : null, null);
       }
       else if (prefill)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL, cl,
+               !confidential ? callstack : null, null);
       }
       else if (incrementer)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(poolName, mcp, TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER, cl,
+               !confidential ? callstack : null, null);
       }
    }
 
@@ -555,12 +475,9 @@ public class Tracer
     * @param poolName The name of the pool
     * @param mcp The managed connection pool
     */
-   public static synchronized void createManagedConnectionPool(String poolName, Object mcp)
+   public static void createManagedConnectionPool(String poolName, Object mcp)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.MANAGED_CONNECTION_POOL_CREATE,
-                                      "NONE"));
+      trace(poolName, mcp, TraceEvent.MANAGED_CONNECTION_POOL_CREATE, NONE, null, null);
    }
 
    /**
@@ -568,12 +485,9 @@ public class Tracer
     * @param poolName The name of the pool
     * @param mcp The managed connection pool
     */
-   public static synchronized void destroyManagedConnectionPool(String poolName, Object mcp)
+   public static void destroyManagedConnectionPool(String poolName, Object mcp)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.MANAGED_CONNECTION_POOL_DESTROY,
-                                      "NONE"));
+      trace(poolName, mcp, TraceEvent.MANAGED_CONNECTION_POOL_DESTROY, NONE, null, null);
    }
 
    /**
@@ -581,10 +495,9 @@ public class Tracer
     * @param key The frame key
     * @param callstack The call stack
     */
-   public static synchronized void pushCCMContext(String key, Throwable callstack)
+   public static void pushCCMContext(String key, Throwable callstack)
    {
-      log.tracef("%s", new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.PUSH_CCM_CONTEXT,
-                                      "NONE", key, callstack != null ? toString(callstack) : ""));
+      trace("CachedConnectionManager", NONE, TraceEvent.PUSH_CCM_CONTEXT, NONE, key, callstack);
    }
 
    /**
@@ -592,10 +505,9 @@ public class Tracer
     * @param key The frame key
     * @param callstack The call stack
     */
-   public static synchronized void popCCMContext(String key, Throwable callstack)
+   public static void popCCMContext(String key, Throwable callstack)
    {
-      log.tracef("%s", new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.POP_CCM_CONTEXT,
-                                      "NONE", key, callstack != null ? toString(callstack) : ""));
+      trace("CachedConnectionManager", NONE, TraceEvent.POP_CCM_CONTEXT, NONE, key, callstack);
    }
 
    /**
@@ -606,15 +518,10 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void registerCCMConnection(String poolName, Object mcp, Object cl,
-                                                         Object connection, String key)
+   public static void registerCCMConnection(String poolName, Object mcp, Object cl,
+                                            Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.REGISTER_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(poolName, mcp, TraceEvent.REGISTER_CCM_CONNECTION, cl, connection, key);
    }
 
    /**
@@ -625,15 +532,10 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void unregisterCCMConnection(String poolName, Object mcp, Object cl,
-                                                           Object connection, String key)
+   public static void unregisterCCMConnection(String poolName, Object mcp, Object cl,
+                                              Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.UNREGISTER_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(poolName, mcp, TraceEvent.UNREGISTER_CCM_CONNECTION, cl, connection, key);
    }
 
    /**
@@ -644,15 +546,10 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void unknownCCMConnection(String poolName, Object mcp, Object cl,
-                                                        Object connection, String key)
+   public static void unknownCCMConnection(String poolName, Object mcp, Object cl,
+                                           Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.UNKNOWN_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(poolName, mcp, TraceEvent.UNKNOWN_CCM_CONNECTION, cl, connection, key);
    }
 
    /**
@@ -663,15 +560,10 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void closeCCMConnection(String poolName, Object mcp, Object cl,
-                                                      Object connection, String key)
+   public static void closeCCMConnection(String poolName, Object mcp, Object cl,
+                                         Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLOSE_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(poolName, mcp, TraceEvent.CLOSE_CCM_CONNECTION, cl, connection, key);
    }
 
    /**
@@ -682,15 +574,71 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void ccmUserTransaction(String poolName, Object mcp, Object cl,
-                                                      Object connection, String key)
+   public static void ccmUserTransaction(String poolName, Object mcp, Object cl,
+                                         Object connection, String key)
+   {
+      trace(poolName, mcp, TraceEvent.CCM_USER_TRANSACTION, cl, connection, key);
+   }
+
+   /**
+    * Write the recorded events to the trace file
+    */
+   static void flush()
+   {
+      if (writer != null)
+         writer.flush();
+   }
+
+   /**
+    * Record an event
+    * @param poolName The name of the pool
+    * @param mcp The managed connection pool, or NONE
+    * @param type The event type
+    * @param cl The connection listener, or NONE
+    * @param payload1 The first payload
+    * @param payload2 The second payload
+    */
+   private static void trace(String poolName, Object mcp, int type, Object cl, Object payload1, Object payload2)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CCM_USER_TRANSACTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      if (writer != null)
+      {
+         long timestamp = System.nanoTime();
+
+         writer.record(timestamp, poolName, mcp, type, cl,
+                       payload1 instanceof Throwable ? toString((Throwable)payload1) : payload1,
+                       payload2 instanceof Throwable ? toString((Throwable)payload2) : payload2);
+      }
+      else
+      {
+         String m = mcp == NONE ? "NONE" : Integer.toHexString(System.identityHashCode(mcp));
+         String c = cl == NONE ? "NONE" : Integer.toHexString(System.identityHashCode(cl));
+         String p1 = toString(payload1);
+         String p2 = toString(payload2);
+
+         synchronized (Tracer.class)
+         {
+            log.tracef("%s", new TraceEvent(poolName, m, type, c, p1, p2));
+         }
+      }
+   }
+
+   /**
+    * Payload to string
+    * @param payload The payload
+    * @return The string representation
+    */
+   private static String toString(Object payload)
+   {
+      if (payload == null)
+         return "";
+
+      if (payload instanceof String)
+         return (String)payload;
+
+      if (payload instanceof Throwable)
+         return toString((Throwable)payload);
+
+      return Integer.toHexString(System.identityHashCode(payload));
    }
 
    /**
@@ -698,7 +646,7 @@ public class Tracer
     * @param exception The exception
     * @return The string representation
     */
-   private static synchronized String toString(Throwable exception)
+   private static String toString(Throwable exception)
    {
       CharArrayWriter caw = new CharArrayWriter();
       PrintWriter pw = new PrintWriter(caw, true);
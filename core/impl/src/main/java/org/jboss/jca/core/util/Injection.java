@@ -23,6 +23,9 @@ package org.jboss.jca.core.util;
 
 import java.io.File;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -36,15 +39,33 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Injection utility which can inject values into objects. This file is a copy
  * of the <code>com.github.fungal.api.util.Injection</code> class.
  *
+ * The setter or field of a property is resolved once per class, and kept as a
+ * method handle in an injection plan together with the last converted value, such
+ * that injecting the same properties into many instances doesn't scan and sort the
+ * declared methods every time.
+ *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 public class Injection
 {
+   /** The injection plans by class and property */
+   private static final ClassValue<ConcurrentMap<String, Plan>> PLANS =
+      new ClassValue<ConcurrentMap<String, Plan>>()
+      {
+         @Override
+         protected ConcurrentMap<String, Plan> computeValue(Class<?> type)
+         {
+            return new ConcurrentHashMap<String, Plan>();
+         }
+      };
+
    /**
     * Constructor
     */
@@ -108,60 +129,74 @@ public class Injection
       if (propertyName == null || propertyName.trim().equals(""))
          throw new IllegalArgumentException("PropertyName is undefined");
 
-      String methodName = "set" + propertyName.substring(0, 1).toUpperCase(Locale.US);
-      if (propertyName.length() > 1)
+      Plan plan = getPlan(object.getClass(), propertyName, propertyType, includeFields);
+
+      if (plan.method == null && plan.field == null)
       {
-         methodName += propertyName.substring(1);
-      }
+         if (!includeFields)
+            throw new NoSuchMethodException("Method " + getMethodName(propertyName) + " not found");
 
-      Method method = findMethod(object.getClass(), methodName, propertyType);
+         throw new NoSuchMethodException("Field " + propertyName + " not found");
+      }
 
-      if (method != null)
+      Object value = null;
+      try
       {
-         Class<?> parameterClass = method.getParameterTypes()[0];
-         Object parameterValue = null;
-         try
-         {
-            parameterValue = getValue(propertyName, parameterClass, propertyValue, 
-                                      SecurityActions.getClassLoader(object.getClass()));
-         }
-         catch (Throwable t)
-         {
-            throw new InvocationTargetException(t, t.getMessage());
-         }
-                
-         if (!parameterClass.isPrimitive() || parameterValue != null)
-            method.invoke(object, new Object[] {parameterValue});
+         value = plan.getValue(this, propertyValue);
       }
-      else
+      catch (Throwable t)
       {
-         if (!includeFields)
-            throw new NoSuchMethodException("Method " + methodName + " not found");
+         throw new InvocationTargetException(t, t.getMessage());
+      }
 
-         // Ok, we didn't find a method - assume field
-         Field field = findField(object.getClass(), propertyName, propertyType);
+      plan.set(object, value);
+   }
 
-         if (field != null)
-         {
-            Class<?> fieldClass = field.getType();
-            Object fieldValue = null;
-            try
-            {
-               fieldValue = getValue(propertyName, fieldClass, propertyValue,
-                                     SecurityActions.getClassLoader(object.getClass()));
-            }
-            catch (Throwable t)
-            {
-               throw new InvocationTargetException(t, t.getMessage());
-            }
+   /**
+    * Get the injection plan of a property, and create it if it doesn't exist
+    * @param clz The class
+    * @param propertyName The property name
+    * @param propertyType The property type; can be <code>null</code>
+    * @param includeFields Should fields be included if a method can't be found
+    * @return The plan
+    */
+   private Plan getPlan(Class<?> clz, String propertyName, String propertyType, boolean includeFields)
+   {
+      ConcurrentMap<String, Plan> plans = PLANS.get(clz);
+      String key = propertyName + "|" + propertyType + "|" + includeFields;
 
-            field.set(object, fieldValue);
-         }
-         else
-         {
-            throw new NoSuchMethodException("Field " + propertyName + " not found");
-         }
+      Plan plan = plans.get(key);
+      if (plan == null)
+      {
+         Method method = findMethod(clz, getMethodName(propertyName), propertyType);
+         Field field = null;
+
+         if (method == null && includeFields)
+            field = findField(clz, propertyName, propertyType);
+
+         plan = new Plan(propertyName, method, field, SecurityActions.getClassLoader(clz));
+
+         Plan existing = plans.putIfAbsent(key, plan);
+         if (existing != null)
+            plan = existing;
+      }
+
+      return plan;
+   }
+
+   /**
+    * Get the setter method name of a property
+    * @param propertyName The property name
+    * @return The method name
+    */
+   private static String getMethodName(String propertyName)
+   {
+      String methodName = "set" + propertyName.substring(0, 1).toUpperCase(Locale.US);
+      if (propertyName.length() > 1)
+      {
+         methodName += propertyName.substring(1);
       }
+      return methodName;
    }
 
    /**
@@ -496,6 +531,226 @@ public class Injection
       return input;
    }
 
+   /**
+    * An injection plan for a property of a class
+    */
+   static class Plan
+   {
+      /** The property name */
+      private final String name;
+
+      /** The setter method; <code>null</code> if the property is injected into a field */
+      private final Method method;
+
+      /** The field; <code>null</code> if the property is injected through a method */
+      private final Field field;
+
+      /** The type of the value */
+      private final Class<?> type;
+
+      /** The boxed type of the value */
+      private final Class<?> boxedType;
+
+      /** The class loader of the class */
+      private final ClassLoader classLoader;
+
+      /** The setter as (Object, Object)void; <code>null</code> if it can't be unreflected */
+      private final MethodHandle setter;
+
+      /** Can converted values be reused */
+      private final boolean immutable;
+
+      /** The last converted value */
+      private volatile Conversion last;
+
+      /**
+       * Constructor
+       * @param name The property name
+       * @param method The setter method
+       * @param field The field
+       * @param classLoader The class loader of the class
+       */
+      Plan(String name, Method method, Field field, ClassLoader classLoader)
+      {
+         this.name = name;
+         this.method = method;
+         this.field = field;
+         this.classLoader = classLoader;
+         this.last = null;
+
+         if (method != null)
+         {
+            this.type = method.getParameterTypes()[0];
+         }
+         else if (field != null)
+         {
+            this.type = field.getType();
+         }
+         else
+         {
+            this.type = null;
+         }
+
+         this.boxedType = box(type);
+         this.immutable = type != null &&
+            (!boxedType.equals(type) || isBoxed(type) || type.equals(String.class) || type.equals(Class.class));
+
+         MethodHandle mh = null;
+         try
+         {
+            if (method != null)
+            {
+               mh = MethodHandles.lookup().unreflect(method);
+            }
+            else if (field != null)
+            {
+               mh = MethodHandles.lookup().unreflectSetter(field);
+            }
+
+            if (mh != null)
+               mh = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+         }
+         catch (Throwable t)
+         {
+            // Use reflection
+            mh = null;
+         }
+         this.setter = mh;
+      }
+
+      /**
+       * Get the value to inject. Values without a system property reference are only converted
+       * the first time they are seen, if the converted value is immutable
+       * @param injection The injection
+       * @param v The value
+       * @return The converted value
+       * @exception Exception Thrown in case of an error
+       */
+      Object getValue(Injection injection, Object v) throws Exception
+      {
+         if (!immutable || !(v instanceof String) || ((String)v).indexOf("${") != -1)
+            return injection.getValue(name, type, v, classLoader);
+
+         Conversion c = last;
+         if (c != null && c.input.equals(v))
+            return c.value;
+
+         Object value = injection.getValue(name, type, v, classLoader);
+         last = new Conversion((String)v, value);
+
+         return value;
+      }
+
+      /**
+       * Inject a value
+       * @param object The object
+       * @param value The converted value
+       * @exception IllegalAccessException If the property can't be accessed
+       * @exception InvocationTargetException If the property method cannot be executed
+       */
+      void set(Object object, Object value) throws IllegalAccessException, InvocationTargetException
+      {
+         if (method != null && type.isPrimitive() && value == null)
+            return;
+
+         if (setter == null || (value == null && type.isPrimitive()) ||
+             (value != null && !boxedType.isInstance(value)))
+         {
+            // Let reflection handle conversions and report errors
+            if (method != null)
+            {
+               method.invoke(object, new Object[] {value});
+            }
+            else
+            {
+               field.set(object, value);
+            }
+            return;
+         }
+
+         try
+         {
+            setter.invokeExact(object, value);
+         }
+         catch (Throwable t)
+         {
+            throw new InvocationTargetException(t, t.getMessage());
+         }
+      }
+
+      /**
+       * Get the boxed type of a type
+       * @param type The type
+       * @return The boxed type; the type itself if it isn't primitive
+       */
+      private static Class<?> box(Class<?> type)
+      {
+         if (type == null || !type.isPrimitive())
+            return type;
+
+         if (type.equals(boolean.class))
+            return Boolean.class;
+
+         if (type.equals(byte.class))
+            return Byte.class;
+
+         if (type.equals(short.class))
+            return Short.class;
+
+         if (type.equals(int.class))
+            return Integer.class;
+
+         if (type.equals(long.class))
+            return Long.class;
+
+         if (type.equals(float.class))
+            return Float.class;
+
+         if (type.equals(double.class))
+            return Double.class;
+
+         if (type.equals(char.class))
+            return Character.class;
+
+         return type;
+      }
+
+      /**
+       * Is a type a boxed primitive type
+       * @param type The type
+       * @return True if boxed; otherwise false
+       */
+      private static boolean isBoxed(Class<?> type)
+      {
+         return type.equals(Boolean.class) || type.equals(Byte.class) || type.equals(Short.class) ||
+            type.equals(Integer.class) || type.equals(Long.class) || type.equals(Float.class) ||
+            type.equals(Double.class) || type.equals(Character.class);
+      }
+   }
+
+   /**
+    * A converted value
+    */
+   static class Conversion
+   {
+      /** The input */
+      private final String input;
+
+      /** The value */
+      private final Object value;
+
+      /**
+       * Constructor
+       * @param input The input
+       * @param value The value
+       */
+      Conversion(String input, Object value)
+      {
+         this.input = input;
+         this.value = value;
+      }
+   }
+
    /**
     * Method sorter
     */
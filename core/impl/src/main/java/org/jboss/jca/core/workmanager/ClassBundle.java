@@ -23,7 +23,10 @@
 package org.jboss.jca.core.workmanager;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -36,9 +39,17 @@ public class ClassBundle implements Serializable
    /** SerialVersionUID */
    private static final long serialVersionUID = 1L;
 
+   /** Digest key */
+   private static final String DIGEST = "DIGEST";
+
    /** The definitions */
    private List<ClassDefinition> definitions;
 
+   /** The digest */
+   private String digest;
+
+   /** Is the bundle a reference to a bundle known by its digest */
+   private boolean reference;
 
    /**
     * create an instance from a Map
@@ -50,6 +61,9 @@ public class ClassBundle implements Serializable
       ArrayList<ClassDefinition> listOfDefinitions = new ArrayList<ClassDefinition>(mapList.size());
       for (Map<String, Object> classDefinitionMap : mapList)
       {
+         if (classDefinitionMap.containsKey(DIGEST))
+            return createReference((String)classDefinitionMap.get(DIGEST));
+
          listOfDefinitions.add(ClassDefinition.fromMap(classDefinitionMap));
       }
       return new ClassBundle(listOfDefinitions);
@@ -62,6 +76,9 @@ public class ClassBundle implements Serializable
     */
    public List<Map<String, Object>> toListOfMaps()
    {
+      if (reference)
+         return Collections.singletonList(Collections.singletonMap(DIGEST, (Object)digest));
+
       ArrayList<Map<String, Object>> returnList = new ArrayList<Map<String, Object>>(this.getDefinitions().size());
       for (ClassDefinition classDefinition : this.getDefinitions())
       {
@@ -96,6 +113,84 @@ public class ClassBundle implements Serializable
       return definitions;
    }
 
+   /**
+    * Get the digest, which identifies the class definitions of the bundle
+    * @return The value
+    */
+   public String getDigest()
+   {
+      if (digest == null)
+      {
+         try
+         {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (ClassDefinition cd : definitions)
+            {
+               if (cd != null)
+               {
+                  md.update(cd.getName().getBytes(StandardCharsets.UTF_8));
+
+                  long svu = cd.getSerialVersionUID();
+                  for (int i = 0; i < 8; i++)
+                  {
+                     md.update((byte)(svu >>> (i * 8)));
+                  }
+
+                  if (cd.getData() != null)
+                     md.update(cd.getData());
+               }
+            }
+
+            StringBuilder sb = new StringBuilder(64);
+            for (byte b : md.digest())
+            {
+               sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+               sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            digest = sb.toString();
+         }
+         catch (Exception e)
+         {
+            throw new IllegalStateException(e);
+         }
+      }
+      return digest;
+   }
+
+   /**
+    * Is the bundle a reference to a bundle known by its digest
+    * @return The value
+    */
+   public boolean isReference()
+   {
+      return reference;
+   }
+
+   /**
+    * Get a reference to this bundle, which only holds the digest
+    * @return The reference
+    */
+   public ClassBundle getReference()
+   {
+      if (reference)
+         return this;
+
+      return createReference(getDigest());
+   }
+
+   /**
+    * Create a reference to a bundle
+    * @param digest The digest of the bundle
+    * @return The reference
+    */
+   public static ClassBundle createReference(String digest)
+   {
+      ClassBundle cb = new ClassBundle(new ArrayList<ClassDefinition>(0));
+      cb.digest = digest;
+      cb.reference = true;
+      return cb;
+   }
+
    /** 
     * {@inheritDoc}
     */
@@ -125,6 +220,12 @@ public class ClassBundle implements Serializable
          return false;
 
       ClassBundle cb = (ClassBundle)other;
+      if (reference != cb.reference)
+         return false;
+
+      if (reference && !digest.equals(cb.digest))
+         return false;
+
       if (definitions == null)
       {
          if (cb.definitions != null)
@@ -149,6 +250,8 @@ public class ClassBundle implements Serializable
 
       sb.append("ClassBundle@").append(Integer.toHexString(System.identityHashCode(this)));
       sb.append("[definitions=").append(definitions);
+      if (reference)
+         sb.append(" digest=").append(digest);
       sb.append("]");
 
       return sb.toString();
@@ -28,6 +28,7 @@ import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.logging.Logger;
 
@@ -41,6 +42,17 @@ public class ClassBundleFactory
    private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class,
                                                            ClassBundleFactory.class.getName());
 
+   /** The class bundles per class */
+   private static final ClassValue<AtomicReference<ClassBundle>> BUNDLES =
+      new ClassValue<AtomicReference<ClassBundle>>()
+   {
+      @Override
+      protected AtomicReference<ClassBundle> computeValue(Class<?> type)
+      {
+         return new AtomicReference<ClassBundle>();
+      }
+   };
+
    /**
     * Constructor
     */
@@ -49,7 +61,8 @@ public class ClassBundleFactory
    }
 
    /**
-    * Create a class bundle
+    * Create a class bundle. The bundle only depends on the class of the serializable,
+    * so it is created once per class, and shared
     * @param s The serializable
     * @return The bundle
     */
@@ -58,6 +71,24 @@ public class ClassBundleFactory
       if (s == null)
          return null;
 
+      AtomicReference<ClassBundle> ref = BUNDLES.get(s.getClass());
+      ClassBundle cb = ref.get();
+      if (cb == null)
+      {
+         cb = buildClassBundle(s);
+         cb.getDigest();
+         ref.set(cb);
+      }
+      return cb;
+   }
+
+   /**
+    * Build a class bundle
+    * @param s The serializable
+    * @return The bundle
+    */
+   private static ClassBundle buildClassBundle(Serializable s)
+   {
       log.tracef("Creating class bundle for: %s", s);
 
       ClassBundle cb = new ClassBundle();
@@ -84,11 +84,13 @@ public class ClassDefinitionFactory
          String clzName = name.replace('.', '/') + ".class";
 
          is = SecurityActions.getClassLoader(s.getClass()).getResourceAsStream(clzName);
-         int i = is.read();
-         while (i != -1)
+
+         byte[] buffer = new byte[8192];
+         int n = is.read(buffer);
+         while (n != -1)
          {
-            baos.write(i);
-            i = is.read();
+            baos.write(buffer, 0, n);
+            n = is.read(buffer);
          }
 
          data = baos.toByteArray();
@@ -26,8 +26,8 @@ import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatistics;
 import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
 import org.jboss.jca.core.spi.workmanager.Address;
-import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
 import org.jboss.jca.core.spi.workmanager.transport.Transport;
+import org.jboss.jca.core.workmanager.notification.DeltaNotificationListener;
 
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,7 +40,7 @@ import org.jboss.logging.Logger;
  * The JBoss distributed work manager statistics implementation
  */
 public class DistributedWorkManagerStatisticsImpl implements DistributedWorkManagerStatistics,
-                                                             NotificationListener
+                                                             DeltaNotificationListener
 {
    /** The logger */
    private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class,
@@ -213,6 +213,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       successful.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaWorkSuccessful(int count)
+   {
+      successful.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -229,6 +237,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       failed.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaWorkFailed(int count)
+   {
+      failed.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -245,6 +261,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       doWorkAccepted.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaDoWorkAccepted(int count)
+   {
+      doWorkAccepted.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -261,6 +285,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       doWorkRejected.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaDoWorkRejected(int count)
+   {
+      doWorkRejected.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -277,6 +309,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       scheduleWorkAccepted.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaScheduleWorkAccepted(int count)
+   {
+      scheduleWorkAccepted.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -293,6 +333,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       scheduleWorkRejected.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaScheduleWorkRejected(int count)
+   {
+      scheduleWorkRejected.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -309,6 +357,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       startWorkAccepted.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaStartWorkAccepted(int count)
+   {
+      startWorkAccepted.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -325,6 +381,14 @@ public class DistributedWorkManagerStatisticsImpl implements DistributedWorkMana
       startWorkRejected.incrementAndGet();
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaStartWorkRejected(int count)
+   {
+      startWorkRejected.addAndGet(count);
+   }
+
    /**
     * {@inheritDoc}
     */
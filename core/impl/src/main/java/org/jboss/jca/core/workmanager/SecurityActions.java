@@ -41,6 +41,42 @@ class SecurityActions
    {
    }
 
+   /**
+    * Create a WorkClassLoader
+    * @param cb The class bundle
+    * @param racl The class loader of the resource adapter, or <code>null</code>
+    * @return The class loader
+    */
+   static WorkClassLoader createWorkClassLoader(final ClassBundle cb, final ClassLoader racl)
+   {
+      if (System.getSecurityManager() == null)
+         return newWorkClassLoader(cb, racl);
+
+      return AccessController.doPrivileged(new PrivilegedAction<WorkClassLoader>()
+      {
+         public WorkClassLoader run()
+         {
+            return newWorkClassLoader(cb, racl);
+         }
+      });
+   }
+
+   /**
+    * Create a WorkClassLoader, which delegates to the resource adapter
+    * @param cb The class bundle
+    * @param racl The class loader of the resource adapter, or <code>null</code>
+    * @return The class loader
+    */
+   private static WorkClassLoader newWorkClassLoader(ClassBundle cb, ClassLoader racl)
+   {
+      WorkClassLoader wcl = new WorkClassLoader(cb);
+
+      if (racl != null)
+         wcl.setResourceAdapterClassLoader(new ResourceAdapterClassLoader(racl, wcl));
+
+      return wcl;
+   }
+
    /**
     * Get the classloader.
     * @param c The class
@@ -69,4 +69,20 @@ public class StatisticsExecutorImpl implements StatisticsExecutor
          return 0;
       }
    }
+
+   /**
+    * Get the number of tasks waiting for a thread
+    * @return The value
+    */
+   public long getQueueSize()
+   {
+      if (realExecutor instanceof EnhancedQueueExecutor)
+      {
+         return ((EnhancedQueueExecutor) realExecutor).getQueueSize();
+      }
+      else
+      {
+         return 0;
+      }
+   }
 }
@@ -0,0 +1,230 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.workmanager.StatisticsExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A StatisticsExecutor which runs each task on its own virtual thread.
+ *
+ * The number of tasks running at the same time is limited by a semaphore, and a task
+ * is rejected when all permits are in use, like a thread pool with a full queue. The
+ * number of free threads is the number of available permits, such that the policies
+ * and selectors of the distributed work manager see the remaining capacity.
+ *
+ * Virtual threads require Java 21, and are created through reflection since the
+ * code base targets an earlier release. A new platform thread is used for each task
+ * on platforms without virtual threads.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class VirtualThreadExecutor implements StatisticsExecutor
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, VirtualThreadExecutor.class.getName());
+
+   /** The virtual thread factory; <code>null</code> if the platform doesn't support virtual threads */
+   private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+   /** The maximum number of concurrent tasks */
+   private final int maxConcurrency;
+
+   /** The permits */
+   private final Semaphore permits;
+
+   /** The thread factory */
+   private final ThreadFactory threadFactory;
+
+   /**
+    * Constructor
+    * @param maxConcurrency The maximum number of concurrent tasks
+    */
+   public VirtualThreadExecutor(int maxConcurrency)
+   {
+      if (maxConcurrency <= 0)
+         throw new IllegalArgumentException("MaxConcurrency must be positive: " + maxConcurrency);
+
+      this.maxConcurrency = maxConcurrency;
+      this.permits = new Semaphore(maxConcurrency);
+
+      if (VIRTUAL_THREAD_FACTORY != null)
+      {
+         this.threadFactory = VIRTUAL_THREAD_FACTORY;
+      }
+      else
+      {
+         log.virtualThreadsNotSupported();
+         this.threadFactory = new PlatformThreadFactory();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void execute(final Runnable runnable)
+   {
+      if (runnable == null)
+         throw new NullPointerException("Runnable is null");
+
+      if (!permits.tryAcquire())
+         throw new RejectedExecutionException("Maximum concurrency reached: " + maxConcurrency);
+
+      try
+      {
+         Thread t = threadFactory.newThread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  runnable.run();
+               }
+               finally
+               {
+                  permits.release();
+               }
+            }
+         });
+
+         t.start();
+      }
+      catch (Throwable t)
+      {
+         permits.release();
+         throw new RejectedExecutionException(t.getMessage(), t);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public long getNumberOfFreeThreads()
+   {
+      return permits.availablePermits();
+   }
+
+   /**
+    * Get the maximum number of concurrent tasks
+    * @return The value
+    */
+   public int getMaxConcurrency()
+   {
+      return maxConcurrency;
+   }
+
+   /**
+    * Get the number of running tasks
+    * @return The value
+    */
+   public int getActiveCount()
+   {
+      return maxConcurrency - permits.availablePermits();
+   }
+
+   /**
+    * Are virtual threads used
+    * @return True if virtual threads are used, false if platform threads are used
+    */
+   public boolean isVirtual()
+   {
+      return threadFactory == VIRTUAL_THREAD_FACTORY;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("VirtualThreadExecutor@").append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[maxConcurrency=").append(maxConcurrency);
+      sb.append(" active=").append(getActiveCount());
+      sb.append(" virtual=").append(isVirtual());
+      sb.append("]");
+
+      return sb.toString();
+   }
+
+   /**
+    * Create the virtual thread factory using Thread.ofVirtual().name(prefix, 0).factory()
+    * @return The factory; <code>null</code> if the platform doesn't support virtual threads
+    */
+   private static ThreadFactory createVirtualThreadFactory()
+   {
+      try
+      {
+         Method ofVirtual = Thread.class.getMethod("ofVirtual");
+         Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+         Method name = builderClass.getMethod("name", String.class, long.class);
+         Method factory = builderClass.getMethod("factory");
+
+         Object builder = ofVirtual.invoke(null);
+         builder = name.invoke(builder, "WorkManager-virtual-", Long.valueOf(1L));
+
+         return (ThreadFactory)factory.invoke(builder);
+      }
+      catch (Throwable t)
+      {
+         return null;
+      }
+   }
+
+   /**
+    * Thread factory for platform threads
+    */
+   private static class PlatformThreadFactory implements ThreadFactory
+   {
+      /** The thread number */
+      private static final AtomicInteger COUNT = new AtomicInteger(1);
+
+      /**
+       * Constructor
+       */
+      PlatformThreadFactory()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, "WorkManager-thread-" + COUNT.getAndIncrement());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+}
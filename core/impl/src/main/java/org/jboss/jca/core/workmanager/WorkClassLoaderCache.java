@@ -0,0 +1,293 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager;
+
+import org.jboss.jca.core.CoreBundle;
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.workmanager.WorkManager;
+import org.jboss.jca.core.spi.workmanager.Address;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.resource.spi.ResourceAdapter;
+
+import jakarta.resource.spi.work.WorkException;
+
+import org.jboss.logging.Logger;
+import org.jboss.logging.Messages;
+
+/**
+ * A cache of the class bundles and the work class loaders, keyed by the digest of the
+ * class bundle, such that the classes of a bundle are only defined once per resource adapter.
+ *
+ * A work class loader delegates to the class loader of the resource adapter of the
+ * work manager executing the work, so the loaders are keyed by the digest and the
+ * resource adapter class loader, and are removed when the work manager is removed
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class WorkClassLoaderCache
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, WorkClassLoaderCache.class.getName());
+
+   /** The bundle */
+   private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
+
+   /** The error code for an unknown class bundle */
+   public static final String UNKNOWN_CLASS_BUNDLE = "UNKNOWN_CLASS_BUNDLE";
+
+   /** The maximum number of class bundles, and of class loaders */
+   private static final int MAX_SIZE = 128;
+
+   /** The class bundles */
+   private static final Map<String, ClassBundle> BUNDLES =
+      new LinkedHashMap<String, ClassBundle>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, ClassBundle> eldest)
+      {
+         return size() > MAX_SIZE;
+      }
+   };
+
+   /** The class loaders */
+   private static final Map<Key, WorkClassLoader> CACHE =
+      new LinkedHashMap<Key, WorkClassLoader>(16, 0.75f, true)
+   {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, WorkClassLoader> eldest)
+      {
+         return size() > MAX_SIZE;
+      }
+   };
+
+   /**
+    * Constructor
+    */
+   private WorkClassLoaderCache()
+   {
+   }
+
+   /**
+    * Add a class bundle, such that later references to it can be resolved
+    * @param cb The class bundle
+    */
+   public static void addClassBundle(ClassBundle cb)
+   {
+      if (cb.isReference())
+         return;
+
+      synchronized (CACHE)
+      {
+         BUNDLES.put(cb.getDigest(), cb);
+      }
+   }
+
+   /**
+    * Get the work class loader for a class bundle, without a resource adapter
+    * @param cb The class bundle, or a reference to it
+    * @return The class loader
+    * @exception WorkException Thrown if the bundle is a reference to an unknown bundle
+    */
+   public static WorkClassLoader getWorkClassLoader(ClassBundle cb) throws WorkException
+   {
+      return getWorkClassLoader(cb, (ClassLoader)null);
+   }
+
+   /**
+    * Get the work class loader for a class bundle, for the work manager at an address
+    * @param cb The class bundle, or a reference to it
+    * @param address The address of the work manager, or <code>null</code>
+    * @return The class loader
+    * @exception WorkException Thrown if the bundle is a reference to an unknown bundle
+    */
+   public static WorkClassLoader getWorkClassLoader(ClassBundle cb, Address address) throws WorkException
+   {
+      ClassLoader racl = null;
+
+      if (address != null)
+      {
+         WorkManager wm = WorkManagerCoordinator.getInstance().resolveWorkManager(address);
+         if (wm instanceof WorkManagerImpl)
+         {
+            ResourceAdapter ra = ((WorkManagerImpl)wm).getResourceAdapter();
+            if (ra != null)
+               racl = SecurityActions.getClassLoader(ra.getClass());
+         }
+      }
+
+      return getWorkClassLoader(cb, racl);
+   }
+
+   /**
+    * Get the work class loader for a class bundle, for a resource adapter
+    * @param cb The class bundle, or a reference to it
+    * @param racl The class loader of the resource adapter, or <code>null</code>
+    * @return The class loader
+    * @exception WorkException Thrown if the bundle is a reference to an unknown bundle
+    */
+   public static WorkClassLoader getWorkClassLoader(ClassBundle cb, ClassLoader racl) throws WorkException
+   {
+      String digest = cb.getDigest();
+      Key key = new Key(digest, racl);
+
+      synchronized (CACHE)
+      {
+         WorkClassLoader wcl = CACHE.get(key);
+         if (wcl != null)
+            return wcl;
+
+         if (cb.isReference())
+         {
+            cb = BUNDLES.get(digest);
+            if (cb == null)
+               throw new WorkException(bundle.unknownClassBundle(digest), UNKNOWN_CLASS_BUNDLE);
+         }
+         else
+         {
+            BUNDLES.put(digest, cb);
+         }
+      }
+
+      log.tracef("Creating work class loader for: %s (%s)", digest, racl);
+
+      WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb, racl);
+
+      synchronized (CACHE)
+      {
+         WorkClassLoader existing = CACHE.get(key);
+         if (existing != null)
+            return existing;
+
+         CACHE.put(key, wcl);
+      }
+
+      return wcl;
+   }
+
+   /**
+    * Remove the work class loaders of a resource adapter
+    * @param racl The class loader of the resource adapter
+    */
+   public static void remove(ClassLoader racl)
+   {
+      if (racl == null)
+         return;
+
+      synchronized (CACHE)
+      {
+         Iterator<Key> it = CACHE.keySet().iterator();
+         while (it.hasNext())
+         {
+            if (it.next().getResourceAdapterClassLoader() == racl)
+               it.remove();
+         }
+      }
+   }
+
+   /**
+    * Is the exception caused by a reference to an unknown class bundle
+    * @param t The exception
+    * @param cb The class bundle
+    * @return True if the bundle is unknown, otherwise false
+    */
+   public static boolean isUnknownClassBundle(Throwable t, ClassBundle cb)
+   {
+      String message = bundle.unknownClassBundle(cb.getDigest());
+      while (t != null)
+      {
+         if (t instanceof WorkException && UNKNOWN_CLASS_BUNDLE.equals(((WorkException)t).getErrorCode()))
+            return true;
+
+         if (t.getMessage() != null && t.getMessage().contains(message))
+            return true;
+
+         t = t.getCause();
+      }
+      return false;
+   }
+
+   /**
+    * The key of a work class loader
+    */
+   static class Key
+   {
+      /** The digest */
+      private final String digest;
+
+      /** The resource adapter class loader */
+      private final ClassLoader racl;
+
+      /**
+       * Constructor
+       * @param digest The digest
+       * @param racl The resource adapter class loader, or <code>null</code>
+       */
+      Key(String digest, ClassLoader racl)
+      {
+         this.digest = digest;
+         this.racl = racl;
+      }
+
+      /**
+       * Get the resource adapter class loader
+       * @return The value
+       */
+      ClassLoader getResourceAdapterClassLoader()
+      {
+         return racl;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return 31 * digest.hashCode() + System.identityHashCode(racl);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+            return true;
+
+         if (!(o instanceof Key))
+            return false;
+
+         Key other = (Key)o;
+         return digest.equals(other.digest) && racl == other.racl;
+      }
+   }
+}
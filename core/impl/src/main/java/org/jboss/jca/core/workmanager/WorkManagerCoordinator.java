@@ -36,6 +36,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import jakarta.resource.spi.ResourceAdapter;
+
 import org.jboss.logging.Logger;
 
 /**
@@ -453,6 +455,13 @@ public class WorkManagerCoordinator
                   dwm.getTransport().unregister(new Address(wm.getId(), wm.getName(), dwm.getTransport().getId()));
             }
 
+            // Release the work class loaders of the resource adapter
+            if (wm instanceof WorkManagerImpl && ((WorkManagerImpl)wm).getResourceAdapter() != null)
+            {
+               ResourceAdapter ra = ((WorkManagerImpl)wm).getResourceAdapter();
+               WorkClassLoaderCache.remove(SecurityActions.getClassLoader(ra.getClass()));
+            }
+
             activeWorkmanagers.remove(id);
             refCountWorkmanagers.remove(id);
          }
@@ -773,6 +773,16 @@ public class WorkManagerImpl implements WorkManager
          statistics.deltaWorkFailed();
    }
 
+   /**
+    * Delta queue wait time
+    * @param v The time the work waited before it was started in milliseconds
+    */
+   protected void deltaQueueWaitTime(long v)
+   {
+      if (statisticsEnabled)
+         statistics.deltaQueueWaitTime(v);
+   }
+
    /**
     * Do first checks for work starting methods
     * @param work to check
@@ -1126,15 +1136,6 @@ public class WorkManagerImpl implements WorkManager
 
       if (resourceAdapter != null)
       {
-         if (SecurityActions.getClassLoader(work.getClass()) instanceof WorkClassLoader)
-         {
-            WorkClassLoader wcl = (WorkClassLoader)SecurityActions.getClassLoader(work.getClass());
-            ResourceAdapterClassLoader racl =
-               new ResourceAdapterClassLoader(SecurityActions.getClassLoader(resourceAdapter.getClass()),
-                                              wcl);
-
-            wcl.setResourceAdapterClassLoader(racl);
-         }
          if (work instanceof ResourceAdapterAssociation)
          {
             try
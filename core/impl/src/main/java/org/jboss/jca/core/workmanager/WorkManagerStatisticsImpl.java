@@ -25,12 +25,19 @@ package org.jboss.jca.core.workmanager;
 import org.jboss.jca.core.api.workmanager.WorkManagerStatistics;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The JBoss work manager statistics implementation
  */
 public class WorkManagerStatisticsImpl implements WorkManagerStatistics
 {
+   /** Scale of the queue wait time average */
+   private static final long QUEUE_WAIT_SCALE = 1000L;
+
+   /** Time in milliseconds after which the queue wait time average halves without new samples */
+   private static final long QUEUE_WAIT_HALF_LIFE = 1000L;
+
    /** Active */
    private AtomicInteger active;
 
@@ -58,6 +65,12 @@ public class WorkManagerStatisticsImpl implements WorkManagerStatistics
    /** StartWork: Rejected */
    private AtomicInteger startWorkRejected;
 
+   /** Queue wait time average in milliseconds, scaled by QUEUE_WAIT_SCALE */
+   private AtomicLong queueWaitTime;
+
+   /** Time of the last queue wait time sample */
+   private volatile long queueWaitTimeUpdated;
+
    /**
     * Constructor
     */
@@ -72,6 +85,8 @@ public class WorkManagerStatisticsImpl implements WorkManagerStatistics
       scheduleWorkRejected = new AtomicInteger(0);
       startWorkAccepted = new AtomicInteger(0);
       startWorkRejected = new AtomicInteger(0);
+      queueWaitTime = new AtomicLong(0L);
+      queueWaitTimeUpdated = System.currentTimeMillis();
    }
 
    /**
@@ -219,6 +234,53 @@ public class WorkManagerStatisticsImpl implements WorkManagerStatistics
       startWorkRejected.incrementAndGet();
    }
 
+   /**
+    * Get the average time work waited before it was started. The average decays
+    * while no work is started, since the samples only come from work which started
+    * @return The value in milliseconds
+    */
+   public long getQueueWaitTime()
+   {
+      return decay(queueWaitTime.get(), System.currentTimeMillis() - queueWaitTimeUpdated) / QUEUE_WAIT_SCALE;
+   }
+
+   /**
+    * Delta queue wait time; the average is exponentially weighted
+    * with 1/8 for the new sample
+    * @param v The time the work waited in milliseconds
+    */
+   void deltaQueueWaitTime(long v)
+   {
+      long now = System.currentTimeMillis();
+      long elapsed = now - queueWaitTimeUpdated;
+      queueWaitTimeUpdated = now;
+
+      long sample = Math.max(0L, v) * QUEUE_WAIT_SCALE;
+      long current;
+      long updated;
+      do
+      {
+         current = queueWaitTime.get();
+         long decayed = decay(current, elapsed);
+         updated = decayed + (sample - decayed) / 8L;
+      }
+      while (!queueWaitTime.compareAndSet(current, updated));
+   }
+
+   /**
+    * Decay the queue wait time average
+    * @param v The scaled average
+    * @param elapsed The time since the last sample in milliseconds
+    * @return The value
+    */
+   private static long decay(long v, long elapsed)
+   {
+      if (elapsed <= 0L)
+         return v;
+
+      return (long)(v * Math.pow(0.5, (double)elapsed / (double)QUEUE_WAIT_HALF_LIFE));
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -233,6 +295,8 @@ public class WorkManagerStatisticsImpl implements WorkManagerStatistics
       scheduleWorkRejected.set(0);
       startWorkAccepted.set(0);
       startWorkRejected.set(0);
+      queueWaitTime.set(0L);
+      queueWaitTimeUpdated = System.currentTimeMillis();
    }
 
    /**
@@ -254,6 +318,7 @@ public class WorkManagerStatisticsImpl implements WorkManagerStatistics
       sb.append(" scheduleWorkRejected=").append(getScheduleWorkRejected());
       sb.append(" startWorkAccepted=").append(getStartWorkAccepted());
       sb.append(" startWorkRejected=").append(getStartWorkRejected());
+      sb.append(" queueWaitTime=").append(getQueueWaitTime());
       sb.append("]");
 
       return sb.toString();
@@ -233,6 +233,8 @@ public class WorkWrapper implements Runnable
       {
          checkStartTimeout(startTime);
 
+         workManager.deltaQueueWaitTime(startTime - creationTime);
+
          synchronized(this)
          {
             if (startedLatch != null)
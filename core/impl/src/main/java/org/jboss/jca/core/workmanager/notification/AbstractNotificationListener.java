@@ -24,7 +24,6 @@ package org.jboss.jca.core.workmanager.notification;
 
 import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.spi.workmanager.Address;
-import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,7 +36,8 @@ import org.jboss.logging.Logger;
  *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
-public abstract class AbstractNotificationListener implements NotificationListener
+public abstract class AbstractNotificationListener implements DeltaNotificationListener,
+                                                              LoadNotificationListener
 {
    /** The logger */
    private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class,
@@ -154,6 +154,26 @@ public abstract class AbstractNotificationListener implements NotificationListen
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void updateShortRunningQueue(Address address, long depth)
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void updateLongRunningQueue(Address address, long depth)
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void roundTripTime(Address address, long nanos)
+   {
+   }
 
    /**
     * {@inheritDoc}
@@ -162,6 +182,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaDoWorkAccepted(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -169,6 +196,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaDoWorkRejected(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -176,6 +210,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaStartWorkAccepted(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -183,6 +224,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaStartWorkRejected(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -190,6 +238,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaScheduleWorkAccepted(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -197,6 +252,13 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaScheduleWorkRejected(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -204,10 +266,24 @@ public abstract class AbstractNotificationListener implements NotificationListen
    {
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaWorkSuccessful(int count)
+   {
+   }
+
    /**
     * {@inheritDoc}
     */
    public void deltaWorkFailed()
    {
    }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void deltaWorkFailed(int count)
+   {
+   }
 }
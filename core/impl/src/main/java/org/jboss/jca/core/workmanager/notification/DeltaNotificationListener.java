@@ -0,0 +1,82 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.notification;
+
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+
+/**
+ * A notification listener which takes a number of deltas in one call, such that
+ * the coalesced deltas of a transport update batch are applied at once
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public interface DeltaNotificationListener extends NotificationListener
+{
+   /**
+    * Delta doWork accepted
+    * @param count The number of deltas
+    */
+   public void deltaDoWorkAccepted(int count);
+
+   /**
+    * Delta doWork rejected
+    * @param count The number of deltas
+    */
+   public void deltaDoWorkRejected(int count);
+
+   /**
+    * Delta startWork accepted
+    * @param count The number of deltas
+    */
+   public void deltaStartWorkAccepted(int count);
+
+   /**
+    * Delta startWork rejected
+    * @param count The number of deltas
+    */
+   public void deltaStartWorkRejected(int count);
+
+   /**
+    * Delta scheduleWork accepted
+    * @param count The number of deltas
+    */
+   public void deltaScheduleWorkAccepted(int count);
+
+   /**
+    * Delta scheduleWork rejected
+    * @param count The number of deltas
+    */
+   public void deltaScheduleWorkRejected(int count);
+
+   /**
+    * Delta work successful
+    * @param count The number of deltas
+    */
+   public void deltaWorkSuccessful(int count);
+
+   /**
+    * Delta work failed
+    * @param count The number of deltas
+    */
+   public void deltaWorkFailed(int count);
+}
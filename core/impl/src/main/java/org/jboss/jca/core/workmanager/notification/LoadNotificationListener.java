@@ -0,0 +1,57 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.notification;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+
+/**
+ * A notification listener for the load of the other nodes, as seen by the transport:
+ * the number of work instances waiting in their queues, and the round trip time of
+ * the requests sent to them
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public interface LoadNotificationListener extends NotificationListener
+{
+   /**
+    * Update the short running queue depth
+    * @param address The logical address
+    * @param depth The number of work instances waiting for a thread
+    */
+   public void updateShortRunningQueue(Address address, long depth);
+
+   /**
+    * Update the long running queue depth
+    * @param address The logical address
+    * @param depth The number of work instances waiting for a thread
+    */
+   public void updateLongRunningQueue(Address address, long depth);
+
+   /**
+    * A request to a node has been answered
+    * @param address The logical address
+    * @param nanos The round trip time in nanoseconds
+    */
+   public void roundTripTime(Address address, long nanos);
+}
@@ -0,0 +1,414 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.policy;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.workmanager.DistributedWorkManager;
+import org.jboss.jca.core.api.workmanager.StatisticsExecutor;
+import org.jboss.jca.core.api.workmanager.WorkManagerStatistics;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.WorkManagerStatisticsImpl;
+import org.jboss.jca.core.workmanager.WorkManagerUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.resource.spi.work.DistributableWork;
+
+import org.jboss.logging.Logger;
+
+/**
+ * The adaptive distribution policy.
+ *
+ * Work is distributed when the expected local completion time, the average time work waits
+ * in the local queue, is higher than the expected remote completion time, or when the local
+ * rejection rate passes a threshold, and the other nodes have advertised free threads.
+ * A node without local free threads distributes as long as there is remote capacity.
+ *
+ * The remote capacity is the advertised free threads of the other nodes minus their advertised
+ * queue depths. The expected remote completion time is the lowest average round trip time,
+ * as measured by the transport, of the nodes with capacity. The configured remote time is
+ * used until a round trip time has been measured.
+ *
+ * Once the policy starts to distribute, the thresholds are lowered by the hysteresis, and
+ * raised by the same amount when it stops, so that a node close to the thresholds doesn't
+ * flap between the two states.
+ *
+ * The queue wait time and the rejection rate come from the work manager statistics, so
+ * statistics must be enabled for them to be taken into account. The queue wait time fades
+ * while no local work starts, and a local node which doesn't start work because all of its
+ * threads are busy has no free threads, so it distributes anyway.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class Adaptive extends AbstractPolicy
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, Adaptive.class.getName());
+
+   /** Weight of a new round trip time sample in percent */
+   private static final long RTT_WEIGHT = 20L;
+
+   /** Expected remote completion time in milliseconds, until a round trip time is measured */
+   private long remoteTime;
+
+   /** Rejection rate threshold in percent */
+   private int rejectionRate;
+
+   /** Hysteresis in percent */
+   private int hysteresis;
+
+   /** Rejection rate window in milliseconds */
+   private long window;
+
+   /** Distributing */
+   private volatile boolean distributing;
+
+   /** The current rejection rate window */
+   private final AtomicReference<Window> current;
+
+   /** The round trip time averages of the other nodes in nanoseconds */
+   private final ConcurrentMap<Address, AtomicLong> roundTripTimes;
+
+   /** The advertised short running queue depths */
+   private final ConcurrentMap<Address, Long> shortRunningQueue;
+
+   /** The advertised long running queue depths */
+   private final ConcurrentMap<Address, Long> longRunningQueue;
+
+   /**
+    * Constructor
+    */
+   public Adaptive()
+   {
+      this.remoteTime = 10L;
+      this.rejectionRate = 5;
+      this.hysteresis = 25;
+      this.window = 1000L;
+      this.distributing = false;
+      this.current = new AtomicReference<Window>(new Window(0L, 0L, 0L, 0));
+      this.roundTripTimes = new ConcurrentHashMap<Address, AtomicLong>();
+      this.shortRunningQueue = new ConcurrentHashMap<Address, Long>();
+      this.longRunningQueue = new ConcurrentHashMap<Address, Long>();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void leave(Address address)
+   {
+      super.leave(address);
+
+      roundTripTimes.remove(address);
+      shortRunningQueue.remove(address);
+      longRunningQueue.remove(address);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateShortRunningQueue(Address address, long depth)
+   {
+      shortRunningQueue.put(address, Long.valueOf(depth));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateLongRunningQueue(Address address, long depth)
+   {
+      longRunningQueue.put(address, Long.valueOf(depth));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void roundTripTime(Address address, long nanos)
+   {
+      if (nanos < 0L)
+         return;
+
+      AtomicLong rtt = roundTripTimes.get(address);
+      if (rtt == null)
+      {
+         rtt = new AtomicLong(-1L);
+         AtomicLong existing = roundTripTimes.putIfAbsent(address, rtt);
+         if (existing != null)
+            rtt = existing;
+      }
+
+      long current;
+      long updated;
+      do
+      {
+         current = rtt.get();
+         updated = current < 0L ? nanos : current + (nanos - current) * RTT_WEIGHT / 100L;
+      }
+      while (!rtt.compareAndSet(current, updated));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean shouldDistribute(DistributedWorkManager dwm, DistributableWork work)
+   {
+      log.tracef("Work=%s", work);
+
+      Boolean override = WorkManagerUtil.getShouldDistribute(work);
+      if (override != null)
+         return override.booleanValue();
+
+      boolean lr = WorkManagerUtil.isLongRunning(work) && dwm.getLongRunningThreadPool() != null;
+
+      long remote = getRemoteTime(dwm, lr);
+      if (remote < 0L)
+      {
+         log.tracef("No remote capacity");
+         return false;
+      }
+
+      StatisticsExecutor executor = lr ? dwm.getLongRunningThreadPool() : dwm.getShortRunningThreadPool();
+      long localFree = executor != null ? executor.getNumberOfFreeThreads() : 0L;
+
+      long queueWait = 0L;
+      int rejected = 0;
+
+      WorkManagerStatistics statistics = dwm.getStatistics();
+      if (dwm.isStatisticsEnabled() && statistics instanceof WorkManagerStatisticsImpl)
+      {
+         queueWait = ((WorkManagerStatisticsImpl)statistics).getQueueWaitTime();
+         rejected = computeRejectionRate(statistics);
+      }
+
+      boolean state = distributing;
+      int factor = state ? 100 - hysteresis : 100 + hysteresis;
+
+      boolean result = localFree <= 0L ||
+         queueWait * 1000000L * 100L > remote * factor ||
+         (long)rejected * 100L > (long)rejectionRate * factor;
+
+      if (result != state)
+         distributing = result;
+
+      log.tracef("Distribute=%s (localFree=%d, remote=%dns, queueWait=%dms, rejected=%d%%)",
+                 result, localFree, remote, queueWait, rejected);
+
+      return result;
+   }
+
+   /**
+    * Get the expected remote completion time: the lowest round trip time of the other
+    * nodes which have free threads left after their queued work
+    * @param dwm The distributed work manager
+    * @param lr Long running work
+    * @return The value in nanoseconds; <code>-1</code> if no other node has capacity
+    */
+   private long getRemoteTime(DistributedWorkManager dwm, boolean lr)
+   {
+      Map<Address, Long> free = lr ? longRunning.get(dwm.getId()) : shortRunning.get(dwm.getId());
+      Map<Address, Long> queue = lr ? longRunningQueue : shortRunningQueue;
+      long result = -1L;
+      long measured = Long.MAX_VALUE;
+
+      if (free != null)
+      {
+         String transportId = dwm.getTransport() != null ? dwm.getTransport().getId() : null;
+
+         synchronized (free)
+         {
+            for (Map.Entry<Address, Long> entry : free.entrySet())
+            {
+               Address address = entry.getKey();
+               Long value = entry.getValue();
+               Long depth = queue.get(address);
+
+               if (value != null && value.longValue() - (depth != null ? depth.longValue() : 0L) > 0L &&
+                   !(transportId == null ? address.getTransportId() == null :
+                     transportId.equals(address.getTransportId())))
+               {
+                  result = remoteTime * 1000000L;
+
+                  AtomicLong rtt = roundTripTimes.get(address);
+                  if (rtt != null && rtt.get() >= 0L)
+                     measured = Math.min(measured, rtt.get());
+               }
+            }
+         }
+      }
+
+      if (result >= 0L && measured != Long.MAX_VALUE)
+         result = measured;
+
+      return result;
+   }
+
+   /**
+    * Get the rejection rate of the last window
+    * @param statistics The statistics
+    * @return The value in percent
+    */
+   private int computeRejectionRate(WorkManagerStatistics statistics)
+   {
+      Window w = current.get();
+      long now = System.currentTimeMillis();
+
+      if (now - w.start >= window)
+      {
+         long accepted = (long)statistics.getDoWorkAccepted() + statistics.getStartWorkAccepted() +
+            statistics.getScheduleWorkAccepted();
+         long rejected = (long)statistics.getDoWorkRejected() + statistics.getStartWorkRejected() +
+            statistics.getScheduleWorkRejected();
+
+         long deltaAccepted = Math.max(0L, accepted - w.accepted);
+         long deltaRejected = Math.max(0L, rejected - w.rejected);
+         long total = deltaAccepted + deltaRejected;
+
+         int rate = total > 0L ? (int)(deltaRejected * 100L / total) : 0;
+         Window next = new Window(now, accepted, rejected, rate);
+
+         if (current.compareAndSet(w, next))
+            return rate;
+
+         return current.get().rate;
+      }
+
+      return w.rate;
+   }
+
+   /**
+    * Get the expected remote completion time used until a round trip time is measured
+    * @return The value in milliseconds
+    */
+   public long getRemoteTime()
+   {
+      return remoteTime;
+   }
+
+   /**
+    * Set the expected remote completion time used until a round trip time is measured
+    * @param v The value in milliseconds
+    */
+   public void setRemoteTime(long v)
+   {
+      if (v >= 0L)
+         this.remoteTime = v;
+   }
+
+   /**
+    * Get the rejection rate threshold
+    * @return The value in percent
+    */
+   public int getRejectionRate()
+   {
+      return rejectionRate;
+   }
+
+   /**
+    * Set the rejection rate threshold
+    * @param v The value in percent
+    */
+   public void setRejectionRate(int v)
+   {
+      if (v >= 0 && v <= 100)
+         this.rejectionRate = v;
+   }
+
+   /**
+    * Get the hysteresis
+    * @return The value in percent
+    */
+   public int getHysteresis()
+   {
+      return hysteresis;
+   }
+
+   /**
+    * Set the hysteresis
+    * @param v The value in percent
+    */
+   public void setHysteresis(int v)
+   {
+      if (v >= 0 && v < 100)
+         this.hysteresis = v;
+   }
+
+   /**
+    * Get the rejection rate window
+    * @return The value in milliseconds
+    */
+   public long getWindow()
+   {
+      return window;
+   }
+
+   /**
+    * Set the rejection rate window
+    * @param v The value in milliseconds
+    */
+   public void setWindow(long v)
+   {
+      if (v > 0L)
+         this.window = v;
+   }
+
+   /**
+    * A rejection rate window
+    */
+   static class Window
+   {
+      /** Start */
+      final long start;
+
+      /** Accepted at the start */
+      final long accepted;
+
+      /** Rejected at the start */
+      final long rejected;
+
+      /** Rejection rate of the previous window */
+      final int rate;
+
+      /**
+       * Constructor
+       * @param start The start
+       * @param accepted Accepted at the start
+       * @param rejected Rejected at the start
+       * @param rate Rejection rate of the previous window
+       */
+      Window(long start, long accepted, long rejected, int rate)
+      {
+         this.start = start;
+         this.accepted = accepted;
+         this.rejected = rejected;
+         this.rate = rate;
+      }
+   }
+}
@@ -0,0 +1,492 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.selector;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.WorkManagerUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.resource.spi.work.DistributableWork;
+
+import org.jboss.logging.Logger;
+
+/**
+ * The power of two choices selector.
+ *
+ * Two distinct candidates are sampled at random and the less loaded one is picked.
+ * The capacity of a node is its advertised number of free threads, minus its advertised
+ * queue depth and the work sent to it since the node last advertised, weighted by an
+ * exponentially weighted moving average of the round trip time.
+ *
+ * The round trip time samples come from the transport, which times the requests that are
+ * answered without waiting for the work: pings, free thread queries, scheduleWork and
+ * the update batches. The queue depth is advertised with the update batches, so it is
+ * only known when the transport has an update interval.
+ *
+ * The selection doesn't take any lock, and since the dispatched work is accounted for
+ * right away a burst of work is spread over the nodes instead of hitting the node
+ * which advertised the most free threads.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PowerOfTwoChoices extends AbstractSelector
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, PowerOfTwoChoices.class.getName());
+
+   /** No candidates */
+   private static final Load[] EMPTY = new Load[0];
+
+   /** Default weight of a new round trip time sample in percent */
+   private static final int DEFAULT_RTT_WEIGHT = 20;
+
+   /** Default round trip time unit in milliseconds */
+   private static final long DEFAULT_RTT_UNIT = 1L;
+
+   /** The candidates per work manager identifier */
+   private final ConcurrentMap<String, Load[]> candidates;
+
+   /** Weight of a new round trip time sample in percent */
+   private volatile int rttWeight;
+
+   /** Round trip time unit in nanoseconds */
+   private volatile long rttUnit;
+
+   /**
+    * Constructor
+    */
+   public PowerOfTwoChoices()
+   {
+      this.candidates = new ConcurrentHashMap<String, Load[]>();
+      this.rttWeight = DEFAULT_RTT_WEIGHT;
+      this.rttUnit = DEFAULT_RTT_UNIT * 1000000L;
+   }
+
+   /**
+    * Get the weight of a new round trip time sample
+    * @return The value in percent
+    */
+   public int getRoundTripTimeWeight()
+   {
+      return rttWeight;
+   }
+
+   /**
+    * Set the weight of a new round trip time sample
+    * @param v The value in percent
+    */
+   public void setRoundTripTimeWeight(int v)
+   {
+      if (v > 0 && v <= 100)
+         rttWeight = v;
+   }
+
+   /**
+    * Get the round trip time which halves the score of a node
+    * @return The value in milliseconds
+    */
+   public long getRoundTripTimeUnit()
+   {
+      return rttUnit / 1000000L;
+   }
+
+   /**
+    * Set the round trip time which halves the score of a node
+    * @param v The value in milliseconds
+    */
+   public void setRoundTripTimeUnit(long v)
+   {
+      if (v > 0)
+         rttUnit = v * 1000000L;
+   }
+
+   /**
+    * Report a round trip time sample for a node
+    * @param address The address
+    * @param nanos The round trip time in nanoseconds
+    */
+   public void updateRoundTripTime(Address address, long nanos)
+   {
+      Load load = getLoad(address);
+
+      if (load != null && nanos >= 0)
+         load.sample(nanos, rttWeight);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void join(Address address)
+   {
+      super.join(address);
+
+      String wmId = address.getWorkManagerId();
+      Load[] current;
+      Load[] updated = null;
+      do
+      {
+         current = candidates.get(wmId);
+         if (current == null)
+         {
+            if (candidates.putIfAbsent(wmId, new Load[] {new Load(address)}) == null)
+               return;
+
+            continue;
+         }
+
+         for (Load load : current)
+         {
+            if (load.address.equals(address))
+               return;
+         }
+
+         updated = new Load[current.length + 1];
+         System.arraycopy(current, 0, updated, 0, current.length);
+         updated[current.length] = new Load(address);
+      }
+      while (current == null || !candidates.replace(wmId, current, updated));
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void leave(Address address)
+   {
+      super.leave(address);
+
+      String wmId = address.getWorkManagerId();
+      Load[] current;
+      Load[] updated;
+      while (true)
+      {
+         current = candidates.get(wmId);
+         if (current == null)
+            return;
+
+         int index = indexOf(current, address);
+         if (index == -1)
+            return;
+
+         if (current.length == 1)
+         {
+            if (candidates.remove(wmId, current))
+               return;
+
+            continue;
+         }
+
+         updated = new Load[current.length - 1];
+         System.arraycopy(current, 0, updated, 0, index);
+         System.arraycopy(current, index + 1, updated, index, updated.length - index);
+
+         if (candidates.replace(wmId, current, updated))
+            return;
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateShortRunningFree(Address address, long free)
+   {
+      super.updateShortRunningFree(address, free);
+
+      Load load = getLoad(address);
+      if (load != null)
+      {
+         load.shortRunningFree = free;
+         load.advertised();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateLongRunningFree(Address address, long free)
+   {
+      super.updateLongRunningFree(address, free);
+
+      Load load = getLoad(address);
+      if (load != null)
+      {
+         load.longRunningFree = free;
+         load.advertised();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateShortRunningQueue(Address address, long depth)
+   {
+      Load load = getLoad(address);
+      if (load != null)
+         load.shortRunningQueue = depth;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void updateLongRunningQueue(Address address, long depth)
+   {
+      Load load = getLoad(address);
+      if (load != null)
+         load.longRunningQueue = depth;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void roundTripTime(Address address, long nanos)
+   {
+      updateRoundTripTime(address, nanos);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public Address selectDistributedWorkManager(Address own, DistributableWork work)
+   {
+      Load[] loads = candidates.get(own.getWorkManagerId());
+      if (loads == null)
+         loads = EMPTY;
+
+      boolean longRunning = WorkManagerUtil.isLongRunning(work);
+      long unit = rttUnit;
+      Load result = null;
+
+      if (loads.length > 1)
+      {
+         ThreadLocalRandom random = ThreadLocalRandom.current();
+         int first = random.nextInt(loads.length);
+         int second = random.nextInt(loads.length - 1);
+         if (second >= first)
+            second++;
+
+         result = better(own, loads[first], loads[second], longRunning, unit);
+      }
+
+      if (result == null)
+      {
+         // Both samples were unusable, so fall back to looking at every node
+         for (Load load : loads)
+            result = better(own, result, load, longRunning, unit);
+      }
+
+      if (result == null)
+      {
+         log.tracef("WorkManager: %s", (Object)null);
+         return null;
+      }
+
+      result.dispatched();
+
+      log.tracef("WorkManager: %s (%s)", result.address, result);
+
+      return result.address;
+   }
+
+   /**
+    * Get the load of a node
+    * @param address The address
+    * @return The value; <code>null</code> if the node hasn't joined
+    */
+   private Load getLoad(Address address)
+   {
+      Load[] loads = candidates.get(address.getWorkManagerId());
+
+      if (loads != null)
+      {
+         int index = indexOf(loads, address);
+         if (index != -1)
+            return loads[index];
+      }
+
+      return null;
+   }
+
+   /**
+    * Pick the less loaded of two nodes
+    * @param own The own address
+    * @param a The first node; may be <code>null</code>
+    * @param b The second node; may be <code>null</code>
+    * @param longRunning Is the work long running
+    * @param unit The round trip time unit in nanoseconds
+    * @return The node; <code>null</code> if neither can take the work
+    */
+   private static Load better(Address own, Load a, Load b, boolean longRunning, long unit)
+   {
+      double scoreA = a != null && !own.equals(a.address) ? a.score(longRunning, unit) : 0.0;
+      double scoreB = b != null && !own.equals(b.address) ? b.score(longRunning, unit) : 0.0;
+
+      if (scoreA <= 0.0 && scoreB <= 0.0)
+         return null;
+
+      return scoreA >= scoreB ? a : b;
+   }
+
+   /**
+    * Find a node
+    * @param loads The nodes
+    * @param address The address
+    * @return The index; <code>-1</code> if not found
+    */
+   private static int indexOf(Load[] loads, Address address)
+   {
+      for (int i = 0; i < loads.length; i++)
+      {
+         if (loads[i].address.equals(address))
+            return i;
+      }
+
+      return -1;
+   }
+
+   /**
+    * The load of a node
+    */
+   static class Load
+   {
+      /** The address */
+      final Address address;
+
+      /** Advertised free short running threads */
+      volatile long shortRunningFree;
+
+      /** Advertised free long running threads */
+      volatile long longRunningFree;
+
+      /** Advertised short running queue depth */
+      volatile long shortRunningQueue;
+
+      /** Advertised long running queue depth */
+      volatile long longRunningQueue;
+
+      /** Work dispatched since the last advertisement */
+      final AtomicLong pending;
+
+      /** Round trip time average in nanoseconds; -1 if unknown */
+      final AtomicLong rtt;
+
+      /**
+       * Constructor
+       * @param address The address
+       */
+      Load(Address address)
+      {
+         this.address = address;
+         this.shortRunningFree = 0L;
+         this.longRunningFree = 0L;
+         this.shortRunningQueue = 0L;
+         this.longRunningQueue = 0L;
+         this.pending = new AtomicLong(0L);
+         this.rtt = new AtomicLong(-1L);
+      }
+
+      /**
+       * Work has been sent to the node
+       */
+      void dispatched()
+      {
+         pending.incrementAndGet();
+      }
+
+      /**
+       * The node advertised its free threads, which include the dispatched work
+       */
+      void advertised()
+      {
+         pending.set(0L);
+      }
+
+      /**
+       * Add a round trip time sample
+       * @param nanos The sample
+       * @param weight The weight of the sample in percent
+       */
+      void sample(long nanos, int weight)
+      {
+         long current;
+         long updated;
+         do
+         {
+            current = rtt.get();
+            if (current < 0L)
+            {
+               updated = nanos;
+            }
+            else
+            {
+               updated = current + (nanos - current) * weight / 100L;
+            }
+         }
+         while (!rtt.compareAndSet(current, updated));
+      }
+
+      /**
+       * The score of the node
+       * @param longRunning Is the work long running
+       * @param unit The round trip time unit in nanoseconds
+       * @return The value; not positive if the node can't take the work
+       */
+      double score(boolean longRunning, long unit)
+      {
+         long free = longRunning ? longRunningFree : shortRunningFree;
+         long queue = longRunning ? longRunningQueue : shortRunningQueue;
+         long available = free - queue - pending.get();
+
+         if (available <= 0L)
+            return 0.0;
+
+         long r = rtt.get();
+         if (r <= 0L)
+            return (double)available;
+
+         return (double)available / (1.0 + (double)r / (double)unit);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public String toString()
+      {
+         return "free=" + shortRunningFree + "/" + longRunningFree + " queue=" + shortRunningQueue + "/" +
+            longRunningQueue + " pending=" + pending.get() + " rtt=" + rtt.get();
+      }
+   }
+}
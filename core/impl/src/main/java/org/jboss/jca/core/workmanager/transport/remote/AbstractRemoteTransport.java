@@ -31,9 +31,13 @@ import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
 import org.jboss.jca.core.spi.workmanager.transport.Transport;
 import org.jboss.jca.core.workmanager.ClassBundle;
 import org.jboss.jca.core.workmanager.ClassBundleFactory;
+import org.jboss.jca.core.workmanager.StatisticsExecutorImpl;
+import org.jboss.jca.core.workmanager.WorkClassLoaderCache;
 import org.jboss.jca.core.workmanager.WorkManagerCoordinator;
 import org.jboss.jca.core.workmanager.WorkManagerEvent;
 import org.jboss.jca.core.workmanager.WorkManagerEventQueue;
+import org.jboss.jca.core.workmanager.notification.DeltaNotificationListener;
+import org.jboss.jca.core.workmanager.notification.LoadNotificationListener;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 
 import java.io.Serializable;
@@ -45,7 +49,14 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import jakarta.resource.spi.work.DistributableWork;
 import jakarta.resource.spi.work.WorkException;
@@ -73,6 +84,27 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    /** The nodes */
    protected Map<Address, T> nodes;
 
+   /** The update interval in milliseconds; 0 sends every update right away */
+   private long updateInterval;
+
+   /** The pending short running free counts */
+   private ConcurrentMap<Address, Long> pendingShortRunningFree;
+
+   /** The pending long running free counts */
+   private ConcurrentMap<Address, Long> pendingLongRunningFree;
+
+   /** The pending statistics deltas */
+   private ConcurrentMap<Address, AtomicIntegerArray> pendingDeltas;
+
+   /** The update scheduler */
+   private volatile ScheduledExecutorService updateScheduler;
+
+   /** The class bundle digests known by the peers */
+   private ConcurrentMap<T, Set<String>> classBundles;
+
+   /** The peers which doesn't support class bundle references */
+   private Set<T> noClassBundles;
+
    /**
     * Constructor
     */
@@ -80,6 +112,13 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       this.executorService = null;
       this.nodes = Collections.synchronizedMap(new HashMap<Address, T>());
+      this.updateInterval = 0L;
+      this.pendingShortRunningFree = new ConcurrentHashMap<Address, Long>();
+      this.pendingLongRunningFree = new ConcurrentHashMap<Address, Long>();
+      this.pendingDeltas = new ConcurrentHashMap<Address, AtomicIntegerArray>();
+      this.updateScheduler = null;
+      this.classBundles = new ConcurrentHashMap<T, Set<String>>();
+      this.noClassBundles = Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
    }
 
    /**
@@ -99,6 +138,25 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       this.id = id;
    }
 
+   /**
+    * Get the update interval
+    * @return The value in milliseconds
+    */
+   public long getUpdateInterval()
+   {
+      return updateInterval;
+   }
+
+   /**
+    * Set the update interval. Free count updates and statistics deltas are coalesced
+    * over the interval and sent as a single message per peer; 0 sends every update right away
+    * @param v The value in milliseconds
+    */
+   public void setUpdateInterval(long v)
+   {
+      this.updateInterval = v;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -110,7 +168,7 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       if (address.getTransportId() == null || getId().equals(address.getTransportId()))
          return localPing();
 
-      long start = System.currentTimeMillis();
+      long start = System.nanoTime();
       try
       {
          T addr = nodes.get(address);
@@ -125,7 +183,10 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          return Long.MAX_VALUE;
       }
 
-      return System.currentTimeMillis() - start;
+      long nanos = System.nanoTime() - start;
+      roundTripTime(address, nanos);
+
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
    }
 
    @Override
@@ -139,7 +200,10 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       try
       {
          T addr = nodes.get(address);
-         return (long)sendMessage(addr, Request.GET_SHORTRUNNING_FREE, address);
+         long start = System.nanoTime();
+         long free = (long)sendMessage(addr, Request.GET_SHORTRUNNING_FREE, address);
+         roundTripTime(address, System.nanoTime() - start);
+         return free;
       }
       catch (WorkException e1)
       {
@@ -162,7 +226,10 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       try
       {
          T addr = nodes.get(address);
-         return (long)sendMessage(addr, Request.GET_LONGRUNNING_FREE, address);
+         long start = System.nanoTime();
+         long free = (long)sendMessage(addr, Request.GET_LONGRUNNING_FREE, address);
+         roundTripTime(address, System.nanoTime() - start);
+         return free;
       }
       catch (WorkException e1)
       {
@@ -183,6 +250,13 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            pendingShortRunningFree.put(address, Long.valueOf(freeCount));
+            scheduleUpdates();
+            return;
+         }
+
          for (Entry<Address, T> entry : nodes.entrySet())
          {
             Address a = entry.getKey();
@@ -213,6 +287,13 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            pendingLongRunningFree.put(address, Long.valueOf(freeCount));
+            scheduleUpdates();
+            return;
+         }
+
          for (Entry<Address, T> entry : nodes.entrySet())
          {
             Address a = entry.getKey();
@@ -304,6 +385,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.DOWORK_ACCEPTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -329,6 +416,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.DOWORK_REJECTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -354,6 +447,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.STARTWORK_ACCEPTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -379,6 +478,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.STARTWORK_REJECTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -404,6 +509,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.SCHEDULEWORK_ACCEPTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -429,6 +540,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.SCHEDULEWORK_REJECTED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -454,6 +571,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.WORK_SUCCESSFUL);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -479,6 +602,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
 
       if (address.getTransportId() != null && !getId().equals(address.getTransportId()))
       {
+         if (updateInterval > 0)
+         {
+            addDelta(address, TransportUpdates.WORK_FAILED);
+            return;
+         }
+
          try
          {
             T addr = nodes.get(address);
@@ -502,10 +631,8 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("DO_WORK(%s, %s)", address, work);
 
-      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
-
       T addr = nodes.get(address);
-      sendMessage(addr, Request.DO_WORK, address, cb, work);
+      sendWork(addr, Request.DO_WORK, address, work);
    }
 
    /**
@@ -516,10 +643,8 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("SCHEDULE_WORK(%s, %s)", address, work);
 
-      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
-
       T addr = nodes.get(address);
-      sendMessage(addr, Request.SCHEDULE_WORK, address, cb, work);
+      sendWork(addr, Request.SCHEDULE_WORK, address, work);
    }
 
    /**
@@ -530,10 +655,8 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("START_WORK(%s, %s)", address, work);
 
-      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
-
       T addr = nodes.get(address);
-      return (long)sendMessage(addr, Request.START_WORK, address, cb, work);
+      return (long)sendWork(addr, Request.START_WORK, address, work);
    }
 
    /**
@@ -675,6 +798,12 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("LEAVE(%s)", physicalAddress);
 
+      if (physicalAddress != null)
+      {
+         classBundles.remove(physicalAddress);
+         noClassBundles.remove(physicalAddress);
+      }
+
       Set<Address> remove = new HashSet<Address>();
 
       for (Map.Entry<Address, T> entry : nodes.entrySet())
@@ -1153,6 +1282,506 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       }
    }
 
+   /**
+    * localClassBundle
+    *
+    * @param cb the class bundle
+    * @throws WorkException in case of error
+    */
+   public void localClassBundle(ClassBundle cb) throws WorkException
+   {
+      log.tracef("LOCAL_CLASS_BUNDLE(%s)", cb.getDigest());
+
+      WorkClassLoaderCache.addClassBundle(cb);
+   }
+
+   /**
+    * localUpdateBatch
+    *
+    * @param updates the updates
+    */
+   public void localUpdateBatch(TransportUpdates updates)
+   {
+      log.tracef("LOCAL_UPDATE_BATCH(%s)", updates);
+
+      for (Entry<Address, Long> entry : updates.getShortRunningFree().entrySet())
+      {
+         localUpdateShortRunningFree(entry.getKey(), entry.getValue());
+      }
+
+      for (Entry<Address, Long> entry : updates.getLongRunningFree().entrySet())
+      {
+         localUpdateLongRunningFree(entry.getKey(), entry.getValue());
+      }
+
+      for (Entry<Address, Long> entry : updates.getShortRunningQueue().entrySet())
+      {
+         localUpdateQueue(entry.getKey(), entry.getValue().longValue(), false);
+      }
+
+      for (Entry<Address, Long> entry : updates.getLongRunningQueue().entrySet())
+      {
+         localUpdateQueue(entry.getKey(), entry.getValue().longValue(), true);
+      }
+
+      for (Entry<Address, int[]> entry : updates.getDeltas().entrySet())
+      {
+         Address address = entry.getKey();
+         int[] values = entry.getValue();
+
+         WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+         DistributedWorkManager dwm = wmc.resolveDistributedWorkManager(address);
+
+         if (dwm != null)
+         {
+            Collection<NotificationListener> copy =
+               new ArrayList<NotificationListener>(dwm.getNotificationListeners());
+
+            for (int type = 0; type < values.length; type++)
+            {
+               if (values[type] > 0)
+               {
+                  for (NotificationListener nl : copy)
+                  {
+                     if (nl instanceof DeltaNotificationListener)
+                     {
+                        localDelta((DeltaNotificationListener)nl, type, values[type]);
+                     }
+                     else
+                     {
+                        for (int i = 0; i < values[type]; i++)
+                        {
+                           localDelta(nl, type);
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Notify the listeners about the queue depth of a node
+    * @param logicalAddress the logical address
+    * @param depth the queue depth
+    * @param longRunning long running queue
+    */
+   private void localUpdateQueue(Address logicalAddress, long depth, boolean longRunning)
+   {
+      WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+      DistributedWorkManager dwm = wmc.resolveDistributedWorkManager(logicalAddress);
+
+      if (dwm != null)
+      {
+         Collection<NotificationListener> copy =
+            new ArrayList<NotificationListener>(dwm.getNotificationListeners());
+         for (NotificationListener nl : copy)
+         {
+            if (nl instanceof LoadNotificationListener)
+            {
+               if (longRunning)
+               {
+                  ((LoadNotificationListener)nl).updateLongRunningQueue(logicalAddress, depth);
+               }
+               else
+               {
+                  ((LoadNotificationListener)nl).updateShortRunningQueue(logicalAddress, depth);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Notify the listeners about the round trip time of a request to a node
+    * @param logicalAddress the logical address
+    * @param nanos the round trip time in nanoseconds
+    */
+   private void roundTripTime(Address logicalAddress, long nanos)
+   {
+      WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+      DistributedWorkManager dwm = wmc.resolveDistributedWorkManager(logicalAddress);
+
+      if (dwm != null)
+      {
+         Collection<NotificationListener> copy =
+            new ArrayList<NotificationListener>(dwm.getNotificationListeners());
+         for (NotificationListener nl : copy)
+         {
+            if (nl instanceof LoadNotificationListener)
+               ((LoadNotificationListener)nl).roundTripTime(logicalAddress, nanos);
+         }
+      }
+   }
+
+   /**
+    * Get the number of work instances waiting for a thread of a local work manager
+    * @param address the logical address
+    * @param longRunning long running queue
+    * @return the value
+    */
+   private static long localGetQueue(Address address, boolean longRunning)
+   {
+      WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+      WorkManager wm = wmc.resolveWorkManager(address);
+
+      if (wm != null)
+      {
+         StatisticsExecutor executor = longRunning ? wm.getLongRunningThreadPool() : wm.getShortRunningThreadPool();
+         if (executor instanceof StatisticsExecutorImpl)
+            return ((StatisticsExecutorImpl)executor).getQueueSize();
+      }
+
+      return 0L;
+   }
+
+   /**
+    * Apply a number of statistics deltas in one call
+    * @param nl the notification listener
+    * @param type the delta type
+    * @param count the number of deltas
+    */
+   private static void localDelta(DeltaNotificationListener nl, int type, int count)
+   {
+      switch (type)
+      {
+         case TransportUpdates.DOWORK_ACCEPTED :
+            nl.deltaDoWorkAccepted(count);
+            break;
+         case TransportUpdates.DOWORK_REJECTED :
+            nl.deltaDoWorkRejected(count);
+            break;
+         case TransportUpdates.STARTWORK_ACCEPTED :
+            nl.deltaStartWorkAccepted(count);
+            break;
+         case TransportUpdates.STARTWORK_REJECTED :
+            nl.deltaStartWorkRejected(count);
+            break;
+         case TransportUpdates.SCHEDULEWORK_ACCEPTED :
+            nl.deltaScheduleWorkAccepted(count);
+            break;
+         case TransportUpdates.SCHEDULEWORK_REJECTED :
+            nl.deltaScheduleWorkRejected(count);
+            break;
+         case TransportUpdates.WORK_SUCCESSFUL :
+            nl.deltaWorkSuccessful(count);
+            break;
+         case TransportUpdates.WORK_FAILED :
+            nl.deltaWorkFailed(count);
+            break;
+         default :
+            break;
+      }
+   }
+
+   /**
+    * Apply a statistics delta to a listener which only takes one delta per call
+    * @param nl the notification listener
+    * @param type the delta type
+    */
+   private static void localDelta(NotificationListener nl, int type)
+   {
+      switch (type)
+      {
+         case TransportUpdates.DOWORK_ACCEPTED :
+            nl.deltaDoWorkAccepted();
+            break;
+         case TransportUpdates.DOWORK_REJECTED :
+            nl.deltaDoWorkRejected();
+            break;
+         case TransportUpdates.STARTWORK_ACCEPTED :
+            nl.deltaStartWorkAccepted();
+            break;
+         case TransportUpdates.STARTWORK_REJECTED :
+            nl.deltaStartWorkRejected();
+            break;
+         case TransportUpdates.SCHEDULEWORK_ACCEPTED :
+            nl.deltaScheduleWorkAccepted();
+            break;
+         case TransportUpdates.SCHEDULEWORK_REJECTED :
+            nl.deltaScheduleWorkRejected();
+            break;
+         case TransportUpdates.WORK_SUCCESSFUL :
+            nl.deltaWorkSuccessful();
+            break;
+         case TransportUpdates.WORK_FAILED :
+            nl.deltaWorkFailed();
+            break;
+         default :
+            break;
+      }
+   }
+
+   /**
+    * Send a work instance. The class bundle of the work is sent to the peer once,
+    * and after that only a reference to it
+    * @param addr the physical address
+    * @param request the request
+    * @param address the logical address
+    * @param work the work
+    * @return the return value
+    * @throws WorkException in case of error
+    */
+   private Serializable sendWork(T addr, Request request, Address address, DistributableWork work)
+      throws WorkException
+   {
+      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
+      ClassBundle sent = getClassBundle(addr, cb);
+
+      try
+      {
+         long start = System.nanoTime();
+         Serializable result = sendMessage(addr, request, address, sent, work);
+
+         // Only the answer to scheduleWork doesn't wait for the work to start or to finish
+         if (request == Request.SCHEDULE_WORK)
+            roundTripTime(address, System.nanoTime() - start);
+
+         return result;
+      }
+      catch (WorkException we)
+      {
+         if (!sent.isReference() || !WorkClassLoaderCache.isUnknownClassBundle(we, cb))
+            throw we;
+
+         Set<String> digests = classBundles.get(addr);
+         if (digests != null)
+            digests.remove(cb.getDigest());
+
+         return sendMessage(addr, request, address, cb, work);
+      }
+   }
+
+   /**
+    * Get the class bundle to send to a peer
+    * @param addr the physical address
+    * @param cb the class bundle
+    * @return the class bundle, or a reference to it if the peer knows it
+    */
+   private ClassBundle getClassBundle(T addr, ClassBundle cb)
+   {
+      if (addr == null || noClassBundles.contains(addr))
+         return cb;
+
+      Set<String> digests = classBundles.get(addr);
+      if (digests == null)
+      {
+         digests = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+         Set<String> existing = classBundles.putIfAbsent(addr, digests);
+         if (existing != null)
+            digests = existing;
+      }
+
+      if (!digests.contains(cb.getDigest()))
+      {
+         try
+         {
+            sendMessage(addr, Request.CLASS_BUNDLE, cb);
+            digests.add(cb.getDigest());
+         }
+         catch (WorkException we)
+         {
+            if (log.isDebugEnabled())
+            {
+               log.debug("Class bundles not supported by " + addr, we);
+            }
+            noClassBundles.add(addr);
+            return cb;
+         }
+      }
+
+      return cb.getReference();
+   }
+
+   /**
+    * Add a statistics delta to the pending updates
+    * @param address the logical address
+    * @param type the delta type
+    */
+   private void addDelta(Address address, int type)
+   {
+      AtomicIntegerArray values = pendingDeltas.get(address);
+      if (values == null)
+      {
+         values = new AtomicIntegerArray(TransportUpdates.DELTAS);
+         AtomicIntegerArray existing = pendingDeltas.putIfAbsent(address, values);
+         if (existing != null)
+            values = existing;
+      }
+      values.incrementAndGet(type);
+
+      scheduleUpdates();
+   }
+
+   /**
+    * Start the update scheduler, if needed
+    */
+   private void scheduleUpdates()
+   {
+      if (updateScheduler == null)
+      {
+         synchronized (this)
+         {
+            if (updateScheduler == null)
+            {
+               ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+               {
+                  public Thread newThread(Runnable r)
+                  {
+                     Thread t = new Thread(r, "JCA TransportUpdates " + getId());
+                     t.setDaemon(true);
+                     return t;
+                  }
+               });
+
+               scheduler.scheduleWithFixedDelay(new Runnable()
+               {
+                  public void run()
+                  {
+                     flushUpdates();
+                  }
+               }, updateInterval, updateInterval, TimeUnit.MILLISECONDS);
+
+               updateScheduler = scheduler;
+            }
+         }
+      }
+   }
+
+   /**
+    * Send the pending updates as a single message per peer
+    */
+   protected void flushUpdates()
+   {
+      TransportUpdates local = new TransportUpdates();
+
+      for (Entry<Address, Long> entry : pendingShortRunningFree.entrySet())
+      {
+         if (pendingShortRunningFree.remove(entry.getKey(), entry.getValue()))
+            local.setShortRunningFree(entry.getKey(), entry.getValue().longValue());
+      }
+
+      for (Entry<Address, Long> entry : pendingLongRunningFree.entrySet())
+      {
+         if (pendingLongRunningFree.remove(entry.getKey(), entry.getValue()))
+            local.setLongRunningFree(entry.getKey(), entry.getValue().longValue());
+      }
+
+      // The queue depths go along with the free counts, since both change when work starts or ends
+      for (Address address : local.getShortRunningFree().keySet())
+      {
+         local.setShortRunningQueue(address, localGetQueue(address, false));
+      }
+
+      for (Address address : local.getLongRunningFree().keySet())
+      {
+         local.setLongRunningQueue(address, localGetQueue(address, true));
+      }
+
+      Map<Address, int[]> deltas = new HashMap<Address, int[]>();
+      for (Entry<Address, AtomicIntegerArray> entry : pendingDeltas.entrySet())
+      {
+         for (int type = 0; type < TransportUpdates.DELTAS; type++)
+         {
+            int count = entry.getValue().getAndSet(type, 0);
+            if (count > 0)
+            {
+               int[] values = deltas.get(entry.getKey());
+               if (values == null)
+               {
+                  values = new int[TransportUpdates.DELTAS];
+                  deltas.put(entry.getKey(), values);
+               }
+               values[type] = count;
+            }
+         }
+      }
+
+      if (local.isEmpty() && deltas.isEmpty())
+         return;
+
+      Map<Address, T> copy = null;
+      synchronized (nodes)
+      {
+         copy = new HashMap<Address, T>(nodes);
+      }
+
+      Map<T, TransportUpdates> updates = new HashMap<T, TransportUpdates>();
+      for (Entry<Address, T> entry : copy.entrySet())
+      {
+         T addr = entry.getValue();
+         if (addr != null && !getId().equals(entry.getKey().getTransportId()) && !updates.containsKey(addr))
+         {
+            TransportUpdates tu = new TransportUpdates();
+            tu.getShortRunningFree().putAll(local.getShortRunningFree());
+            tu.getLongRunningFree().putAll(local.getLongRunningFree());
+            tu.getShortRunningQueue().putAll(local.getShortRunningQueue());
+            tu.getLongRunningQueue().putAll(local.getLongRunningQueue());
+            updates.put(addr, tu);
+         }
+      }
+
+      for (Entry<Address, int[]> entry : deltas.entrySet())
+      {
+         TransportUpdates tu = updates.get(copy.get(entry.getKey()));
+         if (tu != null)
+         {
+            int[] values = entry.getValue();
+            for (int type = 0; type < values.length; type++)
+            {
+               if (values[type] > 0)
+                  tu.addDelta(entry.getKey(), type, values[type]);
+            }
+         }
+      }
+
+      for (Entry<T, TransportUpdates> entry : updates.entrySet())
+      {
+         if (!entry.getValue().isEmpty())
+         {
+            try
+            {
+               long start = System.nanoTime();
+               sendMessage(entry.getKey(), Request.UPDATE_BATCH, entry.getValue());
+               long nanos = System.nanoTime() - start;
+
+               for (Entry<Address, T> node : copy.entrySet())
+               {
+                  if (entry.getKey().equals(node.getValue()))
+                     roundTripTime(node.getKey(), nanos);
+               }
+            }
+            catch (WorkException e1)
+            {
+               if (log.isDebugEnabled())
+               {
+                  log.debug("Error", e1);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Stop the update scheduler, and send the pending updates
+    */
+   protected void shutdownUpdates()
+   {
+      ScheduledExecutorService scheduler = null;
+      synchronized (this)
+      {
+         scheduler = updateScheduler;
+         updateScheduler = null;
+      }
+
+      if (scheduler != null)
+      {
+         scheduler.shutdownNow();
+         flushUpdates();
+      }
+   }
+
    /**
     * Get the own address
     * @return The value
@@ -92,7 +92,13 @@ public class ProtocolMessages
       /** schedule work */
       SCHEDULE_WORK(3, Address.class, ClassBundle.class, DistributableWork.class),
       /** start work */
-      START_WORK(3, Address.class, ClassBundle.class, DistributableWork.class);
+      START_WORK(3, Address.class, ClassBundle.class, DistributableWork.class),
+
+      /** update batch */
+      UPDATE_BATCH(1, TransportUpdates.class),
+
+      /** class bundle */
+      CLASS_BUNDLE(1, ClassBundle.class);
 
       private final int numberOfParameter;
 
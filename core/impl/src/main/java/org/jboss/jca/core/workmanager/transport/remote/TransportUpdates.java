@@ -0,0 +1,328 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The free count, queue depth and statistics updates for a peer, coalesced over an update
+ * interval. Free counts and queue depths are last-writer-wins, whereas statistics deltas
+ * are accumulated
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TransportUpdates implements Serializable
+{
+   /** SerialVersionUID */
+   private static final long serialVersionUID = 1L;
+
+   /** doWork accepted */
+   public static final int DOWORK_ACCEPTED = 0;
+
+   /** doWork rejected */
+   public static final int DOWORK_REJECTED = 1;
+
+   /** startWork accepted */
+   public static final int STARTWORK_ACCEPTED = 2;
+
+   /** startWork rejected */
+   public static final int STARTWORK_REJECTED = 3;
+
+   /** scheduleWork accepted */
+   public static final int SCHEDULEWORK_ACCEPTED = 4;
+
+   /** scheduleWork rejected */
+   public static final int SCHEDULEWORK_REJECTED = 5;
+
+   /** Work successful */
+   public static final int WORK_SUCCESSFUL = 6;
+
+   /** Work failed */
+   public static final int WORK_FAILED = 7;
+
+   /** The number of delta types */
+   public static final int DELTAS = 8;
+
+   private static final String SHORT_RUNNING_FREE = "SHORT_RUNNING_FREE";
+   private static final String LONG_RUNNING_FREE = "LONG_RUNNING_FREE";
+   private static final String SHORT_RUNNING_QUEUE = "SHORT_RUNNING_QUEUE";
+   private static final String LONG_RUNNING_QUEUE = "LONG_RUNNING_QUEUE";
+   private static final String[] DELTA_KEYS = {
+      "DOWORK_ACCEPTED", "DOWORK_REJECTED",
+      "STARTWORK_ACCEPTED", "STARTWORK_REJECTED",
+      "SCHEDULEWORK_ACCEPTED", "SCHEDULEWORK_REJECTED",
+      "WORK_SUCCESSFUL", "WORK_FAILED"
+   };
+
+   /** The short running free counts */
+   private Map<Address, Long> shortRunningFree;
+
+   /** The long running free counts */
+   private Map<Address, Long> longRunningFree;
+
+   /** The short running queue depths */
+   private Map<Address, Long> shortRunningQueue;
+
+   /** The long running queue depths */
+   private Map<Address, Long> longRunningQueue;
+
+   /** The statistics deltas */
+   private Map<Address, int[]> deltas;
+
+   /**
+    * Constructor
+    */
+   public TransportUpdates()
+   {
+      this.shortRunningFree = new LinkedHashMap<Address, Long>();
+      this.longRunningFree = new LinkedHashMap<Address, Long>();
+      this.shortRunningQueue = new LinkedHashMap<Address, Long>();
+      this.longRunningQueue = new LinkedHashMap<Address, Long>();
+      this.deltas = new LinkedHashMap<Address, int[]>();
+   }
+
+   /**
+    * Create an instance from a list of maps
+    * @param mapList The list of maps representing the updates
+    * @return The instance
+    */
+   public static TransportUpdates fromListOfMaps(List<Map<String, String>> mapList)
+   {
+      TransportUpdates updates = new TransportUpdates();
+      for (Map<String, String> map : mapList)
+      {
+         Address address = Address.fromMap(map);
+
+         String value = map.get(SHORT_RUNNING_FREE);
+         if (value != null)
+            updates.setShortRunningFree(address, Long.parseLong(value));
+
+         value = map.get(LONG_RUNNING_FREE);
+         if (value != null)
+            updates.setLongRunningFree(address, Long.parseLong(value));
+
+         value = map.get(SHORT_RUNNING_QUEUE);
+         if (value != null)
+            updates.setShortRunningQueue(address, Long.parseLong(value));
+
+         value = map.get(LONG_RUNNING_QUEUE);
+         if (value != null)
+            updates.setLongRunningQueue(address, Long.parseLong(value));
+
+         for (int i = 0; i < DELTAS; i++)
+         {
+            value = map.get(DELTA_KEYS[i]);
+            if (value != null)
+               updates.addDelta(address, i, Integer.parseInt(value));
+         }
+      }
+      return updates;
+   }
+
+   /**
+    * Return a list of maps representing the updates of this instance
+    * @return The list of maps
+    */
+   public List<Map<String, String>> toListOfMaps()
+   {
+      Set<Address> addresses = new LinkedHashSet<Address>(shortRunningFree.keySet());
+      addresses.addAll(longRunningFree.keySet());
+      addresses.addAll(shortRunningQueue.keySet());
+      addresses.addAll(longRunningQueue.keySet());
+      addresses.addAll(deltas.keySet());
+
+      List<Map<String, String>> returnList = new ArrayList<Map<String, String>>(addresses.size());
+      for (Address address : addresses)
+      {
+         Map<String, String> map = address.toMap();
+
+         Long value = shortRunningFree.get(address);
+         if (value != null)
+            map.put(SHORT_RUNNING_FREE, value.toString());
+
+         value = longRunningFree.get(address);
+         if (value != null)
+            map.put(LONG_RUNNING_FREE, value.toString());
+
+         value = shortRunningQueue.get(address);
+         if (value != null)
+            map.put(SHORT_RUNNING_QUEUE, value.toString());
+
+         value = longRunningQueue.get(address);
+         if (value != null)
+            map.put(LONG_RUNNING_QUEUE, value.toString());
+
+         int[] values = deltas.get(address);
+         if (values != null)
+         {
+            for (int i = 0; i < DELTAS; i++)
+            {
+               if (values[i] != 0)
+                  map.put(DELTA_KEYS[i], Integer.toString(values[i]));
+            }
+         }
+
+         returnList.add(map);
+      }
+      return returnList;
+   }
+
+   /**
+    * Set the short running free count
+    * @param address The logical address
+    * @param freeCount The free count
+    */
+   public void setShortRunningFree(Address address, long freeCount)
+   {
+      shortRunningFree.put(address, Long.valueOf(freeCount));
+   }
+
+   /**
+    * Get the short running free counts
+    * @return The values
+    */
+   public Map<Address, Long> getShortRunningFree()
+   {
+      return shortRunningFree;
+   }
+
+   /**
+    * Set the long running free count
+    * @param address The logical address
+    * @param freeCount The free count
+    */
+   public void setLongRunningFree(Address address, long freeCount)
+   {
+      longRunningFree.put(address, Long.valueOf(freeCount));
+   }
+
+   /**
+    * Get the long running free counts
+    * @return The values
+    */
+   public Map<Address, Long> getLongRunningFree()
+   {
+      return longRunningFree;
+   }
+
+   /**
+    * Set the short running queue depth
+    * @param address The logical address
+    * @param depth The queue depth
+    */
+   public void setShortRunningQueue(Address address, long depth)
+   {
+      shortRunningQueue.put(address, Long.valueOf(depth));
+   }
+
+   /**
+    * Get the short running queue depths
+    * @return The values
+    */
+   public Map<Address, Long> getShortRunningQueue()
+   {
+      return shortRunningQueue;
+   }
+
+   /**
+    * Set the long running queue depth
+    * @param address The logical address
+    * @param depth The queue depth
+    */
+   public void setLongRunningQueue(Address address, long depth)
+   {
+      longRunningQueue.put(address, Long.valueOf(depth));
+   }
+
+   /**
+    * Get the long running queue depths
+    * @return The values
+    */
+   public Map<Address, Long> getLongRunningQueue()
+   {
+      return longRunningQueue;
+   }
+
+   /**
+    * Add a statistics delta
+    * @param address The logical address
+    * @param type The delta type
+    * @param count The count
+    */
+   public void addDelta(Address address, int type, int count)
+   {
+      int[] values = deltas.get(address);
+      if (values == null)
+      {
+         values = new int[DELTAS];
+         deltas.put(address, values);
+      }
+      values[type] += count;
+   }
+
+   /**
+    * Get the statistics deltas
+    * @return The values indexed by delta type
+    */
+   public Map<Address, int[]> getDeltas()
+   {
+      return deltas;
+   }
+
+   /**
+    * Are there any updates
+    * @return True if empty, otherwise false
+    */
+   public boolean isEmpty()
+   {
+      return shortRunningFree.isEmpty() && longRunningFree.isEmpty() &&
+         shortRunningQueue.isEmpty() && longRunningQueue.isEmpty() && deltas.isEmpty();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("TransportUpdates@").append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[shortRunningFree=").append(shortRunningFree);
+      sb.append(" longRunningFree=").append(longRunningFree);
+      sb.append(" shortRunningQueue=").append(shortRunningQueue);
+      sb.append(" longRunningQueue=").append(longRunningQueue);
+      sb.append(" deltas=").append(deltas.keySet());
+      sb.append("]");
+
+      return sb.toString();
+   }
+}
@@ -45,10 +45,12 @@ import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues
 import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.workmanager.ClassBundle;
 import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.WorkClassLoaderCache;
 import org.jboss.jca.core.workmanager.WorkObjectInputStream;
 import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.ResponseValues;
+import org.jboss.jca.core.workmanager.transport.remote.TransportUpdates;
 
 import org.jboss.logging.Logger;
 
@@ -134,6 +136,10 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
 
    private static final short DELTA_WORK_FAILED_METHOD = 23;
 
+   private static final short UPDATE_BATCH_METHOD = 24;
+
+   private static final short CLASS_BUNDLE_METHOD = 25;
+
    private static Map<Short, Method> methods = new HashMap<Short, Method>();
 
    static
@@ -239,6 +245,14 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
          methods.put(DELTA_WORK_FAILED_METHOD,
                      SecurityActions.getMethod(JGroupsTransport.class, "deltaWorkFailed",
                                                Map.class));
+
+         methods.put(UPDATE_BATCH_METHOD,
+                     SecurityActions.getMethod(JGroupsTransport.class, "updateBatch",
+                                               List.class));
+
+         methods.put(CLASS_BUNDLE_METHOD,
+                     SecurityActions.getMethod(JGroupsTransport.class, "classBundle",
+                                               List.class));
       }
       catch (NoSuchMethodException e)
       {
@@ -462,6 +476,27 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
    {
       super.localDeltaWorkSuccessful(Address.fromMap(logicalAddressMap));
    }
+
+   /**
+    * Delegator
+    *
+    * @param updates The updates
+    */
+   public void updateBatch(List<Map<String, String>> updates)
+   {
+      super.localUpdateBatch(TransportUpdates.fromListOfMaps(updates));
+   }
+
+   /**
+    * Delegator
+    *
+    * @param classBundle The class bundle
+    * @throws WorkException in case of error
+    */
+   public void classBundle(List<Map<String, Object>> classBundle) throws WorkException
+   {
+      super.localClassBundle(ClassBundle.fromListOfMaps(classBundle));
+   }
    
 
    /**
@@ -479,13 +514,15 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+         Address address = Address.fromMap(logicalAddressMap);
+         WorkClassLoader wcl =
+            WorkClassLoaderCache.getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle), address);
          
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
 
-         localDoWork(Address.fromMap(logicalAddressMap), dw);
+         localDoWork(address, dw);
       }
       catch (Throwable t)
       {
@@ -523,13 +560,15 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+         Address address = Address.fromMap(logicalAddressMap);
+         WorkClassLoader wcl =
+            WorkClassLoaderCache.getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle), address);
          
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
 
-         return localStartWork(Address.fromMap(logicalAddressMap), dw);
+         return localStartWork(address, dw);
       }
       catch (Throwable t)
       {
@@ -565,13 +604,15 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+         Address address = Address.fromMap(logicalAddress);
+         WorkClassLoader wcl =
+            WorkClassLoaderCache.getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle), address);
          
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
 
-         localScheduleWork(Address.fromMap(logicalAddress), dw);
+         localScheduleWork(address, dw);
       }
       catch (Throwable t)
       {
@@ -646,6 +687,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
     */
    public void shutdown() throws Throwable
    {
+      shutdownUpdates();
+
       if (disp != null)
       {
          try
@@ -967,6 +1010,20 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
 
                break;
             }
+            case UPDATE_BATCH : {
+               List<Map<String, String>> updates = ((TransportUpdates) parameters[0]).toListOfMaps();
+
+               disp.callRemoteMethod(destAddress, new MethodCall(UPDATE_BATCH_METHOD, updates), opts);
+
+               break;
+            }
+            case CLASS_BUNDLE : {
+               List<Map<String, Object>> cb = ((ClassBundle)parameters[0]).toListOfMaps();
+
+               disp.callRemoteMethod(destAddress, new MethodCall(CLASS_BUNDLE_METHOD, cb), opts);
+
+               break;
+            }
             default :
                if (log.isDebugEnabled())
                {
@@ -22,9 +22,6 @@
 
 package org.jboss.jca.core.workmanager.transport.remote.jgroups;
 
-import org.jboss.jca.core.workmanager.ClassBundle;
-import org.jboss.jca.core.workmanager.WorkClassLoader;
-
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -58,22 +55,6 @@ class SecurityActions
       });
    }
 
-   /**
-    * Create a WorkClassLoader
-    * @param cb The class bundle
-    * @return The class loader
-    */
-   static WorkClassLoader createWorkClassLoader(final ClassBundle cb)
-   {
-      return AccessController.doPrivileged(new PrivilegedAction<WorkClassLoader>() 
-      {
-         public WorkClassLoader run()
-         {
-            return new WorkClassLoader(cb);
-         }
-      });
-   }
-
    /**
     * Get the method
     * @param c The class
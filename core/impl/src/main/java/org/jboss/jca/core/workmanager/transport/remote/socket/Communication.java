@@ -27,9 +27,11 @@ import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.workmanager.ClassBundle;
 import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.WorkClassLoaderCache;
 import org.jboss.jca.core.workmanager.WorkObjectInputStream;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
+import org.jboss.jca.core.workmanager.transport.remote.TransportUpdates;
 
 import java.io.IOException;
 import java.io.ObjectOutputStream;
@@ -203,7 +205,7 @@ public class Communication implements Runnable
                if (log.isTraceEnabled())
                   log.tracef("DO_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
+               WorkClassLoader wcl = WorkClassLoaderCache.getWorkClassLoader(cb, id);
                wois.setWorkClassLoader(wcl);
 
                DistributableWork work = (DistributableWork)wois.readObject();
@@ -226,7 +228,7 @@ public class Communication implements Runnable
 
                log.tracef("START_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
+               WorkClassLoader wcl = WorkClassLoaderCache.getWorkClassLoader(cb, id);
                wois.setWorkClassLoader(wcl);
 
                DistributableWork work = (DistributableWork)wois.readObject();
@@ -249,7 +251,7 @@ public class Communication implements Runnable
 
                log.tracef("SCHEDULE_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
+               WorkClassLoader wcl = WorkClassLoaderCache.getWorkClassLoader(cb, id);
                wois.setWorkClassLoader(wcl);
 
                DistributableWork work = (DistributableWork)wois.readObject();
@@ -474,6 +476,36 @@ public class Communication implements Runnable
 
                break;
             }
+            case UPDATE_BATCH : {
+               if (numberOfParameters != 1)
+                  throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
+                                                                                      "UPDATE_BATCH"));
+
+               TransportUpdates updates = (TransportUpdates)wois.readObject();
+
+               if (log.isTraceEnabled())
+                  log.tracef("%s: UPDATE_BATCH(%s)", socket.getInetAddress(), updates);
+
+               transport.localUpdateBatch(updates);
+               response = Response.OK_VOID;
+
+               break;
+            }
+            case CLASS_BUNDLE : {
+               if (numberOfParameters != 1)
+                  throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
+                                                                                      "CLASS_BUNDLE"));
+
+               ClassBundle cb = (ClassBundle)wois.readObject();
+
+               if (log.isTraceEnabled())
+                  log.tracef("%s: CLASS_BUNDLE(%s)", socket.getInetAddress(), cb.getDigest());
+
+               transport.localClassBundle(cb);
+               response = Response.OK_VOID;
+
+               break;
+            }
             default :
                if (log.isDebugEnabled())
                {
@@ -0,0 +1,518 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.ClassBundle;
+import org.jboss.jca.core.workmanager.ClassDefinition;
+import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.WorkClassLoaderCache;
+import org.jboss.jca.core.workmanager.WorkObjectInputStream;
+import org.jboss.jca.core.workmanager.transport.remote.TransportUpdates;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.resource.spi.work.WorkException;
+
+/**
+ * A binary frame of the socket channel transport.
+ *
+ * A frame is the length of the remaining bytes, the kind, the request identifier,
+ * the ordinal of the request or response, and the tagged parameters. The control
+ * values are written in a compact binary form; only other values, like the
+ * DistributableWork instances, use Java serialization
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class Frame
+{
+   /** Request */
+   static final byte REQUEST = 0;
+
+   /** Response */
+   static final byte RESPONSE = 1;
+
+   /** The size of the kind, request identifier, ordinal and parameter count */
+   static final int HEADER_SIZE = 11;
+
+   private static final byte TAG_NULL = 0;
+   private static final byte TAG_STRING = 1;
+   private static final byte TAG_LONG = 2;
+   private static final byte TAG_ADDRESS = 3;
+   private static final byte TAG_ADDRESSES = 4;
+   private static final byte TAG_STATISTICS = 5;
+   private static final byte TAG_UPDATES = 6;
+   private static final byte TAG_CLASS_BUNDLE = 7;
+   private static final byte TAG_OBJECT = 8;
+
+   /** The kind */
+   private final byte kind;
+
+   /** The request identifier */
+   private final long id;
+
+   /** The ordinal of the request or response */
+   private final int ordinal;
+
+   /** The parameters */
+   private final Serializable[] parameters;
+
+   /**
+    * Constructor
+    * @param kind The kind
+    * @param id The request identifier
+    * @param ordinal The ordinal
+    * @param parameters The parameters
+    */
+   private Frame(byte kind, long id, int ordinal, Serializable[] parameters)
+   {
+      this.kind = kind;
+      this.id = id;
+      this.ordinal = ordinal;
+      this.parameters = parameters;
+   }
+
+   /**
+    * Get the kind
+    * @return The value
+    */
+   byte getKind()
+   {
+      return kind;
+   }
+
+   /**
+    * Get the request identifier
+    * @return The value
+    */
+   long getId()
+   {
+      return id;
+   }
+
+   /**
+    * Get the ordinal of the request or response
+    * @return The value
+    */
+   int getOrdinal()
+   {
+      return ordinal;
+   }
+
+   /**
+    * Get the parameters
+    * @return The value
+    */
+   Serializable[] getParameters()
+   {
+      return parameters;
+   }
+
+   /**
+    * Get the kind of an encoded frame
+    * @param data The data without the length
+    * @return The value
+    */
+   static byte getKind(byte[] data)
+   {
+      return data[0];
+   }
+
+   /**
+    * Get the request identifier of an encoded frame
+    * @param data The data without the length
+    * @return The value
+    */
+   static long getId(byte[] data)
+   {
+      return ByteBuffer.wrap(data, 1, 8).getLong();
+   }
+
+   /**
+    * Encode a frame
+    * @param kind The kind
+    * @param id The request identifier
+    * @param ordinal The ordinal of the request or response
+    * @param parameters The parameters
+    * @return The buffer, including the length
+    * @exception IOException Thrown if a parameter can't be encoded
+    */
+   static ByteBuffer encode(byte kind, long id, int ordinal, Serializable... parameters) throws IOException
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+      DataOutputStream dos = new DataOutputStream(baos);
+
+      dos.writeInt(0);
+      dos.writeByte(kind);
+      dos.writeLong(id);
+      dos.writeByte(ordinal);
+
+      if (parameters != null)
+      {
+         dos.writeByte(parameters.length);
+         for (Serializable parameter : parameters)
+         {
+            writeParameter(dos, parameter);
+         }
+      }
+      else
+      {
+         dos.writeByte(0);
+      }
+
+      dos.flush();
+
+      ByteBuffer bb = ByteBuffer.wrap(baos.toByteArray());
+      bb.putInt(0, bb.capacity() - 4);
+      return bb;
+   }
+
+   /**
+    * Decode a frame
+    * @param data The data without the length
+    * @return The frame
+    * @exception IOException Thrown if a parameter can't be decoded
+    * @exception ClassNotFoundException Thrown if a class of a serialized parameter can't be found
+    * @exception WorkException Thrown if a class bundle reference is unknown
+    */
+   static Frame decode(byte[] data) throws IOException, ClassNotFoundException, WorkException
+   {
+      DataInputStream dis = new DataInputStream(new ByteArrayInputStream(data));
+
+      byte kind = dis.readByte();
+      long id = dis.readLong();
+      int ordinal = dis.readUnsignedByte();
+      int count = dis.readUnsignedByte();
+
+      Serializable[] parameters = new Serializable[count];
+      WorkClassLoader wcl = null;
+
+      for (int i = 0; i < count; i++)
+      {
+         parameters[i] = readParameter(dis, wcl);
+
+         if (parameters[i] instanceof ClassBundle)
+         {
+            Address address = parameters[0] instanceof Address ? (Address)parameters[0] : null;
+            wcl = WorkClassLoaderCache.getWorkClassLoader((ClassBundle)parameters[i], address);
+         }
+      }
+
+      return new Frame(kind, id, ordinal, parameters);
+   }
+
+   /**
+    * Write a parameter
+    * @param dos The output stream
+    * @param parameter The parameter
+    * @exception IOException Thrown if an error occurs
+    */
+   @SuppressWarnings("unchecked")
+   private static void writeParameter(DataOutputStream dos, Serializable parameter) throws IOException
+   {
+      if (parameter == null)
+      {
+         dos.writeByte(TAG_NULL);
+      }
+      else if (parameter instanceof String)
+      {
+         dos.writeByte(TAG_STRING);
+         dos.writeUTF((String)parameter);
+      }
+      else if (parameter instanceof Long)
+      {
+         dos.writeByte(TAG_LONG);
+         dos.writeLong(((Long)parameter).longValue());
+      }
+      else if (parameter instanceof Address)
+      {
+         dos.writeByte(TAG_ADDRESS);
+         writeAddress(dos, (Address)parameter);
+      }
+      else if (parameter instanceof Set)
+      {
+         Set<Address> addresses = (Set<Address>)parameter;
+
+         dos.writeByte(TAG_ADDRESSES);
+         dos.writeInt(addresses.size());
+         for (Address address : addresses)
+         {
+            writeAddress(dos, address);
+         }
+      }
+      else if (parameter instanceof DistributedWorkManagerStatisticsValues)
+      {
+         DistributedWorkManagerStatisticsValues values = (DistributedWorkManagerStatisticsValues)parameter;
+
+         dos.writeByte(TAG_STATISTICS);
+         dos.writeInt(values.getWorkSuccessful());
+         dos.writeInt(values.getWorkFailed());
+         dos.writeInt(values.getDoWorkAccepted());
+         dos.writeInt(values.getDoWorkRejected());
+         dos.writeInt(values.getScheduleWorkAccepted());
+         dos.writeInt(values.getScheduleWorkRejected());
+         dos.writeInt(values.getStartWorkAccepted());
+         dos.writeInt(values.getStartWorkRejected());
+      }
+      else if (parameter instanceof TransportUpdates)
+      {
+         TransportUpdates updates = (TransportUpdates)parameter;
+
+         dos.writeByte(TAG_UPDATES);
+         writeFreeCounts(dos, updates.getShortRunningFree());
+         writeFreeCounts(dos, updates.getLongRunningFree());
+
+         dos.writeInt(updates.getDeltas().size());
+         for (Map.Entry<Address, int[]> entry : updates.getDeltas().entrySet())
+         {
+            writeAddress(dos, entry.getKey());
+            for (int value : entry.getValue())
+            {
+               dos.writeInt(value);
+            }
+         }
+      }
+      else if (parameter instanceof ClassBundle)
+      {
+         ClassBundle cb = (ClassBundle)parameter;
+         List<ClassDefinition> definitions = cb.getDefinitions();
+
+         dos.writeByte(TAG_CLASS_BUNDLE);
+         writeString(dos, cb.isReference() ? cb.getDigest() : null);
+         dos.writeInt(definitions.size());
+         for (ClassDefinition cd : definitions)
+         {
+            dos.writeUTF(cd.getName());
+            dos.writeLong(cd.getSerialVersionUID());
+            dos.writeInt(cd.getData().length);
+            dos.write(cd.getData());
+         }
+      }
+      else
+      {
+         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+         ObjectOutputStream oos = new ObjectOutputStream(baos);
+         oos.writeObject(parameter);
+         oos.close();
+
+         dos.writeByte(TAG_OBJECT);
+         dos.writeInt(baos.size());
+         baos.writeTo(dos);
+      }
+   }
+
+   /**
+    * Read a parameter
+    * @param dis The input stream
+    * @param wcl The work class loader for serialized parameters, or <code>null</code>
+    * @return The parameter
+    * @exception IOException Thrown if an error occurs
+    * @exception ClassNotFoundException Thrown if a class of a serialized parameter can't be found
+    */
+   private static Serializable readParameter(DataInputStream dis, WorkClassLoader wcl)
+      throws IOException, ClassNotFoundException
+   {
+      byte tag = dis.readByte();
+      switch (tag)
+      {
+         case TAG_NULL :
+            return null;
+         case TAG_STRING :
+            return dis.readUTF();
+         case TAG_LONG :
+            return Long.valueOf(dis.readLong());
+         case TAG_ADDRESS :
+            return readAddress(dis);
+         case TAG_ADDRESSES : {
+            int size = readSize(dis);
+            HashSet<Address> addresses = new HashSet<Address>(size);
+            for (int i = 0; i < size; i++)
+            {
+               addresses.add(readAddress(dis));
+            }
+            return addresses;
+         }
+         case TAG_STATISTICS :
+            return new DistributedWorkManagerStatisticsValues(dis.readInt(), dis.readInt(),
+                                                              dis.readInt(), dis.readInt(),
+                                                              dis.readInt(), dis.readInt(),
+                                                              dis.readInt(), dis.readInt());
+         case TAG_UPDATES : {
+            TransportUpdates updates = new TransportUpdates();
+
+            int size = readSize(dis);
+            for (int i = 0; i < size; i++)
+            {
+               updates.setShortRunningFree(readAddress(dis), dis.readLong());
+            }
+
+            size = readSize(dis);
+            for (int i = 0; i < size; i++)
+            {
+               updates.setLongRunningFree(readAddress(dis), dis.readLong());
+            }
+
+            size = readSize(dis);
+            for (int i = 0; i < size; i++)
+            {
+               Address address = readAddress(dis);
+               for (int type = 0; type < TransportUpdates.DELTAS; type++)
+               {
+                  int value = dis.readInt();
+                  if (value != 0)
+                     updates.addDelta(address, type, value);
+               }
+            }
+            return updates;
+         }
+         case TAG_CLASS_BUNDLE : {
+            String digest = readString(dis);
+            if (digest != null)
+            {
+               dis.readInt();
+               return ClassBundle.createReference(digest);
+            }
+
+            int size = readSize(dis);
+            List<ClassDefinition> definitions = new ArrayList<ClassDefinition>(size);
+            for (int i = 0; i < size; i++)
+            {
+               String name = dis.readUTF();
+               long svu = dis.readLong();
+               byte[] data = new byte[readSize(dis)];
+               dis.readFully(data);
+               definitions.add(new ClassDefinition(name, svu, data));
+            }
+            return new ClassBundle(definitions);
+         }
+         case TAG_OBJECT : {
+            byte[] data = new byte[readSize(dis)];
+            dis.readFully(data);
+
+            WorkObjectInputStream wois = new WorkObjectInputStream(new ByteArrayInputStream(data), wcl);
+            try
+            {
+               return (Serializable)wois.readObject();
+            }
+            finally
+            {
+               wois.close();
+            }
+         }
+         default :
+            throw new IOException("Unknown parameter tag: " + tag);
+      }
+   }
+
+   /**
+    * Write the free counts
+    * @param dos The output stream
+    * @param counts The free counts
+    * @exception IOException Thrown if an error occurs
+    */
+   private static void writeFreeCounts(DataOutputStream dos, Map<Address, Long> counts) throws IOException
+   {
+      dos.writeInt(counts.size());
+      for (Map.Entry<Address, Long> entry : counts.entrySet())
+      {
+         writeAddress(dos, entry.getKey());
+         dos.writeLong(entry.getValue().longValue());
+      }
+   }
+
+   /**
+    * Write an address
+    * @param dos The output stream
+    * @param address The address
+    * @exception IOException Thrown if an error occurs
+    */
+   private static void writeAddress(DataOutputStream dos, Address address) throws IOException
+   {
+      writeString(dos, address.getWorkManagerId());
+      writeString(dos, address.getWorkManagerName());
+      writeString(dos, address.getTransportId());
+   }
+
+   /**
+    * Read an address
+    * @param dis The input stream
+    * @return The address
+    * @exception IOException Thrown if an error occurs
+    */
+   private static Address readAddress(DataInputStream dis) throws IOException
+   {
+      return new Address(readString(dis), readString(dis), readString(dis));
+   }
+
+   /**
+    * Write a string, which may be <code>null</code>
+    * @param dos The output stream
+    * @param s The string
+    * @exception IOException Thrown if an error occurs
+    */
+   private static void writeString(DataOutputStream dos, String s) throws IOException
+   {
+      dos.writeBoolean(s != null);
+      if (s != null)
+         dos.writeUTF(s);
+   }
+
+   /**
+    * Read a string, which may be <code>null</code>
+    * @param dis The input stream
+    * @return The string
+    * @exception IOException Thrown if an error occurs
+    */
+   private static String readString(DataInputStream dis) throws IOException
+   {
+      return dis.readBoolean() ? dis.readUTF() : null;
+   }
+
+   /**
+    * Read the size of an array or a collection. Each element takes at least one byte,
+    * so the size can't exceed the remaining data of the frame
+    * @param dis The input stream
+    * @return The size
+    * @exception IOException Thrown if an error occurs, or if the size is invalid
+    */
+   private static int readSize(DataInputStream dis) throws IOException
+   {
+      int size = dis.readInt();
+      if (size < 0 || size > dis.available())
+         throw new IOException("Invalid size: " + size);
+      return size;
+   }
+}
@@ -0,0 +1,323 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.resource.spi.work.WorkException;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A long-lived connection of the socket channel transport. Requests are pipelined
+ * over the channel, and the responses are matched to the callers by the request identifier
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class SocketChannelConnection implements Runnable
+{
+   /** The logger */
+   private static CoreLogger log =
+      Logger.getMessageLogger(CoreLogger.class, SocketChannelConnection.class.getName());
+
+   /** The transport */
+   private final SocketChannelTransport transport;
+
+   /** The channel */
+   private final SocketChannel channel;
+
+   /** The pending calls */
+   private final ConcurrentMap<Long, Call> calls;
+
+   /** The request identifiers */
+   private final AtomicLong ids;
+
+   /** Is the connection open */
+   private final AtomicBoolean open;
+
+   /**
+    * Constructor
+    * @param transport The transport
+    * @param channel The channel
+    */
+   SocketChannelConnection(SocketChannelTransport transport, SocketChannel channel)
+   {
+      this.transport = transport;
+      this.channel = channel;
+      this.calls = new ConcurrentHashMap<Long, Call>();
+      this.ids = new AtomicLong(0);
+      this.open = new AtomicBoolean(true);
+   }
+
+   /**
+    * Is the connection open
+    * @return The value
+    */
+   boolean isOpen()
+   {
+      return open.get();
+   }
+
+   /**
+    * Send a request, and wait for the response
+    * @param request The request
+    * @param parameters The parameters
+    * @return The return value
+    * @exception Throwable Thrown if an error occurs, or if the peer reported an error
+    */
+   Serializable call(Request request, Serializable... parameters) throws Throwable
+   {
+      Long id = Long.valueOf(ids.incrementAndGet());
+      Call call = new Call();
+      calls.put(id, call);
+
+      try
+      {
+         write(Frame.encode(Frame.REQUEST, id.longValue(), request.ordinal(), parameters));
+
+         if (!open.get())
+            call.fail(new EOFException("Connection closed"));
+
+         Frame frame = call.await(transport.getTimeout());
+         Serializable[] values = frame.getParameters();
+
+         switch (Response.values()[frame.getOrdinal()])
+         {
+            case OK_VOID : {
+               return null;
+            }
+            case OK_SERIALIZABLE : {
+               return values[0];
+            }
+            case WORK_EXCEPTION : {
+               throw (WorkException)values[0];
+            }
+            case GENERIC_EXCEPTION : {
+               throw (Throwable)values[0];
+            }
+            default :
+               throw new WorkException("Unknown response received on socket channel Transport");
+         }
+      }
+      finally
+      {
+         calls.remove(id);
+      }
+   }
+
+   /**
+    * Write a frame
+    * @param bb The buffer
+    * @exception IOException Thrown if an error occurs
+    */
+   synchronized void write(ByteBuffer bb) throws IOException
+   {
+      while (bb.hasRemaining())
+      {
+         channel.write(bb);
+      }
+   }
+
+   /**
+    * Read the frames from the channel
+    */
+   public void run()
+   {
+      ByteBuffer length = ByteBuffer.allocate(4);
+      try
+      {
+         while (open.get())
+         {
+            length.clear();
+            read(length);
+
+            int size = length.getInt(0);
+            if (size < Frame.HEADER_SIZE || size > transport.getMaxFrameSize())
+               throw new IOException("Invalid frame length: " + size);
+
+            ByteBuffer bb = ByteBuffer.allocate(size);
+            read(bb);
+
+            final byte[] data = bb.array();
+
+            if (Frame.getKind(data) == Frame.RESPONSE)
+            {
+               Call call = calls.get(Long.valueOf(Frame.getId(data)));
+               if (call != null)
+               {
+                  try
+                  {
+                     call.complete(Frame.decode(data));
+                  }
+                  catch (Throwable t)
+                  {
+                     call.fail(t);
+                  }
+               }
+            }
+            else
+            {
+               transport.getExecutorService().submit(new Runnable()
+               {
+                  public void run()
+                  {
+                     transport.handle(SocketChannelConnection.this, data);
+                  }
+               });
+            }
+         }
+      }
+      catch (Throwable t)
+      {
+         if (open.get() && log.isTraceEnabled())
+            log.tracef("Connection %s: %s", channel, t.getMessage());
+      }
+      finally
+      {
+         close();
+      }
+   }
+
+   /**
+    * Close the connection, and fail the pending calls
+    */
+   void close()
+   {
+      if (open.compareAndSet(true, false))
+      {
+         try
+         {
+            channel.close();
+         }
+         catch (IOException ioe)
+         {
+            // Ignore
+         }
+
+         Iterator<Call> it = calls.values().iterator();
+         while (it.hasNext())
+         {
+            it.next().fail(new EOFException("Connection closed"));
+         }
+
+         transport.connectionClosed(this);
+      }
+   }
+
+   /**
+    * Fill a buffer from the channel
+    * @param bb The buffer
+    * @exception IOException Thrown if an error occurs, or at the end of the stream
+    */
+   private void read(ByteBuffer bb) throws IOException
+   {
+      while (bb.hasRemaining())
+      {
+         if (channel.read(bb) < 0)
+            throw new EOFException();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString()
+   {
+      return "SocketChannelConnection [channel=" + channel + ", open=" + open + ", calls=" + calls.size() + "]";
+   }
+
+   /**
+    * A pending call
+    */
+   static class Call
+   {
+      /** The latch */
+      private final CountDownLatch latch = new CountDownLatch(1);
+
+      /** The response */
+      private volatile Frame response;
+
+      /** The failure */
+      private volatile Throwable failure;
+
+      /**
+       * Complete the call
+       * @param frame The response
+       */
+      void complete(Frame frame)
+      {
+         response = frame;
+         latch.countDown();
+      }
+
+      /**
+       * Fail the call
+       * @param t The failure
+       */
+      void fail(Throwable t)
+      {
+         failure = t;
+         latch.countDown();
+      }
+
+      /**
+       * Wait for the response
+       * @param timeout The timeout in milliseconds, or 0 or less to wait until the call completes
+       * @return The response
+       * @exception Throwable Thrown if the call failed, or timed out
+       */
+      Frame await(long timeout) throws Throwable
+      {
+         if (timeout <= 0)
+         {
+            latch.await();
+         }
+         else if (!latch.await(timeout, TimeUnit.MILLISECONDS))
+         {
+            throw new WorkException("No response received on socket channel Transport within " +
+                                    timeout + " ms");
+         }
+
+         if (response == null)
+            throw failure;
+
+         return response;
+      }
+   }
+}
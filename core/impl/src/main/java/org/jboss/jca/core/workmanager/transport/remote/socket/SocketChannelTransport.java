@@ -0,0 +1,620 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.CoreBundle;
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.ClassBundle;
+import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
+import org.jboss.jca.core.workmanager.transport.remote.TransportUpdates;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.resource.spi.work.DistributableWork;
+import jakarta.resource.spi.work.WorkException;
+
+import org.jboss.logging.Logger;
+import org.jboss.logging.Messages;
+
+/**
+ * The socket channel transport.
+ *
+ * Keeps a single long-lived channel to each peer, where the requests are pipelined
+ * using request identifiers and a compact binary framing
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SocketChannelTransport extends AbstractRemoteTransport<String> implements Runnable
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, SocketChannelTransport.class.getName());
+
+   /** The bundle */
+   private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
+
+   /** The bind address */
+   private String host;
+
+   /** The bind port */
+   private int port;
+
+   /** The peers */
+   private Set<String> peers;
+
+   /** The timeout of a request in milliseconds */
+   private long timeout;
+
+   /** The maximum size of a frame in bytes */
+   private int maxFrameSize;
+
+   /** Is the server running ? */
+   private AtomicBoolean running;
+
+   /** The server channel */
+   private ServerSocketChannel ssc;
+
+   /** Is the transport initialized */
+   private boolean initialized;
+
+   /** The connections to the peers */
+   private ConcurrentMap<String, SocketChannelConnection> connections;
+
+   /** The connections from the peers */
+   private Set<SocketChannelConnection> accepted;
+
+   /**
+    * Constructor
+    */
+   public SocketChannelTransport()
+   {
+      super();
+      this.host = null;
+      this.port = 0;
+      this.peers = null;
+      this.timeout = 10000L;
+      this.maxFrameSize = 16 * 1024 * 1024;
+      this.running = new AtomicBoolean(false);
+      this.ssc = null;
+      this.initialized = false;
+      this.connections = new ConcurrentHashMap<String, SocketChannelConnection>();
+      this.accepted = Collections.newSetFromMap(new ConcurrentHashMap<SocketChannelConnection, Boolean>());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void startup() throws Throwable
+   {
+      if (!running.get())
+      {
+         ssc = ServerSocketChannel.open();
+         ssc.bind(new InetSocketAddress(host, port));
+
+         running.set(true);
+
+         getExecutorService().submit(this);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean isInitialized()
+   {
+      return initialized;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @SuppressWarnings("unchecked")
+   public void initialize() throws Throwable
+   {
+      if (peers != null && !initialized)
+      {
+         for (String addr : peers)
+         {
+            log.tracef("Peer: %s", addr);
+
+            try
+            {
+               // Let other node know of us
+               sendMessage(addr, Request.JOIN, getOwnAddress());
+
+               // Update the local information
+               Set<Address> workManagers = (Set<Address>)sendMessage(addr, Request.GET_WORKMANAGERS);
+
+               log.tracef("Peer WorkManagers: %s", workManagers);
+
+               if (workManagers != null)
+               {
+                  for (Address a : workManagers)
+                  {
+                     join(a, addr);
+
+                     long shortRunningFree =
+                        (long)sendMessage(addr, Request.GET_SHORTRUNNING_FREE, a);
+                     long longRunningFree =
+                        (long)sendMessage(addr, Request.GET_LONGRUNNING_FREE, a);
+
+                     localUpdateShortRunningFree(a, shortRunningFree);
+                     localUpdateLongRunningFree(a, longRunningFree);
+                  }
+               }
+            }
+            catch (Throwable t)
+            {
+               log.error(t.getMessage(), t);
+            }
+         }
+      }
+
+      initialized = true;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void shutdown() throws Throwable
+   {
+      shutdownUpdates();
+
+      running.set(false);
+
+      if (ssc != null)
+         ssc.close();
+
+      List<SocketChannelConnection> copy = new ArrayList<SocketChannelConnection>(connections.values());
+      copy.addAll(accepted);
+
+      for (SocketChannelConnection c : copy)
+      {
+         c.close();
+      }
+   }
+
+   @Override
+   protected Serializable sendMessage(String address, Request request, Serializable... parameters)
+      throws WorkException
+   {
+      if (log.isTraceEnabled())
+         log.tracef("%s: sending message=%s to %s", getOwnAddress(), request, address);
+
+      try
+      {
+         return getConnection(address).call(request, parameters);
+      }
+      catch (Throwable t)
+      {
+         if (log.isDebugEnabled())
+         {
+            log.debug("Error sending command: " + t.getMessage(), t);
+         }
+         if (t instanceof WorkException)
+         {
+            throw (WorkException) t;
+         }
+         else
+         {
+            WorkException we = new WorkException(t.getMessage());
+            we.initCause(t);
+            throw we;
+         }
+      }
+   }
+
+   /**
+    * Get the connection to a peer, and open it if needed
+    * @param address The physical address of the peer
+    * @return The connection
+    * @exception IOException Thrown if the connection can't be opened
+    */
+   private SocketChannelConnection getConnection(String address) throws IOException
+   {
+      SocketChannelConnection c = connections.get(address);
+      if (c != null && c.isOpen())
+         return c;
+
+      synchronized (connections)
+      {
+         c = connections.get(address);
+         if (c != null && c.isOpen())
+            return c;
+
+         String[] addressPart = address.split(":");
+         SocketChannel channel =
+            SocketChannel.open(new InetSocketAddress(addressPart[0], Integer.valueOf(addressPart[1])));
+         channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+
+         c = new SocketChannelConnection(this, channel);
+         connections.put(address, c);
+
+         getExecutorService().submit(c);
+
+         return c;
+      }
+   }
+
+   /**
+    * A connection was closed
+    * @param c The connection
+    */
+   void connectionClosed(SocketChannelConnection c)
+   {
+      accepted.remove(c);
+
+      for (Map.Entry<String, SocketChannelConnection> entry : connections.entrySet())
+      {
+         if (entry.getValue() == c)
+            connections.remove(entry.getKey(), c);
+      }
+   }
+
+   /**
+    * Handle a request from a peer, and write the response
+    * @param c The connection
+    * @param data The request frame
+    */
+   void handle(SocketChannelConnection c, byte[] data)
+   {
+      long id = Frame.getId(data);
+      Response response = null;
+      Serializable returnValue = null;
+
+      try
+      {
+         Frame frame = Frame.decode(data);
+         Request command = Request.values()[frame.getOrdinal()];
+         Serializable[] parameters = frame.getParameters();
+
+         if (parameters.length != command.getNumberOfParameter())
+            throw new IllegalArgumentException(bundle.invalidNumberOfParameters(parameters.length,
+                                                                                command.name()));
+
+         if (log.isTraceEnabled())
+            log.tracef("%s: %s(%s)", c, command, Arrays.toString(parameters));
+
+         switch (command)
+         {
+            case JOIN : {
+               join((String)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case LEAVE : {
+               leave((String)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case GET_WORKMANAGERS : {
+               returnValue = (Serializable)getAddresses(getOwnAddress());
+               response = Response.OK_SERIALIZABLE;
+               break;
+            }
+            case WORKMANAGER_ADD : {
+               localWorkManagerAdd((Address)parameters[0], (String)parameters[1]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case WORKMANAGER_REMOVE : {
+               localWorkManagerRemove((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case PING : {
+               localPing();
+               response = Response.OK_VOID;
+               break;
+            }
+            case DO_WORK : {
+               localDoWork((Address)parameters[0], (DistributableWork)parameters[2]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case START_WORK : {
+               returnValue = localStartWork((Address)parameters[0], (DistributableWork)parameters[2]);
+               response = Response.OK_SERIALIZABLE;
+               break;
+            }
+            case SCHEDULE_WORK : {
+               localScheduleWork((Address)parameters[0], (DistributableWork)parameters[2]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case GET_SHORTRUNNING_FREE : {
+               returnValue = localGetShortRunningFree((Address)parameters[0]);
+               response = Response.OK_SERIALIZABLE;
+               break;
+            }
+            case GET_LONGRUNNING_FREE : {
+               returnValue = localGetLongRunningFree((Address)parameters[0]);
+               response = Response.OK_SERIALIZABLE;
+               break;
+            }
+            case UPDATE_SHORTRUNNING_FREE : {
+               localUpdateShortRunningFree((Address)parameters[0], (Long)parameters[1]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case UPDATE_LONGRUNNING_FREE : {
+               localUpdateLongRunningFree((Address)parameters[0], (Long)parameters[1]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case GET_DISTRIBUTED_STATISTICS : {
+               returnValue = localGetDistributedStatistics((Address)parameters[0]);
+               response = Response.OK_SERIALIZABLE;
+               break;
+            }
+            case CLEAR_DISTRIBUTED_STATISTICS : {
+               localClearDistributedStatistics((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_DOWORK_ACCEPTED : {
+               localDeltaDoWorkAccepted((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_DOWORK_REJECTED : {
+               localDeltaDoWorkRejected((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_STARTWORK_ACCEPTED : {
+               localDeltaStartWorkAccepted((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_STARTWORK_REJECTED : {
+               localDeltaStartWorkRejected((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_SCHEDULEWORK_ACCEPTED : {
+               localDeltaScheduleWorkAccepted((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_SCHEDULEWORK_REJECTED : {
+               localDeltaScheduleWorkRejected((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_WORK_SUCCESSFUL : {
+               localDeltaWorkSuccessful((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case DELTA_WORK_FAILED : {
+               localDeltaWorkFailed((Address)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case UPDATE_BATCH : {
+               localUpdateBatch((TransportUpdates)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            case CLASS_BUNDLE : {
+               localClassBundle((ClassBundle)parameters[0]);
+               response = Response.OK_VOID;
+               break;
+            }
+            default :
+               if (log.isDebugEnabled())
+               {
+                  log.debug("Unknown command received on socket channel Transport");
+               }
+               break;
+         }
+
+         if (response == null)
+         {
+            response = Response.GENERIC_EXCEPTION;
+            returnValue = new Exception("Unknown command: " + frame.getOrdinal());
+         }
+      }
+      catch (WorkException we)
+      {
+         if (log.isTraceEnabled())
+            log.tracef("%s: WORK_EXCEPTION(%s)", c, we.getMessage());
+
+         response = Response.WORK_EXCEPTION;
+         returnValue = we;
+      }
+      catch (Throwable t)
+      {
+         if (log.isTraceEnabled())
+            log.tracef("%s: THROWABLE(%s)", c, t.getMessage());
+
+         response = Response.GENERIC_EXCEPTION;
+         returnValue = t;
+      }
+
+      try
+      {
+         if (response.getNumberOfParameter() > 0)
+         {
+            c.write(Frame.encode(Frame.RESPONSE, id, response.ordinal(), returnValue));
+         }
+         else
+         {
+            c.write(Frame.encode(Frame.RESPONSE, id, response.ordinal()));
+         }
+      }
+      catch (Throwable t)
+      {
+         if (log.isTraceEnabled())
+            log.tracef("Error sending response: %s", t.getMessage());
+
+         c.close();
+      }
+   }
+
+   /**
+    * A peer joined
+    * @param address The physical address of the peer
+    * @exception WorkException Thrown if the peer can't be contacted
+    */
+   @SuppressWarnings("unchecked")
+   private void join(String address) throws WorkException
+   {
+      Set<Address> workManagers = (Set<Address>)sendMessage(address, Request.GET_WORKMANAGERS);
+      if (workManagers != null)
+      {
+         for (Address a : workManagers)
+         {
+            join(a, address);
+
+            long shortRunningFree = (long)sendMessage(address, Request.GET_SHORTRUNNING_FREE, a);
+            long longRunningFree = (long)sendMessage(address, Request.GET_LONGRUNNING_FREE, a);
+
+            localUpdateShortRunningFree(a, shortRunningFree);
+            localUpdateLongRunningFree(a, longRunningFree);
+         }
+      }
+   }
+
+   /**
+    * Set the host.
+    *
+    * @param host The host to set.
+    */
+   public void setHost(String host)
+   {
+      this.host = host;
+   }
+
+   /**
+    * Set the port.
+    *
+    * @param port The port to set.
+    */
+   public void setPort(int port)
+   {
+      this.port = port;
+   }
+
+   /**
+    * Set the peers
+    * @param peers The peers
+    */
+   public void setPeers(Set<String> peers)
+   {
+      this.peers = peers;
+   }
+
+   /**
+    * Get the timeout
+    * @return The value in milliseconds
+    */
+   public long getTimeout()
+   {
+      return timeout;
+   }
+
+   /**
+    * Set the timeout of a request. A value of 0 or less waits for the response
+    * until the connection is closed
+    * @param v The value in milliseconds
+    */
+   public void setTimeout(long v)
+   {
+      timeout = v;
+   }
+
+   /**
+    * Get the maximum frame size
+    * @return The value in bytes
+    */
+   public int getMaxFrameSize()
+   {
+      return maxFrameSize;
+   }
+
+   /**
+    * Set the maximum frame size. A connection receiving a larger frame is closed
+    * @param v The value in bytes
+    */
+   public void setMaxFrameSize(int v)
+   {
+      maxFrameSize = v;
+   }
+
+   /**
+    * Get the physical address
+    * @return The value
+    */
+   public String getOwnAddress()
+   {
+      return host + ":" + port;
+   }
+
+   @Override
+   public void run()
+   {
+      while (running.get())
+      {
+         try
+         {
+            SocketChannel channel = ssc.accept();
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+
+            SocketChannelConnection c = new SocketChannelConnection(this, channel);
+            accepted.add(c);
+
+            getExecutorService().submit(c);
+         }
+         catch (Exception e)
+         {
+            if (log.isTraceEnabled())
+               log.trace(e.getMessage());
+         }
+      }
+   }
+
+   @Override
+   public String toString()
+   {
+      return "SocketChannelTransport [host=" + host + ", port=" + port + ", running=" + running +
+         ", connections=" + connections.keySet() + "]";
+   }
+}
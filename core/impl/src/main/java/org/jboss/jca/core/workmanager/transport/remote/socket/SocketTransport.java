@@ -162,6 +162,8 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
     */
    public void shutdown() throws Throwable
    {
+      shutdownUpdates();
+
       running.set(false);
 
       if (ss != null)
@@ -0,0 +1,146 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026-2009, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.ccm;
+
+import org.jboss.jca.core.spi.transaction.TransactionIntegration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Sampled leak detection in the cached connection manager
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class LeakDetectionTestCase
+{
+   /**
+    * Leak detection is disabled by default
+    */
+   @Test
+   public void testDisabled()
+   {
+      CachedConnectionManagerImpl ccm = new CachedConnectionManagerImpl(mock(TransactionIntegration.class));
+      ccm.setLeakThreshold(0L);
+
+      Object handle = new Object();
+      ccm.registerConnection(null, null, handle);
+
+      assertEquals(0, ccm.getLeakSampling());
+      assertEquals(0, ccm.getNumberOfLeakedConnections());
+      assertTrue(ccm.listLeakedConnections().isEmpty());
+      assertTrue(ccm.listLeakedCallSites().isEmpty());
+   }
+
+   /**
+    * Connections held longer than the threshold are reported, and their call sites shared
+    */
+   @Test
+   public void testLeakedConnections()
+   {
+      CachedConnectionManagerImpl ccm = new CachedConnectionManagerImpl(mock(TransactionIntegration.class));
+      ccm.setLeakSampling(1);
+      ccm.setLeakThreshold(0L);
+
+      List<Object> handles = new ArrayList<Object>();
+      for (int i = 0; i < 3; i++)
+      {
+         Object handle = new Object();
+         handles.add(handle);
+         ccm.registerConnection(null, null, handle);
+      }
+
+      assertEquals(3, ccm.getNumberOfLeakedConnections());
+
+      Map<String, String> leaked = ccm.listLeakedConnections();
+      assertEquals(3, leaked.size());
+      for (Object handle : handles)
+      {
+         String description = leaked.get(handle.toString());
+         assertTrue(description, description.startsWith("Held for "));
+         assertTrue(description, description.contains("testLeakedConnections"));
+         assertTrue(description, !description.contains("CachedConnectionManagerImpl"));
+      }
+
+      Map<String, Integer> callSites = ccm.listLeakedCallSites();
+      assertEquals(1, callSites.size());
+      assertEquals(Integer.valueOf(3), callSites.values().iterator().next());
+
+      ccm.unregisterConnection(null, null, handles.get(0));
+      assertEquals(2, ccm.getNumberOfLeakedConnections());
+   }
+
+   /**
+    * Connections held shorter than the threshold are not reported
+    */
+   @Test
+   public void testThreshold()
+   {
+      CachedConnectionManagerImpl ccm = new CachedConnectionManagerImpl(mock(TransactionIntegration.class));
+      ccm.setLeakSampling(1);
+      ccm.setLeakThreshold(60000L);
+
+      Object handle = new Object();
+      ccm.registerConnection(null, null, handle);
+
+      assertEquals(0, ccm.getNumberOfLeakedConnections());
+      assertTrue(ccm.listLeakedConnections().isEmpty());
+
+      ccm.setLeakThreshold(0L);
+      assertEquals(1, ccm.getNumberOfLeakedConnections());
+
+      ccm.unregisterConnection(null, null, handle);
+      assertEquals(0, ccm.getNumberOfLeakedConnections());
+   }
+
+   /**
+    * Only a sample of the connections is tracked
+    */
+   @Test
+   public void testSampling()
+   {
+      CachedConnectionManagerImpl ccm = new CachedConnectionManagerImpl(mock(TransactionIntegration.class));
+      ccm.setLeakSampling(10);
+      ccm.setLeakThreshold(0L);
+
+      List<Object> handles = new ArrayList<Object>();
+      for (int i = 0; i < 1000; i++)
+      {
+         Object handle = new Object();
+         handles.add(handle);
+         ccm.registerConnection(null, null, handle);
+      }
+
+      int tracked = ccm.getNumberOfLeakedConnections();
+      assertTrue(Integer.toString(tracked), tracked > 0 && tracked < handles.size());
+
+      ccm.setLeakSampling(0);
+      assertEquals(0, ccm.getNumberOfLeakedConnections());
+   }
+}
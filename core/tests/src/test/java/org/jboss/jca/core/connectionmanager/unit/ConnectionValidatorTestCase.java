@@ -21,8 +21,21 @@
  */
 package org.jboss.jca.core.connectionmanager.unit;
 
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.validator.ConnectionValidator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
+import static org.junit.Assert.assertTrue;
+
 /**
  * Connection Validator Tests.
  * @author <a href="mailto:gurkanerdogdu@yahoo.com">Gurkan Erdogdu</a> 
@@ -39,4 +52,55 @@ public class ConnectionValidatorTestCase
    {
       
    }
+
+   /**
+    * The validation passes run when the external executor only has the thread of the schedules
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testSingleThreadExternalExecutor() throws Throwable
+   {
+      final CountDownLatch validated = new CountDownLatch(2);
+
+      ManagedConnectionPool mcp = (ManagedConnectionPool)Proxy.newProxyInstance(
+         ManagedConnectionPool.class.getClassLoader(), new Class<?>[] {ManagedConnectionPool.class},
+         new InvocationHandler()
+         {
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+               if (method.getName().equals("validateConnections"))
+                  validated.countDown();
+
+               if (method.getName().equals("hashCode"))
+                  return Integer.valueOf(System.identityHashCode(proxy));
+
+               if (method.getName().equals("equals"))
+                  return Boolean.valueOf(proxy == args[0]);
+
+               if (method.getName().equals("toString"))
+                  return "SingleThreadExternalExecutor";
+
+               return null;
+            }
+         });
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      ConnectionValidator validator = ConnectionValidator.getInstance();
+
+      validator.setExecutorService(executor);
+      validator.start();
+      try
+      {
+         validator.registerPool(mcp, 100L);
+
+         assertTrue(validated.await(10, TimeUnit.SECONDS));
+      }
+      finally
+      {
+         validator.unregisterPool(mcp);
+         validator.stop();
+         validator.setExecutorService(null);
+         executor.shutdownNow();
+      }
+   }
 }
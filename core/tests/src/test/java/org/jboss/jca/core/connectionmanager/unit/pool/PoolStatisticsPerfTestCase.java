@@ -0,0 +1,159 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool;
+
+import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.jboss.logging.Logger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Contention measurement of the <code>PoolStatisticsImpl</code> updates done
+ * for each connection checkout.
+ *
+ * The time per update is logged for an increasing number of threads; with
+ * uncontended counters it should stay flat as threads are added.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PoolStatisticsPerfTestCase
+{
+   private static Logger log = Logger.getLogger(PoolStatisticsPerfTestCase.class);
+
+   /** Settings */
+   private static final int[] THREADS = {1, 2, 4, 8, 16};
+   private static final int ITERATIONS = 100000;
+   private static final int WARM_UP_ITERATIONS = 20000;
+
+   /**
+    * Checkout statistics from an increasing number of threads
+    * @throws Exception for exception
+    */
+   @Test
+   public void testCheckoutStatistics() throws Exception
+   {
+      run(new PoolStatisticsImpl(1), 1, WARM_UP_ITERATIONS, false);
+
+      for (int threads : THREADS)
+      {
+         PoolStatisticsImpl statistics = new PoolStatisticsImpl(threads);
+         long time = run(statistics, threads, ITERATIONS, false);
+
+         long checkouts = (long)threads * ITERATIONS;
+         assertEquals(checkouts, (long)statistics.getWaitCount());
+         assertEquals(checkouts, statistics.getTotalGetTime());
+         assertEquals(checkouts, statistics.getTotalUsageTime());
+         assertEquals(checkouts, statistics.getCommitCount());
+
+         log.infof("Checkout statistics: %d threads, %d ns/checkout/thread",
+                   threads, time * threads / checkouts);
+      }
+   }
+
+   /**
+    * Get times of 0 ms from an increasing number of threads, which all end up
+    * in the same bucket of the histogram
+    * @throws Exception for exception
+    */
+   @Test
+   public void testGetTimeHistogram() throws Exception
+   {
+      run(new PoolStatisticsImpl(1), 1, WARM_UP_ITERATIONS, true);
+
+      for (int threads : THREADS)
+      {
+         PoolStatisticsImpl statistics = new PoolStatisticsImpl(threads);
+         long time = run(statistics, threads, ITERATIONS, true);
+
+         long checkouts = (long)threads * ITERATIONS;
+         assertEquals(0L, statistics.getTotalGetTime());
+         assertEquals(0L, statistics.getP999GetTime());
+
+         log.infof("Get time histogram: %d threads, %d ns/checkout/thread",
+                   threads, time * threads / checkouts);
+      }
+   }
+
+   /**
+    * Run the checkout statistics updates
+    * @param statistics The statistics
+    * @param threads The number of threads
+    * @param iterations The number of checkouts per thread
+    * @param getTimeOnly Only record a get time of 0 ms
+    * @return The elapsed time in nanoseconds
+    * @throws Exception for exception
+    */
+   private static long run(final PoolStatisticsImpl statistics, int threads, final int iterations,
+                           final boolean getTimeOnly) throws Exception
+   {
+      final CountDownLatch start = new CountDownLatch(1);
+      Thread[] workers = new Thread[threads];
+
+      for (int i = 0; i < threads; i++)
+      {
+         workers[i] = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  start.await();
+               }
+               catch (InterruptedException ie)
+               {
+                  return;
+               }
+
+               for (int j = 0; j < iterations; j++)
+               {
+                  if (getTimeOnly)
+                  {
+                     statistics.deltaTotalGetTime(0L);
+                     continue;
+                  }
+
+                  statistics.deltaWaitCount();
+                  statistics.deltaTotalBlockingTime(0L);
+                  statistics.deltaTotalGetTime(1L);
+                  statistics.deltaTotalPoolTime(1L);
+                  statistics.deltaTotalUsageTime(1L);
+                  statistics.deltaCommit(0L);
+               }
+            }
+         });
+         workers[i].start();
+      }
+
+      long begin = System.nanoTime();
+      start.countDown();
+      for (Thread t : workers)
+         t.join();
+
+      return System.nanoTime() - begin;
+   }
+}
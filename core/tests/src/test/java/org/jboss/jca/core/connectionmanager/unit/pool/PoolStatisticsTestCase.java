@@ -0,0 +1,228 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool;
+
+import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * <code>PoolStatisticsImpl</code> unit test.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PoolStatisticsTestCase
+{
+   private static final int THREADS = 8;
+   private static final int ITERATIONS = 10000;
+
+   /**
+    * Concurrent updates are all counted, and the maximum values are kept
+    * @throws Exception for exception
+    */
+   @Test
+   public void testConcurrentUpdates() throws Exception
+   {
+      final PoolStatisticsImpl statistics = new PoolStatisticsImpl(THREADS);
+      final CountDownLatch start = new CountDownLatch(1);
+      Thread[] threads = new Thread[THREADS];
+
+      for (int i = 0; i < THREADS; i++)
+      {
+         final int index = i;
+         threads[i] = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  start.await();
+               }
+               catch (InterruptedException ie)
+               {
+                  return;
+               }
+
+               for (int j = 1; j <= ITERATIONS; j++)
+               {
+                  statistics.deltaTotalGetTime(j);
+                  statistics.deltaTotalBlockingTime(index + 1);
+                  statistics.deltaWaitCount();
+                  statistics.deltaCommit(2L);
+                  statistics.setMaxWaitCount(index);
+               }
+            }
+         });
+         threads[i].start();
+      }
+
+      start.countDown();
+      for (Thread t : threads)
+         t.join();
+
+      long perThread = (long)ITERATIONS * (ITERATIONS + 1) / 2;
+
+      assertEquals(THREADS * perThread, statistics.getTotalGetTime());
+      assertEquals(ITERATIONS, statistics.getMaxGetTime());
+      assertEquals(perThread / ITERATIONS, statistics.getAverageGetTime());
+      assertEquals(THREADS, statistics.getMaxWaitTime());
+      assertEquals(THREADS * ITERATIONS, statistics.getWaitCount());
+      assertEquals(THREADS * ITERATIONS, statistics.getCommitCount());
+      assertEquals(2L, statistics.getCommitAverageTime());
+      assertEquals(2L, statistics.getCommitMaxTime());
+      assertEquals(THREADS - 1, statistics.getMaxWaitCount());
+   }
+
+   /**
+    * Concurrent recordings of the same time are all counted in the percentiles
+    * @throws Exception for exception
+    */
+   @Test
+   public void testConcurrentPercentiles() throws Exception
+   {
+      final PoolStatisticsImpl statistics = new PoolStatisticsImpl(THREADS);
+      final CountDownLatch start = new CountDownLatch(1);
+      Thread[] threads = new Thread[THREADS];
+
+      for (int i = 0; i < THREADS; i++)
+      {
+         threads[i] = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  start.await();
+               }
+               catch (InterruptedException ie)
+               {
+                  return;
+               }
+
+               for (int j = 0; j < ITERATIONS; j++)
+                  statistics.deltaTotalGetTime(j % 100 == 0 ? 5L : 0L);
+            }
+         });
+         threads[i].start();
+      }
+
+      start.countDown();
+      for (Thread t : threads)
+         t.join();
+
+      assertEquals(THREADS * ITERATIONS / 100 * 5L, statistics.getTotalGetTime());
+      assertEquals(0L, statistics.getP50GetTime());
+      assertEquals(0L, statistics.getP90GetTime());
+      assertEquals(5L, statistics.getP999GetTime());
+
+      statistics.clear();
+
+      statistics.deltaTotalGetTime(0L);
+      assertEquals(0L, statistics.getP999GetTime());
+   }
+
+   /**
+    * Clear resets the counters and the maximum values
+    * @throws Exception for exception
+    */
+   @Test
+   public void testClear() throws Exception
+   {
+      PoolStatisticsImpl statistics = new PoolStatisticsImpl(10);
+
+      assertEquals(0, statistics.getMaxUsedCount());
+      assertEquals(0L, statistics.getMaxGetTime());
+
+      statistics.setInUsedCount(5);
+      statistics.setInUsedCount(2);
+      statistics.deltaTotalGetTime(100L);
+      statistics.deltaTimedOut();
+      statistics.deltaPrepare(10L);
+
+      assertEquals(5, statistics.getMaxUsedCount());
+      assertEquals(2, statistics.getInUseCount());
+      assertEquals(8, statistics.getAvailableCount());
+      assertEquals(100L, statistics.getMaxGetTime());
+      assertEquals(1, statistics.getTimedOut());
+      assertEquals(1L, statistics.getPrepareCount());
+
+      statistics.clear();
+
+      assertEquals(0, statistics.getMaxUsedCount());
+      assertEquals(0L, statistics.getMaxGetTime());
+      assertEquals(0L, statistics.getTotalGetTime());
+      assertEquals(0, statistics.getTimedOut());
+      assertEquals(0L, statistics.getPrepareCount());
+      assertEquals(0L, statistics.getPrepareMaxTime());
+
+      statistics.setEnabled(false);
+      statistics.deltaTotalGetTime(100L);
+      assertEquals(0L, statistics.getTotalGetTime());
+
+      statistics.setEnabled(true);
+      assertEquals(0L, statistics.getTotalGetTime());
+   }
+
+   /**
+    * Percentiles of the recorded times
+    * @throws Exception for exception
+    */
+   @Test
+   public void testPercentiles() throws Exception
+   {
+      PoolStatisticsImpl statistics = new PoolStatisticsImpl(10);
+
+      assertEquals(0L, statistics.getP99GetTime());
+
+      for (int i = 1; i <= 1000; i++)
+         statistics.deltaTotalGetTime(i);
+
+      assertEquals(500L, statistics.getP50GetTime(), 15L);
+      assertEquals(900L, statistics.getP90GetTime(), 27L);
+      assertEquals(990L, statistics.getP99GetTime(), 30L);
+      assertEquals(999L, statistics.getP999GetTime(), 30L);
+      assertEquals(statistics.getP999GetTime(), statistics.getValue("P999GetTime"));
+
+      // Small values are exact
+      for (int i = 0; i < 99; i++)
+         statistics.deltaCommit(3L);
+      statistics.deltaCommit(40L);
+
+      assertEquals(3L, statistics.getCommitP50Time());
+      assertEquals(3L, statistics.getCommitP99Time());
+      assertEquals(40L, statistics.getCommitP999Time());
+
+      // Values beyond the range of the histogram end up in the last bucket
+      statistics.deltaTotalCreationTime(Long.MAX_VALUE);
+      assertTrue(statistics.getP50CreationTime() > 0L);
+
+      statistics.clear();
+
+      assertEquals(0L, statistics.getP50GetTime());
+      assertEquals(0L, statistics.getCommitP999Time());
+      assertEquals(0L, statistics.getP50CreationTime());
+   }
+}
@@ -0,0 +1,233 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool;
+
+import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
+import org.jboss.jca.core.connectionmanager.pool.api.Semaphore;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * <code>Semaphore</code> unit test.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SemaphoreTestCase
+{
+   /**
+    * Acquire and release
+    * @throws Exception for exception
+    */
+   @Test
+   public void testAcquireRelease() throws Exception
+   {
+      PoolStatisticsImpl statistics = new PoolStatisticsImpl(2);
+      Semaphore s = new Semaphore(2, true, statistics);
+
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+      assertEquals(0, s.availablePermits());
+      assertEquals(2, statistics.getInUseCount());
+
+      assertFalse(s.tryAcquire(50, TimeUnit.MILLISECONDS));
+      assertEquals(1, statistics.getMaxWaitCount());
+      assertFalse(s.hasQueuedThreads());
+
+      s.release();
+      assertEquals(1, s.availablePermits());
+      assertEquals(1, statistics.getInUseCount());
+      assertEquals(2, statistics.getMaxUsedCount());
+
+      s.release();
+      assertEquals(2, s.availablePermits());
+   }
+
+   /**
+    * Waiting threads are counted, and woken up by a release
+    * @throws Exception for exception
+    */
+   @Test
+   public void testQueue() throws Exception
+   {
+      Semaphore s = new Semaphore(1, true, new PoolStatisticsImpl(1));
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+      List<Integer> order = new CopyOnWriteArrayList<Integer>();
+      Thread[] threads = startWaiters(s, 3, order);
+
+      assertEquals(3, s.getQueueLength());
+      assertEquals(3, s.getQueuedThreads().size());
+
+      s.release();
+      for (Thread t : threads)
+         t.join(5000L);
+
+      assertEquals(0, s.getQueueLength());
+      assertEquals(1, s.availablePermits());
+      assertEquals(3, order.size());
+      assertEquals(Integer.valueOf(0), order.get(0));
+      assertEquals(Integer.valueOf(1), order.get(1));
+      assertEquals(Integer.valueOf(2), order.get(2));
+   }
+
+   /**
+    * The most recent waiter is woken up first
+    * @throws Exception for exception
+    */
+   @Test
+   public void testLifo() throws Exception
+   {
+      Semaphore s = new Semaphore(1, false, true, new PoolStatisticsImpl(1));
+      assertTrue(s.isLifo());
+      assertFalse(new Semaphore(1, true, true, new PoolStatisticsImpl(1)).isLifo());
+
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+      List<Integer> order = new CopyOnWriteArrayList<Integer>();
+      Thread[] threads = startWaiters(s, 3, order);
+
+      s.release();
+      for (Thread t : threads)
+         t.join(5000L);
+
+      assertEquals(3, order.size());
+      assertEquals(Integer.valueOf(2), order.get(0));
+      assertEquals(Integer.valueOf(1), order.get(1));
+      assertEquals(Integer.valueOf(0), order.get(2));
+   }
+
+   /**
+    * Grow and shrink the number of permits
+    * @throws Exception for exception
+    */
+   @Test
+   public void testResize() throws Exception
+   {
+      Semaphore s = new Semaphore(1, true, new PoolStatisticsImpl(1));
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+      List<Integer> order = new CopyOnWriteArrayList<Integer>();
+      Thread[] threads = startWaiters(s, 1, order);
+
+      s.setMaxPermits(2);
+      threads[0].join(5000L);
+      assertEquals(1, order.size());
+      assertEquals(2, s.getMaxPermits());
+
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+      s.setMaxPermits(1);
+      assertEquals(-1, s.availablePermits());
+
+      s.release();
+      assertFalse(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+      s.release();
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+      assertEquals(0, s.availablePermits());
+   }
+
+   /**
+    * An interrupted waiter leaves the queue
+    * @throws Exception for exception
+    */
+   @Test
+   public void testInterrupt() throws Exception
+   {
+      final Semaphore s = new Semaphore(1, true, new PoolStatisticsImpl(1));
+      assertTrue(s.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+      final CountDownLatch interrupted = new CountDownLatch(1);
+      Thread t = new Thread(new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               s.tryAcquire(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ie)
+            {
+               interrupted.countDown();
+            }
+         }
+      });
+      t.start();
+
+      while (s.getQueueLength() == 0)
+         Thread.sleep(5L);
+
+      t.interrupt();
+      assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+      t.join(5000L);
+
+      assertEquals(0, s.getQueueLength());
+      assertFalse(s.hasQueuedThreads());
+   }
+
+   /**
+    * Start waiting threads one at a time; each records its index, and releases its permit again
+    * @param s The semaphore
+    * @param count The number of threads
+    * @param order The order in which the permits were acquired
+    * @return The threads
+    * @throws Exception for exception
+    */
+   private Thread[] startWaiters(final Semaphore s, int count, final List<Integer> order) throws Exception
+   {
+      Thread[] threads = new Thread[count];
+      for (int i = 0; i < count; i++)
+      {
+         final int index = i;
+         threads[i] = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  if (s.tryAcquire(10, TimeUnit.SECONDS))
+                  {
+                     order.add(Integer.valueOf(index));
+                     s.release();
+                  }
+               }
+               catch (InterruptedException ie)
+               {
+                  // Ignore
+               }
+            }
+         });
+         threads[i].start();
+
+         while (s.getQueueLength() < i + 1)
+            Thread.sleep(5L);
+      }
+
+      return threads;
+   }
+}
@@ -0,0 +1,173 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreArrayListManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentBagManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Parallel and time budgeted background validation of the managed connection pools
+ */
+public class BackgroundValidationTestCase
+{
+   static
+   {
+      // Each test class runs in its own JVM, so this is seen when the validation pass is loaded
+      System.setProperty("ironjacamar.validator_threads", "4");
+   }
+
+   private static final int POOL_SIZE = 8;
+   private static final long DELAY = 100L;
+
+   private SlowManagedCF mcf;
+   private Pool pool;
+   private ConnectionManager cm;
+   private PoolConfiguration poolConfig;
+
+   @Before public void setUp() throws Exception
+   {
+      mcf = new SlowManagedCF();
+      poolConfig = new PoolConfiguration();
+      poolConfig.setPrefill(true);
+      poolConfig.setStrictMin(true);
+      poolConfig.setMinSize(POOL_SIZE);
+      poolConfig.setMaxSize(POOL_SIZE);
+      poolConfig.setFillConcurrency(4);
+      pool = new OnePool(mcf, poolConfig, false, false, "test");
+      pool.getInternalStatistics().setEnabled(true);
+      cm = new TestConnectionManager(pool);
+   }
+
+   @Test public void testArrayListParallelValidation() throws Exception
+   {
+      assertParallelValidation(new SemaphoreArrayListManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentLinkedDequeParallelValidation() throws Exception
+   {
+      assertParallelValidation(new SemaphoreConcurrentLinkedDequeManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentBagParallelValidation() throws Exception
+   {
+      assertParallelValidation(new SemaphoreConcurrentBagManagedConnectionPool());
+   }
+
+   @Test public void testArrayListValidationBudget() throws Exception
+   {
+      assertValidationBudget(new SemaphoreArrayListManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentLinkedDequeValidationBudget() throws Exception
+   {
+      assertValidationBudget(new SemaphoreConcurrentLinkedDequeManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentBagValidationBudget() throws Exception
+   {
+      assertValidationBudget(new SemaphoreConcurrentBagManagedConnectionPool());
+   }
+
+   @Test public void testValidationDefaults() throws Exception
+   {
+      PoolConfiguration pc = new PoolConfiguration();
+      Assert.assertEquals(1, pc.getValidationConcurrency());
+
+      pc.setBackgroundValidationMillis(30000L);
+      Assert.assertEquals(30000L, pc.getValidationBudget());
+
+      pc.setValidationBudget(500L);
+      Assert.assertEquals(500L, pc.getValidationBudget());
+
+      pc.setValidationConcurrency(0);
+      Assert.assertEquals(1, pc.getValidationConcurrency());
+   }
+
+   private void assertParallelValidation(ManagedConnectionPool mcp) throws Exception
+   {
+      poolConfig.setValidationConcurrency(4);
+      poolConfig.setValidationBudget(POOL_SIZE * DELAY * 10);
+      prefill(mcp);
+
+      mcf.setValidationDelay(DELAY);
+      mcp.validateConnections();
+
+      // Sequential validation takes POOL_SIZE * DELAY
+      Assert.assertEquals(1L, pool.getInternalStatistics().getValidationPassCount());
+      long duration = pool.getInternalStatistics().getMaxValidationPassTime();
+      Assert.assertTrue("Validation took " + duration + "ms", duration < (POOL_SIZE * DELAY) * 3 / 4);
+      Assert.assertEquals(0L, pool.getInternalStatistics().getValidationBudgetExceededCount());
+
+      Assert.assertEquals(duration, pool.getInternalStatistics().getAverageValidationPassTime());
+
+      // All connections were validated, and returned
+      Assert.assertEquals(POOL_SIZE, mcp.getActive());
+      Assert.assertEquals(POOL_SIZE, pool.getInternalStatistics().getAvailableCount());
+
+      mcp.shutdown();
+   }
+
+   private void assertValidationBudget(ManagedConnectionPool mcp) throws Exception
+   {
+      poolConfig.setValidationBudget(DELAY * 2);
+      prefill(mcp);
+
+      mcf.setValidationDelay(DELAY);
+      mcp.validateConnections();
+
+      Assert.assertEquals(1L, pool.getInternalStatistics().getValidationPassCount());
+      Assert.assertEquals(1L, pool.getInternalStatistics().getValidationBudgetExceededCount());
+      long duration = pool.getInternalStatistics().getMaxValidationPassTime();
+      Assert.assertTrue("Validation took " + duration + "ms", duration < (POOL_SIZE * DELAY) * 3 / 4);
+
+      // The connections that weren't reached are left in the pool
+      Assert.assertEquals(POOL_SIZE, mcp.getActive());
+      Assert.assertEquals(POOL_SIZE, pool.getInternalStatistics().getAvailableCount());
+
+      mcp.shutdown();
+   }
+
+   private void prefill(ManagedConnectionPool mcp) throws Exception
+   {
+      // Every connection is due immediately, but the validator itself never runs
+      poolConfig.setBackgroundValidationMillis(1L);
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      int maxWait = 100;
+      while (mcp.getActive() < POOL_SIZE && maxWait-- > 0)
+         Thread.sleep(20L);
+
+      Assert.assertEquals(POOL_SIZE, mcp.getActive());
+      Thread.sleep(5L);
+   }
+}
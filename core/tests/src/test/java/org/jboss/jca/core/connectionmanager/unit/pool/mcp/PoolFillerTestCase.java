@@ -0,0 +1,116 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreArrayListManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentBagManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Parallel prefill of the managed connection pools
+ */
+public class PoolFillerTestCase
+{
+   static
+   {
+      // Each test class runs in its own JVM, so this is seen when the filler is loaded
+      System.setProperty("ironjacamar.filler_threads", "4");
+   }
+
+   private static final int POOL_SIZE = 8;
+   private static final long DELAY = 250L;
+
+   private SlowManagedCF mcf;
+   private Pool pool;
+   private ConnectionManager cm;
+   private PoolConfiguration poolConfig;
+
+   @Before public void setUp() throws Exception
+   {
+      mcf = new SlowManagedCF();
+      mcf.setDelay(DELAY);
+      poolConfig = new PoolConfiguration();
+      poolConfig.setPrefill(true);
+      poolConfig.setStrictMin(true);
+      poolConfig.setMinSize(POOL_SIZE);
+      poolConfig.setMaxSize(POOL_SIZE * 2);
+      poolConfig.setFillConcurrency(4);
+      pool = new OnePool(mcf, poolConfig, false, false, "test");
+      cm = new TestConnectionManager(pool);
+   }
+
+   @Test public void testArrayListPrefill() throws Exception
+   {
+      assertParallelPrefill(new SemaphoreArrayListManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentLinkedDequePrefill() throws Exception
+   {
+      assertParallelPrefill(new SemaphoreConcurrentLinkedDequeManagedConnectionPool());
+   }
+
+   @Test public void testConcurrentBagPrefill() throws Exception
+   {
+      assertParallelPrefill(new SemaphoreConcurrentBagManagedConnectionPool());
+   }
+
+   @Test public void testFillConcurrencyDefault() throws Exception
+   {
+      Assert.assertEquals(1, new PoolConfiguration().getFillConcurrency());
+
+      poolConfig.setFillConcurrency(0);
+      Assert.assertEquals(1, poolConfig.getFillConcurrency());
+   }
+
+   private void assertParallelPrefill(ManagedConnectionPool mcp) throws Exception
+   {
+      long start = System.currentTimeMillis();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      int maxWait = 100;
+      while (mcp.getActive() < POOL_SIZE && maxWait-- > 0)
+         Thread.sleep(20L);
+
+      long elapsed = System.currentTimeMillis() - start;
+
+      // Sequential creation takes POOL_SIZE * DELAY
+      Assert.assertTrue("Prefill took " + elapsed + "ms", elapsed < (POOL_SIZE * DELAY) * 3 / 4);
+
+      // Give any creation in flight the chance to overshoot
+      Thread.sleep(DELAY * 2);
+
+      Assert.assertEquals(POOL_SIZE, mcp.getActive());
+      Assert.assertEquals(POOL_SIZE, pool.getInternalStatistics().getFilledCount());
+      Assert.assertEquals(0, pool.getInternalStatistics().getFillingCount());
+
+      mcp.shutdown();
+   }
+}
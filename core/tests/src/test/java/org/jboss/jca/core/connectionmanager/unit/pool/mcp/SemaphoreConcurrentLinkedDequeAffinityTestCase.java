@@ -0,0 +1,133 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.connections.adapter.TestConnectionRequestInfo;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Thread affinity for SemaphoreConcurrentLinkedDequeManagedConnectionPool
+ */
+public class SemaphoreConcurrentLinkedDequeAffinityTestCase
+{
+   static
+   {
+      // Each test class runs in its own JVM, so this is seen when the pool class is loaded
+      System.setProperty("ironjacamar.mcp.affinity", "true");
+   }
+
+   private FailingManagedCF mcf;
+   private Pool pool;
+   private ConnectionManager cm;
+   private PoolConfiguration poolConfig;
+
+   @Before public void setUp() throws Exception
+   {
+      mcf = new FailingManagedCF();
+      poolConfig = new PoolConfiguration();
+      poolConfig.setPrefill(false);
+      poolConfig.setStrictMin(false);
+      poolConfig.setMinSize(0);
+      poolConfig.setMaxSize(5);
+      poolConfig.setValidateOnMatch(false);
+      poolConfig.setUseFastFail(false);
+      pool = new OnePool(mcf, poolConfig, false, false, "test");
+      cm = new TestConnectionManager(pool);
+   }
+
+   @Test public void testLastReturnedIsReclaimed() throws Exception
+   {
+      final SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ConnectionListener first = mcp.getConnection(null, null);
+      final ConnectionListener second = mcp.getConnection(null, null);
+
+      mcp.returnConnection(first, false);
+
+      // Another thread returns its connection afterwards, so it is at the head of the pool
+      Thread t = new Thread(() -> mcp.returnConnection(second, false));
+      t.start();
+      t.join();
+
+      long misses = pool.getInternalStatistics().getAffinityMissCount();
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      Assert.assertSame(first, cl);
+      Assert.assertEquals(1L, pool.getInternalStatistics().getAffinityHitCount());
+      Assert.assertEquals(misses, pool.getInternalStatistics().getAffinityMissCount());
+
+      mcp.returnConnection(cl, false);
+      Assert.assertEquals(2, mcp.getActive());
+
+      mcp.shutdown();
+   }
+
+   @Test public void testDifferentRequestInfoMisses() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      mcp.returnConnection(cl, false);
+
+      long misses = pool.getInternalStatistics().getAffinityMissCount();
+
+      cl = mcp.getConnection(null, new TestConnectionRequestInfo());
+      Assert.assertEquals(0L, pool.getInternalStatistics().getAffinityHitCount());
+      Assert.assertEquals(misses + 1, pool.getInternalStatistics().getAffinityMissCount());
+
+      mcp.returnConnection(cl, false);
+      mcp.shutdown();
+   }
+
+   @Test public void testKilledConnectionIsNotReclaimed() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ConnectionListener first = mcp.getConnection(null, null);
+      mcp.returnConnection(first, false);
+
+      first = mcp.getConnection(null, null);
+      mcp.returnConnection(first, true);
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      Assert.assertNotSame(first, cl);
+      Assert.assertEquals(1L, pool.getInternalStatistics().getAffinityHitCount());
+
+      mcp.returnConnection(cl, false);
+      mcp.shutdown();
+   }
+}
@@ -0,0 +1,226 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.resource.ResourceException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Background connection creation for SemaphoreConcurrentLinkedDequeManagedConnectionPool
+ */
+public class SemaphoreConcurrentLinkedDequeAsyncCreationTestCase
+{
+   static
+   {
+      // Each test class runs in its own JVM, so this is seen when the pool class is loaded
+      System.setProperty("ironjacamar.mcp.async_creation", "true");
+   }
+
+   private SlowManagedCF mcf;
+   private Pool pool;
+   private ConnectionManager cm;
+   private PoolConfiguration poolConfig;
+
+   @Before public void setUp() throws Exception
+   {
+      mcf = new SlowManagedCF();
+      poolConfig = new PoolConfiguration();
+      poolConfig.setPrefill(false);
+      poolConfig.setStrictMin(false);
+      poolConfig.setMinSize(0);
+      poolConfig.setMaxSize(2);
+      poolConfig.setValidateOnMatch(false);
+      poolConfig.setUseFastFail(false);
+      pool = new OnePool(mcf, poolConfig, false, false, "test");
+      cm = new TestConnectionManager(pool);
+   }
+
+   @Test public void testCreation() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      Assert.assertNotNull(cl);
+      Assert.assertEquals(1, mcp.getActive());
+      Assert.assertFalse(mcp.isIdle());
+
+      mcp.returnConnection(cl, false);
+      Assert.assertTrue(mcp.isIdle());
+      Assert.assertSame(cl, mcp.getConnection(null, null));
+
+      mcp.returnConnection(cl, false);
+      mcp.shutdown();
+   }
+
+   @Test public void testReturnedConnectionIsHandedOff() throws Exception
+   {
+      final SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ConnectionListener first = mcp.getConnection(null, null);
+      mcf.setDelay(2000L);
+
+      final AtomicReference<Object> result = new AtomicReference<Object>();
+      Thread t = new Thread(new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               result.set(mcp.getConnection(null, null));
+            }
+            catch (Throwable e)
+            {
+               result.set(e);
+            }
+         }
+      });
+
+      long start = System.currentTimeMillis();
+      t.start();
+      Thread.sleep(200L);
+      mcp.returnConnection(first, false);
+      t.join(5000L);
+
+      Assert.assertSame(first, result.get());
+      Assert.assertTrue(System.currentTimeMillis() - start < 1500L);
+
+      // The connection being created ends up in the pool
+      int maxWait = 50;
+      while (mcp.getActive() != 2 && maxWait-- > 0)
+         Thread.sleep(100L);
+
+      Assert.assertEquals(2, mcp.getActive());
+
+      ConnectionListener second = mcp.getConnection(null, null);
+      Assert.assertNotSame(first, second);
+
+      mcp.returnConnection(first, false);
+      mcp.returnConnection(second, false);
+      Assert.assertTrue(mcp.isIdle());
+      mcp.shutdown();
+   }
+
+   @Test public void testCreationFailure() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      mcf.setFailing(true);
+      try
+      {
+         mcp.getConnection(null, null);
+         Assert.fail("Exception expected");
+      }
+      catch (ResourceException re)
+      {
+         // Expected
+      }
+
+      Assert.assertEquals(0, mcp.getActive());
+      Assert.assertEquals(2, pool.getLock().availablePermits());
+      mcp.shutdown();
+   }
+
+   @Test public void testBlockingTimeout() throws Exception
+   {
+      poolConfig.setBlockingTimeout(300);
+
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      mcf.setDelay(2000L);
+
+      long start = System.currentTimeMillis();
+      try
+      {
+         mcp.getConnection(null, null);
+         Assert.fail("Exception expected");
+      }
+      catch (ResourceException re)
+      {
+         // Expected
+      }
+
+      Assert.assertTrue(System.currentTimeMillis() - start < 1500L);
+      Assert.assertEquals(2, pool.getLock().availablePermits());
+
+      // The connection being created ends up in the pool
+      int maxWait = 50;
+      while (mcp.getActive() != 1 && maxWait-- > 0)
+         Thread.sleep(100L);
+
+      Assert.assertEquals(1, mcp.getActive());
+      Assert.assertTrue(mcp.isIdle());
+
+      mcf.setDelay(0L);
+      ConnectionListener cl = mcp.getConnection(null, null);
+      Assert.assertNotNull(cl);
+
+      mcp.returnConnection(cl, false);
+      mcp.shutdown();
+   }
+
+   @Test public void testCallerClassLoader() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+
+      ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+      ClassLoader caller = new URLClassLoader(new URL[0], tccl);
+      Thread.currentThread().setContextClassLoader(caller);
+      try
+      {
+         ConnectionListener cl = mcp.getConnection(null, null);
+         Assert.assertNotNull(cl);
+         Assert.assertSame(caller, mcf.getCreationClassLoader());
+
+         mcp.returnConnection(cl, false);
+      }
+      finally
+      {
+         Thread.currentThread().setContextClassLoader(tccl);
+      }
+
+      mcp.shutdown();
+   }
+}
@@ -0,0 +1,104 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.connectionmanager.rar.SimpleManagedConnectionFactory;
+
+import java.util.Set;
+
+import jakarta.resource.ResourceException;
+import jakarta.resource.spi.ConnectionRequestInfo;
+import jakarta.resource.spi.ManagedConnection;
+import javax.security.auth.Subject;
+
+/**
+ * A managed connection factory with slow, or failing, creation and slow validation
+ */
+class SlowManagedCF extends SimpleManagedConnectionFactory
+{
+   private volatile long delay;
+   private volatile boolean failing;
+   private volatile long validationDelay;
+   private volatile ClassLoader creationClassLoader;
+
+   @Override
+   public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cxRequestInfo)
+      throws ResourceException
+   {
+      creationClassLoader = Thread.currentThread().getContextClassLoader();
+
+      if (failing)
+         throw new ResourceException();
+
+      if (delay > 0)
+      {
+         try
+         {
+            Thread.sleep(delay);
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      return super.createManagedConnection(subject, cxRequestInfo);
+   }
+
+   @Override
+   public Set getInvalidConnections(Set connectionSet) throws ResourceException
+   {
+      if (validationDelay > 0)
+      {
+         try
+         {
+            Thread.sleep(validationDelay);
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      return super.getInvalidConnections(connectionSet);
+   }
+
+   void setDelay(long delay)
+   {
+      this.delay = delay;
+   }
+
+   void setFailing(boolean failing)
+   {
+      this.failing = failing;
+   }
+
+   void setValidationDelay(long validationDelay)
+   {
+      this.validationDelay = validationDelay;
+   }
+
+   ClassLoader getCreationClassLoader()
+   {
+      return creationClassLoader;
+   }
+}
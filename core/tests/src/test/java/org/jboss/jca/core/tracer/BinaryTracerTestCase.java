@@ -0,0 +1,281 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Binary tracer test case
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class BinaryTracerTestCase
+{
+   /** The trace file */
+   private static File traceFile;
+
+   static
+   {
+      try
+      {
+         traceFile = File.createTempFile("ironjacamar", ".trace");
+         traceFile.deleteOnExit();
+         new File(traceFile.getPath() + ".1").deleteOnExit();
+         System.setProperty("ironjacamar.tracer.file", traceFile.getPath());
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Events are written to the trace file, and read back in the log format
+    * @throws Exception for exception
+    */
+   @Test
+   public void testTracer() throws Exception
+   {
+      Object mcp = new Object();
+      Object cl = new Object();
+      Object connection = new Object();
+
+      assertTrue(Tracer.isEnabled());
+
+      Tracer.createManagedConnectionPool("Binary-Pool", mcp);
+      Tracer.getConnectionListener("Binary-Pool", mcp, cl, true, false, null);
+      Tracer.getConnection("Binary-Pool", mcp, cl, connection);
+      Tracer.enlistConnectionListener("Binary-Pool", mcp, cl, "tx-1", true, false);
+      Tracer.returnConnection("Binary-Pool", mcp, cl, connection);
+      Tracer.returnConnectionListener("Binary-Pool", mcp, cl, false, false, null);
+      Tracer.pushCCMContext("key", new Throwable("CALLSTACK"));
+      Tracer.flush();
+
+      assertTrue(BinaryTraceReader.isBinary(traceFile));
+
+      List<TraceEvent> events = BinaryTraceReader.getEvents(traceFile);
+      assertEquals(TraceEvent.VERSION, events.get(0).getType());
+      assertEquals("NONE", events.get(0).getConnectionListener());
+
+      events = events.subList(1, events.size());
+      assertEquals(7, events.size());
+
+      String m = Integer.toHexString(System.identityHashCode(mcp));
+      String c = Integer.toHexString(System.identityHashCode(cl));
+
+      TraceEvent te = events.get(0);
+      assertEquals(TraceEvent.MANAGED_CONNECTION_POOL_CREATE, te.getType());
+      assertEquals("Binary_Pool", te.getPool());
+      assertEquals(m, te.getManagedConnectionPool());
+      assertEquals("NONE", te.getConnectionListener());
+      assertEquals(Thread.currentThread().getId(), te.getThreadId());
+
+      te = events.get(1);
+      assertEquals(TraceEvent.GET_CONNECTION_LISTENER, te.getType());
+      assertEquals(c, te.getConnectionListener());
+      assertEquals("", te.getPayload1());
+
+      te = events.get(2);
+      assertEquals(TraceEvent.GET_CONNECTION, te.getType());
+      assertEquals(Integer.toHexString(System.identityHashCode(connection)), te.getPayload1());
+
+      te = events.get(3);
+      assertEquals(TraceEvent.ENLIST_CONNECTION_LISTENER, te.getType());
+      assertEquals("tx_1", te.getPayload1());
+
+      te = events.get(6);
+      assertEquals(TraceEvent.PUSH_CCM_CONTEXT, te.getType());
+      assertEquals("CachedConnectionManager", te.getPool());
+      assertEquals("NONE", te.getManagedConnectionPool());
+      assertEquals("key", te.getPayload1());
+      assertTrue(te.getPayload2().startsWith("java.lang.Throwable:_CALLSTACK|"));
+
+      for (int i = 1; i < events.size(); i++)
+         assertTrue(events.get(i - 1).getTimestamp() <= events.get(i).getTimestamp());
+   }
+
+   /**
+    * A full file is moved to the backup file, and the new file keeps the strings in use
+    * @throws Exception for exception
+    */
+   @Test
+   public void testRollover() throws Exception
+   {
+      File f = File.createTempFile("ironjacamar", ".trace");
+      File backup = new File(f.getPath() + ".1");
+      f.deleteOnExit();
+      backup.deleteOnExit();
+
+      BinaryTraceWriter writer = new BinaryTraceWriter(f, 16 * 1024, 16);
+      Object mcp = new Object();
+      Object cl = new Object();
+
+      for (int i = 0; i < 1000; i++)
+      {
+         writer.record(System.nanoTime(), "Rollover", mcp, TraceEvent.GET_CONNECTION_LISTENER, cl, null, null);
+         if (i % 10 == 9)
+            writer.flush();
+      }
+      writer.flush();
+
+      assertTrue(backup.exists());
+
+      List<TraceEvent> previous = BinaryTraceReader.getEvents(backup);
+      List<TraceEvent> current = BinaryTraceReader.getEvents(f);
+
+      assertFalse(previous.isEmpty());
+      assertFalse(current.isEmpty());
+      assertTrue(previous.get(previous.size() - 1).getTimestamp() < current.get(0).getTimestamp());
+
+      for (TraceEvent te : current)
+      {
+         assertEquals("Rollover", te.getPool());
+         assertEquals(Integer.toHexString(System.identityHashCode(cl)), te.getConnectionListener());
+      }
+   }
+
+   /**
+    * Each file has the strings of its records, also when the strings in use don't fit in half a file
+    * @throws Exception for exception
+    */
+   @Test
+   public void testRolloverStrings() throws Exception
+   {
+      File f = File.createTempFile("ironjacamar", ".trace");
+      File backup = new File(f.getPath() + ".1");
+      f.deleteOnExit();
+      backup.deleteOnExit();
+
+      int maxSize = 16 * 1024;
+      BinaryTraceWriter writer = new BinaryTraceWriter(f, maxSize, 64);
+      Object mcp = new Object();
+      Object cl = new Object();
+
+      StringBuilder padding = new StringBuilder();
+      for (int i = 0; i < 100; i++)
+         padding.append('x');
+
+      StringBuilder large = new StringBuilder();
+      for (int i = 0; i < maxSize; i++)
+         large.append('y');
+
+      // 350 strings of more than 100 bytes, and records for several files
+      for (int i = 0; i < 2000; i++)
+      {
+         writer.record(i, "Pool" + (i % 200) + padding, mcp, TraceEvent.ENLIST_CONNECTION_LISTENER, cl,
+                       "Tx" + (i % 150) + padding, i % 500 == 0 ? large.toString() : null);
+         if (i % 10 == 9)
+            writer.flush();
+      }
+      writer.flush();
+
+      assertTrue(backup.exists());
+
+      for (File file : new File[] {backup, f})
+      {
+         List<TraceEvent> events = BinaryTraceReader.getEvents(file);
+         assertFalse(events.isEmpty());
+
+         for (TraceEvent te : events)
+         {
+            int i = (int)te.getTimestamp();
+            assertEquals("Pool" + (i % 200) + padding, te.getPool());
+            assertEquals("Tx" + (i % 150) + padding, te.getPayload1());
+
+            if (i % 500 == 0)
+               assertEquals(maxSize / 8, te.getPayload2().length());
+         }
+      }
+   }
+
+   /**
+    * Streaming a file through sorted runs gives the events in the same order as reading it at once
+    * @throws Exception for exception
+    */
+   @Test
+   public void testStreaming() throws Exception
+   {
+      File f = File.createTempFile("ironjacamar", ".trace");
+      File directory = f.getParentFile();
+      f.deleteOnExit();
+
+      BinaryTraceWriter writer = new BinaryTraceWriter(f, 1024 * 1024, 64);
+      Random random = new Random(42L);
+      Object mcp = new Object();
+
+      for (int i = 0; i < 1000; i++)
+      {
+         // Few distinct timestamps, so the order of equal timestamps is verified too
+         writer.record(random.nextInt(100), "Pool" + (i % 3), mcp, TraceEvent.GET_CONNECTION_LISTENER,
+                       new Object(), "Payload" + i, null);
+         if (i % 50 == 49)
+            writer.flush();
+      }
+      writer.flush();
+
+      List<TraceEvent> expected = BinaryTraceReader.getEvents(f);
+      assertEquals(1000, expected.size());
+
+      for (int runSize : new int[] {1, 7, 1000, BinaryTraceReader.DEFAULT_RUN_SIZE})
+      {
+         final List<String> streamed = new ArrayList<String>();
+
+         BinaryTraceReader.getEvents(f, directory, runSize, new BinaryTraceReader.EventHandler()
+         {
+            public void event(TraceEvent te)
+            {
+               streamed.add(te.toString());
+            }
+         });
+
+         assertEquals(expected.size(), streamed.size());
+         for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i).toString(), streamed.get(i));
+      }
+   }
+
+   /**
+    * A full ring drops records instead of blocking the caller
+    * @throws Exception for exception
+    */
+   @Test
+   public void testDropped() throws Exception
+   {
+      TraceRing ring = new TraceRing(Thread.currentThread(), 16);
+
+      for (int i = 0; i < 20; i++)
+         ring.offer(i, TraceEvent.GET_CONNECTION, 0, 0, 0, 0, 0, 0);
+
+      assertEquals(4L, ring.takeDropped());
+      assertEquals(0L, ring.takeDropped());
+      assertFalse(ring.isEmpty());
+      assertFalse(ring.isTerminated());
+   }
+}
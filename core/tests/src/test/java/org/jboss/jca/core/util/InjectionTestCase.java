@@ -0,0 +1,335 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Injection test case
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class InjectionTestCase
+{
+   /**
+    * String values are converted to the type of the setter, also when the plan is reused
+    * @throws Exception for exception
+    */
+   @Test
+   public void testConversion() throws Exception
+   {
+      Injection injection = new Injection();
+
+      for (int i = 0; i < 3; i++)
+      {
+         Bean bean = new Bean();
+
+         injection.inject(bean, "name", "Bean" + i);
+         injection.inject(bean, "port", Integer.toString(1000 + i));
+         injection.inject(bean, "timeout", "30000");
+         injection.inject(bean, "enabled", "true");
+         injection.inject(bean, "properties", "a=1,b=2");
+         injection.inject(bean, "type", "java.lang.String");
+
+         assertEquals("Bean" + i, bean.name);
+         assertEquals(1000 + i, bean.port);
+         assertEquals(Long.valueOf(30000L), bean.timeout);
+         assertTrue(bean.enabled);
+         assertEquals("2", bean.properties.getProperty("b"));
+         assertEquals(String.class, bean.type);
+      }
+   }
+
+   /**
+    * A mutable value is converted for every injection
+    * @throws Exception for exception
+    */
+   @Test
+   public void testMutableValue() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean first = new Bean();
+      Bean second = new Bean();
+
+      injection.inject(first, "properties", "a=1");
+      injection.inject(second, "properties", "a=1");
+
+      assertNotSame(first.properties, second.properties);
+   }
+
+   /**
+    * A system property reference is resolved for every injection
+    * @throws Exception for exception
+    */
+   @Test
+   public void testSubstitution() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean bean = new Bean();
+
+      System.setProperty("injection.test.port", "1");
+      try
+      {
+         injection.inject(bean, "port", "${injection.test.port}");
+         assertEquals(1, bean.port);
+
+         System.setProperty("injection.test.port", "2");
+         injection.inject(bean, "port", "${injection.test.port}");
+         assertEquals(2, bean.port);
+      }
+      finally
+      {
+         System.clearProperty("injection.test.port");
+      }
+   }
+
+   /**
+    * The property type selects between overloaded setters
+    * @throws Exception for exception
+    */
+   @Test
+   public void testPropertyType() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean bean = new Bean();
+
+      injection.inject(bean, "value", "42", "java.lang.String");
+      assertEquals("String", bean.value);
+
+      injection.inject(bean, "value", "42", "int");
+      assertEquals("int", bean.value);
+   }
+
+   /**
+    * Fields are used if there is no setter, and only if requested
+    * @throws Exception for exception
+    */
+   @Test
+   public void testField() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean bean = new Bean();
+
+      try
+      {
+         injection.inject(bean, "hidden", "5");
+         fail("Setter found");
+      }
+      catch (NoSuchMethodException nsme)
+      {
+         // Ok
+      }
+
+      injection.inject(bean, "hidden", "5", null, true);
+      assertEquals(5, bean.hidden);
+
+      try
+      {
+         injection.inject(bean, "unknown", "5", null, true);
+         fail("Field found");
+      }
+      catch (NoSuchMethodException nsme)
+      {
+         // Ok
+      }
+   }
+
+   /**
+    * Values which aren't strings are injected as is, and a null value
+    * isn't injected into a primitive setter
+    * @throws Exception for exception
+    */
+   @Test
+   public void testObjectValue() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean bean = new Bean();
+
+      injection.inject(bean, "port", Integer.valueOf(7));
+      assertEquals(7, bean.port);
+
+      injection.inject(bean, "port", null);
+      assertEquals(7, bean.port);
+
+      injection.inject(bean, "timeout", null);
+      assertNull(bean.timeout);
+   }
+
+   /**
+    * An exception thrown by a setter is reported as an invocation target exception
+    * @throws Exception for exception
+    */
+   @Test
+   public void testSetterException() throws Exception
+   {
+      Injection injection = new Injection();
+      Bean bean = new Bean();
+
+      try
+      {
+         injection.inject(bean, "failure", "x");
+         fail("Exception not thrown");
+      }
+      catch (InvocationTargetException ite)
+      {
+         assertTrue(ite.getCause() instanceof IllegalStateException);
+      }
+   }
+
+   /**
+    * Setters declared by a superclass are found
+    * @throws Exception for exception
+    */
+   @Test
+   public void testSuperclass() throws Exception
+   {
+      Injection injection = new Injection();
+      SubBean bean = new SubBean();
+
+      injection.inject(bean, "name", "Sub");
+      injection.inject(bean, "extra", "Extra");
+
+      assertEquals("Sub", bean.name);
+      assertEquals("Extra", bean.extra);
+   }
+
+   /**
+    * Bean
+    */
+   public static class Bean
+   {
+      String name;
+      int port;
+      Long timeout;
+      boolean enabled;
+      Properties properties;
+      Class<?> type;
+      String value;
+      private int hidden;
+
+      /**
+       * Set the name
+       * @param v The value
+       */
+      public void setName(String v)
+      {
+         name = v;
+      }
+
+      /**
+       * Set the port
+       * @param v The value
+       */
+      public void setPort(int v)
+      {
+         port = v;
+      }
+
+      /**
+       * Set the timeout
+       * @param v The value
+       */
+      public void setTimeout(Long v)
+      {
+         timeout = v;
+      }
+
+      /**
+       * Set enabled
+       * @param v The value
+       * @return The bean
+       */
+      public Bean setEnabled(boolean v)
+      {
+         enabled = v;
+         return this;
+      }
+
+      /**
+       * Set the properties
+       * @param v The value
+       */
+      public void setProperties(Properties v)
+      {
+         properties = v;
+      }
+
+      /**
+       * Set the type
+       * @param v The value
+       */
+      public void setType(Class<?> v)
+      {
+         type = v;
+      }
+
+      /**
+       * Set the value
+       * @param v The value
+       */
+      public void setValue(String v)
+      {
+         value = "String";
+      }
+
+      /**
+       * Set the value
+       * @param v The value
+       */
+      public void setValue(int v)
+      {
+         value = "int";
+      }
+
+      /**
+       * Set failure
+       * @param v The value
+       */
+      public void setFailure(String v)
+      {
+         throw new IllegalStateException(v);
+      }
+   }
+
+   /**
+    * Sub bean
+    */
+   public static class SubBean extends Bean
+   {
+      String extra;
+
+      /**
+       * Set the extra value
+       * @param v The value
+       */
+      public void setExtra(String v)
+      {
+         extra = v;
+      }
+   }
+}
@@ -0,0 +1,280 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.api.workmanager.DistributableContext;
+import org.jboss.jca.core.api.workmanager.StatisticsExecutor;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.DistributedWorkManagerImpl;
+import org.jboss.jca.core.workmanager.WorkManagerStatisticsImpl;
+import org.jboss.jca.core.workmanager.policy.Adaptive;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.resource.spi.work.DistributableWork;
+import jakarta.resource.spi.work.WorkContext;
+import jakarta.resource.spi.work.WorkContextProvider;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Adaptive policy test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AdaptivePolicyTestCase
+{
+   private static final Address REMOTE = new Address("dwm", "dwm", "remote");
+
+   /**
+    * Work stays local without remote capacity
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testNoRemoteCapacity() throws Throwable
+   {
+      TestExecutor executor = new TestExecutor();
+      DistributedWorkManagerImpl dwm = createWorkManager(executor);
+      Adaptive policy = new Adaptive();
+
+      executor.free = 0L;
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      policy.join(REMOTE);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      policy.updateShortRunningFree(REMOTE, 5L);
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      policy.leave(REMOTE);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+   }
+
+   /**
+    * Work stays local while the local node keeps up
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testLocal() throws Throwable
+   {
+      TestExecutor executor = new TestExecutor();
+      DistributedWorkManagerImpl dwm = createWorkManager(executor);
+      Adaptive policy = new Adaptive();
+
+      policy.join(REMOTE);
+      policy.updateShortRunningFree(REMOTE, 5L);
+
+      executor.free = 10L;
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      executor.free = 0L;
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      executor.free = 10L;
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+   }
+
+   /**
+    * The expected remote completion time follows the measured round trip time of the
+    * nodes with capacity
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testRemoteTime() throws Throwable
+   {
+      TestExecutor executor = new TestExecutor();
+      DistributedWorkManagerImpl dwm = createWorkManager(executor);
+      Adaptive policy = new Adaptive();
+
+      executor.free = 10L;
+      policy.join(REMOTE);
+      policy.updateShortRunningFree(REMOTE, 5L);
+
+      queueWait(dwm, 50L);
+
+      // The configured remote time is used until a round trip time is measured
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      policy.roundTripTime(REMOTE, 100000000L);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      for (int i = 0; i < 20; i++)
+         policy.roundTripTime(REMOTE, 20000000L);
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      // The queue of the other node takes its free threads
+      policy.updateShortRunningQueue(REMOTE, 5L);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+   }
+
+   /**
+    * The local queue wait time fades while no work is started
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testQueueWaitDecay() throws Throwable
+   {
+      TestExecutor executor = new TestExecutor();
+      DistributedWorkManagerImpl dwm = createWorkManager(executor);
+      Adaptive policy = new Adaptive();
+
+      executor.free = 10L;
+      policy.join(REMOTE);
+      policy.updateShortRunningFree(REMOTE, 5L);
+      policy.roundTripTime(REMOTE, 20000000L);
+
+      queueWait(dwm, 50L);
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(null)));
+
+      Thread.sleep(2500L);
+
+      assertTrue(((WorkManagerStatisticsImpl)dwm.getStatistics()).getQueueWaitTime() < 15L);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(null)));
+   }
+
+   /**
+    * The work can override the policy
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testOverride() throws Throwable
+   {
+      TestExecutor executor = new TestExecutor();
+      DistributedWorkManagerImpl dwm = createWorkManager(executor);
+      Adaptive policy = new Adaptive();
+
+      executor.free = 10L;
+      assertTrue(policy.shouldDistribute(dwm, new TestWork(Boolean.TRUE)));
+
+      executor.free = 0L;
+      policy.join(REMOTE);
+      policy.updateShortRunningFree(REMOTE, 5L);
+      assertFalse(policy.shouldDistribute(dwm, new TestWork(Boolean.FALSE)));
+   }
+
+   /**
+    * Create a distributed work manager
+    * @param executor The short running executor
+    * @return The work manager
+    */
+   private static DistributedWorkManagerImpl createWorkManager(TestExecutor executor)
+   {
+      DistributedWorkManagerImpl dwm = new DistributedWorkManagerImpl();
+      dwm.setId("dwm");
+      dwm.setName("dwm");
+      dwm.setShortRunningThreadPool(executor);
+      return dwm;
+   }
+
+   /**
+    * Let the local work wait in the queue
+    * @param dwm The distributed work manager
+    * @param ms The queue wait time in milliseconds
+    * @throws Throwable for exception
+    */
+   private static void queueWait(DistributedWorkManagerImpl dwm, long ms) throws Throwable
+   {
+      Method m = WorkManagerStatisticsImpl.class.getDeclaredMethod("deltaQueueWaitTime", long.class);
+      m.setAccessible(true);
+
+      for (int i = 0; i < 50; i++)
+         m.invoke(dwm.getStatistics(), Long.valueOf(ms));
+   }
+
+   /**
+    * Test executor
+    */
+   static class TestExecutor implements StatisticsExecutor
+   {
+      volatile long free;
+
+      /**
+       * {@inheritDoc}
+       */
+      public long getNumberOfFreeThreads()
+      {
+         return free;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void execute(Runnable command)
+      {
+         command.run();
+      }
+   }
+
+   /**
+    * Test work
+    */
+   static class TestWork implements DistributableWork, WorkContextProvider
+   {
+      private static final long serialVersionUID = 1L;
+
+      private Boolean distribute;
+
+      /**
+       * Constructor
+       * @param distribute The distribute override
+       */
+      TestWork(Boolean distribute)
+      {
+         this.distribute = distribute;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public List<WorkContext> getWorkContexts()
+      {
+         if (distribute == null)
+            return null;
+
+         DistributableContext dc = new DistributableContext();
+         dc.setDistribute(distribute);
+
+         List<WorkContext> result = new ArrayList<WorkContext>(1);
+         result.add(dc);
+         return result;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -0,0 +1,184 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.workmanager.ClassBundle;
+import org.jboss.jca.core.workmanager.ClassBundleFactory;
+import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.WorkClassLoaderCache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import jakarta.resource.spi.work.DistributableWork;
+import jakarta.resource.spi.work.WorkException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Class bundle test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ClassBundleTestCase
+{
+   /**
+    * A class bundle is created once per class
+    */
+   @Test
+   public void testBundlePerClass()
+   {
+      ClassBundle cb = ClassBundleFactory.createClassBundle(new MyWork());
+
+      assertNotNull(cb);
+      assertSame(cb, ClassBundleFactory.createClassBundle(new MyWork()));
+      assertEquals(64, cb.getDigest().length());
+      assertFalse(cb.isReference());
+   }
+
+   /**
+    * A reference only holds the digest, and survives the map conversion
+    */
+   @Test
+   public void testReference()
+   {
+      ClassBundle cb = ClassBundleFactory.createClassBundle(new MyWork());
+      ClassBundle ref = cb.getReference();
+
+      assertTrue(ref.isReference());
+      assertTrue(ref.getDefinitions().isEmpty());
+      assertEquals(cb.getDigest(), ref.getDigest());
+      assertEquals(ref, ClassBundle.fromListOfMaps(ref.toListOfMaps()));
+
+      ClassBundle copy = ClassBundle.fromListOfMaps(cb.toListOfMaps());
+      assertFalse(copy.isReference());
+      assertEquals(cb.getDigest(), copy.getDigest());
+   }
+
+   /**
+    * The work class loader is shared by the bundles with the same digest
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testWorkClassLoaderCache() throws Throwable
+   {
+      ClassBundle cb = ClassBundleFactory.createClassBundle(new MyWork());
+      ClassBundle copy = ClassBundle.fromListOfMaps(cb.toListOfMaps());
+
+      WorkClassLoader wcl = WorkClassLoaderCache.getWorkClassLoader(cb);
+
+      assertSame(wcl, WorkClassLoaderCache.getWorkClassLoader(copy));
+      assertSame(wcl, WorkClassLoaderCache.getWorkClassLoader(cb.getReference()));
+   }
+
+   /**
+    * Each resource adapter has its own work class loader for a bundle, which delegates
+    * to the resource adapter, and the loaders are removed with the resource adapter
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testResourceAdapterClassLoader() throws Throwable
+   {
+      File directory = File.createTempFile("wcl", "");
+      directory.delete();
+      directory.mkdir();
+
+      File resource = new File(directory, "ra.properties");
+      new FileOutputStream(resource).close();
+
+      try
+      {
+         ClassLoader ra1 = new URLClassLoader(new URL[] {directory.toURI().toURL()}, null);
+         ClassLoader ra2 = new URLClassLoader(new URL[0], null);
+
+         ClassBundle cb = ClassBundleFactory.createClassBundle(new MyWork());
+
+         WorkClassLoader wcl1 = WorkClassLoaderCache.getWorkClassLoader(cb, ra1);
+         WorkClassLoader wcl2 = WorkClassLoaderCache.getWorkClassLoader(cb.getReference(), ra2);
+
+         assertNotSame(wcl1, wcl2);
+         assertSame(wcl1, WorkClassLoaderCache.getWorkClassLoader(cb.getReference(), ra1));
+         assertNotSame(wcl1, WorkClassLoaderCache.getWorkClassLoader(cb));
+
+         assertNotNull(wcl1.getResource("ra.properties"));
+         assertNull(wcl2.getResource("ra.properties"));
+
+         WorkClassLoaderCache.remove(ra1);
+
+         assertNotSame(wcl1, WorkClassLoaderCache.getWorkClassLoader(cb.getReference(), ra1));
+         assertSame(wcl2, WorkClassLoaderCache.getWorkClassLoader(cb.getReference(), ra2));
+      }
+      finally
+      {
+         resource.delete();
+         directory.delete();
+      }
+   }
+
+   /**
+    * A reference to an unknown bundle is reported
+    */
+   @Test
+   public void testUnknownReference()
+   {
+      ClassBundle ref = ClassBundle.createReference("unknown");
+      try
+      {
+         WorkClassLoaderCache.getWorkClassLoader(ref);
+         fail("Unknown reference resolved");
+      }
+      catch (WorkException we)
+      {
+         assertEquals(WorkClassLoaderCache.UNKNOWN_CLASS_BUNDLE, we.getErrorCode());
+         assertTrue(WorkClassLoaderCache.isUnknownClassBundle(we, ref));
+         assertTrue(WorkClassLoaderCache.isUnknownClassBundle(new WorkException(we.getMessage()), ref));
+      }
+   }
+
+   /**
+    * A distributable work
+    */
+   public static class MyWork implements DistributableWork, Serializable
+   {
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
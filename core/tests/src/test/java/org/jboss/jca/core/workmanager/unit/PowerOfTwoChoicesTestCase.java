@@ -0,0 +1,205 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.selector.PowerOfTwoChoices;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.resource.spi.work.DistributableWork;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Power of two choices selector test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PowerOfTwoChoicesTestCase
+{
+   private static final Address OWN = new Address("dwm", "dwm", "local");
+   private static final Address NODE1 = new Address("dwm", "dwm", "remote1");
+   private static final Address NODE2 = new Address("dwm", "dwm", "remote2");
+   private static final Address NODE3 = new Address("dwm", "dwm", "remote3");
+
+   /**
+    * The own node and nodes without free threads are never selected
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testNoCandidates() throws Throwable
+   {
+      PowerOfTwoChoices selector = new PowerOfTwoChoices();
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      selector.join(OWN);
+      selector.join(NODE1);
+      selector.updateShortRunningFree(OWN, 10L);
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      selector.updateShortRunningFree(NODE1, 1L);
+      assertEquals(NODE1, selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      // The single free thread is taken until NODE1 advertises again
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      selector.updateShortRunningFree(NODE1, 1L);
+      assertEquals(NODE1, selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      selector.leave(NODE1);
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+   }
+
+   /**
+    * A burst is spread over the nodes instead of the one with the most free threads
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testBurst() throws Throwable
+   {
+      PowerOfTwoChoices selector = new PowerOfTwoChoices();
+      selector.join(OWN);
+      selector.join(NODE1);
+      selector.join(NODE2);
+      selector.join(NODE3);
+      selector.updateShortRunningFree(NODE1, 20L);
+      selector.updateShortRunningFree(NODE2, 10L);
+      selector.updateShortRunningFree(NODE3, 10L);
+
+      Map<Address, Integer> counts = new HashMap<Address, Integer>();
+      for (int i = 0; i < 40; i++)
+      {
+         Address address = selector.selectDistributedWorkManager(OWN, new TestWork());
+         assertNotNull(address);
+         assertNotEquals(OWN, address);
+
+         Integer count = counts.get(address);
+         counts.put(address, Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+      }
+
+      assertEquals(Integer.valueOf(20), counts.get(NODE1));
+      assertEquals(Integer.valueOf(10), counts.get(NODE2));
+      assertEquals(Integer.valueOf(10), counts.get(NODE3));
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+   }
+
+   /**
+    * The round trip time weighs down a node
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testRoundTripTime() throws Throwable
+   {
+      PowerOfTwoChoices selector = new PowerOfTwoChoices();
+      selector.join(NODE1);
+      selector.join(NODE2);
+      selector.updateShortRunningFree(NODE1, 10L);
+      selector.updateShortRunningFree(NODE2, 8L);
+
+      selector.updateRoundTripTime(NODE1, 10000000L);
+      selector.updateRoundTripTime(NODE2, 100000L);
+
+      assertEquals(NODE2, selector.selectDistributedWorkManager(OWN, new TestWork()));
+   }
+
+   /**
+    * The advertised queue depth takes from the free threads of a node
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testQueueDepth() throws Throwable
+   {
+      PowerOfTwoChoices selector = new PowerOfTwoChoices();
+      selector.join(NODE1);
+      selector.join(NODE2);
+      selector.updateShortRunningFree(NODE1, 10L);
+      selector.updateShortRunningFree(NODE2, 4L);
+      selector.updateShortRunningQueue(NODE1, 8L);
+
+      assertEquals(NODE2, selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      selector.updateShortRunningQueue(NODE1, 10L);
+      selector.updateShortRunningFree(NODE2, 0L);
+
+      assertNull(selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      // NODE1 is used again once its queue is drained
+      selector.updateShortRunningQueue(NODE1, 0L);
+
+      assertEquals(NODE1, selector.selectDistributedWorkManager(OWN, new TestWork()));
+   }
+
+   /**
+    * The round trip times measured by the transport weigh down a node
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testMeasuredRoundTripTime() throws Throwable
+   {
+      PowerOfTwoChoices selector = new PowerOfTwoChoices();
+      selector.join(NODE1);
+      selector.join(NODE2);
+      selector.updateShortRunningFree(NODE1, 10L);
+      selector.updateShortRunningFree(NODE2, 8L);
+
+      for (int i = 0; i < 10; i++)
+      {
+         selector.roundTripTime(NODE1, 10000000L);
+         selector.roundTripTime(NODE2, 100000L);
+      }
+
+      assertEquals(NODE2, selector.selectDistributedWorkManager(OWN, new TestWork()));
+
+      // Advertisements alone don't change the round trip time
+      selector.updateShortRunningFree(NODE1, 10L);
+      selector.updateShortRunningFree(NODE2, 8L);
+
+      assertEquals(NODE2, selector.selectDistributedWorkManager(OWN, new TestWork()));
+   }
+
+   /**
+    * Test work
+    */
+   static class TestWork implements DistributableWork
+   {
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -0,0 +1,287 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.socket.SocketChannelTransport;
+
+import java.io.DataOutputStream;
+import java.io.Serializable;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.resource.spi.work.DistributableWork;
+import jakarta.resource.spi.work.WorkException;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Socket channel transport test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SocketChannelTransportTestCase
+{
+   private static ExecutorService executorService;
+   private static SocketChannelTransport server;
+   private static SocketChannelTransport client;
+   private static Address serverAddress;
+
+   /**
+    * Start the transports
+    * @throws Throwable for exception
+    */
+   @BeforeClass
+   public static void beforeClass() throws Throwable
+   {
+      executorService = Executors.newCachedThreadPool();
+
+      server = createTransport("server", null);
+      serverAddress = new Address("server-wm", "server-wm", server.getId());
+      server.register(serverAddress);
+
+      client = createTransport("client", server.getOwnAddress());
+      client.initialize();
+   }
+
+   /**
+    * Stop the transports
+    * @throws Throwable for exception
+    */
+   @AfterClass
+   public static void afterClass() throws Throwable
+   {
+      client.shutdown();
+      server.shutdown();
+      executorService.shutdownNow();
+   }
+
+   /**
+    * The peer work managers are joined, and the control messages are answered
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testControlMessages() throws Throwable
+   {
+      assertTrue(client.getAddresses(server.getOwnAddress()).contains(serverAddress));
+
+      assertTrue(client.ping(serverAddress) < Long.MAX_VALUE);
+      assertEquals(0L, client.getShortRunningFree(serverAddress));
+      assertEquals(0L, client.getLongRunningFree(serverAddress));
+
+      DistributedWorkManagerStatisticsValues values = client.getDistributedStatistics(serverAddress);
+      assertNull(values);
+   }
+
+   /**
+    * Concurrent requests are pipelined over the same connection
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testPipelining() throws Throwable
+   {
+      List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+      for (int i = 0; i < 8; i++)
+      {
+         tasks.add(new Callable<Boolean>()
+         {
+            public Boolean call() throws Exception
+            {
+               for (int j = 0; j < 200; j++)
+               {
+                  if (client.ping(serverAddress) == Long.MAX_VALUE)
+                     return Boolean.FALSE;
+               }
+               return Boolean.TRUE;
+            }
+         });
+      }
+
+      ExecutorService es = Executors.newFixedThreadPool(tasks.size());
+      try
+      {
+         for (Future<Boolean> f : es.invokeAll(tasks))
+         {
+            assertTrue(f.get());
+         }
+      }
+      finally
+      {
+         es.shutdownNow();
+      }
+
+      assertTrue(client.toString().contains("connections=[" + server.getOwnAddress() + "]"));
+   }
+
+   /**
+    * An error on the peer is reported back to the caller
+    * @throws Throwable for exception
+    */
+   @Test(expected = WorkException.class)
+   public void testWorkError() throws Throwable
+   {
+      client.doWork(serverAddress, new MyWork());
+   }
+
+   /**
+    * A frame with an invalid length closes the connection
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testInvalidFrameLength() throws Throwable
+   {
+      for (int length : new int[] {-1, 0, Integer.MAX_VALUE})
+      {
+         String[] address = server.getOwnAddress().split(":");
+         Socket socket = new Socket(address[0], Integer.parseInt(address[1]));
+         try
+         {
+            socket.setSoTimeout(10000);
+
+            DataOutputStream dos = new DataOutputStream(socket.getOutputStream());
+            dos.writeInt(length);
+            dos.flush();
+
+            assertEquals(-1, socket.getInputStream().read());
+         }
+         finally
+         {
+            socket.close();
+         }
+      }
+
+      assertTrue(client.ping(serverAddress) < Long.MAX_VALUE);
+   }
+
+   /**
+    * A request to a peer which doesn't respond fails after the timeout
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testTimeout() throws Throwable
+   {
+      ServerSocket silent = new ServerSocket(0);
+      try
+      {
+         final SocketChannelTransport transport =
+            createTransport("timeout", "localhost:" + silent.getLocalPort());
+         transport.setTimeout(100L);
+
+         try
+         {
+            Future<?> f = executorService.submit(new Callable<Void>()
+            {
+               public Void call() throws Exception
+               {
+                  try
+                  {
+                     transport.initialize();
+                  }
+                  catch (Throwable t)
+                  {
+                     throw new Exception(t);
+                  }
+                  return null;
+               }
+            });
+
+            f.get(10, TimeUnit.SECONDS);
+            assertTrue(transport.isInitialized());
+         }
+         finally
+         {
+            transport.shutdown();
+         }
+      }
+      finally
+      {
+         silent.close();
+      }
+   }
+
+   /**
+    * Create a transport bound to a free port
+    * @param id The identifier
+    * @param peer The peer, or <code>null</code>
+    * @return The transport
+    * @throws Throwable for exception
+    */
+   private static SocketChannelTransport createTransport(String id, String peer) throws Throwable
+   {
+      int port = 0;
+      ServerSocket ss = new ServerSocket(0);
+      try
+      {
+         port = ss.getLocalPort();
+      }
+      finally
+      {
+         ss.close();
+      }
+
+      SocketChannelTransport transport = new SocketChannelTransport();
+      transport.setId(id);
+      transport.setHost("localhost");
+      transport.setPort(port);
+      transport.setExecutorService(executorService);
+      if (peer != null)
+         transport.setPeers(Collections.singleton(peer));
+      transport.startup();
+      return transport;
+   }
+
+   /**
+    * A distributable work
+    */
+   public static class MyWork implements DistributableWork, Serializable
+   {
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -0,0 +1,471 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManager;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+import org.jboss.jca.core.workmanager.DistributedWorkManagerImpl;
+import org.jboss.jca.core.workmanager.WorkManagerCoordinator;
+import org.jboss.jca.core.workmanager.notification.AbstractNotificationListener;
+import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.jca.core.workmanager.transport.remote.TransportUpdates;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Coalesced transport updates test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TransportUpdatesTestCase
+{
+   private static final Address LOCAL = new Address("dwm", "dwm", "local");
+   private static final Address WM1 = new Address("wm1", "wm1", "remote1");
+   private static final Address WM2 = new Address("wm2", "wm2", "remote1");
+   private static final Address WM3 = new Address("wm3", "wm3", "remote2");
+
+   /**
+    * Without an update interval every update is sent right away
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testImmediate() throws Throwable
+   {
+      RecordingTransport transport = createTransport(0L);
+
+      transport.updateShortRunningFree(LOCAL, 10L);
+      transport.deltaDoWorkAccepted(WM1);
+
+      assertEquals(4, transport.getMessages().size());
+      assertEquals(Request.UPDATE_SHORTRUNNING_FREE, transport.getMessages().get(0).getRequest());
+      assertEquals(Request.DELTA_DOWORK_ACCEPTED, transport.getMessages().get(3).getRequest());
+   }
+
+   /**
+    * Updates are coalesced into a single message per peer
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testCoalesce() throws Throwable
+   {
+      RecordingTransport transport = createTransport(60000L);
+
+      transport.updateShortRunningFree(LOCAL, 10L);
+      transport.updateShortRunningFree(LOCAL, 5L);
+      transport.updateLongRunningFree(LOCAL, 3L);
+      transport.deltaDoWorkAccepted(WM1);
+      transport.deltaDoWorkAccepted(WM1);
+      transport.deltaDoWorkAccepted(WM1);
+      transport.deltaWorkFailed(WM3);
+
+      assertTrue(transport.getMessages().isEmpty());
+
+      transport.flush();
+
+      assertEquals(2, transport.getMessages().size());
+
+      Map<String, TransportUpdates> updates = new HashMap<String, TransportUpdates>();
+      for (Message m : transport.getMessages())
+      {
+         assertEquals(Request.UPDATE_BATCH, m.getRequest());
+         updates.put(m.getPeer(), (TransportUpdates)m.getParameters()[0]);
+      }
+
+      TransportUpdates peer1 = updates.get("peer1");
+      assertEquals(Long.valueOf(5L), peer1.getShortRunningFree().get(LOCAL));
+      assertEquals(Long.valueOf(3L), peer1.getLongRunningFree().get(LOCAL));
+      assertEquals(1, peer1.getDeltas().size());
+      assertEquals(3, peer1.getDeltas().get(WM1)[TransportUpdates.DOWORK_ACCEPTED]);
+
+      TransportUpdates peer2 = updates.get("peer2");
+      assertEquals(Long.valueOf(5L), peer2.getShortRunningFree().get(LOCAL));
+      assertEquals(1, peer2.getDeltas().size());
+      assertEquals(1, peer2.getDeltas().get(WM3)[TransportUpdates.WORK_FAILED]);
+
+      transport.getMessages().clear();
+      transport.flush();
+
+      assertTrue(transport.getMessages().isEmpty());
+
+      transport.shutdown();
+   }
+
+   /**
+    * The coalesced deltas of a received batch are applied in one call per delta type
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testApplyBatch() throws Throwable
+   {
+      WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+
+      DistributedWorkManagerImpl template = new DistributedWorkManagerImpl();
+      template.setId("batch");
+      template.setName("batch");
+      wmc.registerWorkManager(template);
+
+      Address address = new Address("batch-1", "batch", "remote1");
+      try
+      {
+         DistributedWorkManager dwm = wmc.resolveDistributedWorkManager(address);
+         assertNotNull(dwm);
+
+         CountingListener counting = new CountingListener();
+         final AtomicInteger single = new AtomicInteger();
+
+         NotificationListener plain = (NotificationListener)Proxy.newProxyInstance(
+            NotificationListener.class.getClassLoader(), new Class<?>[] {NotificationListener.class},
+            new InvocationHandler()
+            {
+               public Object invoke(Object proxy, Method method, Object[] args)
+               {
+                  if (method.getName().startsWith("delta"))
+                     single.incrementAndGet();
+
+                  return null;
+               }
+            });
+
+         dwm.getNotificationListeners().add(counting);
+         dwm.getNotificationListeners().add(plain);
+
+         TransportUpdates updates = new TransportUpdates();
+         updates.addDelta(address, TransportUpdates.DOWORK_ACCEPTED, 5000);
+         updates.addDelta(address, TransportUpdates.WORK_SUCCESSFUL, 3000);
+
+         createTransport(0L).localUpdateBatch(updates);
+
+         assertEquals(2, counting.calls.get());
+         assertEquals(5000, counting.accepted.get());
+         assertEquals(3000, counting.successful.get());
+
+         // A listener without the counting methods still gets every delta
+         assertEquals(8000, single.get());
+      }
+      finally
+      {
+         wmc.removeWorkManager(address.getWorkManagerId());
+         wmc.unregisterWorkManager(template);
+      }
+   }
+
+   /**
+    * The answered requests and the advertised queue depths reach the load listeners
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testLoad() throws Throwable
+   {
+      WorkManagerCoordinator wmc = WorkManagerCoordinator.getInstance();
+
+      DistributedWorkManagerImpl template = new DistributedWorkManagerImpl();
+      template.setId("load");
+      template.setName("load");
+      wmc.registerWorkManager(template);
+
+      Address address = new Address("load-1", "load", "remote1");
+      try
+      {
+         DistributedWorkManager dwm = wmc.resolveDistributedWorkManager(address);
+         assertNotNull(dwm);
+
+         LoadListener listener = new LoadListener();
+         dwm.getNotificationListeners().add(listener);
+
+         RecordingTransport transport = createTransport(60000L);
+         transport.join(address, "peer1");
+
+         transport.ping(address);
+         assertEquals(1, listener.samples.get());
+
+         // The batch to peer1 is a request to every node behind it
+         transport.updateShortRunningFree(LOCAL, 10L);
+         transport.flush();
+         assertEquals(2, listener.samples.get());
+
+         // A node behind another peer isn't sampled
+         transport.deltaWorkFailed(WM3);
+         transport.flush();
+         assertEquals(2, listener.samples.get());
+
+         TransportUpdates updates = new TransportUpdates();
+         updates.setShortRunningQueue(address, 12L);
+         updates.setLongRunningQueue(address, 3L);
+         transport.localUpdateBatch(updates);
+
+         assertEquals(12L, listener.shortRunningQueue);
+         assertEquals(3L, listener.longRunningQueue);
+
+         transport.shutdown();
+      }
+      finally
+      {
+         wmc.removeWorkManager(address.getWorkManagerId());
+         wmc.unregisterWorkManager(template);
+      }
+   }
+
+   /**
+    * The list of maps representation keeps all updates
+    */
+   @Test
+   public void testListOfMaps()
+   {
+      TransportUpdates updates = new TransportUpdates();
+      updates.setShortRunningFree(LOCAL, 7L);
+      updates.setLongRunningFree(WM1, 2L);
+      updates.setShortRunningQueue(LOCAL, 5L);
+      updates.setLongRunningQueue(WM1, 1L);
+      updates.addDelta(WM1, TransportUpdates.SCHEDULEWORK_REJECTED, 4);
+
+      TransportUpdates copy = TransportUpdates.fromListOfMaps(updates.toListOfMaps());
+
+      assertEquals(updates.getShortRunningFree(), copy.getShortRunningFree());
+      assertEquals(updates.getLongRunningFree(), copy.getLongRunningFree());
+      assertEquals(updates.getShortRunningQueue(), copy.getShortRunningQueue());
+      assertEquals(updates.getLongRunningQueue(), copy.getLongRunningQueue());
+      assertEquals(4, copy.getDeltas().get(WM1)[TransportUpdates.SCHEDULEWORK_REJECTED]);
+      assertNull(copy.getDeltas().get(LOCAL));
+   }
+
+   /**
+    * Create a transport with the peers joined
+    * @param interval The update interval
+    * @return The transport
+    */
+   private RecordingTransport createTransport(long interval)
+   {
+      RecordingTransport transport = new RecordingTransport();
+      transport.setId("local");
+      transport.setUpdateInterval(interval);
+      transport.join(WM1, "peer1");
+      transport.join(WM2, "peer1");
+      transport.join(WM3, "peer2");
+      return transport;
+   }
+
+   /**
+    * A listener counting the calls for batched deltas
+    */
+   static class CountingListener extends AbstractNotificationListener
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      final AtomicInteger accepted = new AtomicInteger();
+      final AtomicInteger successful = new AtomicInteger();
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void deltaDoWorkAccepted(int count)
+      {
+         calls.incrementAndGet();
+         accepted.addAndGet(count);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void deltaWorkSuccessful(int count)
+      {
+         calls.incrementAndGet();
+         successful.addAndGet(count);
+      }
+   }
+
+   /**
+    * A listener recording the load of the nodes
+    */
+   static class LoadListener extends AbstractNotificationListener
+   {
+      final AtomicInteger samples = new AtomicInteger();
+      volatile long shortRunningQueue;
+      volatile long longRunningQueue;
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void updateShortRunningQueue(Address address, long depth)
+      {
+         shortRunningQueue = depth;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void updateLongRunningQueue(Address address, long depth)
+      {
+         longRunningQueue = depth;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void roundTripTime(Address address, long nanos)
+      {
+         assertTrue(nanos >= 0L);
+         samples.incrementAndGet();
+      }
+   }
+
+   /**
+    * A sent message
+    */
+   static class Message
+   {
+      private String peer;
+      private Request request;
+      private Serializable[] parameters;
+
+      /**
+       * Constructor
+       * @param peer The peer
+       * @param request The request
+       * @param parameters The parameters
+       */
+      Message(String peer, Request request, Serializable[] parameters)
+      {
+         this.peer = peer;
+         this.request = request;
+         this.parameters = parameters;
+      }
+
+      /**
+       * Get the peer
+       * @return The value
+       */
+      String getPeer()
+      {
+         return peer;
+      }
+
+      /**
+       * Get the request
+       * @return The value
+       */
+      Request getRequest()
+      {
+         return request;
+      }
+
+      /**
+       * Get the parameters
+       * @return The value
+       */
+      Serializable[] getParameters()
+      {
+         return parameters;
+      }
+   }
+
+   /**
+    * A transport recording the sent messages
+    */
+   static class RecordingTransport extends AbstractRemoteTransport<String>
+   {
+      private List<Message> messages = new ArrayList<Message>();
+
+      /**
+       * Get the messages
+       * @return The value
+       */
+      synchronized List<Message> getMessages()
+      {
+         return messages;
+      }
+
+      /**
+       * Send the pending updates
+       */
+      void flush()
+      {
+         flushUpdates();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void startup() throws Throwable
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void shutdown() throws Throwable
+      {
+         shutdownUpdates();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void initialize() throws Throwable
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public boolean isInitialized()
+      {
+         return true;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      protected String getOwnAddress()
+      {
+         return "local";
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      protected synchronized Serializable sendMessage(String physicalAddress, Request request,
+                                                      Serializable... parameters)
+      {
+         messages.add(new Message(physicalAddress, request, parameters));
+         return null;
+      }
+   }
+}
@@ -0,0 +1,273 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.workmanager.DistributedWorkManagerImpl;
+import org.jboss.jca.core.workmanager.VirtualThreadExecutor;
+import org.jboss.jca.core.workmanager.policy.WaterMark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.resource.spi.work.DistributableWork;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Virtual thread executor test cases
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class VirtualThreadExecutorTestCase
+{
+   /**
+    * Each task runs on its own thread, and holds a permit while it runs
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testExecute() throws Throwable
+   {
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(2);
+      assertEquals(2L, executor.getNumberOfFreeThreads());
+
+      CountDownLatch release = new CountDownLatch(1);
+      BlockingTask task = new BlockingTask(release);
+
+      executor.execute(task);
+      assertTrue(task.started.await(10, TimeUnit.SECONDS));
+
+      assertEquals(1L, executor.getNumberOfFreeThreads());
+      assertEquals(1, executor.getActiveCount());
+      assertNotSame(Thread.currentThread(), task.thread);
+
+      release.countDown();
+      assertTrue(task.done.await(10, TimeUnit.SECONDS));
+
+      waitForFree(executor, 2L);
+      assertEquals(0, executor.getActiveCount());
+   }
+
+   /**
+    * Tasks run on virtual threads on Java 21 and later, and on platform threads before
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testVirtual() throws Throwable
+   {
+      Method isVirtual = null;
+      try
+      {
+         Thread.class.getMethod("ofVirtual").invoke(null);
+         isVirtual = Thread.class.getMethod("isVirtual");
+      }
+      catch (Exception e)
+      {
+         // Virtual threads require Java 21
+      }
+
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(1);
+      assertEquals(isVirtual != null, executor.isVirtual());
+
+      CountDownLatch release = new CountDownLatch(0);
+      BlockingTask task = new BlockingTask(release);
+
+      executor.execute(task);
+      assertTrue(task.done.await(10, TimeUnit.SECONDS));
+
+      if (isVirtual != null)
+      {
+         assertEquals(Boolean.TRUE, isVirtual.invoke(task.thread));
+      }
+      else
+      {
+         assertTrue(task.thread.isDaemon());
+      }
+   }
+
+   /**
+    * A task is rejected when all permits are in use
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testRejection() throws Throwable
+   {
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(2);
+
+      CountDownLatch release = new CountDownLatch(1);
+      BlockingTask task1 = new BlockingTask(release);
+      BlockingTask task2 = new BlockingTask(release);
+
+      executor.execute(task1);
+      executor.execute(task2);
+      assertTrue(task1.started.await(10, TimeUnit.SECONDS));
+      assertTrue(task2.started.await(10, TimeUnit.SECONDS));
+      assertEquals(0L, executor.getNumberOfFreeThreads());
+
+      try
+      {
+         executor.execute(new BlockingTask(release));
+         fail("Task accepted");
+      }
+      catch (RejectedExecutionException ree)
+      {
+         // Ok
+      }
+
+      release.countDown();
+      waitForFree(executor, 2L);
+
+      BlockingTask task3 = new BlockingTask(release);
+      executor.execute(task3);
+      assertTrue(task3.done.await(10, TimeUnit.SECONDS));
+   }
+
+   /**
+    * A permit is released when a task fails
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testFailure() throws Throwable
+   {
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(1);
+      final CountDownLatch done = new CountDownLatch(1);
+
+      executor.execute(new Runnable()
+      {
+         public void run()
+         {
+            done.countDown();
+            throw new IllegalStateException("Failure");
+         }
+      });
+
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+      waitForFree(executor, 1L);
+   }
+
+   /**
+    * The maximum concurrency must be positive
+    * @throws Throwable for exception
+    */
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidMaxConcurrency() throws Throwable
+   {
+      new VirtualThreadExecutor(0);
+   }
+
+   /**
+    * The free permits are the free threads seen by the distribution policies
+    * @throws Throwable for exception
+    */
+   @Test
+   public void testWaterMark() throws Throwable
+   {
+      VirtualThreadExecutor executor = new VirtualThreadExecutor(2);
+
+      DistributedWorkManagerImpl dwm = new DistributedWorkManagerImpl();
+      dwm.setId("dwm");
+      dwm.setName("dwm");
+      dwm.setShortRunningThreadPool(executor);
+
+      assertSame(executor, dwm.getShortRunningThreadPool());
+
+      WaterMark policy = new WaterMark();
+      policy.setWatermark(1);
+
+      DistributableWork work = new AdaptivePolicyTestCase.TestWork(null);
+      assertFalse(policy.shouldDistribute(dwm, work));
+
+      CountDownLatch release = new CountDownLatch(1);
+      BlockingTask task = new BlockingTask(release);
+      executor.execute(task);
+      assertTrue(task.started.await(10, TimeUnit.SECONDS));
+
+      assertTrue(policy.shouldDistribute(dwm, work));
+
+      release.countDown();
+      waitForFree(executor, 2L);
+
+      assertFalse(policy.shouldDistribute(dwm, work));
+   }
+
+   /**
+    * Wait for the permits of the executor to be released
+    * @param executor The executor
+    * @param free The expected number of free threads
+    * @throws Throwable for exception
+    */
+   private static void waitForFree(VirtualThreadExecutor executor, long free) throws Throwable
+   {
+      long deadline = System.currentTimeMillis() + 10000L;
+      while (executor.getNumberOfFreeThreads() != free && System.currentTimeMillis() < deadline)
+      {
+         Thread.sleep(10L);
+      }
+
+      assertEquals(free, executor.getNumberOfFreeThreads());
+   }
+
+   /**
+    * A task which waits until it is released
+    */
+   static class BlockingTask implements Runnable
+   {
+      private final CountDownLatch release;
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(1);
+      volatile Thread thread;
+
+      /**
+       * Constructor
+       * @param release The release latch
+       */
+      BlockingTask(CountDownLatch release)
+      {
+         this.release = release;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         thread = Thread.currentThread();
+         started.countDown();
+         try
+         {
+            release.await();
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+         }
+         finally
+         {
+            done.countDown();
+         }
+      }
+   }
+}
@@ -74,6 +74,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 
 import jakarta.resource.spi.ManagedConnectionFactory;
@@ -235,10 +236,12 @@ public abstract class AbstractDsDeployer
 
          String uniqueId = uniqueJdbcLocalId != null ? uniqueJdbcLocalId : uniqueJdbcXAId;
          Map<String, String> props = new HashMap<String, String>();
-         ResourceAdapter resourceAdapter = createRa(uniqueId, parentClassLoader);
+         final ResourceAdapter resourceAdapter = createRa(uniqueId, parentClassLoader);
          String resourceAdapterKey = null;
          String bootstrapContextIdentifier = null;
 
+         DeploymentPipeline<Object> pipeline = new DeploymentPipeline<Object>("DsDeployer");
+
          if (needsBootstrapContext(dataSources))
             bootstrapContextIdentifier = BootstrapContextCoordinator.getInstance().
                createIdentifier(resourceAdapter.getClass().getName(),
@@ -250,83 +253,94 @@ public abstract class AbstractDsDeployer
             List<DataSource> ds = dataSources.getDataSource();
             if (ds != null && ds.size() > 0)
             {
-               ClassLoader jdbcLocalDeploymentCl = getDeploymentClassLoader(uniqueJdbcLocalId);
+               final ClassLoader jdbcLocalDeploymentCl = getDeploymentClassLoader(uniqueJdbcLocalId);
 
-               for (DataSource dataSource : ds)
+               for (final DataSource dataSource : ds)
                {
                   if (log.isTraceEnabled())
                      log.tracef("DataSource=%s", stripPassword(dataSource.toString()));
 
                   if (dataSource.isEnabled())
                   {
-                     String jndiName = buildJndiName(dataSource.getJndiName(), dataSource.isUseJavaContext());
+                     final String jndiName = buildJndiName(dataSource.getJndiName(), dataSource.isUseJavaContext());
 
-                     try
+                     pipeline.add(Integer.toString(pipeline.size()), new Callable<Object>()
                      {
-                        org.jboss.jca.core.api.management.DataSource mgtDataSource =
-                           new org.jboss.jca.core.api.management.DataSource(false);
+                        public Object call()
+                        {
+                           try
+                           {
+                              org.jboss.jca.core.api.management.DataSource mgtDataSource =
+                                 new org.jboss.jca.core.api.management.DataSource(false);
 
-                        ConnectionManager[] cm = new ConnectionManager[1];
+                              ConnectionManager[] cm = new ConnectionManager[1];
 
-                        if (dataSource.getDriverClass() == null && dataSource.getDriver() != null &&
-                            dataSource instanceof DataSourceImpl)
-                        {
-                           String driverClass = null;
+                              if (dataSource.getDriverClass() == null && dataSource.getDriver() != null &&
+                                  dataSource instanceof DataSourceImpl)
+                              {
+                                 String driverClass = null;
 
-                           if (dataSources.getDriver(dataSource.getDriver()) != null)
-                              driverClass = dataSources.getDriver(dataSource.getDriver()).getDriverClass();
+                                 if (dataSources.getDriver(dataSource.getDriver()) != null)
+                                    driverClass =
+                                       dataSources.getDriver(dataSource.getDriver()).getDriverClass();
 
-                           if (driverClass != null)
-                              ((DataSourceImpl) dataSource).forceDriverClass(driverClass);
-                        }
+                                 if (driverClass != null)
+                                    ((DataSourceImpl) dataSource).forceDriverClass(driverClass);
+                              }
 
-                        if (dataSource.getDriverClass() == null && dataSource.getDriver() != null &&
-                            dataSource instanceof DataSourceImpl)
-                        {
-                           String driverName = dataSource.getDriver();
-                           String moduleId = null;
+                              if (dataSource.getDriverClass() == null && dataSource.getDriver() != null &&
+                                  dataSource instanceof DataSourceImpl)
+                              {
+                                 String driverName = dataSource.getDriver();
+                                 String moduleId = null;
 
-                           if (dataSources.getDriver(dataSource.getDriver()) != null)
-                              moduleId = dataSources.getDriver(dataSource.getDriver()).getModule();
+                                 if (dataSources.getDriver(dataSource.getDriver()) != null)
+                                    moduleId = dataSources.getDriver(dataSource.getDriver()).getModule();
 
-                           String driverClass = getDriver(driverName, moduleId);
+                                 String driverClass = getDriver(driverName, moduleId);
 
-                           if (driverClass != null)
-                              ((DataSourceImpl) dataSource).forceDriverClass(driverClass);
-                        }
+                                 if (driverClass != null)
+                                    ((DataSourceImpl) dataSource).forceDriverClass(driverClass);
+                              }
 
-                        if (dataSource.getDataSourceClass() == null && dataSource.getDriver() != null &&
-                            dataSource instanceof DataSourceImpl)
-                        {
-                           String driverName = dataSource.getDriver();
+                              if (dataSource.getDataSourceClass() == null && dataSource.getDriver() != null &&
+                                  dataSource instanceof DataSourceImpl)
+                              {
+                                 String driverName = dataSource.getDriver();
 
-                           if (dataSources.getDriver(driverName) != null)
-                           {
-                              String dataSourceClass = dataSources.getDriver(driverName).getDataSourceClass();
+                                 if (dataSources.getDriver(driverName) != null)
+                                 {
+                                    String dataSourceClass =
+                                       dataSources.getDriver(driverName).getDataSourceClass();
 
-                              if (dataSourceClass != null)
-                                 ((DataSourceImpl) dataSource).forceDataSourceClass(dataSourceClass);
-                           }
-                        }
+                                    if (dataSourceClass != null)
+                                       ((DataSourceImpl) dataSource).forceDataSourceClass(dataSourceClass);
+                                 }
+                              }
 
-                        Object cf = deployDataSource(dataSource, jndiName,
-                                                     uniqueJdbcLocalId, cm, resourceAdapter,
-                                                     mgtDataSource, jdbcLocalDeploymentCl);
+                              Object cf = deployDataSource(dataSource, jndiName,
+                                                           uniqueJdbcLocalId, cm, resourceAdapter,
+                                                           mgtDataSource, jdbcLocalDeploymentCl);
 
-                        bindConnectionFactory(deploymentName, jndiName, cf);
+                              DeploymentPipeline.awaitTurn();
+                              bindConnectionFactory(deploymentName, jndiName, cf);
 
-                        cfs.add(cf);
-                        jndis.add(jndiName);
-                        cms.add(cm[0]);
-                        mgts.add(mgtDataSource);
+                              cfs.add(cf);
+                              jndis.add(jndiName);
+                              cms.add(cm[0]);
+                              mgts.add(mgtDataSource);
 
-                        log.debugf("Adding management datasource: %s", mgtDataSource);
-                        getManagementRepository().getDataSources().add(mgtDataSource);
-                     }
-                     catch (Throwable t)
-                     {
-                        log.error("Error during the deployment of " + jndiName, t);
-                     }
+                              log.debugf("Adding management datasource: %s", mgtDataSource);
+                              getManagementRepository().getDataSources().add(mgtDataSource);
+                           }
+                           catch (Throwable t)
+                           {
+                              log.error("Error during the deployment of " + jndiName, t);
+                           }
+
+                           return null;
+                        }
+                     });
                   }
                }
             }
@@ -342,54 +356,65 @@ public abstract class AbstractDsDeployer
             List<XaDataSource> xads = dataSources.getXaDataSource();
             if (xads != null && xads.size() > 0)
             {
-               ClassLoader jdbcXADeploymentCl = getDeploymentClassLoader(uniqueJdbcXAId);
+               final ClassLoader jdbcXADeploymentCl = getDeploymentClassLoader(uniqueJdbcXAId);
 
-               for (XaDataSource xaDataSource : xads)
+               for (final XaDataSource xaDataSource : xads)
                {
                   if (log.isTraceEnabled())
                      log.tracef("XaDataSource=%s", stripPassword(xaDataSource.toString()));
 
                   if (xaDataSource.isEnabled())
                   {
-                     String jndiName = buildJndiName(xaDataSource.getJndiName(), xaDataSource.isUseJavaContext());
+                     final String jndiName = buildJndiName(xaDataSource.getJndiName(),
+                                                           xaDataSource.isUseJavaContext());
 
-                     try
+                     pipeline.add(Integer.toString(pipeline.size()), new Callable<Object>()
                      {
-                        org.jboss.jca.core.api.management.DataSource mgtDataSource =
-                           new org.jboss.jca.core.api.management.DataSource(true);
-
-                        XAResourceRecovery[] recovery = new XAResourceRecovery[1];
-                        ConnectionManager[] cm = new ConnectionManager[1];
-
-                        if (xaDataSource.getXaDataSourceClass() == null && xaDataSource.getDriver() != null &&
-                            xaDataSource instanceof XADataSourceImpl)
+                        public Object call()
                         {
-                           ((XADataSourceImpl) xaDataSource).forceXaDataSourceClass(dataSources.getDriver(
-                              xaDataSource
-                                 .getDriver()).getXaDataSourceClass());
-                        }
-
-                        Object cf = deployXADataSource(xaDataSource,
-                                                       jndiName, uniqueJdbcXAId, cm, resourceAdapter,
-                                                       recovery,
-                                                       mgtDataSource,
-                                                       jdbcXADeploymentCl);
-
-                        bindConnectionFactory(deploymentName, jndiName, cf);
-
-                        cfs.add(cf);
-                        jndis.add(jndiName);
-                        cms.add(cm[0]);
-                        recoveryModules.add(recovery[0]);
-                        mgts.add(mgtDataSource);
+                           try
+                           {
+                              org.jboss.jca.core.api.management.DataSource mgtDataSource =
+                                 new org.jboss.jca.core.api.management.DataSource(true);
+
+                              XAResourceRecovery[] recovery = new XAResourceRecovery[1];
+                              ConnectionManager[] cm = new ConnectionManager[1];
+
+                              if (xaDataSource.getXaDataSourceClass() == null &&
+                                  xaDataSource.getDriver() != null &&
+                                  xaDataSource instanceof XADataSourceImpl)
+                              {
+                                 ((XADataSourceImpl) xaDataSource).forceXaDataSourceClass(dataSources.getDriver(
+                                    xaDataSource
+                                       .getDriver()).getXaDataSourceClass());
+                              }
+
+                              Object cf = deployXADataSource(xaDataSource,
+                                                             jndiName, uniqueJdbcXAId, cm, resourceAdapter,
+                                                             recovery,
+                                                             mgtDataSource,
+                                                             jdbcXADeploymentCl);
+
+                              DeploymentPipeline.awaitTurn();
+                              bindConnectionFactory(deploymentName, jndiName, cf);
+
+                              cfs.add(cf);
+                              jndis.add(jndiName);
+                              cms.add(cm[0]);
+                              recoveryModules.add(recovery[0]);
+                              mgts.add(mgtDataSource);
+
+                              log.debugf("Adding management datasource: %s", mgtDataSource);
+                              getManagementRepository().getDataSources().add(mgtDataSource);
+                           }
+                           catch (Throwable t)
+                           {
+                              log.error("Error during the deployment of " + jndiName, t);
+                           }
 
-                        log.debugf("Adding management datasource: %s", mgtDataSource);
-                        getManagementRepository().getDataSources().add(mgtDataSource);
-                     }
-                     catch (Throwable t)
-                     {
-                        log.error("Error during the deployment of " + jndiName, t);
-                     }
+                           return null;
+                        }
+                     });
                   }
                }
             }
@@ -400,6 +425,14 @@ public abstract class AbstractDsDeployer
                log.error("Deployment of XA datasources disabled since jdbc-xa.rar couldn't be found");
          }
 
+         // The data sources are deployed in parallel, and bound in the order of the file
+         pipeline.execute();
+
+         Throwable failure = pipeline.getFailure();
+         if (failure != null)
+            throw failure;
+
+         DeploymentPipeline.awaitTurn();
          resourceAdapterKey = registerResourceAdapterToResourceAdapterRepository(resourceAdapter);
          if (bootstrapContextIdentifier != null)
             startContext(resourceAdapter, bootstrapContextIdentifier);
@@ -1144,6 +1177,8 @@ public abstract class AbstractDsDeployer
       {
          if (recoveryImpl != null)
          {
+            DeploymentPipeline.awaitTurn();
+
             recoveryImpl.setJndiName(cm.getJndiName());
             recoveryImpl.initialize();
             getTransactionIntegration().getRecoveryRegistry().addXAResourceRecovery(recoveryImpl);
@@ -1307,6 +1342,12 @@ public abstract class AbstractDsDeployer
 
          if (pp.isFair() != null)
             pc.setFair(pp.isFair());
+
+         if (pp.getFillConcurrency() != null)
+            pc.setFillConcurrency(pp.getFillConcurrency().intValue());
+
+         if (pp.isLifo() != null)
+            pc.setLifo(pp.isLifo().booleanValue());
       }
 
       if (tp != null)
@@ -1331,6 +1372,12 @@ public abstract class AbstractDsDeployer
 
          if (vp.isUseFastFail() != null)
             pc.setUseFastFail(vp.isUseFastFail());
+
+         if (vp.getValidationConcurrency() != null)
+            pc.setValidationConcurrency(vp.getValidationConcurrency().intValue());
+
+         if (vp.getValidationBudgetMillis() != null)
+            pc.setValidationBudget(vp.getValidationBudgetMillis().longValue());
       }
 
       return pc;
@@ -61,6 +61,7 @@ import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 import org.jboss.jca.core.spi.transaction.XAResourceStatistics;
 import org.jboss.jca.core.spi.transaction.recovery.XAResourceRecovery;
 import org.jboss.jca.core.util.Injection;
+import org.jboss.jca.core.workmanager.VirtualThreadExecutor;
 import org.jboss.jca.deployers.DeployersBundle;
 import org.jboss.jca.deployers.DeployersLogger;
 import org.jboss.jca.validator.Failure;
@@ -319,11 +320,29 @@ public abstract class AbstractResourceAdapterDeployer
     * @param cb The callback
     * @throws DeployException DeployException Thrown if the resource adapter cant be started
     */
-   @SuppressWarnings("unchecked")
    protected void startContext(jakarta.resource.spi.ResourceAdapter resourceAdapter,
                                String bootstrapContextIdentifier, String bootstrapContextName,
                                Callback cb)
       throws DeployException
+   {
+      startContext(resourceAdapter, bootstrapContextIdentifier, bootstrapContextName, cb, null);
+   }
+
+   /**
+    * Start the resource adapter
+    * @param resourceAdapter The resource adapter
+    * @param bootstrapContextIdentifier The bootstrap context identifier
+    * @param bootstrapContextName The bootstrap context name; may be <code>null</code>
+    * @param cb The callback
+    * @param virtualThreads The maximum number of concurrent Work instances on virtual threads; may be
+    *                       <code>null</code>
+    * @throws DeployException DeployException Thrown if the resource adapter cant be started
+    */
+   @SuppressWarnings("unchecked")
+   protected void startContext(jakarta.resource.spi.ResourceAdapter resourceAdapter,
+                               String bootstrapContextIdentifier, String bootstrapContextName,
+                               Callback cb, Integer virtualThreads)
+      throws DeployException
    {
       try
       {
@@ -336,6 +355,10 @@ public abstract class AbstractResourceAdapterDeployer
          if (cb != null)
             setCallbackSecurity((org.jboss.jca.core.api.workmanager.WorkManager)cbc.getWorkManager(), cb);
 
+         if (virtualThreads != null)
+            setVirtualThreads((org.jboss.jca.core.api.workmanager.WorkManager)cbc.getWorkManager(),
+                              virtualThreads.intValue());
+
          resourceAdapter.start(cbc);
       }
       catch (Throwable t)
@@ -355,6 +378,26 @@ public abstract class AbstractResourceAdapterDeployer
       workManager.setCallbackSecurity(cb);
    }
 
+   /**
+    * Runs the work of this rar work manager on virtual threads before starting the resource adapter.
+    * The short running and the long running pools each get their own executor with the limit, like
+    * two thread pools, so that the free threads of each pool are the capacity of that pool.
+    * A work manager shared with another resource adapter keeps its virtual thread executors.
+    *
+    * @param workManager    the work manager that will be used by the resource adapter
+    * @param maxConcurrency the maximum number of concurrent work instances per pool
+    */
+   protected void setVirtualThreads(org.jboss.jca.core.api.workmanager.WorkManager workManager,
+                                    int maxConcurrency)
+   {
+      if (!(workManager.getShortRunningThreadPool() instanceof VirtualThreadExecutor))
+         workManager.setShortRunningThreadPool(new VirtualThreadExecutor(maxConcurrency));
+
+      if (workManager.getLongRunningThreadPool() != null &&
+          !(workManager.getLongRunningThreadPool() instanceof VirtualThreadExecutor))
+         workManager.setLongRunningThreadPool(new VirtualThreadExecutor(maxConcurrency));
+   }
+
    /**
     * Associate resource adapter with ojects if they implement ResourceAdapterAssociation
     * @param resourceAdapter resourceAdapter resourceAdapter The resource adapter
@@ -675,6 +718,12 @@ public abstract class AbstractResourceAdapterDeployer
 
          if (pp.isFair() != null)
             pc.setFair(pp.isFair());
+
+         if (pp.getFillConcurrency() != null)
+            pc.setFillConcurrency(pp.getFillConcurrency().intValue());
+
+         if (pp.isLifo() != null)
+            pc.setLifo(pp.isLifo().booleanValue());
       }
 
       if (tp != null)
@@ -699,6 +748,12 @@ public abstract class AbstractResourceAdapterDeployer
 
          if (vp.isUseFastFail() != null)
             pc.setUseFastFail(vp.isUseFastFail());
+
+         if (vp.getValidationConcurrency() != null)
+            pc.setValidationConcurrency(vp.getValidationConcurrency().intValue());
+
+         if (vp.getValidationBudgetMillis() != null)
+            pc.setValidationBudget(vp.getValidationBudgetMillis().longValue());
       }
 
       return pc;
@@ -972,6 +1027,8 @@ public abstract class AbstractResourceAdapterDeployer
 
                                  if (adminObjectVerified)
                                  {
+                                    DeploymentPipeline.awaitTurn();
+
                                     try
                                     {
                                        String jndiName = null;
@@ -1170,6 +1227,7 @@ public abstract class AbstractResourceAdapterDeployer
          List<String> aoJndiNames = new ArrayList<String>();
          List<XAResourceRecovery> recoveryModules = new ArrayList<XAResourceRecovery>(1);
          Callback callback = null;
+         Integer virtualThreads = null;
          boolean isXA = false;
 
          // Check metadata for JNDI information and activate explicit
@@ -1193,6 +1251,10 @@ public abstract class AbstractResourceAdapterDeployer
             callback = createCallback(activation.getWorkManager().getSecurity());
          }
 
+         // Setup WorkManager executor
+         if (activation != null && activation.getWorkManager() != null)
+            virtualThreads = activation.getWorkManager().getVirtualThreads();
+
          // Create objects and inject values
          if (cmd != null)
          {
@@ -1806,6 +1868,8 @@ public abstract class AbstractResourceAdapterDeployer
                                  if (cf != null && cf instanceof Serializable &&
                                      cf instanceof jakarta.resource.Referenceable)
                                  {
+                                    DeploymentPipeline.awaitTurn();
+
                                     String jndiName;
                                     if (connectionDefinition != null)
                                     {
@@ -1953,6 +2017,9 @@ public abstract class AbstractResourceAdapterDeployer
             }
          }
 
+         // Bindings and registrations happen in deployment order
+         DeploymentPipeline.awaitTurn();
+
          if (cmd != null)
          {
             try
@@ -2011,7 +2078,8 @@ public abstract class AbstractResourceAdapterDeployer
                                                                              raConfigProperties,
                                                                              bootstrapContextName);
 
-               startContext(resourceAdapter, bootstrapContextIdentifier, bootstrapContextName, callback);
+               startContext(resourceAdapter, bootstrapContextIdentifier, bootstrapContextName, callback,
+                            virtualThreads);
 
                // Register with ResourceAdapterRepository
                resourceAdapterKey = registerResourceAdapterToResourceAdapterRepository(resourceAdapter);
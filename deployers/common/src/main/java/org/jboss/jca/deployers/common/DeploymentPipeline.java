@@ -0,0 +1,474 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.deployers.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A deployment pipeline which runs independent deployments concurrently.
+ *
+ * Deployments are added in their registration order, and may depend on deployments
+ * added before them. A deployment starts once its dependencies have completed, and is
+ * skipped if one of them failed.
+ *
+ * The expensive part of a deployment - parsing, scanning, validation and instantiation -
+ * runs in parallel. The deployers call {@link #awaitTurn()} before they bind into JNDI or
+ * register with a repository, which blocks until all earlier deployments have completed.
+ * Bindings and registrations therefore happen in the same order as a sequential deployment.
+ * A pipeline executed from within a deployment of another pipeline takes the turn of that
+ * deployment first, so nested pipelines keep the overall order.
+ *
+ * The number of threads is controlled by the <code>ironjacamar.deployment_threads</code>
+ * system property, and defaults to the number of processors, at most 4.
+ *
+ * @param <T> The type of the deployment result
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class DeploymentPipeline<T>
+{
+   /** The deployment step of the current thread */
+   private static final ThreadLocal<Step<?>> CURRENT = new ThreadLocal<Step<?>>();
+
+   /** The default number of threads */
+   private static int defaultThreads;
+
+   /** The name of the pipeline */
+   private final String name;
+
+   /** The number of threads */
+   private final int threads;
+
+   /** The steps in registration order */
+   private final List<Step<T>> steps;
+
+   /** The steps by key */
+   private final Map<String, Step<T>> keys;
+
+   /** The deployment that executes the pipeline, if any */
+   private volatile Step<?> parent;
+
+   static
+   {
+      defaultThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+      String value = SecurityActions.getSystemProperty("ironjacamar.deployment_threads");
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            defaultThreads = Math.max(1, Integer.parseInt(value.trim()));
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use the default
+         }
+      }
+   }
+
+   /**
+    * Constructor
+    * @param name The name of the pipeline, used for the thread names
+    */
+   public DeploymentPipeline(String name)
+   {
+      this(name, defaultThreads);
+   }
+
+   /**
+    * Constructor
+    * @param name The name of the pipeline, used for the thread names
+    * @param threads The number of threads; 1 deploys sequentially on the calling thread
+    */
+   public DeploymentPipeline(String name, int threads)
+   {
+      this.name = name;
+      this.threads = Math.max(1, threads);
+      this.steps = new ArrayList<Step<T>>();
+      this.keys = new HashMap<String, Step<T>>();
+      this.parent = null;
+   }
+
+   /**
+    * Add a deployment
+    * @param key The unique key of the deployment
+    * @param task The deployment task
+    * @param dependencies The keys of the deployments that must complete first; they must already be added
+    */
+   public void add(String key, Callable<T> task, String... dependencies)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Key is null");
+
+      if (task == null)
+         throw new IllegalArgumentException("Task is null");
+
+      if (keys.containsKey(key))
+         throw new IllegalArgumentException("Duplicate deployment: " + key);
+
+      List<Step<T>> deps = new ArrayList<Step<T>>(dependencies != null ? dependencies.length : 0);
+      if (dependencies != null)
+      {
+         for (String dependency : dependencies)
+         {
+            Step<T> d = keys.get(dependency);
+
+            if (d == null)
+               throw new IllegalArgumentException("Unknown dependency for " + key + ": " + dependency);
+
+            deps.add(d);
+         }
+      }
+
+      Step<T> step = new Step<T>(this, steps.size(), key, task, deps);
+      steps.add(step);
+      keys.put(key, step);
+   }
+
+   /**
+    * Get the number of deployments
+    * @return The value
+    */
+   public int size()
+   {
+      return steps.size();
+   }
+
+   /**
+    * Execute the deployments, and wait for all of them to complete
+    * @return The results in registration order; <code>null</code> for a failed or skipped deployment
+    */
+   public List<T> execute()
+   {
+      final ClassLoader tccl = SecurityActions.getThreadContextClassLoader();
+      parent = CURRENT.get();
+
+      if (threads == 1 || steps.size() <= 1)
+      {
+         for (Step<T> step : steps)
+         {
+            step.run();
+         }
+      }
+      else
+      {
+         ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, steps.size()),
+                                                                 new PipelineThreadFactory(name));
+         try
+         {
+            // Steps are queued in registration order, so the earliest step that hasn't
+            // completed is always running and never waits for a later one
+            for (final Step<T> step : steps)
+            {
+               executor.execute(new Runnable()
+               {
+                  public void run()
+                  {
+                     SecurityActions.setThreadContextClassLoader(tccl);
+                     try
+                     {
+                        step.run();
+                     }
+                     finally
+                     {
+                        SecurityActions.setThreadContextClassLoader(null);
+                     }
+                  }
+               });
+            }
+
+            for (Step<T> step : steps)
+            {
+               step.await();
+            }
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+
+            // The deployments that didn't complete are failed, such that they aren't
+            // taken for deployments that succeeded
+            for (Step<T> step : steps)
+            {
+               step.interrupted(ie);
+            }
+         }
+         finally
+         {
+            executor.shutdownNow();
+         }
+      }
+
+      List<T> result = new ArrayList<T>(steps.size());
+      for (Step<T> step : steps)
+      {
+         result.add(step.result);
+      }
+
+      return Collections.unmodifiableList(result);
+   }
+
+   /**
+    * Get the failure of a deployment
+    * @param key The key of the deployment
+    * @return The failure; <code>null</code> if the deployment succeeded
+    */
+   public Throwable getFailure(String key)
+   {
+      Step<T> step = keys.get(key);
+
+      if (step == null)
+         throw new IllegalArgumentException("Unknown deployment: " + key);
+
+      return step.failure;
+   }
+
+   /**
+    * Get the first failure in registration order
+    * @return The failure; <code>null</code> if all deployments succeeded
+    */
+   public Throwable getFailure()
+   {
+      for (Step<T> step : steps)
+      {
+         if (step.failure != null)
+            return step.failure;
+      }
+
+      return null;
+   }
+
+   /**
+    * Wait until all deployments registered before the one running on the current thread
+    * have completed. Returns immediately if the current thread isn't part of a pipeline,
+    * or if it already had its turn.
+    * @exception DeployException Thrown if the thread is interrupted
+    */
+   public static void awaitTurn() throws DeployException
+   {
+      Step<?> step = CURRENT.get();
+
+      if (step == null)
+         return;
+
+      try
+      {
+         step.acquireTurn();
+      }
+      catch (InterruptedException ie)
+      {
+         Thread.currentThread().interrupt();
+         throw new DeployException("Interrupted while waiting for: " + step.key, ie);
+      }
+   }
+
+   /**
+    * A deployment step
+    * @param <T> The type of the deployment result
+    */
+   private static class Step<T>
+   {
+      /** The pipeline */
+      private final DeploymentPipeline<T> pipeline;
+
+      /** The index */
+      private final int index;
+
+      /** The key */
+      private final String key;
+
+      /** The task */
+      private final Callable<T> task;
+
+      /** The dependencies */
+      private final List<Step<T>> dependencies;
+
+      /** Completion */
+      private final CountDownLatch done;
+
+      /** The result */
+      private volatile T result;
+
+      /** The failure */
+      private volatile Throwable failure;
+
+      /** Has the step had its turn */
+      private volatile boolean turn;
+
+      /**
+       * Constructor
+       * @param pipeline The pipeline
+       * @param index The index
+       * @param key The key
+       * @param task The task
+       * @param dependencies The dependencies
+       */
+      Step(DeploymentPipeline<T> pipeline, int index, String key, Callable<T> task, List<Step<T>> dependencies)
+      {
+         this.pipeline = pipeline;
+         this.index = index;
+         this.key = key;
+         this.task = task;
+         this.dependencies = dependencies;
+         this.done = new CountDownLatch(1);
+         this.result = null;
+         this.failure = null;
+         this.turn = false;
+      }
+
+      /**
+       * Run the step
+       */
+      void run()
+      {
+         Step<?> previous = CURRENT.get();
+         CURRENT.set(this);
+
+         T r = null;
+         Throwable f = null;
+         try
+         {
+            for (Step<T> dependency : dependencies)
+            {
+               dependency.await();
+
+               if (dependency.failure != null)
+                  throw new DeployException("Deployment of " + key + " skipped since " +
+                                            dependency.key + " failed", dependency.failure);
+            }
+
+            r = task.call();
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+            f = ie;
+         }
+         catch (Throwable t)
+         {
+            f = t;
+         }
+         finally
+         {
+            CURRENT.set(previous);
+            complete(r, f);
+         }
+      }
+
+      /**
+       * Record the outcome of the step, unless it was failed by an interrupt of the pipeline
+       * @param r The result
+       * @param f The failure
+       */
+      private synchronized void complete(T r, Throwable f)
+      {
+         if (failure == null)
+         {
+            result = r;
+            failure = f;
+         }
+
+         done.countDown();
+      }
+
+      /**
+       * The pipeline was interrupted; fail the step if it hasn't completed
+       * @param ie The interrupt
+       */
+      synchronized void interrupted(InterruptedException ie)
+      {
+         if (done.getCount() > 0)
+            failure = new DeployException("Interrupted while deploying: " + key, ie);
+      }
+
+      /**
+       * Wait for the step to complete
+       * @exception InterruptedException Thrown if interrupted
+       */
+      void await() throws InterruptedException
+      {
+         done.await();
+      }
+
+      /**
+       * Acquire the turn by waiting for the turn of the parent deployment, and
+       * for all earlier steps to complete
+       * @exception InterruptedException Thrown if interrupted
+       */
+      void acquireTurn() throws InterruptedException
+      {
+         if (turn)
+            return;
+
+         Step<?> parent = pipeline.parent;
+         if (parent != null)
+            parent.acquireTurn();
+
+         for (int i = 0; i < index; i++)
+         {
+            pipeline.steps.get(i).await();
+         }
+
+         turn = true;
+      }
+   }
+
+   /**
+    * Thread factory for the deployment threads
+    */
+   private static class PipelineThreadFactory implements ThreadFactory
+   {
+      /** The name */
+      private final String name;
+
+      /** The thread number */
+      private final AtomicInteger count = new AtomicInteger(1);
+
+      /**
+       * Constructor
+       * @param name The name
+       */
+      PipelineThreadFactory(String name)
+      {
+         this.name = name;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, name + "-" + count.getAndIncrement());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+}
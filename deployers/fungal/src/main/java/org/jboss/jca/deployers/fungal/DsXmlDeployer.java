@@ -32,6 +32,7 @@ import org.jboss.jca.common.api.metadata.spec.ConnectionDefinition;
 import org.jboss.jca.common.api.metadata.spec.Connector;
 import org.jboss.jca.common.api.metadata.spec.ResourceAdapter;
 import org.jboss.jca.common.metadata.ds.DatasourcesImpl;
+import org.jboss.jca.common.metadata.MetadataSnapshot;
 import org.jboss.jca.common.metadata.ds.DsParser;
 import org.jboss.jca.common.metadata.merge.Merger;
 import org.jboss.jca.core.naming.ExplicitJndiStrategy;
@@ -43,6 +44,7 @@ import org.jboss.jca.core.spi.security.SubjectFactory;
 import org.jboss.jca.deployers.DeployersLogger;
 import org.jboss.jca.deployers.common.AbstractDsDeployer;
 import org.jboss.jca.deployers.common.CommonDeployment;
+import org.jboss.jca.deployers.common.DeploymentPipeline;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -57,6 +59,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.management.DynamicMBean;
 import javax.management.JMException;
@@ -90,7 +93,7 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
    private String jdbcXA;
 
    /** The kernel */
-   private Kernel kernel;
+   private volatile Kernel kernel;
 
    /** Metadata repository */
    private MetadataRepository mdr;
@@ -189,7 +192,7 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
    /**
     * {@inheritDoc}
     */
-   public synchronized Deployment deploy(URL url, Context context, ClassLoader parent) throws DeployException
+   public Deployment deploy(final URL url, Context context, final ClassLoader parent) throws DeployException
    {
       if (log.isDebugEnabled())
       {
@@ -204,12 +207,28 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
          if (!f.exists())
             throw new IOException("Deployment " + url.toExternalForm() + " doesnt exists");
 
-         is = new FileInputStream(f);
-         DsParser dsParser = new DsParser();
+         DataSources dataSources = null;
 
-         DataSources dataSources = dsParser.parse(is);
+         // Use the metadata from a previous deployment of the same file
+         MetadataSnapshot snapshot = new MetadataSnapshot();
+         String snapshotKey = snapshot.getKey(f);
+         Object[] snapshotValues = snapshot.load(snapshotKey, 1);
 
-         String deploymentName = f.getName();
+         if (snapshotValues != null)
+         {
+            dataSources = (DataSources)snapshotValues[0];
+         }
+         else
+         {
+            is = new FileInputStream(f);
+            DsParser dsParser = new DsParser();
+
+            dataSources = dsParser.parse(is);
+
+            snapshot.store(snapshotKey, dataSources);
+         }
+
+         final String deploymentName = f.getName();
 
          Set<String> raDeployments = mdr.getResourceAdapters();
          String uniqueJdbcLocalId = null;
@@ -233,27 +252,13 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
 
          if (numberOfDataSources(dataSources) == 1 || verifyTypes(dataSources))
          {
-            CommonDeployment c = createObjectsAndInjectValue(url, deploymentName,
-                                                             uniqueJdbcLocalId, uniqueJdbcXAId,
-                                                             dataSources, parent);
-
-            List<ObjectName> onames = registerManagementView(c.getDataSources(),
-                                                             kernel.getMBeanServer(),
-                                                             kernel.getName());
-
-            return new DsXmlDeployment(c.getURL(), c.getDeploymentName(),
-                                       c.getResourceAdapter(), c.getResourceAdapterKey(),
-                                       c.getBootstrapContextIdentifier(),
-                                       resourceAdapterRepository,
-                                       c.getCfs(), c.getCfJndiNames(), c.getConnectionManagers(),
-                                       c.getRecovery(), getXAResourceRecoveryRegistry(),
-                                       c.getDataSources(), getManagementRepository(),
-                                       onames, kernel.getMBeanServer(),
-                                       c.getCl());
+            return createDeployment(url, deploymentName, uniqueJdbcLocalId, uniqueJdbcXAId, dataSources, parent);
          }
          else
          {
-            List<DsXmlDeployment> deployments = new ArrayList<DsXmlDeployment>();
+            // The data sources are deployed in parallel, and bound in the order of the file
+            DeploymentPipeline<DsXmlDeployment> pipeline =
+               new DeploymentPipeline<DsXmlDeployment>("DsXmlDeployer");
             Map<String, Driver> driversMap = new HashMap<String, Driver>();
             for (Driver driver : dataSources.getDrivers())
             {
@@ -262,46 +267,44 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
 
             for (DataSource ds : dataSources.getDataSource())
             {
-               DataSources dsD = new DatasourcesImpl(Arrays.asList(ds), null, driversMap);
-               CommonDeployment c = createObjectsAndInjectValue(url, deploymentName,
-                                                                uniqueJdbcLocalId, null,
-                                                                dsD, parent);
-
-               List<ObjectName> onames = registerManagementView(c.getDataSources(),
-                                                                kernel.getMBeanServer(),
-                                                                kernel.getName());
-
-               deployments.add(new DsXmlDeployment(c.getURL(), c.getDeploymentName(),
-                                                   c.getResourceAdapter(), c.getResourceAdapterKey(),
-                                                   c.getBootstrapContextIdentifier(),
-                                                   resourceAdapterRepository,
-                                                   c.getCfs(), c.getCfJndiNames(), c.getConnectionManagers(),
-                                                   c.getRecovery(), getXAResourceRecoveryRegistry(),
-                                                   c.getDataSources(), getManagementRepository(),
-                                                   onames, kernel.getMBeanServer(),
-                                                   c.getCl()));
+               final DataSources dsD = new DatasourcesImpl(Arrays.asList(ds), null, driversMap);
+               final String dsJdbcLocalId = uniqueJdbcLocalId;
+
+               pipeline.add(Integer.toString(pipeline.size()), new Callable<DsXmlDeployment>()
+               {
+                  public DsXmlDeployment call() throws Exception
+                  {
+                     return createDeployment(url, deploymentName, dsJdbcLocalId, null, dsD, parent);
+                  }
+               });
             }
 
             for (XaDataSource xads : dataSources.getXaDataSource())
             {
-               DataSources dsD = new DatasourcesImpl(null, Arrays.asList(xads), driversMap);
-               CommonDeployment c = createObjectsAndInjectValue(url, deploymentName,
-                                                                null, uniqueJdbcXAId,
-                                                                dsD, parent);
-
-               List<ObjectName> onames = registerManagementView(c.getDataSources(),
-                                                                kernel.getMBeanServer(),
-                                                                kernel.getName());
-
-               deployments.add(new DsXmlDeployment(c.getURL(), c.getDeploymentName(),
-                                                   c.getResourceAdapter(), c.getResourceAdapterKey(),
-                                                   c.getBootstrapContextIdentifier(),
-                                                   resourceAdapterRepository,
-                                                   c.getCfs(), c.getCfJndiNames(), c.getConnectionManagers(),
-                                                   c.getRecovery(), getXAResourceRecoveryRegistry(),
-                                                   c.getDataSources(), getManagementRepository(),
-                                                   onames, kernel.getMBeanServer(),
-                                                   c.getCl()));
+               final DataSources dsD = new DatasourcesImpl(null, Arrays.asList(xads), driversMap);
+               final String dsJdbcXAId = uniqueJdbcXAId;
+
+               pipeline.add(Integer.toString(pipeline.size()), new Callable<DsXmlDeployment>()
+               {
+                  public DsXmlDeployment call() throws Exception
+                  {
+                     return createDeployment(url, deploymentName, null, dsJdbcXAId, dsD, parent);
+                  }
+               });
+            }
+
+            List<DsXmlDeployment> deployments = new ArrayList<DsXmlDeployment>(pipeline.execute());
+
+            Throwable failure = pipeline.getFailure();
+            if (failure != null)
+            {
+               for (DsXmlDeployment deployment : deployments)
+               {
+                  if (deployment != null)
+                     deployment.stop();
+               }
+
+               throw failure;
             }
 
             return new DsXmlDeployments(url, deployments, deployments.get(0).getClassLoader());
@@ -335,6 +338,41 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
       }
    }
    
+   /**
+    * Create the deployment of a set of data sources
+    * @param url The url
+    * @param deploymentName The deployment name
+    * @param uniqueJdbcLocalId The id of the JDBC Local resource adapter
+    * @param uniqueJdbcXAId The id of the JDBC XA resource adapter
+    * @param dataSources The data sources
+    * @param parent The parent classloader
+    * @return The deployment
+    * @exception Exception Thrown if an error occurs during deployment
+    */
+   private DsXmlDeployment createDeployment(URL url, String deploymentName,
+                                            String uniqueJdbcLocalId, String uniqueJdbcXAId,
+                                            DataSources dataSources, ClassLoader parent)
+      throws Exception
+   {
+      CommonDeployment c = createObjectsAndInjectValue(url, deploymentName,
+                                                       uniqueJdbcLocalId, uniqueJdbcXAId,
+                                                       dataSources, parent);
+
+      List<ObjectName> onames = registerManagementView(c.getDataSources(),
+                                                       kernel.getMBeanServer(),
+                                                       kernel.getName());
+
+      return new DsXmlDeployment(c.getURL(), c.getDeploymentName(),
+                                 c.getResourceAdapter(), c.getResourceAdapterKey(),
+                                 c.getBootstrapContextIdentifier(),
+                                 resourceAdapterRepository,
+                                 c.getCfs(), c.getCfJndiNames(), c.getConnectionManagers(),
+                                 c.getRecovery(), getXAResourceRecoveryRegistry(),
+                                 c.getDataSources(), getManagementRepository(),
+                                 onames, kernel.getMBeanServer(),
+                                 c.getCl());
+   }
+
    /**
      * Get File object of URL who locate xml resource
      * @param url url of the archive
@@ -34,15 +34,19 @@ import org.jboss.jca.core.spi.naming.JndiStrategy;
 import org.jboss.jca.core.spi.rar.ResourceAdapterRepository;
 import org.jboss.jca.deployers.DeployersLogger;
 import org.jboss.jca.deployers.common.CommonDeployment;
+import org.jboss.jca.deployers.common.DeploymentPipeline;
 
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
 import javax.management.ObjectName;
 
@@ -149,9 +153,13 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
          MetadataRepository mdr = ((RAConfiguration) getConfiguration()).getMetadataRepository();
          ResourceAdapterRepository rar = ((RAConfiguration) getConfiguration()).getResourceAdapterRepository();
 
-         Set<String> rarDeployments = mdr.getResourceAdapters();
+         Set<String> rarDeployments = new TreeSet<String>(new RAActivatorComparator());
+         rarDeployments.addAll(mdr.getResourceAdapters());
          Set<String> configuredRars = getConfiguredResourceAdapters(mdr, rar);
 
+         DeploymentPipeline<Deployment> pipeline = new DeploymentPipeline<Deployment>("RAActivator");
+         Map<String, String> archiveNames = new HashMap<String, String>();
+
          for (String deployment : rarDeployments)
          {
             log.tracef("Processing: %s", deployment);
@@ -171,18 +179,39 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
             {
                // If there isn't any JNDI mappings then the archive isn't active
                // so activate it
-               Deployment raDeployment = deploy(new URL(deployment), kernel.getKernelClassLoader());
-               if (raDeployment != null)
+               final URL url = new URL(deployment);
+
+               // Archives with the same name are extracted to the same directory
+               String archiveName = new File(url.getPath()).getName();
+               String previous = archiveNames.put(archiveName, deployment);
+
+               pipeline.add(deployment, new Callable<Deployment>()
                {
-                  if (deployments == null)
-                     deployments = new ArrayList<Deployment>(1);
+                  public Deployment call() throws Exception
+                  {
+                     return deploy(url, kernel.getKernelClassLoader());
+                  }
+               }, previous != null ? new String[] {previous} : new String[0]);
+            }
+         }
 
-                  deployments.add(raDeployment);
-                  
-                  kernel.getMainDeployer().registerDeployment(raDeployment);
-               }
+         // Register the deployments in order, also if a later one failed
+         for (Deployment raDeployment : pipeline.execute())
+         {
+            if (raDeployment != null)
+            {
+               if (deployments == null)
+                  deployments = new ArrayList<Deployment>(1);
+
+               deployments.add(raDeployment);
+
+               kernel.getMainDeployer().registerDeployment(raDeployment);
             }
          }
+
+         Throwable failure = pipeline.getFailure();
+         if (failure != null)
+            throw failure;
       }
    }
 
@@ -29,6 +29,7 @@ import org.jboss.jca.common.api.metadata.spec.ConnectionDefinition;
 import org.jboss.jca.common.api.metadata.spec.Connector;
 import org.jboss.jca.common.api.metadata.spec.ResourceAdapter;
 import org.jboss.jca.common.metadata.MetadataFactory;
+import org.jboss.jca.common.metadata.MetadataSnapshot;
 import org.jboss.jca.common.metadata.merge.Merger;
 import org.jboss.jca.common.spi.annotations.repository.AnnotationRepository;
 import org.jboss.jca.common.spi.annotations.repository.AnnotationScanner;
@@ -151,25 +152,44 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
          }
          SecurityActions.setThreadContextClassLoader(cl);
 
-         // Parse metadata
-         MetadataFactory metadataFactory = new MetadataFactory();
-         Connector cmd = metadataFactory.getStandardMetaData(root);
-         Activation activation = metadataFactory.getIronJacamarMetaData(root);
+         Connector cmd = null;
+         Activation activation = null;
 
-         // Annotation scanning
-         if (scanArchive(cmd))
+         // Use the metadata from a previous deployment of the same archive; the extracted
+         // root is used, since the descriptors are checked for system property references
+         MetadataSnapshot snapshot = new MetadataSnapshot();
+         String snapshotKey = snapshot.getKey(root);
+         Object[] snapshotValues = snapshot.load(snapshotKey, 2);
+
+         if (snapshotValues != null)
          {
-            Annotations annotator = new Annotations();
-            AnnotationScanner scanner = AnnotationScannerFactory.getAnnotationScanner();
-            AnnotationRepository repository = scanner.scan(cl.getURLs(), cl);
-            cmd = annotator.merge(cmd, repository, cl);
+            cmd = (Connector)snapshotValues[0];
+            activation = (Activation)snapshotValues[1];
          }
+         else
+         {
+            // Parse metadata
+            MetadataFactory metadataFactory = new MetadataFactory();
+            cmd = metadataFactory.getStandardMetaData(root);
+            activation = metadataFactory.getIronJacamarMetaData(root);
+
+            // Annotation scanning
+            if (scanArchive(cmd))
+            {
+               Annotations annotator = new Annotations();
+               AnnotationScanner scanner = AnnotationScannerFactory.getAnnotationScanner();
+               AnnotationRepository repository = scanner.scan(cl.getURLs(), cl);
+               cmd = annotator.merge(cmd, repository, cl);
+            }
 
-         // Validate metadata
-         cmd.validate();
+            // Validate metadata
+            cmd.validate();
 
-         // Merge metadata
-         cmd = (new Merger()).mergeConnectorWithCommonIronJacamar(activation, cmd);
+            // Merge metadata
+            cmd = (new Merger()).mergeConnectorWithCommonIronJacamar(activation, cmd);
+
+            snapshot.store(snapshotKey, cmd, activation);
+         }
 
          CommonDeployment c = createObjectsAndInjectValue(url, deploymentName, root, cl, cmd, activation);
 
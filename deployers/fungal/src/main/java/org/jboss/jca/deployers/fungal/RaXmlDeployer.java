@@ -25,6 +25,7 @@ package org.jboss.jca.deployers.fungal;
 import org.jboss.jca.common.api.metadata.resourceadapter.Activation;
 import org.jboss.jca.common.api.metadata.resourceadapter.Activations;
 import org.jboss.jca.common.api.metadata.spec.Connector;
+import org.jboss.jca.common.metadata.MetadataSnapshot;
 import org.jboss.jca.common.metadata.merge.Merger;
 import org.jboss.jca.common.metadata.resourceadapter.ResourceAdapterParser;
 import org.jboss.jca.core.spi.mdr.MetadataRepository;
@@ -175,10 +176,26 @@ public class RaXmlDeployer extends AbstractFungalRADeployer
          if (!f.exists())
             throw new IOException("Archive " + url.toExternalForm() + " doesnt exists");
 
-         // Parse metadata
-         is = new FileInputStream(f);
-         ResourceAdapterParser parser = new ResourceAdapterParser();
-         Activations raXmlDeployment = parser.parse(is);
+         Activations raXmlDeployment = null;
+
+         // Use the metadata from a previous deployment of the same file
+         MetadataSnapshot snapshot = new MetadataSnapshot();
+         String snapshotKey = snapshot.getKey(f);
+         Object[] snapshotValues = snapshot.load(snapshotKey, 1);
+
+         if (snapshotValues != null)
+         {
+            raXmlDeployment = (Activations)snapshotValues[0];
+         }
+         else
+         {
+            // Parse metadata
+            is = new FileInputStream(f);
+            ResourceAdapterParser parser = new ResourceAdapterParser();
+            raXmlDeployment = parser.parse(is);
+
+            snapshot.store(snapshotKey, raXmlDeployment);
+         }
 
          int size = raXmlDeployment.getActivations().size();
          if (size == 1)
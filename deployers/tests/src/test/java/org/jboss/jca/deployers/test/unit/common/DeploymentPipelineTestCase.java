@@ -0,0 +1,279 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.deployers.test.unit.common;
+
+import org.jboss.jca.deployers.common.DeployException;
+import org.jboss.jca.deployers.common.DeploymentPipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test cases for the deployment pipeline
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class DeploymentPipelineTestCase
+{
+   /**
+    * Deployments run concurrently, but take their turn in registration order
+    * @throws Throwable In case of an error
+    */
+   @Test
+   public void testTurnOrder() throws Throwable
+   {
+      final int size = 8;
+      final List<Integer> bindings = Collections.synchronizedList(new ArrayList<Integer>());
+      final CountDownLatch started = new CountDownLatch(2);
+
+      DeploymentPipeline<Integer> pipeline = new DeploymentPipeline<Integer>("Test", 4);
+
+      for (int i = 0; i < size; i++)
+      {
+         final int index = i;
+         pipeline.add("d" + i, new Callable<Integer>()
+         {
+            public Integer call() throws Exception
+            {
+               // The first two deployments are running at the same time
+               if (index < 2)
+               {
+                  started.countDown();
+                  assertTrue(started.await(10, TimeUnit.SECONDS));
+               }
+
+               // Later deployments finish their preparation first
+               Thread.sleep((size - index) * 10L);
+
+               DeploymentPipeline.awaitTurn();
+               bindings.add(Integer.valueOf(index));
+
+               return Integer.valueOf(index);
+            }
+         });
+      }
+
+      List<Integer> result = pipeline.execute();
+
+      assertNull(pipeline.getFailure());
+      assertEquals(size, result.size());
+
+      for (int i = 0; i < size; i++)
+      {
+         assertEquals(Integer.valueOf(i), result.get(i));
+         assertEquals(Integer.valueOf(i), bindings.get(i));
+      }
+   }
+
+   /**
+    * A deployment is skipped when a dependency fails, and independent ones complete
+    * @throws Throwable In case of an error
+    */
+   @Test
+   public void testDependencies() throws Throwable
+   {
+      DeploymentPipeline<String> pipeline = new DeploymentPipeline<String>("Test", 4);
+
+      pipeline.add("a", new Callable<String>()
+      {
+         public String call() throws Exception
+         {
+            throw new Exception("a");
+         }
+      });
+
+      pipeline.add("b", new Callable<String>()
+      {
+         public String call() throws Exception
+         {
+            return "b";
+         }
+      });
+
+      pipeline.add("c", new Callable<String>()
+      {
+         public String call() throws Exception
+         {
+            return "c";
+         }
+      }, "a");
+
+      List<String> result = pipeline.execute();
+
+      assertNull(result.get(0));
+      assertEquals("b", result.get(1));
+      assertNull(result.get(2));
+
+      assertEquals("a", pipeline.getFailure().getMessage());
+      assertNull(pipeline.getFailure("b"));
+      assertNotNull(pipeline.getFailure("c"));
+   }
+
+   /**
+    * A nested pipeline takes the turn of its parent deployment
+    * @throws Throwable In case of an error
+    */
+   @Test
+   public void testNestedTurnOrder() throws Throwable
+   {
+      final List<String> bindings = Collections.synchronizedList(new ArrayList<String>());
+
+      DeploymentPipeline<String> pipeline = new DeploymentPipeline<String>("Outer", 2);
+
+      for (int i = 0; i < 2; i++)
+      {
+         final String name = "d" + i;
+         final long delay = i == 0 ? 100L : 0L;
+
+         pipeline.add(name, new Callable<String>()
+         {
+            public String call() throws Exception
+            {
+               DeploymentPipeline<String> inner = new DeploymentPipeline<String>("Inner", 2);
+
+               for (int j = 0; j < 2; j++)
+               {
+                  final String innerName = name + "-" + j;
+                  inner.add(innerName, new Callable<String>()
+                  {
+                     public String call() throws Exception
+                     {
+                        Thread.sleep(delay);
+
+                        DeploymentPipeline.awaitTurn();
+                        bindings.add(innerName);
+
+                        return innerName;
+                     }
+                  });
+               }
+
+               inner.execute();
+
+               DeploymentPipeline.awaitTurn();
+               bindings.add(name);
+
+               return name;
+            }
+         });
+      }
+
+      pipeline.execute();
+
+      assertNull(pipeline.getFailure());
+      assertEquals("[d0-0, d0-1, d0, d1-0, d1-1, d1]", bindings.toString());
+   }
+
+   /**
+    * The deployments that didn't complete when the pipeline is interrupted are failed
+    * @throws Throwable In case of an error
+    */
+   @Test
+   public void testInterrupted() throws Throwable
+   {
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch blocked = new CountDownLatch(1);
+
+      DeploymentPipeline<Integer> pipeline = new DeploymentPipeline<Integer>("Test", 2);
+
+      pipeline.add("d0", new Callable<Integer>()
+      {
+         public Integer call() throws Exception
+         {
+            return Integer.valueOf(0);
+         }
+      });
+
+      for (int i = 1; i < 3; i++)
+      {
+         final int index = i;
+         pipeline.add("d" + i, new Callable<Integer>()
+         {
+            public Integer call() throws Exception
+            {
+               started.countDown();
+               blocked.await();
+               return Integer.valueOf(index);
+            }
+         });
+      }
+
+      final Thread deployer = Thread.currentThread();
+      Thread interrupter = new Thread(new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               started.await();
+               deployer.interrupt();
+            }
+            catch (InterruptedException ie)
+            {
+               // Ignore
+            }
+         }
+      });
+      interrupter.start();
+
+      List<Integer> results = pipeline.execute();
+
+      assertTrue(Thread.interrupted());
+      interrupter.join();
+
+      assertEquals(Integer.valueOf(0), results.get(0));
+      assertNull(results.get(1));
+      assertNull(results.get(2));
+
+      assertNull(pipeline.getFailure("d0"));
+      for (String key : new String[] {"d1", "d2"})
+      {
+         Throwable failure = pipeline.getFailure(key);
+         assertTrue(failure instanceof DeployException);
+         assertTrue(failure.getCause() instanceof InterruptedException);
+      }
+
+      assertNotNull(pipeline.getFailure());
+      assertTrue(pipeline.getFailure() == pipeline.getFailure("d1"));
+   }
+
+   /**
+    * Outside of a pipeline awaitTurn returns immediately
+    * @throws Throwable In case of an error
+    */
+   @Test
+   public void testNoPipeline() throws Throwable
+   {
+      DeploymentPipeline.awaitTurn();
+   }
+}